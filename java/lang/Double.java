@@ -25,6 +25,7 @@
 
 package java.lang;
 
+import java.io.IOException;
 import sun.misc.FloatingDecimal;
 import sun.misc.FpUtils;
 import sun.misc.DoubleConsts;
@@ -204,6 +205,60 @@ public final class Double extends Number implements Comparable<Double> {
         return FloatingDecimal.toJavaFormatString(d);
     }
 
+    /**
+     * Appends the string representation of the {@code double}
+     * argument, as returned by {@link #toString(double)}, to the given
+     * {@code Appendable}, without creating the string.  The characters
+     * are laid out directly into a {@code StringBuilder} or a
+     * {@code StringBuffer}, and appended one at a time to any other
+     * {@code Appendable}.
+     *
+     * @param   d     the {@code double} to be converted.
+     * @param   out   the {@code Appendable} to which the characters are
+     *                appended.
+     * @throws  IOException if {@code out} throws one.
+     * @throws  NullPointerException if {@code out} is null.
+     * @see     #toString(double)
+     * @since   1.8
+     */
+    public static void appendTo(double d, Appendable out) throws IOException {
+        if (out instanceof StringBuilder || out instanceof StringBuffer) {
+            FloatingDecimal.appendTo(d, out);
+        } else {
+            StringBuilder buf = DoubleConversion.layout(d);
+            for (int i = 0, n = buf.length(); i < n; i++)
+                out.append(buf.charAt(i));
+        }
+    }
+
+    /**
+     * Encodes the string representation of the {@code double} argument,
+     * as returned by {@link #toString(double)}, into the given byte array
+     * as ASCII characters, without creating the string.  The
+     * representation is at most 24 characters long.
+     *
+     * @param   d         the {@code double} to be converted.
+     * @param   dst       the destination array.
+     * @param   dstBegin  the start offset in the destination array.
+     * @return  the number of bytes written.
+     * @throws  IndexOutOfBoundsException if {@code dstBegin} is negative
+     *          or the representation does not fit between it and the end
+     *          of {@code dst}; nothing is written then.
+     * @throws  NullPointerException if {@code dst} is null.
+     * @see     #toString(double)
+     * @since   1.8
+     */
+    public static int getBytes(double d, byte[] dst, int dstBegin) {
+        StringBuilder buf = DoubleConversion.layout(d);
+        int n = buf.length();
+        if (dstBegin < 0 || n > dst.length - dstBegin)
+            throw new IndexOutOfBoundsException("dstBegin " + dstBegin +
+                ", length " + n + ", dst.length " + dst.length);
+        for (int i = 0; i < n; i++)
+            dst[dstBegin + i] = (byte)buf.charAt(i);
+        return n;
+    }
+
     /**
      * Returns a hexadecimal string representation of the
      * {@code double} argument. All characters mentioned below
@@ -538,6 +593,65 @@ public final class Double extends Number implements Comparable<Double> {
         return FloatingDecimal.parseDouble(s);
     }
 
+    /**
+     * Returns a new {@code double} initialized to the value represented
+     * by the characters of the specified {@code CharSequence} from
+     * {@code beginIndex} to {@code endIndex - 1}, exactly as
+     * {@link #parseDouble(String)} returns for the string of those
+     * characters, but without creating the string in the common case of
+     * a decimal number.
+     *
+     * @param  s            the {@code CharSequence} containing the
+     *                      characters to be parsed.
+     * @param  beginIndex   the beginning index, inclusive.
+     * @param  endIndex     the ending index, exclusive.
+     * @return the {@code double} value represented by the characters.
+     * @throws NullPointerException  if {@code s} is null.
+     * @throws IndexOutOfBoundsException if {@code beginIndex} is negative,
+     *         or {@code endIndex} is larger than the length of {@code s},
+     *         or {@code beginIndex} is larger than {@code endIndex}.
+     * @throws NumberFormatException if the characters do not form a
+     *         parsable {@code double}.
+     * @see    #parseDouble(String)
+     * @since  1.8
+     */
+    public static double parseDouble(CharSequence s, int beginIndex, int endIndex)
+            throws NumberFormatException {
+        if (beginIndex < 0 || endIndex > s.length() || beginIndex > endIndex)
+            throw new IndexOutOfBoundsException("begin " + beginIndex +
+                ", end " + endIndex + ", length " + s.length());
+        return DoubleConversion.parseDouble(s, beginIndex, endIndex);
+    }
+
+    /**
+     * Returns a new {@code double} initialized to the value represented
+     * by the bytes of the specified array from {@code offset} to
+     * {@code offset + length - 1}, each taken as an ASCII character,
+     * exactly as {@link #parseDouble(String)} returns for the string of
+     * those characters, but without creating the string in the common
+     * case of a decimal number.
+     *
+     * @param  bytes    the array containing the characters to be parsed.
+     * @param  offset   the index of the first byte to be parsed.
+     * @param  length   the number of bytes to be parsed.
+     * @return the {@code double} value represented by the bytes.
+     * @throws NullPointerException  if {@code bytes} is null.
+     * @throws IndexOutOfBoundsException if {@code offset} or
+     *         {@code length} is negative, or {@code offset + length} is
+     *         larger than the length of {@code bytes}.
+     * @throws NumberFormatException if the bytes do not form a parsable
+     *         {@code double}.
+     * @see    #parseDouble(String)
+     * @since  1.8
+     */
+    public static double parseDouble(byte[] bytes, int offset, int length)
+            throws NumberFormatException {
+        if ((offset | length) < 0 || length > bytes.length - offset)
+            throw new IndexOutOfBoundsException("offset " + offset +
+                ", length " + length + ", bytes.length " + bytes.length);
+        return DoubleConversion.parseDouble(bytes, offset, offset + length);
+    }
+
     /**
      * Returns {@code true} if the specified number is a
      * Not-a-Number (NaN) value, {@code false} otherwise.
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 1996, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import sun.misc.FloatingDecimal;
+
+/**
+ * Conversions between {@code double} values and their decimal
+ * representations that read from a range of a {@code CharSequence} or of
+ * an ASCII {@code byte} array, and write to an {@code Appendable} or a
+ * {@code byte} array, without creating intermediate strings.
+ *
+ * <p>Parsing takes the common case of a decimal number of at most 19
+ * significant digits through the Clinger fast path, when the significand
+ * and the power of ten are both exact doubles, and otherwise through the
+ * algorithm of Eisel and Lemire, which multiplies the significand by a
+ * 128-bit truncation of the power of ten and gives the correctly rounded
+ * result unless the truncation leaves the rounding in doubt.  Both are
+ * correctly rounded, as {@link FloatingDecimal} is, so the results are
+ * the same; everything else (more significant digits with the rounding in
+ * doubt, subnormal results, hexadecimal significands, {@code NaN},
+ * {@code Infinity}, malformed input) is handed to {@code FloatingDecimal}
+ * itself.
+ *
+ * <p>Formatting lays out the digits of {@code FloatingDecimal} directly
+ * into a {@code StringBuilder}, that of the caller where there is one and
+ * otherwise a buffer of the current thread, so that the characters are
+ * exactly those of {@link Double#toString(double)}.
+ *
+ * @since 1.8
+ */
+final class DoubleConversion {
+
+    private DoubleConversion() {}
+
+    /**
+     * The powers of ten that are exact doubles, for the Clinger fast path.
+     */
+    private static final double[] SMALL_10_POW = {
+        1.0e0,  1.0e1,  1.0e2,  1.0e3,  1.0e4,  1.0e5,  1.0e6,  1.0e7,
+        1.0e8,  1.0e9,  1.0e10, 1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15,
+        1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22
+    };
+
+    /**
+     * The largest significand that is an exact double.
+     */
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+    /**
+     * The number of significant digits that always fit in an unsigned
+     * {@code long}.
+     */
+    private static final int MAX_SIGNIFICANT_DIGITS = 19;
+
+    /**
+     * The range of the decimal exponents of the Eisel-Lemire algorithm.
+     * Below it a significand of at most 19 digits rounds to zero, above
+     * it any nonzero significand overflows; both are left to
+     * {@code FloatingDecimal}.
+     */
+    private static final int MIN_EXP10 = -342;
+    private static final int MAX_EXP10 = 308;
+
+    /**
+     * A bound on the decimal exponent read from the input, beyond which
+     * its value no longer matters.
+     */
+    private static final int MAX_EXPONENT_READ = 99999;
+
+    /**
+     * Parses the characters in the range {@code [begin, end)} of {@code src},
+     * a {@code CharSequence} or an ASCII {@code byte} array, as
+     * {@link Double#parseDouble(String)} parses a string of them.
+     */
+    static double parseDouble(Object src, int begin, int end) {
+        // Trim as String.trim does
+        while (begin < end && charAt(src, begin) <= ' ')
+            begin++;
+        while (end > begin && charAt(src, end - 1) <= ' ')
+            end--;
+
+        int i = begin;
+        boolean negative = false;
+        if (i < end) {
+            int c = charAt(src, i);
+            if (c == '-' || c == '+') {
+                negative = (c == '-');
+                i++;
+            }
+        }
+
+        // The significand: at most 19 significant digits, the exponent of
+        // the last of them, and whether the digits dropped are all zeros.
+        long significand = 0;
+        int nDigits = 0;
+        int nSignificant = 0;
+        int exp10 = 0;
+        boolean truncated = false;
+        boolean dot = false;
+        int c = 0;
+        for (; i < end; i++) {
+            c = charAt(src, i);
+            if (c >= '0' && c <= '9') {
+                nDigits++;
+                if (significand == 0 && c == '0') {
+                    if (dot)
+                        exp10--;
+                } else if (nSignificant < MAX_SIGNIFICANT_DIGITS) {
+                    significand = significand * 10 + (c - '0');
+                    nSignificant++;
+                    if (dot)
+                        exp10--;
+                } else {
+                    if (c != '0')
+                        truncated = true;
+                    if (!dot)
+                        exp10++;
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (nDigits == 0)
+            return fallback(src, begin, end);
+
+        if (i < end && (c == 'e' || c == 'E')) {
+            if (++i == end)
+                return fallback(src, begin, end);
+            c = charAt(src, i);
+            boolean negativeExp = false;
+            if (c == '-' || c == '+') {
+                negativeExp = (c == '-');
+                if (++i == end)
+                    return fallback(src, begin, end);
+            }
+            int exp = 0;
+            int start = i;
+            for (; i < end; i++) {
+                c = charAt(src, i);
+                if (c < '0' || c > '9')
+                    break;
+                if (exp < MAX_EXPONENT_READ)
+                    exp = exp * 10 + (c - '0');
+            }
+            if (i == start)
+                return fallback(src, begin, end);
+            exp10 += negativeExp ? -exp : exp;
+        }
+        if (i < end) {
+            c = charAt(src, i);
+            if (i + 1 < end ||
+                (c != 'd' && c != 'D' && c != 'f' && c != 'F'))
+                return fallback(src, begin, end);
+        }
+
+        if (significand == 0)
+            return negative ? -0.0 : 0.0;
+        if (!truncated) {
+            if (significand <= MAX_EXACT_SIGNIFICAND && significand > 0 &&
+                exp10 >= -22 && exp10 <= 22) {
+                double d = (double)significand;
+                d = (exp10 < 0) ? d / SMALL_10_POW[-exp10]
+                                : d * SMALL_10_POW[exp10];
+                return negative ? -d : d;
+            }
+            double d = eiselLemire(significand, exp10, negative);
+            if (!Double.isNaN(d))
+                return d;
+        } else {
+            // The value lies strictly between the significand and the
+            // next one up; if both round alike, so does the value.
+            double d = eiselLemire(significand, exp10, negative);
+            if (!Double.isNaN(d) &&
+                d == eiselLemire(significand + 1, exp10, negative))
+                return d;
+        }
+        return fallback(src, begin, end);
+    }
+
+    /**
+     * Returns the correctly rounded double nearest to
+     * {@code significand * 10^exp10}, with the significand an unsigned
+     * nonzero {@code long}, or NaN if the rounding is in doubt or the
+     * result is not a normal double.
+     */
+    private static double eiselLemire(long significand, int exp10,
+                                      boolean negative) {
+        if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10)
+            return Double.NaN;
+        long[] pow10 = Pow10Holder.POW10;
+        int index = (exp10 - MIN_EXP10) << 1;
+
+        // Normalize the significand so that its top bit is set; the
+        // exponent is floor(log2(10^exp10)) + 64 less the shift.
+        int lz = Long.numberOfLeadingZeros(significand);
+        long w = significand << lz;
+        long exp2 = ((217706L * exp10) >> 16) + 64 + 1023 - lz;
+
+        long hi = multiplyHighUnsigned(w, pow10[index]);
+        long lo = w * pow10[index];
+        if ((hi & 0x1FF) == 0x1FF && Long.compareUnsigned(lo + w, w) < 0) {
+            // The low bits may carry into the result; take the next 64 bits
+            // of the power of ten into account.
+            long yHi = multiplyHighUnsigned(w, pow10[index + 1]);
+            long yLo = w * pow10[index + 1];
+            long mergedHi = hi;
+            long mergedLo = lo + yHi;
+            if (Long.compareUnsigned(mergedLo, lo) < 0)
+                mergedHi++;
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo == -1L &&
+                Long.compareUnsigned(yLo + w, w) < 0)
+                return Double.NaN;
+            hi = mergedHi;
+            lo = mergedLo;
+        }
+
+        // Keep 54 bits, one more than the significand of a double
+        long msb = hi >>> 63;
+        long mantissa = hi >>> (msb + 9);
+        exp2 -= 1 ^ msb;
+
+        // An exact halfway case cannot be told from a truncated one
+        if (lo == 0 && (hi & 0x1FF) == 0 && (mantissa & 3) == 1)
+            return Double.NaN;
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if ((mantissa >>> 53) != 0) {
+            mantissa >>>= 1;
+            exp2++;
+        }
+        if (exp2 <= 0 || exp2 >= 0x7FF)
+            return Double.NaN;
+        long bits = (exp2 << 52) | (mantissa & 0x000FFFFFFFFFFFFFL);
+        if (negative)
+            bits |= Long.MIN_VALUE;
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128-bit product of the
+     * arguments.
+     */
+    private static long multiplyHighUnsigned(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+        long p00 = x0 * y0;
+        long p10 = x1 * y0 + (p00 >>> 32);
+        long p01 = x0 * y1 + (p10 & 0xFFFFFFFFL);
+        return x1 * y1 + (p10 >>> 32) + (p01 >>> 32);
+    }
+
+    /**
+     * Parses the range with {@code FloatingDecimal}, which also reports
+     * malformed input.
+     */
+    private static double fallback(Object src, int begin, int end) {
+        String s = (src instanceof byte[])
+            ? new String((byte[])src, begin, end - begin,
+                         StandardCharsets.ISO_8859_1)
+            : ((CharSequence)src).subSequence(begin, end).toString();
+        return FloatingDecimal.parseDouble(s);
+    }
+
+    private static int charAt(Object src, int i) {
+        return (src instanceof byte[]) ? ((byte[])src)[i] & 0xff
+                                       : ((CharSequence)src).charAt(i);
+    }
+
+    /**
+     * The 128-bit truncations of the powers of ten from 10^-342 to 10^308,
+     * normalized so that the top bit is set, as pairs of the high and the
+     * low 64 bits.  They are computed on first use.
+     */
+    private static final class Pow10Holder {
+        static final long[] POW10 = new long[(MAX_EXP10 - MIN_EXP10 + 1) << 1];
+
+        static {
+            BigInteger mask = BigInteger.ONE.shiftLeft(64)
+                                            .subtract(BigInteger.ONE);
+            for (int e = MIN_EXP10; e <= MAX_EXP10; e++) {
+                BigInteger p = BigInteger.TEN.pow(Math.abs(e));
+                int bits = p.bitLength();
+                BigInteger m;
+                if (e >= 0) {
+                    m = (bits >= 128) ? p.shiftRight(bits - 128)
+                                      : p.shiftLeft(128 - bits);
+                } else {
+                    // 2^(bits + 127) / 10^-e lies in (2^127, 2^128) as
+                    // 10^-e is not a power of two
+                    m = BigInteger.ONE.shiftLeft(bits + 127).divide(p);
+                }
+                int index = (e - MIN_EXP10) << 1;
+                POW10[index] = m.shiftRight(64).longValue();
+                POW10[index + 1] = m.and(mask).longValue();
+            }
+        }
+    }
+
+    /**
+     * Lays out {@link Double#toString(double) the string representation}
+     * of {@code d} in the buffer of the current thread and returns it.
+     * The buffer is overwritten by the next call in the same thread.
+     */
+    static StringBuilder layout(double d) {
+        StringBuilder buf = threadLocalBuffer.get();
+        buf.setLength(0);
+        FloatingDecimal.appendTo(d, buf);
+        return buf;
+    }
+
+    private static final ThreadLocal<StringBuilder> threadLocalBuffer =
+        new ThreadLocal<StringBuilder>() {
+            @Override
+            protected StringBuilder initialValue() {
+                return new StringBuilder(32);
+            }
+        };
+}
@@ -135,4 +135,41 @@ public interface PlatformLoggingMXBean extends PlatformManagedObject {
      *         is returned.
      */
     String getParentLoggerName(String loggerName);
+
+    /**
+     * Returns the number of log records queued by all open
+     * {@link java.util.logging.AsyncHandler AsyncHandler}s but not yet
+     * published to their target handlers.
+     *
+     * @implSpec
+     * The default implementation returns
+     * {@link java.util.logging.AsyncHandler#getTotalQueueDepth
+     * AsyncHandler.getTotalQueueDepth()}.
+     *
+     * @return the total queue depth of the open {@code AsyncHandler}s
+     *
+     * @since 1.8
+     */
+    default long getAsyncHandlerQueueDepth() {
+        return java.util.logging.AsyncHandler.getTotalQueueDepth();
+    }
+
+    /**
+     * Returns the number of log records dropped by
+     * {@link java.util.logging.AsyncHandler AsyncHandler}s, including
+     * closed ones, because their buffers were full.
+     *
+     * @implSpec
+     * The default implementation returns
+     * {@link java.util.logging.AsyncHandler#getTotalDroppedCount
+     * AsyncHandler.getTotalDroppedCount()}.
+     *
+     * @return the total number of records dropped by
+     *         {@code AsyncHandler}s
+     *
+     * @since 1.8
+     */
+    default long getAsyncHandlerDroppedCount() {
+        return java.util.logging.AsyncHandler.getTotalDroppedCount();
+    }
 }
@@ -29,6 +29,8 @@
 
 package java.math;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import static java.math.BigInteger.LONG_MASK;
 
@@ -265,7 +267,7 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
      * less than or equal to {@code Long.MAX_VALUE}, the value can be
      * compactly stored in this field and used in computations.
      */
-    private final transient long intCompact;
+    final transient long intCompact;
 
     // All 18-digit base ten strings fit into a long; not all 19-digit
     // strings will
@@ -1274,6 +1276,135 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
         return new BigDecimal(Double.toString(val));
     }
 
+    /**
+     * Translates the characters of a {@code CharSequence} from
+     * {@code beginIndex} to {@code endIndex - 1} into a
+     * {@code BigDecimal}, accepting the same sequences of characters as
+     * the {@link #BigDecimal(String)} constructor and giving the same
+     * result.  A number of at most 18 digits with an exponent of at most
+     * 9 digits is translated without copying the characters.
+     *
+     * @param  s the {@code CharSequence} containing the characters.
+     * @param  beginIndex the beginning index, inclusive.
+     * @param  endIndex the ending index, exclusive.
+     * @return a {@code BigDecimal} whose value is that of the characters.
+     * @throws IndexOutOfBoundsException if {@code beginIndex} is negative,
+     *         or {@code endIndex} is larger than the length of {@code s},
+     *         or {@code beginIndex} is larger than {@code endIndex}.
+     * @throws NumberFormatException if the characters are not a valid
+     *         representation of a {@code BigDecimal}.
+     * @since  1.8
+     */
+    public static BigDecimal parse(CharSequence s, int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex > s.length() || beginIndex > endIndex)
+            throw new IndexOutOfBoundsException("begin " + beginIndex +
+                ", end " + endIndex + ", length " + s.length());
+        BigDecimal result = parseCompact(s, beginIndex, endIndex);
+        if (result == null)
+            result = new BigDecimal(s.subSequence(beginIndex, endIndex).toString());
+        return result;
+    }
+
+    /**
+     * Translates the bytes of an array from {@code offset} to
+     * {@code offset + length - 1}, each taken as an ASCII character, into
+     * a {@code BigDecimal}, accepting the same sequences of characters as
+     * the {@link #BigDecimal(String)} constructor and giving the same
+     * result.  A number of at most 18 digits with an exponent of at most
+     * 9 digits is translated without copying the bytes.
+     *
+     * @param  bytes the array containing the characters.
+     * @param  offset the index of the first byte to translate.
+     * @param  length the number of bytes to translate.
+     * @return a {@code BigDecimal} whose value is that of the bytes.
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length}
+     *         is negative, or {@code offset + length} is larger than the
+     *         length of {@code bytes}.
+     * @throws NumberFormatException if the bytes are not a valid
+     *         representation of a {@code BigDecimal}.
+     * @since  1.8
+     */
+    public static BigDecimal parse(byte[] bytes, int offset, int length) {
+        if ((offset | length) < 0 || length > bytes.length - offset)
+            throw new IndexOutOfBoundsException("offset " + offset +
+                ", length " + length + ", bytes.length " + bytes.length);
+        BigDecimal result = parseCompact(bytes, offset, offset + length);
+        if (result == null)
+            result = new BigDecimal(new String(bytes, offset, length,
+                                               StandardCharsets.ISO_8859_1));
+        return result;
+    }
+
+    /**
+     * Translates the characters in the range {@code [begin, end)} of
+     * {@code src}, a {@code CharSequence} or an ASCII {@code byte} array,
+     * if they are an optional sign, at most {@link #MAX_COMPACT_DIGITS}
+     * digits with an optional decimal point, and an optional exponent of
+     * at most 9 digits giving a scale in the {@code int} range.  Returns
+     * null for anything else, valid or not, which is left to the full
+     * parser.
+     */
+    private static BigDecimal parseCompact(Object src, int i, int end) {
+        if (i == end)
+            return null;
+        int c = charAt(src, i);
+        boolean negative = false;
+        if (c == '-' || c == '+') {
+            negative = (c == '-');
+            if (++i == end)
+                return null;
+        }
+        long rs = 0;
+        int prec = 0;
+        long scl = 0;
+        boolean dot = false;
+        for (; i < end; i++) {
+            c = charAt(src, i);
+            if (c >= '0' && c <= '9') {
+                if (++prec > MAX_COMPACT_DIGITS)
+                    return null;
+                rs = rs * 10 + (c - '0');
+                if (dot)
+                    scl++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (prec == 0)
+            return null;
+        if (i < end) {
+            if ((c != 'e' && c != 'E') || ++i == end)
+                return null;
+            c = charAt(src, i);
+            boolean negativeExp = false;
+            if (c == '-' || c == '+') {
+                negativeExp = (c == '-');
+                if (++i == end)
+                    return null;
+            }
+            if (end - i > 9)
+                return null;
+            long exp = 0;
+            for (; i < end; i++) {
+                c = charAt(src, i);
+                if (c < '0' || c > '9')
+                    return null;
+                exp = exp * 10 + (c - '0');
+            }
+            scl -= negativeExp ? -exp : exp;
+            if (scl != (int)scl)
+                return null;
+        }
+        return valueOf(negative ? -rs : rs, (int)scl);
+    }
+
+    private static int charAt(Object src, int i) {
+        return (src instanceof byte[]) ? ((byte[])src)[i] & 0xff
+                                       : ((CharSequence)src).charAt(i);
+    }
+
     // Arithmetic Operations
     /**
      * Returns a {@code BigDecimal} whose value is {@code (this +
@@ -2885,6 +3016,67 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
         return sc;
     }
 
+    /**
+     * Appends the string representation of this {@code BigDecimal}, as
+     * returned by {@link #toString()}, to the given {@code Appendable},
+     * without creating the string.  The characters are laid out directly
+     * into a {@code StringBuilder}, and appended one at a time to any
+     * other {@code Appendable}.
+     *
+     * @param  out the {@code Appendable} to which the characters are
+     *         appended.
+     * @throws IOException if {@code out} throws one.
+     * @throws NullPointerException if {@code out} is null.
+     * @see    #toString()
+     * @since  1.8
+     */
+    public void appendTo(Appendable out) throws IOException {
+        String sc = stringCache;
+        if (sc != null) {
+            out.append(sc);
+        } else if (out instanceof StringBuilder) {
+            layoutChars(true, (StringBuilder)out);
+        } else {
+            StringBuilder buf =
+                threadLocalStringBuilderHelper.get().getStringBuilder();
+            layoutChars(true, buf);
+            for (int i = 0, n = buf.length(); i < n; i++)
+                out.append(buf.charAt(i));
+        }
+    }
+
+    /**
+     * Encodes the string representation of this {@code BigDecimal}, as
+     * returned by {@link #toString()}, into the given byte array as ASCII
+     * characters, without creating the string.
+     *
+     * @param  dst the destination array.
+     * @param  dstBegin the start offset in the destination array.
+     * @return the number of bytes written.
+     * @throws IndexOutOfBoundsException if {@code dstBegin} is negative or
+     *         the representation does not fit between it and the end of
+     *         {@code dst}; nothing is written then.
+     * @throws NullPointerException if {@code dst} is null.
+     * @see    #toString()
+     * @since  1.8
+     */
+    public int getBytes(byte[] dst, int dstBegin) {
+        CharSequence cs = stringCache;
+        if (cs == null) {
+            StringBuilder buf =
+                threadLocalStringBuilderHelper.get().getStringBuilder();
+            layoutChars(true, buf);
+            cs = buf;
+        }
+        int n = cs.length();
+        if (dstBegin < 0 || n > dst.length - dstBegin)
+            throw new IndexOutOfBoundsException("dstBegin " + dstBegin +
+                ", length " + n + ", dst.length " + dst.length);
+        for (int i = 0; i < n; i++)
+            dst[dstBegin + i] = (byte)cs.charAt(i);
+        return n;
+    }
+
     /**
      * Returns a string representation of this {@code BigDecimal},
      * using engineering notation if an exponent is needed.
@@ -3437,6 +3629,29 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
                     StringBuilderHelper.DIGIT_ONES[lowInt]) ;
         }
 
+        StringBuilder buf =
+            threadLocalStringBuilderHelper.get().getStringBuilder();
+        layoutChars(sci, buf);
+        return buf.toString();
+    }
+
+    /**
+     * Lay out this {@code BigDecimal} at the end of the given
+     * {@code StringBuilder}, as {@link #layoutChars(boolean)} does.
+     *
+     * @param  sci {@code true} for Scientific exponential notation;
+     *          {@code false} for Engineering
+     * @param  buf the {@code StringBuilder} to append to
+     */
+    private void layoutChars(boolean sci, StringBuilder buf) {
+        if (scale == 0) {                    // zero scale is trivial
+            if (intCompact != INFLATED)
+                buf.append(intCompact);
+            else
+                buf.append(intVal.toString());
+            return;
+        }
+
         StringBuilderHelper sbHelper = threadLocalStringBuilderHelper.get();
         char[] coeff;
         int offset;  // offset is the starting index for coeff array
@@ -3449,11 +3664,6 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
             coeff  = intVal.abs().toString().toCharArray();
         }
 
-        // Construct a buffer, with sufficient capacity for all cases.
-        // If E-notation is needed, length will be: +1 if negative, +1
-        // if '.' needed, +2 for "E+", + up to 10 for adjusted exponent.
-        // Otherwise it could have +1 if negative, plus leading "0.00000"
-        StringBuilder buf = sbHelper.getStringBuilder();
         if (signum() < 0)             // prefix '-' if negative
             buf.append('-');
         int coeffLen = coeff.length - offset;
@@ -3519,7 +3729,6 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
                 buf.append(adjusted);
             }
         }
-        return buf.toString();
     }
 
     /**
@@ -3574,7 +3783,7 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
         }
     }
 
-    private static final long[] LONG_TEN_POWERS_TABLE = {
+    static final long[] LONG_TEN_POWERS_TABLE = {
         1,                     // 0 / 10^0
         10,                    // 1 / 10^1
         100,                   // 2 / 10^2
@@ -3649,7 +3858,7 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
      * Compute val * 10 ^ n; return this product if it is
      * representable as a long, INFLATED otherwise.
      */
-    private static long longMultiplyPowerTen(long val, int n) {
+    static long longMultiplyPowerTen(long val, int n) {
         if (val == 0 || n <= 0)
             return val;
         long[] tab = LONG_TEN_POWERS_TABLE;
@@ -4123,7 +4332,7 @@ public class BigDecimal extends Number implements Comparable<BigDecimal> {
      * Divides {@code long} by {@code long} and do rounding based on the
      * passed in roundingMode.
      */
-    private static long divideAndRound(long ldividend, long ldivisor, int roundingMode) {
+    static long divideAndRound(long ldividend, long ldivisor, int roundingMode) {
         int qsign; // quotient sign
         long q = ldividend / ldivisor; // store quotient in long
         if (roundingMode == ROUND_DOWN)
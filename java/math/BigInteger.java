@@ -35,6 +35,8 @@ import java.io.ObjectOutputStream;
 import java.io.ObjectStreamField;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ThreadLocalRandom;
 import sun.misc.DoubleConsts;
 import sun.misc.FloatConsts;
@@ -242,6 +244,22 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      */
     private static final int TOOM_COOK_SQUARE_THRESHOLD = 216;
 
+    /**
+     * The threshold value for using Schoenhage-Strassen multiplication.
+     * If the number of ints in both mag arrays are greater than this
+     * number, then Schoenhage-Strassen multiplication will be used.  This
+     * value is found experimentally to work well.
+     */
+    private static final int SCHOENHAGE_STRASSEN_THRESHOLD = 8000;
+
+    /**
+     * The threshold value for using Schoenhage-Strassen squaring.  If the
+     * number of ints in the number are larger than this value,
+     * Schoenhage-Strassen squaring will be used.  This value is found
+     * experimentally to work well.
+     */
+    private static final int SCHOENHAGE_STRASSEN_SQUARE_THRESHOLD = 6000;
+
     /**
      * The threshold value for using Burnikel-Ziegler division.  If the number
      * of ints in the divisor are larger than this value, Burnikel-Ziegler
@@ -1473,13 +1491,44 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * @return {@code this * val}
      */
     public BigInteger multiply(BigInteger val) {
+        return multiply(val, false, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this * val)}, computing
+     * it in parallel when both numbers are large.  The result is the same
+     * as that of {@link #multiply multiply}.
+     *
+     * @implNote When both numbers are large enough for the Toom-Cook or
+     * Schoenhage-Strassen algorithms, typically tens of thousands of bits,
+     * the independent parts of the product are computed by tasks forked
+     * onto the {@link ForkJoinPool#commonPool() common pool}.  This uses
+     * more CPU time, and slightly more memory, than {@code multiply} in
+     * exchange for a shorter elapsed time.  An implementation may offer
+     * better algorithmic performance when {@code val == this}.
+     *
+     * @param  val value to be multiplied by this BigInteger.
+     * @return {@code this * val}
+     * @see #multiply
+     * @since 1.8
+     */
+    public BigInteger parallelMultiply(BigInteger val) {
+        return multiply(val, true, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this * val)}, forking the
+     * parts of a parallel multiplication onto the common pool while the
+     * depth of the recursion is below the fork threshold.
+     */
+    private BigInteger multiply(BigInteger val, boolean parallel, int depth) {
         if (val.signum == 0 || signum == 0)
             return ZERO;
 
         int xlen = mag.length;
 
         if (val == this && xlen > MULTIPLY_SQUARE_THRESHOLD) {
-            return square();
+            return square(parallel, depth);
         }
 
         int ylen = val.mag.length;
@@ -1499,8 +1548,11 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         } else {
             if ((xlen < TOOM_COOK_THRESHOLD) && (ylen < TOOM_COOK_THRESHOLD)) {
                 return multiplyKaratsuba(this, val);
+            } else if ((xlen < SCHOENHAGE_STRASSEN_THRESHOLD) ||
+                       (ylen < SCHOENHAGE_STRASSEN_THRESHOLD)) {
+                return multiplyToomCook3(this, val, parallel, depth);
             } else {
-                return multiplyToomCook3(this, val);
+                return multiplySchoenhageStrassen(this, val, parallel, depth);
             }
         }
     }
@@ -1675,8 +1727,11 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * In C.Carlet and B.Sunar, Eds., "WAIFI'07 proceedings", p. 116-133,
      * LNCS #4547. Springer, Madrid, Spain, June 21-22, 2007.
      *
+     * The five sub-products of a parallel multiplication are computed
+     * concurrently.
      */
-    private static BigInteger multiplyToomCook3(BigInteger a, BigInteger b) {
+    private static BigInteger multiplyToomCook3(BigInteger a, BigInteger b,
+                                                boolean parallel, int depth) {
         int alen = a.mag.length;
         int blen = b.mag.length;
 
@@ -1700,16 +1755,21 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
 
         BigInteger v0, v1, v2, vm1, vinf, t1, t2, tm1, da1, db1;
 
-        v0 = a0.multiply(b0);
+        depth++;
+        ForkJoinTask<BigInteger> v0Task = forkMultiply(a0, b0, parallel, depth);
         da1 = a2.add(a0);
         db1 = b2.add(b0);
-        vm1 = da1.subtract(a1).multiply(db1.subtract(b1));
+        ForkJoinTask<BigInteger> vm1Task =
+            forkMultiply(da1.subtract(a1), db1.subtract(b1), parallel, depth);
         da1 = da1.add(a1);
         db1 = db1.add(b1);
-        v1 = da1.multiply(db1);
+        ForkJoinTask<BigInteger> v1Task = forkMultiply(da1, db1, parallel, depth);
         v2 = da1.add(a2).shiftLeft(1).subtract(a0).multiply(
-             db1.add(b2).shiftLeft(1).subtract(b0));
-        vinf = a2.multiply(b2);
+             db1.add(b2).shiftLeft(1).subtract(b0), parallel, depth);
+        vinf = a2.multiply(b2, parallel, depth);
+        v0 = v0Task.join();
+        vm1 = vm1Task.join();
+        v1 = v1Task.join();
 
         // The algorithm requires two divisions by 2 and one by 3.
         // All divisions are known to be exact, that is, they do not produce
@@ -1875,6 +1935,15 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * @return {@code this<sup>2</sup>}
      */
     private BigInteger square() {
+        return square(false, 0);
+    }
+
+    /**
+     * Returns a BigInteger whose value is {@code (this<sup>2</sup>)},
+     * forking the parts of a parallel squaring onto the common pool while
+     * the depth of the recursion is below the fork threshold.
+     */
+    private BigInteger square(boolean parallel, int depth) {
         if (signum == 0) {
             return ZERO;
         }
@@ -1886,8 +1955,10 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         } else {
             if (len < TOOM_COOK_SQUARE_THRESHOLD) {
                 return squareKaratsuba();
+            } else if (len < SCHOENHAGE_STRASSEN_SQUARE_THRESHOLD) {
+                return squareToomCook3(parallel, depth);
             } else {
-                return squareToomCook3();
+                return squareSchoenhageStrassen(parallel, depth);
             }
         }
     }
@@ -1984,9 +2055,10 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * should be used when both numbers are larger than a certain threshold
      * (found experimentally).  It is a recursive divide-and-conquer algorithm
      * that has better asymptotic performance than the algorithm used in
-     * squareToLen or squareKaratsuba.
+     * squareToLen or squareKaratsuba.  The five sub-squares of a parallel
+     * squaring are computed concurrently.
      */
-    private BigInteger squareToomCook3() {
+    private BigInteger squareToomCook3(boolean parallel, int depth) {
         int len = mag.length;
 
         // k is the size (in ints) of the lower-order slices.
@@ -2003,13 +2075,17 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         a0 = getToomSlice(k, r, 2, len);
         BigInteger v0, v1, v2, vm1, vinf, t1, t2, tm1, da1;
 
-        v0 = a0.square();
+        depth++;
+        ForkJoinTask<BigInteger> v0Task = forkSquare(a0, parallel, depth);
         da1 = a2.add(a0);
-        vm1 = da1.subtract(a1).square();
+        ForkJoinTask<BigInteger> vm1Task = forkSquare(da1.subtract(a1), parallel, depth);
         da1 = da1.add(a1);
-        v1 = da1.square();
-        vinf = a2.square();
-        v2 = da1.add(a2).shiftLeft(1).subtract(a0).square();
+        ForkJoinTask<BigInteger> v1Task = forkSquare(da1, parallel, depth);
+        vinf = a2.square(parallel, depth);
+        v2 = da1.add(a2).shiftLeft(1).subtract(a0).square(parallel, depth);
+        v0 = v0Task.join();
+        vm1 = vm1Task.join();
+        v1 = v1Task.join();
 
         // The algorithm requires two divisions by 2 and one by 3.
         // All divisions are known to be exact, that is, they do not produce
@@ -2031,6 +2107,409 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         return vinf.shiftLeft(ss).add(t2).shiftLeft(ss).add(t1).shiftLeft(ss).add(tm1).shiftLeft(ss).add(v0);
     }
 
+    // Parallel multiplication
+
+    /**
+     * Returns the depth of recursion up to which the parts of a parallel
+     * operation are forked, enough for the common pool to have a few tasks
+     * per thread.  Deeper parts are computed by the thread that reaches
+     * them.
+     */
+    private static int parallelForkDepth() {
+        return 32 - Integer.numberOfLeadingZeros(ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Forks the given task onto the common pool if the operation is
+     * parallel and the depth is below the fork threshold, or runs it in
+     * the current thread otherwise.  The result is obtained by join.
+     */
+    private static <T> ForkJoinTask<T> forkOrInvoke(ForkJoinTask<T> task,
+                                                    boolean parallel, int depth) {
+        if (parallel && depth <= parallelForkDepth())
+            task.fork();
+        else
+            task.invoke();
+        return task;
+    }
+
+    private static ForkJoinTask<BigInteger> forkMultiply(BigInteger a, BigInteger b,
+                                                         boolean parallel, int depth) {
+        return forkOrInvoke(ForkJoinTask.adapt(() -> a.multiply(b, parallel, depth)),
+                            parallel, depth);
+    }
+
+    private static ForkJoinTask<BigInteger> forkSquare(BigInteger a,
+                                                       boolean parallel, int depth) {
+        return forkOrInvoke(ForkJoinTask.adapt(() -> a.square(parallel, depth)),
+                            parallel, depth);
+    }
+
+    // Schoenhage-Strassen multiplication
+
+    /**
+     * Multiplies two BigIntegers using the Schoenhage-Strassen algorithm.
+     * The numbers are split into pieces that are taken as the coefficients
+     * of two polynomials, which are multiplied by means of a number
+     * theoretic transform in the ring of integers modulo 2<sup>n</sup>+1.
+     * In that ring 2 is a root of unity of order 2n, so that the
+     * multiplications of the transform are shifts and only the pointwise
+     * products of the transformed coefficients are full multiplications.
+     * These are done recursively, which makes the algorithm run in
+     * O(n log n log log n) time against O(n<sup>1.465</sup>) for Toom-Cook.
+     * Due to the overhead of the transforms it should only be used when
+     * both numbers are very large.
+     *
+     * In a parallel multiplication the transforms are split into tasks
+     * along their recursive halves, and the pointwise products into tasks
+     * along ranges of the residues.
+     *
+     * See: Arnold Schoenhage and Volker Strassen, "Schnelle Multiplikation
+     * grosser Zahlen", Computing 7 (1971), p. 281-292.
+     */
+    private static BigInteger multiplySchoenhageStrassen(BigInteger a, BigInteger b,
+                                                         boolean parallel, int depth) {
+        int[] z = schoenhageStrassen(a.mag, b.mag, parallel, depth);
+        return new BigInteger(z, a.signum == b.signum ? 1 : -1);
+    }
+
+    /**
+     * Squares a BigInteger using the Schoenhage-Strassen algorithm, which
+     * only needs to transform the number once.
+     */
+    private BigInteger squareSchoenhageStrassen(boolean parallel, int depth) {
+        return new BigInteger(schoenhageStrassen(mag, mag, parallel, depth), 1);
+    }
+
+    /**
+     * Returns the magnitude of the product of the magnitudes x and y, or of
+     * the square of x if y is the same array, stripped of leading zeros.
+     */
+    private static int[] schoenhageStrassen(int[] x, int[] y,
+                                            boolean parallel, int depth) {
+        boolean square = (x == y);
+        int bits = Math.max(bitLengthForMag(x), bitLengthForMag(y));
+
+        // The numbers are split into K/2 pieces of P ints each, and padded
+        // with K/2 zero pieces so that the cyclic convolution of length K
+        // computed by the transform is their product.  Each coefficient of
+        // the product is less than K/2 * 2^(64P), so n is chosen larger than
+        // 64P+k and a multiple of both 32 and K/2, the latter so that
+        // 2^(2n/K) is a root of unity of order K.  K is near the square
+        // root of the number of bits, and is chosen among a few powers of
+        // two by the estimated cost of the pointwise products and of the
+        // transforms, as rounding n up can make a larger K a poor choice.
+        int lg = 32 - Integer.numberOfLeadingZeros(bits - 1);
+        int k = 0, P = 0, n = 0;
+        double bestCost = Double.MAX_VALUE;
+        for (int kk = Math.max(1, (lg+1)/2 - 1); kk <= (lg+1)/2 + 2; kk++) {
+            int KK = 1 << kk;
+            int pp = (bits + (KK << 4) - 1) / (KK << 4);   // ceil(bits/(16*KK))
+            int align = Math.max(32, KK >> 1);
+            int nn = (64*pp + kk + align) / align * align;
+            double cost = (double)KK * nn * (3 * Math.sqrt(nn >>> 5) + kk);
+            if (cost < bestCost) {
+                bestCost = cost;
+                k = kk;
+                P = pp;
+                n = nn;
+            }
+        }
+        int K = 1 << k;
+        int N = n >>> 5;
+        int omega = 2*n / K;
+
+        int d = depth + 1;
+        int[][] u = fermatSplit(x, K, P, N);
+        int[][] v = u;
+        if (square) {
+            fermatTransform(u, 0, K, omega, n, new int[N+1], parallel, d);
+        } else {
+            v = fermatSplit(y, K, P, N);
+            ForkJoinTask<?> vTask = forkTransform(v, omega, n, parallel, d);
+            fermatTransform(u, 0, K, omega, n, new int[N+1], parallel, d);
+            vTask.join();
+        }
+        fermatMultiply(u, v, 0, K, N, parallel, d);
+        fermatInverseTransform(u, 0, K, omega, n, new int[N+1], parallel, d);
+
+        // Dividing by K is multiplying by 2^(2n-k).  The coefficients are
+        // then exact, and are added into the product at their offsets.
+        int[] z = new int[K*P + N + 2];
+        int[] c = new int[N+1];
+        for (int j = 0; j < K; j++) {
+            fermatShift(u[j], 2*n - k, c, N);
+            int off = j * P;
+            long carry = 0;
+            for (int i = 0; i <= N; i++) {
+                carry += (z[off+i] & LONG_MASK) + (c[i] & LONG_MASK);
+                z[off+i] = (int)carry;
+                carry >>>= 32;
+            }
+            for (int i = off + N + 1; carry != 0; i++) {
+                carry += z[i] & LONG_MASK;
+                z[i] = (int)carry;
+                carry >>>= 32;
+            }
+        }
+
+        int len = z.length;
+        while (len > 0 && z[len-1] == 0)
+            len--;
+        int[] result = new int[len];
+        for (int i = 0; i < len; i++)
+            result[len-1-i] = z[i];
+        return result;
+    }
+
+    /**
+     * Returns the number of bits in the magnitude val.
+     */
+    private static int bitLengthForMag(int[] val) {
+        return (val.length << 5) - Integer.numberOfLeadingZeros(val[0]);
+    }
+
+    /**
+     * Splits the magnitude val into K pieces of P ints, the least
+     * significant first, as little-endian residues of N+1 ints.
+     */
+    private static int[][] fermatSplit(int[] val, int K, int P, int N) {
+        int[][] pieces = new int[K][];
+        int len = val.length;
+        for (int j = 0; j < K; j++) {
+            int[] piece = new int[N+1];
+            for (int i = 0, q = j*P; i < P && q < len; i++, q++)
+                piece[i] = val[len-1-q];
+            pieces[j] = piece;
+        }
+        return pieces;
+    }
+
+    /**
+     * Transforms the len residues of v from index off in place, modulo
+     * 2^n+1 and with 2^step as the root of unity of order len, using the
+     * residue t as scratch space.  The result is in bit-reversed order,
+     * which is the order expected by fermatInverseTransform.
+     */
+    private static void fermatTransform(int[][] v, int off, int len, int step,
+                                        int n, int[] t, boolean parallel, int depth) {
+        int N = n >>> 5;
+        int half = len >> 1;
+        for (int j = 0; j < half; j++) {
+            int[] a = v[off+j];
+            int[] b = v[off+j+half];
+            fermatSubtract(a, b, t, N);
+            fermatAdd(a, b, a, N);
+            fermatShift(t, j*step, b, N);
+        }
+        if (half > 1) {
+            if (parallel && depth <= parallelForkDepth()) {
+                ForkJoinTask<?> lower = ForkJoinTask.adapt(() ->
+                    fermatTransform(v, off, half, 2*step, n, new int[N+1], true, depth+1)).fork();
+                fermatTransform(v, off+half, half, 2*step, n, t, true, depth+1);
+                lower.join();
+            } else {
+                fermatTransform(v, off, half, 2*step, n, t, false, depth);
+                fermatTransform(v, off+half, half, 2*step, n, t, false, depth);
+            }
+        }
+    }
+
+    /**
+     * Forks the transform of all the residues of v onto the common pool if
+     * the operation is parallel and the depth is below the fork threshold,
+     * or runs it in the current thread otherwise.
+     */
+    private static ForkJoinTask<?> forkTransform(int[][] v, int omega, int n,
+                                                 boolean parallel, int depth) {
+        return forkOrInvoke(ForkJoinTask.adapt(() ->
+            fermatTransform(v, 0, v.length, omega, n, new int[(n >>> 5) + 1], parallel, depth)),
+            parallel, depth);
+    }
+
+    /**
+     * Inverts fermatTransform in place, except for the division by the
+     * number of residues.
+     */
+    private static void fermatInverseTransform(int[][] v, int off, int len, int step,
+                                               int n, int[] t, boolean parallel, int depth) {
+        int N = n >>> 5;
+        int half = len >> 1;
+        if (half > 1) {
+            if (parallel && depth <= parallelForkDepth()) {
+                ForkJoinTask<?> lower = ForkJoinTask.adapt(() ->
+                    fermatInverseTransform(v, off, half, 2*step, n, new int[N+1], true, depth+1)).fork();
+                fermatInverseTransform(v, off+half, half, 2*step, n, t, true, depth+1);
+                lower.join();
+            } else {
+                fermatInverseTransform(v, off, half, 2*step, n, t, false, depth);
+                fermatInverseTransform(v, off+half, half, 2*step, n, t, false, depth);
+            }
+        }
+        for (int j = 0; j < half; j++) {
+            int[] a = v[off+j];
+            int[] b = v[off+j+half];
+            fermatShift(b, (j == 0) ? 0 : 2*n - j*step, t, N);
+            fermatSubtract(a, t, b, N);
+            fermatAdd(a, t, a, N);
+        }
+    }
+
+    /**
+     * Replaces the residues of u from index from to index to by their
+     * products with the residues of v.
+     */
+    private static void fermatMultiply(int[][] u, int[][] v, int from, int to,
+                                       int N, boolean parallel, int depth) {
+        if (parallel && depth <= parallelForkDepth() && to - from > 1) {
+            int mid = (from + to) >>> 1;
+            ForkJoinTask<?> lower = ForkJoinTask.adapt(() ->
+                fermatMultiply(u, v, from, mid, N, true, depth+1)).fork();
+            fermatMultiply(u, v, mid, to, N, true, depth+1);
+            lower.join();
+        } else {
+            for (int i = from; i < to; i++)
+                u[i] = fermatMultiply(u[i], v[i], N);
+        }
+    }
+
+    /*
+     * The residues modulo 2^n+1 are little-endian arrays of N+1 ints, with
+     * n = 32N, whose value is in the range [0, 2^n].  The following methods
+     * store their result in r, which may be the same array as an argument
+     * except where noted.
+     */
+
+    private static void fermatAdd(int[] a, int[] b, int[] r, int N) {
+        long carry = 0;
+        for (int i = 0; i <= N; i++) {
+            carry += (a[i] & LONG_MASK) + (b[i] & LONG_MASK);
+            r[i] = (int)carry;
+            carry >>>= 32;
+        }
+        fermatNormalize(r, N);
+    }
+
+    private static void fermatSubtract(int[] a, int[] b, int[] r, int N) {
+        long borrow = 0;
+        for (int i = 0; i < N; i++) {
+            borrow += (a[i] & LONG_MASK) - (b[i] & LONG_MASK);
+            r[i] = (int)borrow;
+            borrow >>= 32;
+        }
+        r[N] = (int)(borrow + a[N] - b[N]);
+        fermatNormalize(r, N);
+    }
+
+    /**
+     * Stores a * 2^s modulo 2^n+1 in r, for 0 <= s < 2n.  The array r must
+     * not be the same as a.
+     */
+    private static void fermatShift(int[] a, int s, int[] r, int N) {
+        int n = N << 5;
+        boolean negate = (s >= n);
+        if (negate)
+            s -= n;
+
+        // a * 2^s is less than 2^(2n), and is reduced as its low n bits
+        // minus its high n bits.
+        int ints = s >>> 5;
+        int bits = s & 0x1f;
+        long borrow = 0;
+        for (int i = 0; i < N; i++) {
+            borrow += (shiftedInt(a, i, ints, bits, N) & LONG_MASK)
+                    - (shiftedInt(a, i+N, ints, bits, N) & LONG_MASK);
+            r[i] = (int)borrow;
+            borrow >>= 32;
+        }
+        r[N] = (int)borrow;
+        fermatNormalize(r, N);
+
+        if (negate) {
+            borrow = 0;
+            for (int i = 0; i < N; i++) {
+                borrow -= r[i] & LONG_MASK;
+                r[i] = (int)borrow;
+                borrow >>= 32;
+            }
+            r[N] = (int)(borrow - r[N]);
+            fermatNormalize(r, N);
+        }
+    }
+
+    /**
+     * Returns the int at index i of the little-endian residue a shifted
+     * left by ints ints and bits bits.
+     */
+    private static int shiftedInt(int[] a, int i, int ints, int bits, int N) {
+        int j = i - ints;
+        int lo = (j >= 0 && j <= N) ? a[j] << bits : 0;
+        if (bits != 0 && j >= 1 && j <= N+1)
+            lo |= a[j-1] >>> (32 - bits);
+        return lo;
+    }
+
+    /**
+     * Returns a * b modulo 2^n+1, computing the product with multiply or
+     * square so that large residues are themselves multiplied with the
+     * fastest algorithm for their size.
+     */
+    private static int[] fermatMultiply(int[] a, int[] b, int N) {
+        BigInteger x = fermatToBigInteger(a, N);
+        BigInteger p = (a == b) ? x.square() : x.multiply(fermatToBigInteger(b, N));
+
+        // The product is less than 2^(2n+1), and is reduced as its low n
+        // bits minus its middle n bits plus its high bit.
+        int[] mag = p.mag;
+        int len = mag.length;
+        int[] r = new int[N+1];
+        long borrow = 0;
+        for (int i = 0; i < N; i++) {
+            long lo = (i < len) ? mag[len-1-i] & LONG_MASK : 0;
+            long mid = (i+N < len) ? mag[len-1-i-N] & LONG_MASK : 0;
+            long hi = (i+2*N < len) ? mag[len-1-i-2*N] & LONG_MASK : 0;
+            borrow += lo - mid + hi;
+            r[i] = (int)borrow;
+            borrow >>= 32;
+        }
+        r[N] = (int)borrow;
+        fermatNormalize(r, N);
+        return r;
+    }
+
+    private static BigInteger fermatToBigInteger(int[] a, int N) {
+        int[] mag = new int[N+1];
+        for (int i = 0; i <= N; i++)
+            mag[N-i] = a[i];
+        return new BigInteger(trustedStripLeadingZeroInts(mag), 1);
+    }
+
+    /**
+     * Brings the residue r, whose top int holds a small signed multiple of
+     * 2^n, into the range [0, 2^n] in place, using 2^n = -1 modulo 2^n+1.
+     */
+    private static void fermatNormalize(int[] r, int N) {
+        for (;;) {
+            int top = r[N];
+            if (top == 0)
+                return;
+            if (top == 1) {
+                int i = 0;
+                while (i < N && r[i] == 0)
+                    i++;
+                if (i == N)
+                    return;
+            }
+            long carry = -(long)top;
+            for (int i = 0; i < N && carry != 0; i++) {
+                carry += r[i] & LONG_MASK;
+                r[i] = (int)carry;
+                carry >>= 32;
+            }
+            r[N] = (int)carry;
+        }
+    }
+
     // Division
 
     /**
@@ -3539,6 +4018,31 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * @see    #BigInteger(java.lang.String, int)
      */
     public String toString(int radix) {
+        return toString(radix, false);
+    }
+
+    /**
+     * Returns the String representation of this BigInteger in the
+     * given radix, converting parts of the number in parallel when it is
+     * large.  The result is the same as that of {@link #toString(int)
+     * toString(radix)}.
+     *
+     * @implNote Large numbers are converted by recursively dividing them
+     * into a high and a low part, and the conversions of the parts are
+     * computed by tasks forked onto the {@link ForkJoinPool#commonPool()
+     * common pool}.  This uses more CPU time than {@code toString(radix)}
+     * in exchange for a shorter elapsed time.
+     *
+     * @param  radix  radix of the String representation.
+     * @return String representation of this BigInteger in the given radix.
+     * @see    #toString(int)
+     * @since 1.8
+     */
+    public String parallelToString(int radix) {
+        return toString(radix, true);
+    }
+
+    private String toString(int radix, boolean parallel) {
         if (signum == 0)
             return "0";
         if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX)
@@ -3552,11 +4056,11 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         // The results will be concatenated into this StringBuilder
         StringBuilder sb = new StringBuilder();
         if (signum < 0) {
-            toString(this.negate(), sb, radix, 0);
+            toString(this.negate(), sb, radix, 0, parallel, 0);
             sb.insert(0, '-');
         }
         else
-            toString(this, sb, radix, 0);
+            toString(this, sb, radix, 0, parallel, 0);
 
         return sb.toString();
     }
@@ -3619,9 +4123,12 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
      * @param sb     The StringBuilder that will be appended to in place.
      * @param radix  The base to convert to.
      * @param digits The minimum number of digits to pad to.
+     * @param parallel Whether the low part of the number is converted by a
+     *               task forked onto the common pool.
+     * @param depth  The depth of the recursion.
      */
     private static void toString(BigInteger u, StringBuilder sb, int radix,
-                                 int digits) {
+                                 int digits, boolean parallel, int depth) {
         /* If we're smaller than a certain threshold, use the smallToString
            method, padding with leading zeroes when necessary. */
         if (u.mag.length <= SCHOENHAGE_BASE_CONVERSION_THRESHOLD) {
@@ -3653,8 +4160,23 @@ public class BigInteger extends Number implements Comparable<BigInteger> {
         int expectedDigits = 1 << n;
 
         // Now recursively build the two halves of each number.
-        toString(results[0], sb, radix, digits-expectedDigits);
-        toString(results[1], sb, radix, expectedDigits);
+        if (parallel && depth <= parallelForkDepth()) {
+            // The low half is built into its own StringBuilder, which
+            // leaves its leading zeros to be padded here.
+            ForkJoinTask<String> low = ForkJoinTask.adapt(() -> {
+                StringBuilder lsb = new StringBuilder();
+                toString(results[1], lsb, radix, expectedDigits, true, depth+1);
+                return lsb.toString();
+            }).fork();
+            toString(results[0], sb, radix, digits-expectedDigits, true, depth+1);
+            String s = low.join();
+            for (int i = s.length(); i < expectedDigits; i++)
+                sb.append('0');
+            sb.append(s);
+        } else {
+            toString(results[0], sb, radix, digits-expectedDigits, false, depth);
+            toString(results[1], sb, radix, expectedDigits, false, depth);
+        }
     }
 
     /**
@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2003, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.math;
+
+import static java.math.BigDecimal.INFLATED;
+import static java.math.BigDecimal.LONG_TEN_POWERS_TABLE;
+import static java.math.BigInteger.LONG_MASK;
+
+/**
+ * A mutable decimal number of fixed scale, for computing sums and
+ * products of many {@code BigDecimal} values without creating a new
+ * {@code BigDecimal} for every operation.
+ *
+ * <p>An accumulator holds a value of the scale given when it is created,
+ * to which values are added, from which they are subtracted, and by
+ * which they are multiplied in place.  Operands of a larger scale, and
+ * products, are rounded to the scale of the accumulator with its rounding
+ * mode, {@link RoundingMode#UNNECESSARY} unless another is given, so that
+ * sums at a scale large enough for their operands are exact.  The value
+ * is obtained with {@link #toBigDecimal()}, or rounded to a precision with
+ * {@link #toBigDecimal(MathContext)}.
+ *
+ * <p>While its unscaled value fits in a {@code long}, an accumulator
+ * computes sums and products of operands whose unscaled values also fit
+ * in a {@code long} without creating any objects.  Larger values are held
+ * in an internal mutable multiprecision integer that is updated in place.
+ * Summing a stream of {@code BigDecimal} values:
+ *
+ * <blockquote><pre>
+ * DecimalAccumulator total = new DecimalAccumulator(2);
+ * for (BigDecimal amount : amounts)
+ *     total.add(amount);
+ * BigDecimal sum = total.toBigDecimal();
+ * </pre></blockquote>
+ *
+ * or, for streams, {@link java.util.stream.Collectors#summingBigDecimal
+ * Collectors.summingBigDecimal}.
+ *
+ * <p>Instances of this class are not safe for use by multiple threads.
+ *
+ * @see     BigDecimal
+ * @since   1.8
+ */
+public final class DecimalAccumulator {
+
+    /**
+     * The scale of the value of this accumulator.
+     */
+    private final int scale;
+
+    /**
+     * The rounding mode for operands of a larger scale and for products.
+     */
+    private final RoundingMode roundingMode;
+
+    /**
+     * The unscaled value, while {@code inflated} is false.
+     */
+    private long compact;
+
+    /**
+     * Whether the unscaled value does not fit in {@code compact}, and is
+     * held as {@code sign} and {@code mag} instead.
+     */
+    private boolean inflated;
+
+    /**
+     * The sign of the unscaled value, while inflated.
+     */
+    private int sign;
+
+    /**
+     * The magnitude of the unscaled value, while inflated.
+     */
+    private final MutableBigInteger mag = new MutableBigInteger(new int[2]);
+
+    /**
+     * Holds the magnitude of {@code long} operands of an inflated value.
+     */
+    private final MutableBigInteger operand = new MutableBigInteger(new int[2]);
+
+    /**
+     * Creates an accumulator of the given scale with a value of zero,
+     * which throws {@code ArithmeticException} if an operation would need
+     * rounding.
+     *
+     * @param scale the scale of the value of this accumulator.
+     */
+    public DecimalAccumulator(int scale) {
+        this(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Creates an accumulator of the given scale and rounding mode with a
+     * value of zero.
+     *
+     * @param scale the scale of the value of this accumulator.
+     * @param roundingMode the rounding mode for operands of a larger scale
+     *        and for products.
+     * @throws NullPointerException if {@code roundingMode} is null.
+     */
+    public DecimalAccumulator(int scale, RoundingMode roundingMode) {
+        if (roundingMode == null)
+            throw new NullPointerException("roundingMode");
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+    }
+
+    /**
+     * Returns the scale of the value of this accumulator.
+     *
+     * @return the scale of the value of this accumulator.
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Returns the rounding mode of this accumulator.
+     *
+     * @return the rounding mode of this accumulator.
+     */
+    public RoundingMode roundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * Adds the given value to this accumulator.
+     *
+     * @param  augend value to be added.
+     * @return this accumulator.
+     * @throws ArithmeticException if {@code augend} has a larger scale
+     *         than this accumulator and the rounding mode is
+     *         {@code UNNECESSARY}, but rounding is needed.
+     */
+    public DecimalAccumulator add(BigDecimal augend) {
+        if (augend.intCompact != INFLATED)
+            addUnscaled(augend.intCompact, augend.scale(), false);
+        else
+            addBig(augend.setScale(scale, roundingMode).unscaledValue());
+        return this;
+    }
+
+    /**
+     * Adds the given integer to this accumulator.
+     *
+     * @param  augend value to be added.
+     * @return this accumulator.
+     * @throws ArithmeticException if the scale of this accumulator is
+     *         negative and the rounding mode is {@code UNNECESSARY}, but
+     *         rounding is needed.
+     */
+    public DecimalAccumulator add(long augend) {
+        addUnscaled(augend, 0, false);
+        return this;
+    }
+
+    /**
+     * Adds the value of the given accumulator to this accumulator.  The
+     * given accumulator is not changed.
+     *
+     * @param  augend accumulator whose value is to be added.
+     * @return this accumulator.
+     * @throws ArithmeticException if {@code augend} has a larger scale
+     *         than this accumulator and the rounding mode is
+     *         {@code UNNECESSARY}, but rounding is needed.
+     */
+    public DecimalAccumulator add(DecimalAccumulator augend) {
+        if (augend.scale != scale)
+            return add(augend.toBigDecimal());
+        if (!augend.inflated)
+            addUnscaled(augend.compact, scale, false);
+        else
+            addMagnitude(augend.sign, augend.mag);
+        return this;
+    }
+
+    /**
+     * Subtracts the given value from this accumulator.
+     *
+     * @param  subtrahend value to be subtracted.
+     * @return this accumulator.
+     * @throws ArithmeticException if {@code subtrahend} has a larger scale
+     *         than this accumulator and the rounding mode is
+     *         {@code UNNECESSARY}, but rounding is needed.
+     */
+    public DecimalAccumulator subtract(BigDecimal subtrahend) {
+        if (subtrahend.intCompact != INFLATED)
+            addUnscaled(subtrahend.intCompact, subtrahend.scale(), true);
+        else
+            addBig(subtrahend.setScale(scale, roundingMode).unscaledValue().negate());
+        return this;
+    }
+
+    /**
+     * Subtracts the given integer from this accumulator.
+     *
+     * @param  subtrahend value to be subtracted.
+     * @return this accumulator.
+     * @throws ArithmeticException if the scale of this accumulator is
+     *         negative and the rounding mode is {@code UNNECESSARY}, but
+     *         rounding is needed.
+     */
+    public DecimalAccumulator subtract(long subtrahend) {
+        addUnscaled(subtrahend, 0, true);
+        return this;
+    }
+
+    /**
+     * Multiplies this accumulator by the given value.  The product is
+     * rounded to the scale of this accumulator.
+     *
+     * @param  multiplicand value to multiply by.
+     * @return this accumulator.
+     * @throws ArithmeticException if the rounding mode is
+     *         {@code UNNECESSARY}, but the product needs rounding.
+     */
+    public DecimalAccumulator multiply(BigDecimal multiplicand) {
+        if (multiplicand.intCompact == INFLATED
+                || !multiplyUnscaled(multiplicand.intCompact, multiplicand.scale()))
+            set(toBigDecimal().multiply(multiplicand).setScale(scale, roundingMode));
+        return this;
+    }
+
+    /**
+     * Multiplies this accumulator by the given integer.
+     *
+     * @param  multiplicand value to multiply by.
+     * @return this accumulator.
+     */
+    public DecimalAccumulator multiply(long multiplicand) {
+        if (!multiplyUnscaled(multiplicand, 0))
+            set(toBigDecimal().multiply(BigDecimal.valueOf(multiplicand)));
+        return this;
+    }
+
+    /**
+     * Sets the value of this accumulator to zero.
+     *
+     * @return this accumulator.
+     */
+    public DecimalAccumulator reset() {
+        compact = 0;
+        inflated = false;
+        return this;
+    }
+
+    /**
+     * Returns the signum function of the value of this accumulator.
+     *
+     * @return -1, 0, or 1 as the value of this accumulator is negative,
+     *         zero, or positive.
+     */
+    public int signum() {
+        return inflated ? sign : Long.signum(compact);
+    }
+
+    /**
+     * Returns the value of this accumulator, at its scale.
+     *
+     * @return the value of this accumulator.
+     */
+    public BigDecimal toBigDecimal() {
+        return inflated ? mag.toBigDecimal(sign, scale)
+                        : BigDecimal.valueOf(compact, scale);
+    }
+
+    /**
+     * Returns the value of this accumulator, rounded according to the
+     * given context.
+     *
+     * @param  mc the context to use.
+     * @return the value of this accumulator, rounded as necessary.
+     * @throws ArithmeticException if the rounding mode of {@code mc} is
+     *         {@code UNNECESSARY}, but the value needs rounding.
+     */
+    public BigDecimal toBigDecimal(MathContext mc) {
+        return toBigDecimal().round(mc);
+    }
+
+    /**
+     * Returns the string representation of the value of this accumulator,
+     * as {@link BigDecimal#toString} does.
+     *
+     * @return the string representation of the value of this accumulator.
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+
+    // Internal arithmetic
+
+    /**
+     * Adds the unscaled value u of scale s, or subtracts it if negate is
+     * true, rescaling it first.
+     */
+    private void addUnscaled(long u, int s, boolean negate) {
+        long diff = (long)scale - s;
+        long v;
+        if (diff == 0 || u == INFLATED) {
+            v = u;
+        } else if (diff > 0 && diff < LONG_TEN_POWERS_TABLE.length) {
+            v = BigDecimal.longMultiplyPowerTen(u, (int)diff);
+        } else if (diff < 0 && -diff < LONG_TEN_POWERS_TABLE.length) {
+            v = BigDecimal.divideAndRound(u, LONG_TEN_POWERS_TABLE[(int)-diff],
+                                          roundingMode.oldMode);
+        } else {
+            v = INFLATED;
+        }
+        // Values that cannot be rescaled in a long take the slow path, as
+        // does Long.MIN_VALUE, which is the INFLATED sentinel of BigDecimal
+        // and cannot be negated in a long
+        if (v == INFLATED) {
+            BigInteger b = BigDecimal.valueOf(u, s).setScale(scale, roundingMode).unscaledValue();
+            addBig(negate ? b.negate() : b);
+            return;
+        }
+        if (negate)
+            v = -v;
+        if (!inflated) {
+            long r = compact + v;
+            // Overflow iff both arguments have the opposite sign of the result
+            if (((r ^ compact) & (r ^ v)) >= 0) {
+                compact = r;
+                return;
+            }
+            inflate();
+        }
+        setMagnitude(operand, v);
+        addMagnitude(Long.signum(v), operand);
+    }
+
+    /**
+     * Adds the unscaled value v, which is of the scale of this accumulator.
+     */
+    private void addBig(BigInteger v) {
+        if (v.bitLength() < 63) {
+            addUnscaled(v.longValue(), scale, false);
+        } else {
+            if (!inflated)
+                inflate();
+            addMagnitude(v.signum, new MutableBigInteger(v.mag));
+        }
+    }
+
+    /**
+     * Adds the value of the given sign and magnitude to the inflated value.
+     * The magnitude is not changed.
+     */
+    private void addMagnitude(int vsign, MutableBigInteger vmag) {
+        if (vsign == 0)
+            return;
+        if (!inflated)
+            inflate();
+        if (sign == 0) {
+            mag.copyValue(vmag);
+            sign = vsign;
+        } else if (sign == vsign) {
+            mag.add(vmag);
+        } else {
+            // subtract leaves the magnitude of the difference, and returns
+            // the sign of mag - vmag
+            int cmp = mag.subtract(vmag);
+            if (cmp == 0)
+                sign = 0;
+            else if (cmp < 0)
+                sign = vsign;
+        }
+        deflate();
+    }
+
+    /**
+     * Multiplies by the unscaled value v of scale s, returning false if the
+     * product cannot be computed in a long.
+     */
+    private boolean multiplyUnscaled(long v, int s) {
+        if (inflated)
+            return false;
+        long x = compact;
+        long product = x * v;
+        long ax = Math.abs(x);
+        long av = Math.abs(v);
+        if (!(((ax | av) >>> 31 == 0) || (v == 0) || (product / v == x))
+                || product == Long.MIN_VALUE)
+            return false;
+        if (s > 0) {
+            if (s >= LONG_TEN_POWERS_TABLE.length)
+                return false;
+            product = BigDecimal.divideAndRound(product, LONG_TEN_POWERS_TABLE[s],
+                                                roundingMode.oldMode);
+        } else if (s < 0) {
+            if (-s >= LONG_TEN_POWERS_TABLE.length)
+                return false;
+            product = BigDecimal.longMultiplyPowerTen(product, -s);
+            if (product == INFLATED)
+                return false;
+        }
+        compact = product;
+        return true;
+    }
+
+    /**
+     * Sets the value to the given value, which is of the scale of this
+     * accumulator.
+     */
+    private void set(BigDecimal v) {
+        reset();
+        addBig(v.unscaledValue());
+    }
+
+    /**
+     * Moves the compact value into sign and magnitude.
+     */
+    private void inflate() {
+        sign = Long.signum(compact);
+        setMagnitude(mag, compact);
+        inflated = true;
+    }
+
+    /**
+     * Moves the inflated value back into the compact value if it fits.
+     */
+    private void deflate() {
+        int len = mag.intLen;
+        if (len > 2)
+            return;
+        long m = 0;
+        for (int i = 0; i < len; i++)
+            m = (m << 32) | (mag.value[mag.offset + i] & LONG_MASK);
+        if (m < 0)
+            return;
+        compact = (sign < 0) ? -m : m;
+        inflated = false;
+    }
+
+    /**
+     * Sets the magnitude m to the absolute value of v, which may be
+     * {@code Long.MIN_VALUE}.
+     */
+    private static void setMagnitude(MutableBigInteger m, long v) {
+        long a = (v < 0) ? -v : v;
+        int hi = (int)(a >>> 32);
+        int[] val = m.value;
+        if (val.length < 2)
+            m.value = val = new int[2];
+        if (hi != 0) {
+            val[0] = hi;
+            val[1] = (int)a;
+            m.intLen = 2;
+        } else {
+            val[0] = (int)a;
+            m.intLen = (a == 0) ? 0 : 1;
+        }
+        m.offset = 0;
+    }
+}
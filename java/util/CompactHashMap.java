@@ -0,0 +1,963 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Hash table based implementation of the <tt>Map</tt> interface that
+ * allocates no per-mapping objects.  Like {@link HashMap}, this class
+ * permits <tt>null</tt> values and the <tt>null</tt> key, and provides
+ * constant-time performance for the basic operations (<tt>get</tt> and
+ * <tt>put</tt>).  It is intended for large, read-mostly maps, where the
+ * {@code Node} per mapping of {@code HashMap} dominates footprint and
+ * garbage collection work.
+ *
+ * <p>Mappings are held in dense parallel arrays of keys, values and
+ * cached hash codes, in insertion order.  A separate open-addressed table
+ * of {@code int} positions into these arrays, probed linearly, serves
+ * lookups.  A mapping thus costs about four words against the eight or
+ * more of a {@code HashMap.Node} plus its bucket slot, and a successful
+ * {@code get} touches two or three adjacent arrays rather than chasing
+ * node pointers.  Removed mappings leave holes in the dense arrays which
+ * are squeezed out the next time the arrays fill up.
+ *
+ * <p>Iteration over the collection views follows insertion order (which
+ * is not affected if a key is re-inserted into the map), and takes time
+ * proportional to the number of mappings ever inserted since the last
+ * compaction rather than to the capacity of the table.  The iterators
+ * and spliterators returned by the collection views are <i>fail-fast</i>
+ * in the same way as those of {@code HashMap}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of
+ * the threads modifies the map structurally, it <i>must</i> be
+ * synchronized externally.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see     HashMap
+ * @see     LinkedHashMap
+ * @since   1.8
+ */
+public class CompactHashMap<K,V> extends AbstractMap<K,V>
+    implements Map<K,V>, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 7429134286420164562L;
+
+    /**
+     * The default size of the index table - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum size of the index table.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Stands in the keys array for a mapping that has been removed.
+     */
+    static final Object REMOVED = new Object();
+
+    /**
+     * Returns the number of entries that fit in the dense arrays for an
+     * index table of the given size, holding the index to a load factor
+     * of 0.75.
+     */
+    static int entryCapacity(int tableSize) {
+        return tableSize - (tableSize >>> 2);
+    }
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The open-addressed index, whose slots hold an entry position plus
+     * one, or 0 if free.  Allocated lazily on first insertion; the
+     * length is always a power of two.
+     */
+    transient int[] index;
+
+    /**
+     * The keys in insertion order, with {@link #REMOVED} marking holes.
+     */
+    transient Object[] keys;
+
+    /**
+     * The values, parallel to {@link #keys}.
+     */
+    transient Object[] vals;
+
+    /**
+     * The {@link HashMap#hash} of each key, parallel to {@link #keys}.
+     */
+    transient int[] hashes;
+
+    /**
+     * The number of dense positions in use, including holes.
+     */
+    transient int used;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Holds cached entrySet().
+     */
+    transient Set<Map.Entry<K,V>> entrySet;
+
+    /**
+     * The index table size to use on first insertion.
+     */
+    transient int initialTableSize;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty <tt>CompactHashMap</tt> able to hold the
+     * specified number of mappings without resizing.
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public CompactHashMap(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        this.initialTableSize = tableSizeFor(initialCapacity);
+    }
+
+    /**
+     * Constructs an empty <tt>CompactHashMap</tt> with the default
+     * initial capacity (12).
+     */
+    public CompactHashMap() {
+        this.initialTableSize = DEFAULT_INITIAL_CAPACITY;
+    }
+
+    /**
+     * Constructs a new <tt>CompactHashMap</tt> with the same mappings as
+     * the specified <tt>Map</tt>, inserted in the iteration order of the
+     * specified map.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null
+     */
+    public CompactHashMap(Map<? extends K, ? extends V> m) {
+        this(m.size());
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet())
+            putVal(e.getKey(), e.getValue(), false);
+    }
+
+    /**
+     * Returns the index table size needed to hold the given number of
+     * mappings.
+     */
+    static int tableSizeFor(int mappings) {
+        long t = (long)mappings + ((long)mappings >>> 1) + 1L;
+        return (t >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY :
+            Math.max(4, HashMap.tableSizeFor((int)t));
+    }
+
+    /**
+     * Spreads an already spread {@link HashMap#hash} once more, so that
+     * the low bits used to start a linear probe are well distributed.
+     */
+    static int probe(int h) {
+        return IntObjectMap.hash(h);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the index slot referring to the given key, or -1 if absent.
+     */
+    final int slotOf(Object key, int h) {
+        int[] ix;
+        if ((ix = index) != null) {
+            Object[] ks = keys; int[] hs = hashes;
+            int mask = ix.length - 1, j = probe(h) & mask, p;
+            while ((p = ix[j]) != 0) {
+                Object k;
+                if (hs[--p] == h &&
+                    ((k = ks[p]) == key || (key != null && key.equals(k))))
+                    return j;
+                j = (j + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the dense position of the given key, or -1 if absent.
+     */
+    final int positionOf(Object key) {
+        int j = slotOf(key, HashMap.hash(key));
+        return (j < 0) ? -1 : index[j] - 1;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @see #put(Object, Object)
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int p;
+        return ((p = positionOf(key)) < 0) ? null : (V)vals[p];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int p;
+        return ((p = positionOf(key)) < 0) ? defaultValue : (V)vals[p];
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the specified
+     * key.
+     */
+    public boolean containsKey(Object key) {
+        return positionOf(key) >= 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(Object value) {
+        Object[] ks = keys, vs = vals;
+        for (int p = 0, u = used; p < u; ++p) {
+            if (ks[p] != REMOVED && Objects.equals(value, vs[p]))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced, keeping the key's position in iteration order.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     *         (A <tt>null</tt> return can also indicate that the map
+     *         previously associated <tt>null</tt> with <tt>key</tt>.)
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Implements Map.put and related methods.
+     *
+     * @param onlyIfAbsent if true, don't change existing non-null value
+     * @return previous value, or null if none
+     */
+    @SuppressWarnings("unchecked")
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        int h = HashMap.hash(key), j;
+        if ((j = slotOf(key, h)) >= 0) {
+            int p = index[j] - 1;
+            V oldValue = (V)vals[p];
+            if (!onlyIfAbsent || oldValue == null)
+                vals[p] = value;
+            return oldValue;
+        }
+        if (index == null || used == keys.length)
+            resize();
+        int[] ix = index;
+        int mask = ix.length - 1;
+        j = probe(h) & mask;
+        while (ix[j] != 0)
+            j = (j + 1) & mask;
+        int p = used++;
+        keys[p] = key;
+        vals[p] = value;
+        hashes[p] = h;
+        ix[j] = p + 1;
+        ++size;
+        ++modCount;
+        return null;
+    }
+
+    /**
+     * Initializes or rebuilds the table once the dense arrays are full.
+     * If at least half the positions are holes left by removals, the
+     * arrays are compacted at the same capacity; otherwise the capacity
+     * is doubled.  Either way the surviving entries keep their relative
+     * order and the index is rebuilt.
+     */
+    final void resize() {
+        int[] oldIndex = index;
+        int n;
+        if (oldIndex == null)
+            n = initialTableSize;
+        else if (size > (used >>> 1)) {
+            if ((n = oldIndex.length) >= MAXIMUM_CAPACITY)
+                throw new IllegalStateException("Map capacity exceeded");
+            n <<= 1;
+        }
+        else
+            n = oldIndex.length;
+        int cap = entryCapacity(n), mask = n - 1, e = 0;
+        Object[] oldKeys = keys, oldVals = vals;
+        int[] oldHashes = hashes;
+        Object[] ks = new Object[cap], vs = new Object[cap];
+        int[] hs = new int[cap], ix = new int[n];
+        for (int p = 0, u = used; p < u; ++p) {
+            Object k;
+            if ((k = oldKeys[p]) != REMOVED) {
+                int h = oldHashes[p], j = probe(h) & mask;
+                while (ix[j] != 0)
+                    j = (j + 1) & mask;
+                ks[e] = k;
+                vs[e] = oldVals[p];
+                hs[e] = h;
+                ix[j] = ++e;
+            }
+        }
+        index = ix;
+        keys = ks;
+        vals = vs;
+        hashes = hs;
+        used = e;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     *         (A <tt>null</tt> return can also indicate that the map
+     *         previously associated <tt>null</tt> with <tt>key</tt>.)
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int j;
+        if ((j = slotOf(key, HashMap.hash(key))) < 0)
+            return null;
+        int p = index[j] - 1;
+        V oldValue = (V)vals[p];
+        removeSlot(j);
+        return oldValue;
+    }
+
+    /**
+     * Removes the mapping referred to by the given index slot, shifting
+     * back later slots of the same probe cluster so that lookups never
+     * meet a deleted slot.
+     */
+    final void removeSlot(int j) {
+        int[] ix = index, hs = hashes;
+        int p = ix[j] - 1, mask = ix.length - 1;
+        keys[p] = REMOVED;
+        vals[p] = null;
+        for (int last, q;;) {
+            j = ((last = j) + 1) & mask;
+            for (;;) {
+                if ((q = ix[j]) == 0) {
+                    ix[last] = 0;
+                    --size;
+                    ++modCount;
+                    return;
+                }
+                int slot = probe(hs[q - 1]) & mask;
+                if (last <= j ? (last >= slot || slot > j) :
+                    (last >= slot && slot > j))
+                    break;
+                j = (j + 1) & mask;
+            }
+            ix[last] = q;
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        if (index != null && used > 0) {
+            Arrays.fill(index, 0);
+            Arrays.fill(keys, 0, used, null);
+            Arrays.fill(vals, 0, used, null);
+            size = used = 0;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        Object[] ks = keys, vs = vals;
+        int mc = modCount;
+        for (int p = 0, u = used; p < u && modCount == mc; ++p) {
+            Object k;
+            if ((k = ks[p]) != REMOVED)
+                action.accept((K)k, (V)vs[p]);
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        if (function == null)
+            throw new NullPointerException();
+        Object[] ks = keys, vs = vals;
+        int mc = modCount;
+        for (int p = 0, u = used; p < u && modCount == mc; ++p) {
+            Object k;
+            if ((k = ks[p]) != REMOVED)
+                vs[p] = function.apply((K)k, (V)vs[p]);
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns a shallow copy of this <tt>CompactHashMap</tt> instance: the
+     * keys and values themselves are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object clone() {
+        CompactHashMap<K,V> result;
+        try {
+            result = (CompactHashMap<K,V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (index != null) {
+            result.index = index.clone();
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+            result.hashes = hashes.clone();
+        }
+        result.keySet = null;
+        result.values = null;
+        result.entrySet = null;
+        result.modCount = 0;
+        return result;
+    }
+
+    /* ------------------------------------------------------------ */
+    // Views
+
+    /**
+     * Returns a {@link Set} view of the keys contained in this map, in
+     * insertion order.  The set is backed by the map, so changes to the
+     * map are reflected in the set, and vice-versa.  The set supports
+     * element removal, but not the <tt>add</tt> or <tt>addAll</tt>
+     * operations.
+     *
+     * @return a set view of the keys contained in this map
+     */
+    public Set<K> keySet() {
+        Set<K> ks;
+        return (ks = keySet) == null ? (keySet = new KeySet()) : ks;
+    }
+
+    final class KeySet extends AbstractSet<K> {
+        public final int size()                 { return size; }
+        public final void clear()               { CompactHashMap.this.clear(); }
+        public final Iterator<K> iterator()     { return new KeyIterator(); }
+        public final boolean contains(Object o) { return containsKey(o); }
+        public final boolean remove(Object key) {
+            int j;
+            if ((j = slotOf(key, HashMap.hash(key))) < 0)
+                return false;
+            removeSlot(j);
+            return true;
+        }
+        public final Spliterator<K> spliterator() {
+            return new KeySpliterator<>(CompactHashMap.this, 0, -1, 0, 0);
+        }
+        @SuppressWarnings("unchecked")
+        public final void forEach(Consumer<? super K> action) {
+            if (action == null)
+                throw new NullPointerException();
+            Object[] ks = keys;
+            int mc = modCount;
+            for (int p = 0, u = used; p < u && modCount == mc; ++p) {
+                Object k;
+                if ((k = ks[p]) != REMOVED)
+                    action.accept((K)k);
+            }
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this
+     * map, in insertion order of their keys.  The collection is backed by
+     * the map, so changes to the map are reflected in the collection, and
+     * vice-versa.  The collection supports element removal, but not the
+     * <tt>add</tt> or <tt>addAll</tt> operations.
+     *
+     * @return a view of the values contained in this map
+     */
+    public Collection<V> values() {
+        Collection<V> vs;
+        return (vs = values) == null ? (values = new Values()) : vs;
+    }
+
+    final class Values extends AbstractCollection<V> {
+        public final int size()                 { return size; }
+        public final void clear()               { CompactHashMap.this.clear(); }
+        public final Iterator<V> iterator()     { return new ValueIterator(); }
+        public final boolean contains(Object o) { return containsValue(o); }
+        public final Spliterator<V> spliterator() {
+            return new ValueSpliterator<>(CompactHashMap.this, 0, -1, 0, 0);
+        }
+        @SuppressWarnings("unchecked")
+        public final void forEach(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            Object[] ks = keys, vs = vals;
+            int mc = modCount;
+            for (int p = 0, u = used; p < u && modCount == mc; ++p) {
+                if (ks[p] != REMOVED)
+                    action.accept((V)vs[p]);
+            }
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map, in
+     * insertion order.  The set is backed by the map, so changes to the
+     * map are reflected in the set, and vice-versa.  The set supports
+     * element removal, but not the <tt>add</tt> or <tt>addAll</tt>
+     * operations.  Entries obtained during iteration write through to
+     * the map while their mapping is present.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public final int size()                 { return size; }
+        public final void clear()               { CompactHashMap.this.clear(); }
+        public final Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            int p = positionOf(e.getKey());
+            return p >= 0 && Objects.equals(vals[p], e.getValue());
+        }
+        public final boolean remove(Object o) {
+            if (o instanceof Map.Entry) {
+                Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+                Object key = e.getKey();
+                int j = slotOf(key, HashMap.hash(key));
+                if (j >= 0 && Objects.equals(vals[index[j] - 1], e.getValue())) {
+                    removeSlot(j);
+                    return true;
+                }
+            }
+            return false;
+        }
+        public final Spliterator<Map.Entry<K,V>> spliterator() {
+            return new EntrySpliterator<>(CompactHashMap.this, 0, -1, 0, 0);
+        }
+    }
+
+    /**
+     * A write-through view of a mapping, created at a dense position.
+     * The key is held directly; the position is revalidated against the
+     * key before each access, since resizes and compactions move
+     * mappings.  Once the mapping is removed, the entry keeps the last
+     * value it observed, as a detached {@code HashMap} node would.
+     */
+    static final class Entry<K,V> implements Map.Entry<K,V> {
+        final CompactHashMap<K,V> map;
+        final K key;
+        V value;      // last value read or written
+        int pos;      // dense position, possibly stale
+
+        @SuppressWarnings("unchecked")
+        Entry(CompactHashMap<K,V> map, int pos) {
+            this.map = map;
+            this.pos = pos;
+            this.key = (K)map.keys[pos];
+            this.value = (V)map.vals[pos];
+        }
+
+        /**
+         * Returns the current position of the key, or -1 if it has
+         * been removed.
+         */
+        final int position() {
+            Object[] ks = map.keys;
+            int p = pos;
+            if (ks == null || p >= map.used || ks[p] != key) {
+                if ((p = map.positionOf(key)) >= 0)
+                    pos = p;
+            }
+            return p;
+        }
+
+        public final K getKey()        { return key; }
+        @SuppressWarnings("unchecked")
+        public final V getValue() {
+            int p = position();
+            return (p >= 0) ? (value = (V)map.vals[p]) : value;
+        }
+        public final String toString() { return key + "=" + getValue(); }
+
+        public final int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @SuppressWarnings("unchecked")
+        public final V setValue(V newValue) {
+            int p = position();
+            V oldValue = (p >= 0) ? (V)map.vals[p] : value;
+            if (p >= 0)
+                map.vals[p] = newValue;
+            value = newValue;
+            return oldValue;
+        }
+
+        public final boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (o instanceof Map.Entry) {
+                Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+                if (Objects.equals(key, e.getKey()) &&
+                    Objects.equals(getValue(), e.getValue()))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    abstract class CompactIterator {
+        int next;              // next position to return, or used if none
+        int current;           // position last returned, or -1
+        int expectedModCount;  // for fast-fail
+
+        CompactIterator() {
+            expectedModCount = modCount;
+            current = -1;
+            next = advance(0);
+        }
+
+        final int advance(int p) {
+            Object[] ks = keys;
+            int u = used;
+            while (p < u && ks[p] == REMOVED)
+                ++p;
+            return p;
+        }
+
+        public final boolean hasNext() {
+            return next < used;
+        }
+
+        final int nextPosition() {
+            int p = next;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (p >= used)
+                throw new NoSuchElementException();
+            next = advance((current = p) + 1);
+            return p;
+        }
+
+        public final void remove() {
+            int p = current;
+            if (p < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            current = -1;
+            removeSlot(slotOf(keys[p], hashes[p]));
+            expectedModCount = modCount;
+        }
+    }
+
+    final class KeyIterator extends CompactIterator
+        implements Iterator<K> {
+        @SuppressWarnings("unchecked")
+        public final K next() { return (K)keys[nextPosition()]; }
+    }
+
+    final class ValueIterator extends CompactIterator
+        implements Iterator<V> {
+        @SuppressWarnings("unchecked")
+        public final V next() { return (V)vals[nextPosition()]; }
+    }
+
+    final class EntryIterator extends CompactIterator
+        implements Iterator<Map.Entry<K,V>> {
+        public final Map.Entry<K,V> next() {
+            return new Entry<>(CompactHashMap.this, nextPosition());
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // spliterators
+
+    /**
+     * Base of the view spliterators, traversing dense positions
+     * [index, fence) in insertion order.
+     */
+    abstract static class CompactSpliterator<K,V,T> implements Spliterator<T> {
+        final CompactHashMap<K,V> map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        CompactSpliterator(CompactHashMap<K,V> m, int origin, int fence,
+                           int est, int expectedModCount) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /** Returns the element at the given occupied position. */
+        abstract T element(int p);
+
+        /** Returns a spliterator over [lo, mid) with the given estimate. */
+        abstract CompactSpliterator<K,V,T> split(int lo, int mid, int est);
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                CompactHashMap<K,V> m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                hi = fence = m.used;
+            }
+            return hi;
+        }
+
+        public final CompactSpliterator<K,V,T> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : split(lo, index = mid, est >>>= 1);
+        }
+
+        public final boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence();
+            Object[] ks = map.keys;
+            while (index < hi) {
+                int p = index++;
+                if (ks[p] != REMOVED) {
+                    T t = element(p);
+                    if (map.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    action.accept(t);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public final void forEachRemaining(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), p = index;
+            Object[] ks = map.keys;
+            index = hi;
+            for (; p < hi; ++p) {
+                if (ks[p] != REMOVED)
+                    action.accept(element(p));
+            }
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.ORDERED;
+        }
+    }
+
+    static final class KeySpliterator<K,V>
+        extends CompactSpliterator<K,V,K> {
+        KeySpliterator(CompactHashMap<K,V> m, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+        @SuppressWarnings("unchecked")
+        K element(int p) { return (K)map.keys[p]; }
+        KeySpliterator<K,V> split(int lo, int mid, int est) {
+            return new KeySpliterator<>(map, lo, mid, est, expectedModCount);
+        }
+        public int characteristics() {
+            return super.characteristics() | Spliterator.DISTINCT;
+        }
+    }
+
+    static final class ValueSpliterator<K,V>
+        extends CompactSpliterator<K,V,V> {
+        ValueSpliterator(CompactHashMap<K,V> m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+        @SuppressWarnings("unchecked")
+        V element(int p) { return (V)map.vals[p]; }
+        ValueSpliterator<K,V> split(int lo, int mid, int est) {
+            return new ValueSpliterator<>(map, lo, mid, est, expectedModCount);
+        }
+    }
+
+    static final class EntrySpliterator<K,V>
+        extends CompactSpliterator<K,V,Map.Entry<K,V>> {
+        EntrySpliterator(CompactHashMap<K,V> m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+        Map.Entry<K,V> element(int p) { return new Entry<>(map, p); }
+        EntrySpliterator<K,V> split(int lo, int mid, int est) {
+            return new EntrySpliterator<>(map, lo, mid, est, expectedModCount);
+        }
+        public int characteristics() {
+            return super.characteristics() | Spliterator.DISTINCT;
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // Serialization
+
+    /**
+     * Save the state of the <tt>CompactHashMap</tt> instance to a stream
+     * (i.e., serialize it).
+     *
+     * @serialData The <i>size</i> of the map (the number of key-value
+     *             mappings) is emitted (int), followed by the key (Object)
+     *             and value (Object) for each key-value mapping, in
+     *             insertion order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        Object[] ks = keys, vs = vals;
+        for (int p = 0, u = used; p < u; ++p) {
+            Object k;
+            if ((k = ks[p]) != REMOVED) {
+                s.writeObject(k);
+                s.writeObject(vs[p]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the <tt>CompactHashMap</tt> instance from a stream
+     * (i.e., deserialize it).
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        initialTableSize = tableSizeFor(mappings);
+        for (int i = 0; i < mappings; i++) {
+            K key = (K) s.readObject();
+            V value = (V) s.readObject();
+            putVal(key, value, false);
+        }
+    }
+}
@@ -132,6 +132,7 @@ import java.util.function.Function;
  * @see     Map
  * @see     TreeMap
  * @see     Hashtable
+ * @see     CompactHashMap
  * @since   1.2
  */
 public class HashMap<K,V> extends AbstractMap<K,V>
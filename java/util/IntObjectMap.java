@@ -0,0 +1,881 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Hash table mapping primitive {@code int} keys to object values.  Unlike
+ * {@code HashMap<Integer,V>}, this class neither boxes its keys nor
+ * allocates a node per mapping: keys and values are held in two parallel
+ * arrays and collisions are resolved by linear probing (open addressing).
+ * The value {@code null} is permitted, with the same ambiguity for
+ * {@link #get} as in {@link HashMap}.
+ *
+ * <p>The operations follow the {@link Map} contract where it applies to a
+ * primitive key type; the map does not implement {@code Map} itself since
+ * that would reintroduce boxing.  This implementation provides
+ * constant-time expected performance for {@code get}, {@code put} and
+ * {@code remove}, and iteration is proportional to the capacity of the
+ * table.  The {@link #keys} and {@link #values} streams, as well as the
+ * underlying spliterators, are <em>late-binding</em> and <em>fail-fast</em>
+ * in the same way as those of {@code HashMap}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of the
+ * threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see HashMap
+ * @see LongIntMap
+ * @see LongLongMap
+ * @since 1.8
+ */
+public class IntObjectMap<V> implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = -2180584432616389373L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity of the probe table.  The table array carries
+     * one extra slot for the zero key, so this must be less than
+     * {@code Integer.MAX_VALUE}.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.  Open
+     * addressing degrades quickly as the table fills, so load factors must
+     * be strictly less than one.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Spreads the bits of a key with a multiplicative (Fibonacci) hash so
+     * that keys differing only in their high bits, or forming arithmetic
+     * progressions, do not cluster in the low bits used for indexing.
+     */
+    static final int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a power of two size for the given target capacity.
+     */
+    static final int tableSizeFor(int cap) {
+        return HashMap.tableSizeFor(cap);
+    }
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The keys, of length capacity + 1.  A slot in the probe table is free
+     * iff its key is 0; the key 0 itself is kept in the extra last slot,
+     * whose occupancy is recorded by {@link #hasZeroKey}.  Allocated lazily
+     * on first insertion.
+     */
+    transient int[] keys;
+
+    /**
+     * The values, parallel to {@link #keys}.
+     */
+    transient Object[] vals;
+
+    /**
+     * Whether the key 0 is present (in the last slot).
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified, used to
+     * make the spliterators fail-fast.
+     */
+    transient int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor).
+     * Before the table is allocated this holds the initial capacity.
+     *
+     * @serial
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty map with the specified initial capacity and load
+     * factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in the range (0, 1)
+     */
+    public IntObjectMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        this.threshold = initialTableSize(initialCapacity, loadFactor);
+    }
+
+    /**
+     * Constructs an empty map with the specified initial capacity and the
+     * default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntObjectMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public IntObjectMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+    }
+
+    /**
+     * Returns the table size needed to hold the given number of mappings
+     * without resizing.
+     */
+    static int initialTableSize(int mappings, float loadFactor) {
+        float ft = (float)mappings / loadFactor + 1.0F;
+        return tableSizeFor((ft < (float)MAXIMUM_CAPACITY) ?
+                            (int)ft : MAXIMUM_CAPACITY);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot holding the given key, or the bitwise complement of
+     * the slot at which it would be inserted if absent.  The table must
+     * have been allocated.
+     */
+    final int slotOf(int key) {
+        int[] ks = keys;
+        int n = ks.length - 1;
+        if (key == 0)
+            return hasZeroKey ? n : ~n;
+        int mask = n - 1, i = hash(key) & mask, k;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code null} if none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i;
+        return (keys == null || (i = slotOf(key)) < 0) ? null : (V)vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value mapped to the key, or {@code defaultValue} if none
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        int i;
+        return (keys == null || (i = slotOf(key)) < 0) ?
+            defaultValue : (V)vals[i];
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the key
+     */
+    public boolean containsKey(int key) {
+        return keys != null && slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(Object value) {
+        int[] ks; Object[] vs;
+        if ((ks = keys) != null && size > 0) {
+            vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i < n; ++i) {
+                if (ks[i] != 0 && Objects.equals(value, vs[i]))
+                    return true;
+            }
+            return hasZeroKey && Objects.equals(value, vs[n]);
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public V put(int key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}) associates it with the given value and
+     * returns {@code null}, else returns the current value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key.
+     */
+    public V putIfAbsent(int key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V putVal(int key, V value, boolean onlyIfAbsent) {
+        if (keys == null)
+            resize();
+        int i = slotOf(key);
+        if (i >= 0) {
+            V oldValue = (V)vals[i];
+            if (!onlyIfAbsent || oldValue == null)
+                vals[i] = value;
+            return oldValue;
+        }
+        insertAt(~i, key, value);
+        return null;
+    }
+
+    /**
+     * Stores a new mapping at a free slot found by {@link #slotOf}.
+     */
+    final void insertAt(int i, int key, Object value) {
+        if (key == 0)
+            hasZeroKey = true;
+        else
+            keys[i] = key;
+        vals[i] = value;
+        ++modCount;
+        if (++size > threshold)
+            resize();
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), attempts to compute its value using the
+     * given mapping function and enters it into this map unless
+     * {@code null}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key,
+                             IntFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        if (keys == null)
+            resize();
+        int i = slotOf(key);
+        V oldValue;
+        if (i >= 0 && (oldValue = (V)vals[i]) != null)
+            return oldValue;
+        int mc = modCount;
+        V v = mappingFunction.apply(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (v != null) {
+            if (i >= 0)
+                vals[i] = v;
+            else
+                insertAt(~i, key, v);
+        }
+        return v;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i;
+        if (keys == null || (i = slotOf(key)) < 0)
+            return null;
+        V oldValue = (V)vals[i];
+        if (key == 0) {
+            hasZeroKey = false;
+            vals[i] = null;
+        }
+        else
+            shiftKeys(i);
+        ++modCount;
+        --size;
+        return oldValue;
+    }
+
+    /**
+     * Removes the entry at the given probe slot by shifting back later
+     * entries of the same cluster whose probe sequence passes through it,
+     * so that lookups never need tombstones.
+     */
+    final void shiftKeys(int pos) {
+        int[] ks = keys; Object[] vs = vals;
+        int mask = ks.length - 2;
+        for (int last, k;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = null;
+                    return;
+                }
+                int slot = hash(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos) :
+                    (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        int[] ks;
+        modCount++;
+        if ((ks = keys) != null && size > 0) {
+            size = 0;
+            hasZeroKey = false;
+            Arrays.fill(ks, 0);
+            Arrays.fill(vals, null);
+        }
+    }
+
+    /**
+     * Initializes or doubles the table, rehashing all present keys.
+     */
+    final void resize() {
+        int[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length - 1;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= MAXIMUM_CAPACITY)
+                throw new IllegalStateException("Map capacity exceeded");
+            newCap = oldCap << 1;
+        }
+        else
+            newCap = (threshold > 0) ? threshold : DEFAULT_INITIAL_CAPACITY;
+        int[] ks = new int[newCap + 1];
+        Object[] vs = new Object[newCap + 1];
+        int mask = newCap - 1;
+        if (oldKeys != null) {
+            for (int j = 0; j < oldCap; ++j) {
+                int k;
+                if ((k = oldKeys[j]) != 0) {
+                    int i = hash(k) & mask;
+                    while (ks[i] != 0)
+                        i = (i + 1) & mask;
+                    ks[i] = k;
+                    vs[i] = oldVals[j];
+                }
+            }
+            vs[newCap] = oldVals[oldCap];
+        }
+        keys = ks;
+        vals = vs;
+        // Always leave at least one free probe slot so that probing ends
+        threshold = Math.min((int)(newCap * loadFactor), newCap - 1);
+    }
+
+    /**
+     * Represents an operation that accepts an {@code int} key and an
+     * object value and returns no result.
+     *
+     * @param <V> the type of mapped values
+     * @see IntObjectMap#forEach
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the value
+         */
+        void accept(int key, V value);
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is added or
+     *         removed during iteration
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        int[] ks;
+        if (action == null)
+            throw new NullPointerException();
+        if (size > 0 && (ks = keys) != null) {
+            Object[] vs = vals;
+            int n = ks.length - 1, mc = modCount;
+            for (int i = 0; i < n && modCount == mc; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    action.accept(k, (V)vs[i]);
+            }
+            if (hasZeroKey && modCount == mc)
+                action.accept(0, (V)vs[n]);
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfInt} over the keys of this map.  The
+     * spliterator reports {@link Spliterator#SIZED} (until split),
+     * {@link Spliterator#DISTINCT} and {@link Spliterator#NONNULL}.
+     *
+     * @return a spliterator over the keys of this map
+     */
+    public Spliterator.OfInt keySpliterator() {
+        return new KeySpliterator<>(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the values of this map.  The
+     * spliterator reports {@link Spliterator#SIZED} (until split).
+     *
+     * @return a spliterator over the values of this map
+     */
+    public Spliterator<V> valueSpliterator() {
+        return new ValueSpliterator<>(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the keys of this map.
+     *
+     * @return a stream of the keys of this map
+     */
+    public IntStream keys() {
+        return StreamSupport.intStream(keySpliterator(), false);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} of the values of this map.
+     *
+     * @return a stream of the values of this map
+     */
+    public Stream<V> values() {
+        return StreamSupport.stream(valueSpliterator(), false);
+    }
+
+    /* ------------------------------------------------------------ */
+    // Object methods
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * <tt>true</tt> if the given object is also an {@code IntObjectMap}
+     * and the two maps represent the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return <tt>true</tt> if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntObjectMap))
+            return false;
+        IntObjectMap<?> m = (IntObjectMap<?>) o;
+        if (m.size != size)
+            return false;
+        if (size > 0) {
+            int[] ks = keys; Object[] vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i <= n; ++i) {
+                int k = ks[i], j;
+                if ((i < n) ? k != 0 : hasZeroKey) {
+                    if ((j = m.slotOf(k)) < 0 ||
+                        !Objects.equals(vs[i], m.vals[j]))
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map, defined as the sum of
+     * {@code Integer.hashCode(key) ^ Objects.hashCode(value)} over all
+     * mappings, in keeping with {@link Map#hashCode}.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        int h = 0;
+        if (size > 0) {
+            int[] ks = keys; Object[] vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i < n; ++i) {
+                if (ks[i] != 0)
+                    h += ks[i] ^ Objects.hashCode(vs[i]);
+            }
+            if (hasZeroKey)
+                h += Objects.hashCode(vs[n]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same form as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        if (size == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(',').append(' ');
+            sb.append(k).append('=').append(v == this ? "(this Map)" : v);
+        });
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns a shallow copy of this map: the values themselves are not
+     * cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public IntObjectMap<V> clone() {
+        IntObjectMap<V> result;
+        try {
+            result = (IntObjectMap<V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null) {
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Save the state of the map to a stream (i.e., serialize it).
+     *
+     * @serialData The <i>size</i> of the map (the number of key-value
+     *             mappings) is emitted (int), followed by the key (int)
+     *             and value (Object) for each key-value mapping.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        if (size > 0) {
+            int[] ks = keys; Object[] vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i <= n; ++i) {
+                if ((i < n) ? ks[i] != 0 : hasZeroKey) {
+                    s.writeInt(ks[i]);
+                    s.writeObject(vs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the map from a stream (i.e., deserialize it).
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        keys = null;
+        vals = null;
+        hasZeroKey = false;
+        size = 0;
+        threshold = initialTableSize(mappings, loadFactor);
+        for (int i = 0; i < mappings; i++)
+            put(s.readInt(), (V) s.readObject());
+    }
+
+    /* ------------------------------------------------------------ */
+    // spliterators
+
+    /**
+     * Base of the key and value spliterators, traversing table slots
+     * [index, fence), where the last slot of the table stands for the
+     * zero key.
+     */
+    static class IntObjectMapSpliterator<V> {
+        final IntObjectMap<V> map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        IntObjectMapSpliterator(IntObjectMap<V> m, int origin, int fence,
+                                int est, int expectedModCount) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                IntObjectMap<V> m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                int[] ks = m.keys;
+                hi = fence = (ks == null) ? 0 : ks.length;
+            }
+            return hi;
+        }
+
+        /**
+         * Returns the next occupied slot in [index, hi), or hi if none,
+         * advancing index past it.
+         */
+        final int nextSlot(int hi) {
+            IntObjectMap<V> m = map;
+            int[] ks = m.keys;
+            int n = ks.length - 1, i = index;
+            while (i < hi && ((i < n) ? ks[i] == 0 : !m.hasZeroKey))
+                ++i;
+            index = (i < hi) ? i + 1 : hi;
+            return i;
+        }
+
+        final void checkForComodification() {
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+    }
+
+    static final class KeySpliterator<V>
+        extends IntObjectMapSpliterator<V>
+        implements Spliterator.OfInt {
+        KeySpliterator(IntObjectMap<V> m, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public KeySpliterator<V> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator<>(map, lo, index = mid, est >>>= 1,
+                                     expectedModCount);
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            if (index < hi && (i = nextSlot(hi)) < hi) {
+                int k = map.keys[i];
+                checkForComodification();
+                action.accept(k);
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            while (index < hi && (i = nextSlot(hi)) < hi) {
+                action.accept(map.keys[i]);
+                checkForComodification();
+            }
+            checkForComodification();
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    static final class ValueSpliterator<V>
+        extends IntObjectMapSpliterator<V>
+        implements Spliterator<V> {
+        ValueSpliterator(IntObjectMap<V> m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public ValueSpliterator<V> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new ValueSpliterator<>(map, lo, index = mid, est >>>= 1,
+                                       expectedModCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            if (index < hi && (i = nextSlot(hi)) < hi) {
+                V v = (V)map.vals[i];
+                checkForComodification();
+                action.accept(v);
+                return true;
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            while (index < hi && (i = nextSlot(hi)) < hi) {
+                action.accept((V)map.vals[i]);
+                checkForComodification();
+            }
+            checkForComodification();
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0);
+        }
+    }
+}
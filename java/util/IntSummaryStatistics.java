@@ -75,6 +75,33 @@ public class IntSummaryStatistics implements IntConsumer {
      */
     public IntSummaryStatistics() { }
 
+    /**
+     * Constructs an instance with the specified {@code count}, {@code min},
+     * {@code max} and {@code sum}, as if that many values with that
+     * minimum, maximum and sum had been recorded.  If {@code count} is zero
+     * the other arguments are ignored and an empty instance is constructed.
+     *
+     * @param count the count of values
+     * @param min the minimum value
+     * @param max the maximum value
+     * @param sum the sum of all values
+     * @throws IllegalArgumentException if {@code count} is negative, or
+     *         positive with {@code min} greater than {@code max}
+     * @since 1.8
+     */
+    public IntSummaryStatistics(long count, int min, int max, long sum) {
+        if (count < 0L)
+            throw new IllegalArgumentException("Negative count value");
+        if (count > 0L) {
+            if (min > max)
+                throw new IllegalArgumentException("Minimum greater than maximum");
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
     /**
      * Records a new value into the summary information
      *
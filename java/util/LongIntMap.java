@@ -0,0 +1,829 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Hash table mapping primitive {@code long} keys to primitive {@code int}
+ * values.  Unlike {@code HashMap<Long,Integer>}, this class boxes neither
+ * keys nor values and allocates no node per mapping: keys and values are
+ * held in two parallel arrays and collisions are resolved by linear probing
+ * (open addressing).
+ *
+ * <p>Since a primitive value cannot signal absence, {@link #get},
+ * {@link #put} and {@link #remove} return {@code 0} when there was no
+ * mapping for the key; use {@link #containsKey} or {@link #getOrDefault}
+ * to distinguish that case from a mapping to {@code 0}.  In other respects
+ * the operations follow the {@link Map} contract, and the streams and
+ * spliterators over keys and values are <em>late-binding</em> and
+ * <em>fail-fast</em> in the same way as those of {@code HashMap}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of the
+ * threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.
+ *
+ * @see HashMap
+ * @see IntObjectMap
+ * @see LongLongMap
+ * @since 1.8
+ */
+public class LongIntMap implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 4183720949613257140L;
+
+    /**
+     * Spreads the bits of a key with a multiplicative (Fibonacci) hash,
+     * folding the high half in so that keys differing only in their upper
+     * 32 bits do not collide.
+     */
+    static final int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int x = (int)(h ^ (h >>> 32));
+        return x ^ (x >>> 16);
+    }
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The keys, of length capacity + 1.  A slot in the probe table is free
+     * iff its key is 0; the key 0 itself is kept in the extra last slot,
+     * whose occupancy is recorded by {@link #hasZeroKey}.  Allocated lazily
+     * on first insertion.
+     */
+    transient long[] keys;
+
+    /**
+     * The values, parallel to {@link #keys}.
+     */
+    transient int[] vals;
+
+    /**
+     * Whether the key 0 is present (in the last slot).
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified, used to
+     * make the spliterators fail-fast.
+     */
+    transient int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor).
+     * Before the table is allocated this holds the initial capacity.
+     *
+     * @serial
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty map with the specified initial capacity and load
+     * factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in the range (0, 1)
+     */
+    public LongIntMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        this.threshold =
+            IntObjectMap.initialTableSize(initialCapacity, loadFactor);
+    }
+
+    /**
+     * Constructs an empty map with the specified initial capacity and the
+     * default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongIntMap(int initialCapacity) {
+        this(initialCapacity, IntObjectMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public LongIntMap() {
+        this.loadFactor = IntObjectMap.DEFAULT_LOAD_FACTOR;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot holding the given key, or the bitwise complement of
+     * the slot at which it would be inserted if absent.  The table must
+     * have been allocated.
+     */
+    final int slotOf(long key) {
+        long[] ks = keys;
+        int n = ks.length - 1;
+        if (key == 0L)
+            return hasZeroKey ? n : ~n;
+        int mask = n - 1, i = hash(key) & mask;
+        long k;
+        while ((k = ks[i]) != 0L) {
+            if (k == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code 0} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code 0} if none
+     */
+    public int get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value mapped to the key, or {@code defaultValue} if none
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        int i;
+        return (keys == null || (i = slotOf(key)) < 0) ?
+            defaultValue : vals[i];
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        return keys != null && slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(int value) {
+        long[] ks; int[] vs;
+        if ((ks = keys) != null && size > 0) {
+            vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i < n; ++i) {
+                if (ks[i] != 0L && vs[i] == value)
+                    return true;
+            }
+            return hasZeroKey && vs[n] == value;
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public int put(long key, int value) {
+        if (keys == null)
+            resize();
+        int i = slotOf(key);
+        if (i >= 0) {
+            int oldValue = vals[i];
+            vals[i] = value;
+            return oldValue;
+        }
+        insertAt(~i, key, value);
+        return 0;
+    }
+
+    /**
+     * Stores a new mapping at a free slot found by {@link #slotOf}.
+     */
+    final void insertAt(int i, long key, int value) {
+        if (key == 0L)
+            hasZeroKey = true;
+        else
+            keys[i] = key;
+        vals[i] = value;
+        ++modCount;
+        if (++size > threshold)
+            resize();
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * computes its value using the given mapping function and enters it
+     * into this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public int computeIfAbsent(long key, LongToIntFunction mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        if (keys == null)
+            resize();
+        int i = slotOf(key);
+        if (i >= 0)
+            return vals[i];
+        int mc = modCount;
+        int v = mappingFunction.applyAsInt(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        insertAt(~i, key, v);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the value
+     * with the results of the given remapping function.  This is the
+     * primitive analog of {@link Map#merge}, and
+     * {@code merge(key, 1, Integer::sum)} counts occurrences without
+     * boxing.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be used if the key is absent
+     * @param remappingFunction the function to recompute a value if
+     *        present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     */
+    public int merge(long key, int value,
+                     IntBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        if (keys == null)
+            resize();
+        int i = slotOf(key);
+        if (i >= 0)
+            return vals[i] = remappingFunction.applyAsInt(vals[i], value);
+        insertAt(~i, key, value);
+        return value;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public int remove(long key) {
+        int i;
+        if (keys == null || (i = slotOf(key)) < 0)
+            return 0;
+        int oldValue = vals[i];
+        if (key == 0L)
+            hasZeroKey = false;
+        else
+            shiftKeys(i);
+        ++modCount;
+        --size;
+        return oldValue;
+    }
+
+    /**
+     * Removes the entry at the given probe slot by shifting back later
+     * entries of the same cluster whose probe sequence passes through it,
+     * so that lookups never need tombstones.
+     */
+    final void shiftKeys(int pos) {
+        long[] ks = keys; int[] vs = vals;
+        int mask = ks.length - 2;
+        long k;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == 0L) {
+                    ks[last] = 0L;
+                    return;
+                }
+                int slot = hash(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos) :
+                    (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        long[] ks;
+        modCount++;
+        if ((ks = keys) != null && size > 0) {
+            size = 0;
+            hasZeroKey = false;
+            Arrays.fill(ks, 0L);
+        }
+    }
+
+    /**
+     * Initializes or doubles the table, rehashing all present keys.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        int[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length - 1;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= IntObjectMap.MAXIMUM_CAPACITY)
+                throw new IllegalStateException("Map capacity exceeded");
+            newCap = oldCap << 1;
+        }
+        else
+            newCap = (threshold > 0) ? threshold :
+                IntObjectMap.DEFAULT_INITIAL_CAPACITY;
+        long[] ks = new long[newCap + 1];
+        int[] vs = new int[newCap + 1];
+        int mask = newCap - 1;
+        if (oldKeys != null) {
+            for (int j = 0; j < oldCap; ++j) {
+                long k;
+                if ((k = oldKeys[j]) != 0L) {
+                    int i = hash(k) & mask;
+                    while (ks[i] != 0L)
+                        i = (i + 1) & mask;
+                    ks[i] = k;
+                    vs[i] = oldVals[j];
+                }
+            }
+            vs[newCap] = oldVals[oldCap];
+        }
+        keys = ks;
+        vals = vs;
+        // Always leave at least one free probe slot so that probing ends
+        threshold = Math.min((int)(newCap * loadFactor), newCap - 1);
+    }
+
+    /**
+     * Represents an operation that accepts a {@code long} key and an
+     * {@code int} value and returns no result.
+     *
+     * @see LongIntMap#forEach
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the value
+         */
+        void accept(long key, int value);
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is added or
+     *         removed during iteration
+     */
+    public void forEach(EntryConsumer action) {
+        long[] ks;
+        if (action == null)
+            throw new NullPointerException();
+        if (size > 0 && (ks = keys) != null) {
+            int[] vs = vals;
+            int n = ks.length - 1, mc = modCount;
+            for (int i = 0; i < n && modCount == mc; ++i) {
+                long k;
+                if ((k = ks[i]) != 0L)
+                    action.accept(k, vs[i]);
+            }
+            if (hasZeroKey && modCount == mc)
+                action.accept(0L, vs[n]);
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfLong} over the keys of this map.  The
+     * spliterator reports {@link Spliterator#SIZED} (until split),
+     * {@link Spliterator#DISTINCT} and {@link Spliterator#NONNULL}.
+     *
+     * @return a spliterator over the keys of this map
+     */
+    public Spliterator.OfLong keySpliterator() {
+        return new KeySpliterator(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfInt} over the values of this map.  The
+     * spliterator reports {@link Spliterator#SIZED} (until split) and
+     * {@link Spliterator#NONNULL}.
+     *
+     * @return a spliterator over the values of this map
+     */
+    public Spliterator.OfInt valueSpliterator() {
+        return new ValueSpliterator(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} of the keys of this map.
+     *
+     * @return a stream of the keys of this map
+     */
+    public LongStream keys() {
+        return StreamSupport.longStream(keySpliterator(), false);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the values of this map.
+     *
+     * @return a stream of the values of this map
+     */
+    public IntStream values() {
+        return StreamSupport.intStream(valueSpliterator(), false);
+    }
+
+    /* ------------------------------------------------------------ */
+    // Object methods
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * <tt>true</tt> if the given object is also a {@code LongIntMap} and
+     * the two maps represent the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return <tt>true</tt> if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LongIntMap))
+            return false;
+        LongIntMap m = (LongIntMap) o;
+        if (m.size != size)
+            return false;
+        if (size > 0) {
+            long[] ks = keys; int[] vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i <= n; ++i) {
+                long k = ks[i];
+                int j;
+                if ((i < n) ? k != 0L : hasZeroKey) {
+                    if ((j = m.slotOf(k)) < 0 || vs[i] != m.vals[j])
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map, defined as the sum of
+     * {@code Long.hashCode(key) ^ value} over all mappings, in keeping
+     * with {@link Map#hashCode}.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        int h = 0;
+        if (size > 0) {
+            long[] ks = keys; int[] vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i < n; ++i) {
+                if (ks[i] != 0L)
+                    h += Long.hashCode(ks[i]) ^ vs[i];
+            }
+            if (hasZeroKey)
+                h += vs[n];
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same form as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        if (size == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(',').append(' ');
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns a copy of this map.
+     *
+     * @return a copy of this map
+     */
+    @Override
+    public LongIntMap clone() {
+        LongIntMap result;
+        try {
+            result = (LongIntMap)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null) {
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Save the state of the map to a stream (i.e., serialize it).
+     *
+     * @serialData The <i>size</i> of the map (the number of key-value
+     *             mappings) is emitted (int), followed by the key (long)
+     *             and value (int) for each key-value mapping.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        if (size > 0) {
+            long[] ks = keys; int[] vs = vals;
+            int n = ks.length - 1;
+            for (int i = 0; i <= n; ++i) {
+                if ((i < n) ? ks[i] != 0L : hasZeroKey) {
+                    s.writeLong(ks[i]);
+                    s.writeInt(vs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the map from a stream (i.e., deserialize it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        keys = null;
+        vals = null;
+        hasZeroKey = false;
+        size = 0;
+        threshold = IntObjectMap.initialTableSize(mappings, loadFactor);
+        for (int i = 0; i < mappings; i++)
+            put(s.readLong(), s.readInt());
+    }
+
+    /* ------------------------------------------------------------ */
+    // spliterators
+
+    /**
+     * Base of the key and value spliterators, traversing table slots
+     * [index, fence), where the last slot of the table stands for the
+     * zero key.
+     */
+    static class LongIntMapSpliterator {
+        final LongIntMap map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        LongIntMapSpliterator(LongIntMap m, int origin, int fence, int est,
+                              int expectedModCount) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                LongIntMap m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                long[] ks = m.keys;
+                hi = fence = (ks == null) ? 0 : ks.length;
+            }
+            return hi;
+        }
+
+        /**
+         * Returns the next occupied slot in [index, hi), or hi if none,
+         * advancing index past it.
+         */
+        final int nextSlot(int hi) {
+            LongIntMap m = map;
+            long[] ks = m.keys;
+            int n = ks.length - 1, i = index;
+            while (i < hi && ((i < n) ? ks[i] == 0L : !m.hasZeroKey))
+                ++i;
+            index = (i < hi) ? i + 1 : hi;
+            return i;
+        }
+
+        final void checkForComodification() {
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public final int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                (this instanceof KeySpliterator ? Spliterator.DISTINCT : 0) |
+                Spliterator.NONNULL;
+        }
+    }
+
+    static final class KeySpliterator
+        extends LongIntMapSpliterator
+        implements Spliterator.OfLong {
+        KeySpliterator(LongIntMap m, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public KeySpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator(map, lo, index = mid, est >>>= 1,
+                                   expectedModCount);
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            if (index < hi && (i = nextSlot(hi)) < hi) {
+                long k = map.keys[i];
+                checkForComodification();
+                action.accept(k);
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            while (index < hi && (i = nextSlot(hi)) < hi) {
+                action.accept(map.keys[i]);
+                checkForComodification();
+            }
+            checkForComodification();
+        }
+    }
+
+    static final class ValueSpliterator
+        extends LongIntMapSpliterator
+        implements Spliterator.OfInt {
+        ValueSpliterator(LongIntMap m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public ValueSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new ValueSpliterator(map, lo, index = mid, est >>>= 1,
+                                     expectedModCount);
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            if (index < hi && (i = nextSlot(hi)) < hi) {
+                int v = map.vals[i];
+                checkForComodification();
+                action.accept(v);
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i;
+            while (index < hi && (i = nextSlot(hi)) < hi) {
+                action.accept(map.vals[i]);
+                checkForComodification();
+            }
+            checkForComodification();
+        }
+    }
+}
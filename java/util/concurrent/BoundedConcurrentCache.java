@@ -0,0 +1,1185 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A concurrent cache, backed by a {@link ConcurrentHashMap}, that bounds
+ * its contents by entry count or total weight and optionally expires
+ * entries a fixed time after they were written or last accessed.
+ *
+ * <p>Reads never block: a lookup is a plain {@code ConcurrentHashMap.get}
+ * followed by recording the access in a lossy, striped ring buffer.
+ * Writes update the map concurrently and record their effect in an
+ * unbounded queue.  The bookkeeping these buffers describe (recency
+ * order, frequency counts, weights and expiration times) is replayed in
+ * batches by whichever thread wins a {@code tryLock} of a single
+ * eviction lock, so that callers almost never wait for each other.
+ * Because of this, the cache may briefly exceed its bound.
+ *
+ * <p>Eviction follows the Window TinyLFU policy.  New entries enter a
+ * small LRU <em>window</em> (1% of the capacity).  Entries leaving the
+ * window are candidates for the segmented LRU <em>main</em> space,
+ * whose <em>probation</em> and <em>protected</em> (80%) regions separate
+ * entries seen once from those seen again.  When the cache is full, a
+ * candidate is admitted only if its estimated access frequency, kept in
+ * a compact 4-bit count-min sketch that is periodically halved, exceeds
+ * that of the main space's least recently used victim.  This retains
+ * popular entries against scans and one-hit wonders far better than the
+ * LRU order offered by {@link java.util.LinkedHashMap#removeEldestEntry}.
+ *
+ * <p>Expired entries are invisible to readers at once, and are removed
+ * by a hierarchical timer wheel that is advanced during maintenance,
+ * costing amortized constant time per entry.
+ *
+ * <p>Loads through {@link #get(Object, Function)} are atomic per key;
+ * {@link #getAsync} runs the loader on the cache's executor and shares a
+ * single in-flight {@link CompletableFuture} among concurrent callers.
+ * Hit, miss, load and eviction counts are kept in {@link LongAdder}s and
+ * reported by {@link #stats}.  Like {@code ConcurrentHashMap}, this class
+ * does not allow {@code null} keys or values.
+ *
+ * <p>Instances are created with a {@link Builder}:
+ * <pre> {@code
+ * BoundedConcurrentCache<String, Graph> graphs =
+ *     new BoundedConcurrentCache.Builder()
+ *         .maximumSize(10_000)
+ *         .expireAfterWrite(5, TimeUnit.MINUTES)
+ *         .build();
+ * Graph g = graphs.get(key, k -> createExpensiveGraph(k));}</pre>
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of cached values
+ */
+public class BoundedConcurrentCache<K,V> {
+
+    /**
+     * Builds {@link BoundedConcurrentCache} instances.  Either a maximum
+     * size or a maximum weight must be set, but not both.
+     */
+    public static final class Builder {
+        long maximum = -1L;
+        ToIntBiFunction<Object,Object> weigher;
+        long expireAfterWriteNanos;
+        long expireAfterAccessNanos;
+        Executor executor = ForkJoinPool.commonPool();
+
+        /**
+         * Constructs an empty builder.
+         */
+        public Builder() { }
+
+        /**
+         * Bounds the cache to the given number of entries.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumSize} is
+         *         negative
+         * @throws IllegalStateException if a maximum was already set
+         */
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize < 0L)
+                throw new IllegalArgumentException();
+            if (maximum >= 0L)
+                throw new IllegalStateException("maximum already set");
+            maximum = maximumSize;
+            return this;
+        }
+
+        /**
+         * Bounds the cache to the given total weight of entries, each
+         * entry being weighed once by the given function when written.
+         *
+         * @param maximumWeight the maximum total weight
+         * @param weigher computes the nonnegative weight of an entry
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumWeight} is
+         *         negative
+         * @throws IllegalStateException if a maximum was already set
+         * @throws NullPointerException if the weigher is null
+         */
+        @SuppressWarnings("unchecked")
+        public Builder maximumWeight(long maximumWeight,
+                                     ToIntBiFunction<?,?> weigher) {
+            if (weigher == null)
+                throw new NullPointerException();
+            maximumSize(maximumWeight);
+            this.weigher = (ToIntBiFunction<Object,Object>)weigher;
+            return this;
+        }
+
+        /**
+         * Expires entries the given duration after they were created or
+         * their value last replaced.
+         *
+         * @param duration the positive length of time
+         * @param unit the unit of the duration
+         * @return this builder
+         * @throws IllegalArgumentException if duration is not positive
+         */
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration <= 0L)
+                throw new IllegalArgumentException();
+            expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Expires entries the given duration after they were last read
+         * or written.
+         *
+         * @param duration the positive length of time
+         * @param unit the unit of the duration
+         * @return this builder
+         * @throws IllegalArgumentException if duration is not positive
+         */
+        public Builder expireAfterAccess(long duration, TimeUnit unit) {
+            if (duration <= 0L)
+                throw new IllegalArgumentException();
+            expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the executor used by {@link BoundedConcurrentCache#getAsync}
+         * to run loaders.  Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if the executor is null
+         */
+        public Builder executor(Executor executor) {
+            if (executor == null)
+                throw new NullPointerException();
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Returns a new cache with the settings of this builder.
+         *
+         * @param <K> the type of keys
+         * @param <V> the type of values
+         * @return a new cache
+         * @throws IllegalStateException if no maximum was set
+         */
+        public <K,V> BoundedConcurrentCache<K,V> build() {
+            if (maximum < 0L)
+                throw new IllegalStateException("maximum not set");
+            return new BoundedConcurrentCache<K,V>(this);
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of the statistics of a cache.
+     */
+    public static final class Stats {
+        private final long hitCount, missCount, loadSuccessCount,
+            loadFailureCount, totalLoadTime, evictionCount, evictionWeight;
+
+        Stats(long hitCount, long missCount, long loadSuccessCount,
+              long loadFailureCount, long totalLoadTime,
+              long evictionCount, long evictionWeight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTime = totalLoadTime;
+            this.evictionCount = evictionCount;
+            this.evictionWeight = evictionWeight;
+        }
+
+        /** @return the number of lookups that found a live entry */
+        public long hitCount() { return hitCount; }
+        /** @return the number of lookups that found no live entry */
+        public long missCount() { return missCount; }
+        /** @return the number of loads that produced a value */
+        public long loadSuccessCount() { return loadSuccessCount; }
+        /** @return the number of loads that threw or produced null */
+        public long loadFailureCount() { return loadFailureCount; }
+        /** @return the total nanoseconds spent in loaders */
+        public long totalLoadTime() { return totalLoadTime; }
+        /** @return the number of entries evicted by size, weight or expiry */
+        public long evictionCount() { return evictionCount; }
+        /** @return the total weight of evicted entries */
+        public long evictionWeight() { return evictionWeight; }
+
+        /**
+         * Returns the ratio of hits to lookups, or 1.0 if there were
+         * no lookups.
+         *
+         * @return the hit rate
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0L) ? 1.0 : (double)hitCount / requests;
+        }
+
+        /**
+         * Returns a String representation of these statistics.
+         *
+         * @return a String representation of these statistics
+         */
+        public String toString() {
+            return getClass().getSimpleName() +
+                "[hits=" + hitCount +
+                ", misses=" + missCount +
+                ", loadSuccesses=" + loadSuccessCount +
+                ", loadFailures=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", evictions=" + evictionCount +
+                ", evictionWeight=" + evictionWeight + "]";
+        }
+    }
+
+    /* ---------------- Constants -------------- */
+
+    /** Percentage of the capacity given to the admission window */
+    static final double WINDOW_PERCENT = 0.01;
+
+    /** Percentage of the main space given to the protected region */
+    static final double PROTECTED_PERCENT = 0.80;
+
+    /** Number of pending write tasks that makes writers wait for a drain */
+    static final int WRITE_BUFFER_MAX = 1024;
+
+    /** Number of read buffer stripes - MUST be a power of two */
+    static final int READ_BUFFER_STRIPES =
+        ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+    /** Capacity of each read buffer stripe - MUST be a power of two */
+    static final int READ_BUFFER_SIZE = 32;
+
+    static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    /** Drain status values */
+    static final int IDLE = 0, REQUIRED = 1, PROCESSING = 2;
+
+    static int ceilingPowerOfTwo(int x) {
+        return 1 << -Integer.numberOfLeadingZeros(Math.max(x, 2) - 1);
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * An entry of the cache.  The key, value, weight and timestamps are
+     * written under the map's bin lock; the remaining fields belong to
+     * the eviction policy and are guarded by the eviction lock.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile int weight;
+        volatile long writeTime;
+        volatile long accessTime;
+        /** Set once the node has been removed from the map */
+        volatile boolean retired;
+
+        boolean inPolicy;           // linked into a deque
+        int policyWeight;           // weight accounted for by the policy
+        int queueType;              // WINDOW, PROBATION or PROTECTED
+        Node<K,V> prev, next;       // links in an access order deque
+        Node<K,V> timerPrev, timerNext; // links in a timer wheel bucket
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = this.accessTime = now;
+        }
+    }
+
+    /**
+     * A doubly-linked list of nodes in access order, with a sentinel.
+     */
+    static final class AccessOrderDeque<K,V> {
+        final Node<K,V> head = new Node<K,V>(null, null, 0, 0L);
+
+        AccessOrderDeque() {
+            head.prev = head.next = head;
+        }
+
+        Node<K,V> peekFirst() {
+            Node<K,V> n = head.next;
+            return (n == head) ? null : n;
+        }
+
+        Node<K,V> peekLast() {
+            Node<K,V> n = head.prev;
+            return (n == head) ? null : n;
+        }
+
+        void addLast(Node<K,V> n) {
+            Node<K,V> last = head.prev;
+            n.prev = last;
+            n.next = head;
+            last.next = n;
+            head.prev = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            n.prev.next = n.next;
+            n.next.prev = n.prev;
+            n.prev = n.next = null;
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (head.prev != n) {
+                unlink(n);
+                addLast(n);
+            }
+        }
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * An approximate count of how often each key has been seen: a
+     * count-min sketch of 4-bit counters packed sixteen to a long.  A key
+     * selects DEPTH counters by double hashing over the whole table, and
+     * its estimate is the least of them.  An increment raises only the
+     * counters holding that least value (conservative update), which
+     * keeps collisions from inflating the estimates of rare keys.  Every
+     * 10 * (number of words) increments, all counters are halved, so
+     * that old popularity fades.  Guarded by the eviction lock.
+     */
+    static final class FrequencySketch {
+        /** Number of counters per key */
+        static final int DEPTH = 4;
+
+        /** Maximum value of a counter */
+        static final int MAX_COUNT = 15;
+
+        /** Clears the bit each nibble receives from its neighbor on halving */
+        static final long HALVING_MASK = 0x7777777777777777L;
+
+        long[] words;
+        int counterMask;    // number of counters - 1
+        int increments;     // since the last halving
+        int period;         // increments between halvings
+
+        FrequencySketch() {
+            ensureCapacity(16L);
+        }
+
+        /**
+         * Grows the table, discarding counts, to give about sixteen
+         * counters to each of the given number of keys.  Never shrinks.
+         */
+        void ensureCapacity(long expectedKeys) {
+            int n = ceilingPowerOfTwo((int)Math.min(expectedKeys, 1 << 26));
+            if (words != null && words.length >= n)
+                return;
+            words = new long[n];
+            counterMask = (n << 4) - 1;
+            period = 10 * n;
+            increments = 0;
+        }
+
+        /** First probe position of a key */
+        static int hash(Object key) {
+            int h = key.hashCode() * 0x9E3779B9;
+            return h ^ (h >>> 15);
+        }
+
+        /** Distance between probe positions; odd, so never zero */
+        static int step(int h) {
+            return ((h >>> 16) | (h << 16)) * 0x85EBCA6B | 1;
+        }
+
+        int counter(int c) {
+            return (int)(words[c >>> 4] >>> ((c & 15) << 2)) & 0xf;
+        }
+
+        int frequency(Object key) {
+            int h = hash(key), d = step(h), m = counterMask;
+            int min = MAX_COUNT;
+            for (int i = 0; i < DEPTH; ++i, h += d)
+                min = Math.min(min, counter(h & m));
+            return min;
+        }
+
+        void increment(Object key) {
+            int h = hash(key), d = step(h), m = counterMask;
+            int min = frequency(key);
+            if (min == MAX_COUNT)
+                return;
+            for (int i = 0; i < DEPTH; ++i, h += d) {
+                int c = h & m;
+                if (counter(c) == min)  // a repeated counter is raised once
+                    words[c >>> 4] += 1L << ((c & 15) << 2);
+            }
+            if (++increments >= period) {
+                long[] ws = words;
+                for (int i = 0; i < ws.length; ++i)
+                    ws[i] = (ws[i] >>> 1) & HALVING_MASK;
+                increments >>>= 1;
+            }
+        }
+    }
+
+    /* ---------------- Timer wheel -------------- */
+
+    /**
+     * Files the nodes of an expiring cache by expiration time in a
+     * hierarchy of circular bucket arrays, a hierarchical timing wheel in
+     * the sense of Varghese and Lauck.  Level i has 64 buckets of 2^(30 +
+     * 6i) nanoseconds each, so the four levels have a resolution of about
+     * a second, a minute, an hour and three days, and together reach
+     * about 200 days; later times wait in an overflow bucket.  A node is
+     * filed at the finest level whose range covers its remaining time,
+     * and is refiled, at a finer level, when its bucket comes due, so
+     * each node moves at most once per level.  Scheduling and
+     * descheduling are constant time.  Guarded by the eviction lock.
+     */
+    static final class TimerWheel<K,V> {
+        static final int LEVELS = 4;
+        static final int LEVEL_BITS = 6;
+        static final int BUCKETS = 1 << LEVEL_BITS;
+        static final int FINEST_SHIFT = 30;         // 1.07 seconds
+        static final int OVERFLOW = LEVELS * BUCKETS;
+
+        /** Bucket sentinels, level by level, then the overflow bucket */
+        final Node<K,V>[] buckets;
+
+        /** The time up to which the wheel has been advanced */
+        long nanos;
+
+        @SuppressWarnings("unchecked")
+        TimerWheel(long now) {
+            Node<K,V>[] bs = (Node<K,V>[])new Node<?,?>[OVERFLOW + 1];
+            for (int i = 0; i < bs.length; ++i) {
+                Node<K,V> sentinel = new Node<K,V>(null, null, 0, 0L);
+                sentinel.timerPrev = sentinel.timerNext = sentinel;
+                bs[i] = sentinel;
+            }
+            buckets = bs;
+            nanos = now;
+        }
+
+        static int shift(int level) {
+            return FINEST_SHIFT + level * LEVEL_BITS;
+        }
+
+        /**
+         * Returns the sentinel of the bucket for the given time.  A time
+         * already past goes to the current finest bucket.
+         */
+        Node<K,V> bucketFor(long time) {
+            long delay = Math.max(time - nanos, 0L);
+            for (int level = 0; level < LEVELS; ++level) {
+                int s = shift(level);
+                if ((delay >>> s) < BUCKETS)
+                    return buckets[(level << LEVEL_BITS) +
+                                   (int)((time >>> s) & (BUCKETS - 1))];
+            }
+            return buckets[OVERFLOW];
+        }
+
+        /**
+         * Advances the wheel to the given time, processing the buckets of
+         * every tick passed over at each level, from the finest up.  A
+         * level whose tick did not change implies the same of all
+         * coarser ones.
+         */
+        void advance(BoundedConcurrentCache<K,V> cache, long now) {
+            long previous = nanos;
+            nanos = now;
+            for (int level = 0; level < LEVELS; ++level) {
+                int s = shift(level);
+                long from = previous >>> s, to = now >>> s;
+                if (to - from <= 0L)
+                    return;
+                int ticks = (int)Math.min(to - from + 1L, BUCKETS);
+                int base = level << LEVEL_BITS;
+                for (int t = 0; t < ticks; ++t)
+                    process(cache, buckets[base + (int)((from + t) & (BUCKETS - 1))]);
+            }
+            process(cache, buckets[OVERFLOW]);
+        }
+
+        /**
+         * Empties a bucket, evicting its expired nodes and refiling the
+         * others.
+         */
+        void process(BoundedConcurrentCache<K,V> cache, Node<K,V> sentinel) {
+            Node<K,V> node = sentinel.timerNext;
+            sentinel.timerPrev = sentinel.timerNext = sentinel;
+            while (node != sentinel) {
+                Node<K,V> next = node.timerNext;
+                node.timerPrev = node.timerNext = null;
+                long time = cache.expiresAt(node);
+                if (time - nanos > 0L || !cache.evictExpired(node))
+                    schedule(time, node);
+                node = next;
+            }
+        }
+
+        void schedule(long time, Node<K,V> node) {
+            Node<K,V> sentinel = bucketFor(time), last = sentinel.timerPrev;
+            node.timerPrev = last;
+            node.timerNext = sentinel;
+            last.timerNext = node;
+            sentinel.timerPrev = node;
+        }
+
+        void reschedule(long time, Node<K,V> node) {
+            deschedule(node);
+            schedule(time, node);
+        }
+
+        void deschedule(Node<K,V> node) {
+            Node<K,V> prev = node.timerPrev, next = node.timerNext;
+            if (next != null) {
+                prev.timerNext = next;
+                next.timerPrev = prev;
+                node.timerPrev = node.timerNext = null;
+            }
+        }
+    }
+
+    /* ---------------- Read buffer -------------- */
+
+    /**
+     * A striped, lossy, bounded multi-producer buffer of accessed nodes,
+     * drained under the eviction lock.  An offer that finds its stripe
+     * full is dropped: losing some recency updates is harmless, blocking
+     * readers is not.
+     */
+    static final class ReadBuffer<K,V> {
+        final AtomicReferenceArray<Node<K,V>> buffer =
+            new AtomicReferenceArray<Node<K,V>>(READ_BUFFER_STRIPES * READ_BUFFER_SIZE);
+        final AtomicLong[] writes = new AtomicLong[READ_BUFFER_STRIPES];
+        final long[] reads = new long[READ_BUFFER_STRIPES]; // under lock
+
+        ReadBuffer() {
+            for (int i = 0; i < READ_BUFFER_STRIPES; i++)
+                writes[i] = new AtomicLong();
+        }
+
+        /**
+         * Records the node, returning true if the stripe has filled and
+         * a drain should be scheduled.
+         */
+        boolean offer(Node<K,V> node) {
+            int stripe = (int)Thread.currentThread().getId() &
+                (READ_BUFFER_STRIPES - 1);
+            AtomicLong w = writes[stripe];
+            long tail = w.get();
+            long size = tail - reads[stripe];
+            if (size >= READ_BUFFER_SIZE)
+                return true;
+            if (w.compareAndSet(tail, tail + 1L)) {
+                int index = stripe * READ_BUFFER_SIZE +
+                    (int)(tail & (READ_BUFFER_SIZE - 1));
+                buffer.lazySet(index, node);
+                return size >= READ_BUFFER_SIZE / 2;
+            }
+            return false;
+        }
+
+        void drainTo(BoundedConcurrentCache<K,V> cache) {
+            for (int s = 0; s < READ_BUFFER_STRIPES; s++) {
+                long head = reads[s], tail = writes[s].get();
+                for (; head != tail; head++) {
+                    int index = s * READ_BUFFER_SIZE +
+                        (int)(head & (READ_BUFFER_SIZE - 1));
+                    Node<K,V> node = buffer.get(index);
+                    if (node == null)
+                        break;      // not yet published
+                    buffer.lazySet(index, null);
+                    cache.onAccess(node);
+                }
+                reads[s] = head;
+            }
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> data;
+    final ConcurrentHashMap<K,CompletableFuture<V>> loading;
+    final ToIntBiFunction<Object,Object> weigher;
+    final long expireAfterWriteNanos;
+    final long expireAfterAccessNanos;
+    final Executor executor;
+
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final AtomicInteger drainStatus = new AtomicInteger();
+    final ReadBuffer<K,V> readBuffer = new ReadBuffer<K,V>();
+    final ConcurrentLinkedQueue<Runnable> writeBuffer =
+        new ConcurrentLinkedQueue<Runnable>();
+    final AtomicInteger pendingWrites = new AtomicInteger();
+
+    // Policy state, guarded by evictionLock
+    final long maximum;
+    final long windowMaximum;
+    final long protectedMaximum;
+    long weightedSize;
+    long windowWeightedSize;
+    long protectedWeightedSize;
+    final AccessOrderDeque<K,V> window = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> probation = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> protectedQueue = new AccessOrderDeque<K,V>();
+    final FrequencySketch sketch = new FrequencySketch();
+    final TimerWheel<K,V> timerWheel;
+
+    // Statistics
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder loadSuccessCount = new LongAdder();
+    final LongAdder loadFailureCount = new LongAdder();
+    final LongAdder totalLoadTime = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+    final LongAdder evictionWeight = new LongAdder();
+
+    BoundedConcurrentCache(Builder builder) {
+        this.maximum = builder.maximum;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.executor = builder.executor;
+        long windowMax = (long)(maximum * WINDOW_PERCENT);
+        this.windowMaximum = (maximum > 0L) ? Math.max(1L, windowMax) : 0L;
+        this.protectedMaximum =
+            (long)((maximum - windowMaximum) * PROTECTED_PERCENT);
+        int initialCapacity = (int)Math.min(weigher == null ? maximum : 16L,
+                                            1 << 16);
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(initialCapacity);
+        this.loading = new ConcurrentHashMap<K,CompletableFuture<V>>();
+        this.timerWheel = expires() ? new TimerWheel<K,V>(System.nanoTime()) : null;
+        if (weigher == null)
+            sketch.ensureCapacity(maximum);
+    }
+
+    final boolean expires() {
+        return expireAfterWriteNanos > 0L || expireAfterAccessNanos > 0L;
+    }
+
+    final long expiresAt(Node<K,V> node) {
+        long t = Long.MAX_VALUE;
+        if (expireAfterWriteNanos > 0L)
+            t = node.writeTime + expireAfterWriteNanos;
+        if (expireAfterAccessNanos > 0L) {
+            long a = node.accessTime + expireAfterAccessNanos;
+            if (t == Long.MAX_VALUE || a - t < 0L)
+                t = a;
+        }
+        return t;
+    }
+
+    final boolean hasExpired(Node<K,V> node, long now) {
+        return (expireAfterWriteNanos > 0L &&
+                now - node.writeTime >= expireAfterWriteNanos) ||
+            (expireAfterAccessNanos > 0L &&
+             now - node.accessTime >= expireAfterAccessNanos);
+    }
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("Negative weight: " + w);
+        return w;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the value associated with the key, or {@code null} if there
+     * is no live entry for it.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the cached value, or {@code null}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getIfPresent(Object key) {
+        Node<K,V> node = data.get(key);
+        long now = expires() ? System.nanoTime() : 0L;
+        if (node == null || (expires() && hasExpired(node, now))) {
+            missCount.increment();
+            if (node != null)
+                scheduleDrain();
+            return null;
+        }
+        if (expireAfterAccessNanos > 0L)
+            node.accessTime = now;
+        V value = node.value;
+        hitCount.increment();
+        afterRead(node);
+        return value;
+    }
+
+    /**
+     * Returns the value associated with the key, obtaining it from the
+     * loader if there is no live entry.  The whole invocation is atomic
+     * with respect to the key: the loader is applied at most once per
+     * missing key, and other threads asking for the same key wait for it.
+     * The loader must not update this cache.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param loader computes a value for the key, or returns null
+     * @return the cached or loaded value, or null if the loader
+     *         returned null
+     * @throws NullPointerException if the key or loader is null
+     * @throws RuntimeException or Error if the loader does so
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (loader == null)
+            throw new NullPointerException();
+        V v;
+        if ((v = getIfPresent(key)) != null)
+            return v;
+        return loadIfAbsent(key, loader);
+    }
+
+    /**
+     * Implements get after a miss has been recorded: atomically loads
+     * the value unless another thread stored a live entry meanwhile, in
+     * which case that entry's access is recorded instead.
+     */
+    final V loadIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        @SuppressWarnings("unchecked")
+        Node<K,V>[] removed = (Node<K,V>[])new Node<?,?>[1];
+        boolean[] added = new boolean[1];
+        Node<K,V> node = data.compute(key, (k, old) -> {
+            long now = System.nanoTime();
+            if (old != null && !(expires() && hasExpired(old, now)))
+                return old;
+            V value = load(k, loader);
+            if (old != null) {
+                old.retired = true;
+                removed[0] = old;
+            }
+            if (value == null)
+                return null;
+            added[0] = true;
+            return new Node<K,V>(k, value, weigh(k, value), now);
+        });
+        if (removed[0] != null)
+            afterRemoval(removed[0], true);
+        if (node == null)
+            return null;
+        if (added[0])
+            afterAdd(node);
+        else
+            afterRead(node);
+        return node.value;
+    }
+
+    final V load(K key, Function<? super K, ? extends V> loader) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            V value = loader.apply(key);
+            success = (value != null);
+            return value;
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+            if (success)
+                loadSuccessCount.increment();
+            else
+                loadFailureCount.increment();
+        }
+    }
+
+    /**
+     * Returns a future for the value associated with the key.  If there
+     * is no live entry, the loader is run on this cache's executor and
+     * its result, unless null, is stored when it completes.  Concurrent
+     * calls for a key being loaded share the same future.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param loader computes a value for the key, or returns null
+     * @return a future completed with the cached or loaded value, or
+     *         exceptionally if the loader threw
+     * @throws NullPointerException if the key or loader is null
+     */
+    public CompletableFuture<V> getAsync(K key,
+                                         Function<? super K, ? extends V> loader) {
+        if (loader == null)
+            throw new NullPointerException();
+        V v;
+        if ((v = getIfPresent(key)) != null)
+            return CompletableFuture.completedFuture(v);
+        CompletableFuture<V> f = new CompletableFuture<V>(), prior;
+        if ((prior = loading.putIfAbsent(key, f)) != null)
+            return prior;
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = loadIfAbsent(key, loader);
+                    f.complete(value);
+                } catch (Throwable ex) {
+                    f.completeExceptionally(ex);
+                } finally {
+                    loading.remove(key, f);
+                }
+            });
+        } catch (Throwable ex) {
+            loading.remove(key, f);
+            f.completeExceptionally(ex);
+        }
+        return f;
+    }
+
+    /**
+     * Associates the value with the key, replacing any existing value.
+     *
+     * @param key the key
+     * @param value the value
+     * @throws NullPointerException if the key or value is null
+     */
+    public void put(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        int weight = weigh(key, value);
+        @SuppressWarnings("unchecked")
+        Node<K,V>[] removed = (Node<K,V>[])new Node<?,?>[1];
+        boolean[] added = new boolean[1];
+        Node<K,V> node = data.compute(key, (k, old) -> {
+            long now = System.nanoTime();
+            if (old != null && !(expires() && hasExpired(old, now))) {
+                old.value = value;
+                old.weight = weight;
+                old.writeTime = old.accessTime = now;
+                return old;
+            }
+            if (old != null) {
+                old.retired = true;
+                removed[0] = old;
+            }
+            added[0] = true;
+            return new Node<K,V>(k, value, weight, now);
+        });
+        if (removed[0] != null)
+            afterRemoval(removed[0], true);
+        if (added[0])
+            afterAdd(node);
+        else
+            afterUpdate(node);
+    }
+
+    /**
+     * Discards any cached value for the key.
+     *
+     * @param key the key
+     * @throws NullPointerException if the key is null
+     */
+    public void invalidate(Object key) {
+        Node<K,V> node = data.remove(key);
+        if (node != null) {
+            node.retired = true;
+            afterRemoval(node, false);
+        }
+    }
+
+    /**
+     * Discards all entries in the cache.
+     */
+    public void invalidateAll() {
+        for (K key : data.keySet())
+            invalidate(key);
+    }
+
+    /**
+     * Returns the approximate number of entries in this cache, possibly
+     * including entries that have expired but not yet been removed.
+     *
+     * @return the estimated number of mappings
+     */
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    /**
+     * Performs any pending maintenance: replays buffered reads and
+     * writes, removes expired entries and evicts down to the bound.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            drainStatus.set(PROCESSING);
+            maintenance();
+        } finally {
+            drainStatus.compareAndSet(PROCESSING, IDLE);
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of this cache's cumulative statistics.
+     *
+     * @return the current statistics
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(),
+                         loadSuccessCount.sum(), loadFailureCount.sum(),
+                         totalLoadTime.sum(), evictionCount.sum(),
+                         evictionWeight.sum());
+    }
+
+    /* ---------------- Buffering -------------- */
+
+    final void afterRead(Node<K,V> node) {
+        if (readBuffer.offer(node))
+            scheduleDrain();
+    }
+
+    final void afterAdd(Node<K,V> node) {
+        afterWrite(() -> onAdd(node));
+    }
+
+    final void afterUpdate(Node<K,V> node) {
+        afterWrite(() -> onUpdate(node));
+    }
+
+    final void afterRemoval(Node<K,V> node, boolean expired) {
+        if (expired) {
+            evictionCount.increment();
+            evictionWeight.add(node.weight);
+        }
+        afterWrite(() -> onRemove(node));
+    }
+
+    /**
+     * Queues a write task and schedules a drain.  If the queue has
+     * grown long, waits for the eviction lock and drains it itself, so
+     * that writers cannot outpace the policy indefinitely.
+     */
+    final void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_MAX) {
+            evictionLock.lock();
+            try {
+                drainStatus.set(PROCESSING);
+                maintenance();
+            } finally {
+                drainStatus.compareAndSet(PROCESSING, IDLE);
+                evictionLock.unlock();
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Runs maintenance if no other thread is doing so.  A thread that
+     * finds the lock held leaves the status at REQUIRED, which makes the
+     * holder loop once more before going idle.
+     */
+    final void scheduleDrain() {
+        drainStatus.set(REQUIRED);
+        while (drainStatus.get() == REQUIRED && evictionLock.tryLock()) {
+            try {
+                drainStatus.set(PROCESSING);
+                maintenance();
+            } finally {
+                drainStatus.compareAndSet(PROCESSING, IDLE);
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /* ---------------- Policy -------------- */
+
+    /**
+     * Replays buffered work and enforces the bounds.  Called with the
+     * eviction lock held.
+     */
+    final void maintenance() {
+        readBuffer.drainTo(this);
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+        if (timerWheel != null)
+            timerWheel.advance(this, System.nanoTime());
+        evictEntries();
+    }
+
+    final void onAdd(Node<K,V> node) {
+        if (node.retired || node.inPolicy)
+            return;
+        if (weigher != null)
+            sketch.ensureCapacity(data.mappingCount());
+        sketch.increment(node.key);
+        int w = node.weight;
+        node.inPolicy = true;
+        node.policyWeight = w;
+        node.queueType = WINDOW;
+        window.addLast(node);
+        windowWeightedSize += w;
+        weightedSize += w;
+        if (timerWheel != null)
+            timerWheel.schedule(expiresAt(node), node);
+    }
+
+    final void onUpdate(Node<K,V> node) {
+        if (!node.inPolicy)
+            return;
+        int w = node.weight, delta = w - node.policyWeight;
+        node.policyWeight = w;
+        weightedSize += delta;
+        if (node.queueType == WINDOW)
+            windowWeightedSize += delta;
+        else if (node.queueType == PROTECTED)
+            protectedWeightedSize += delta;
+        onAccess(node);
+    }
+
+    final void onRemove(Node<K,V> node) {
+        if (node.inPolicy)
+            unlink(node);
+    }
+
+    /**
+     * Records an access: bumps the key's frequency, refreshes recency,
+     * and promotes a probationary entry to the protected region.
+     */
+    final void onAccess(Node<K,V> node) {
+        if (!node.inPolicy)
+            return;
+        sketch.increment(node.key);
+        switch (node.queueType) {
+        case WINDOW:
+            window.moveToBack(node);
+            break;
+        case PROBATION:
+            probation.unlink(node);
+            node.queueType = PROTECTED;
+            protectedQueue.addLast(node);
+            protectedWeightedSize += node.policyWeight;
+            while (protectedWeightedSize > protectedMaximum) {
+                Node<K,V> demoted = protectedQueue.peekFirst();
+                if (demoted == null || demoted == node)
+                    break;
+                protectedQueue.unlink(demoted);
+                protectedWeightedSize -= demoted.policyWeight;
+                demoted.queueType = PROBATION;
+                probation.addLast(demoted);
+            }
+            break;
+        default:
+            protectedQueue.moveToBack(node);
+        }
+        if (timerWheel != null && node.timerNext != null)
+            timerWheel.reschedule(expiresAt(node), node);
+    }
+
+    /**
+     * Removes the node from the policy's structures and weights.
+     */
+    final void unlink(Node<K,V> node) {
+        switch (node.queueType) {
+        case WINDOW:
+            window.unlink(node);
+            windowWeightedSize -= node.policyWeight;
+            break;
+        case PROBATION:
+            probation.unlink(node);
+            break;
+        default:
+            protectedQueue.unlink(node);
+            protectedWeightedSize -= node.policyWeight;
+        }
+        weightedSize -= node.policyWeight;
+        node.inPolicy = false;
+        if (timerWheel != null)
+            timerWheel.deschedule(node);
+    }
+
+    /**
+     * Moves window overflow into probation, then while the cache is over
+     * its bound, lets each new candidate compete with the probation
+     * victim by estimated frequency, evicting the loser.
+     */
+    final void evictEntries() {
+        int candidates = 0;
+        Node<K,V> n;
+        while (windowWeightedSize > windowMaximum &&
+               (n = window.peekFirst()) != null) {
+            window.unlink(n);
+            windowWeightedSize -= n.policyWeight;
+            n.queueType = PROBATION;
+            probation.addLast(n);
+            ++candidates;
+        }
+        while (weightedSize > maximum) {
+            Node<K,V> victim = probation.peekFirst();
+            Node<K,V> candidate = (candidates > 0) ? probation.peekLast() : null;
+            if (victim == null) {
+                if ((victim = protectedQueue.peekFirst()) == null &&
+                    (victim = window.peekFirst()) == null)
+                    break;
+            }
+            Node<K,V> evictee = victim;
+            if (candidate != null && candidate != victim) {
+                // Ties go to the victim, protecting against one-hit wonders
+                if (sketch.frequency(candidate.key) <= sketch.frequency(victim.key))
+                    evictee = candidate;
+                --candidates;
+            }
+            else if (candidate == victim)
+                --candidates;
+            evict(evictee);
+        }
+    }
+
+    /**
+     * Removes the node from the map (if still mapped) and the policy.
+     */
+    final void evict(Node<K,V> node) {
+        if (data.remove(node.key, node)) {
+            node.retired = true;
+            evictionCount.increment();
+            evictionWeight.add(node.policyWeight);
+        }
+        unlink(node);
+    }
+
+    /**
+     * Called by the timer wheel for a node whose time has passed; returns
+     * false if it was refreshed in the meantime.
+     */
+    final boolean evictExpired(Node<K,V> node) {
+        if (!hasExpired(node, timerWheel.nanos))
+            return false;
+        node.timerPrev = node.timerNext = null;
+        if (node.inPolicy)
+            evict(node);
+        return true;
+    }
+}
@@ -52,6 +52,9 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * A {@link Future} that may be explicitly completed (setting its
@@ -2870,6 +2873,375 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return dst;
     }
 
+    /*
+     * The allOf/anyOf trees are fine for their purpose, but when the
+     * results of many CompletableFutures are wanted, callers must
+     * build the tree and then join each element in turn. Methods
+     * allAsList, firstOf and reduceAsCompleted instead register a
+     * single GatherCompletion on each incomplete element, all sharing
+     * one Gather that holds the destination, the collected results,
+     * and a count maintained with a constant number of atomic updates
+     * per element completion. No intermediate CompletableFutures are
+     * constructed, and elements that are already complete are handled
+     * directly without allocating.
+     */
+
+    /**
+     * Shared state of a fan-in over an array of CompletableFutures.
+     * The AtomicInteger value is a count whose meaning is defined by
+     * subclasses.
+     */
+    @SuppressWarnings("serial")
+    abstract static class Gather<U> extends AtomicInteger {
+        final CompletableFuture<U> dst;
+        Gather(CompletableFuture<U> dst, int count) {
+            super(count);
+            this.dst = dst;
+        }
+        /**
+         * Processes result r (possibly an AltResult) of the element
+         * at index i. Called exactly once per element.
+         */
+        abstract void accept(int i, Object r);
+    }
+
+    static final class GatherCompletion extends Completion {
+        final CompletableFuture<?> src;
+        final Gather<?> gather;
+        final int index;
+        GatherCompletion(CompletableFuture<?> src, Gather<?> gather,
+                         int index) {
+            this.src = src; this.gather = gather; this.index = index;
+        }
+        public final void run() {
+            final CompletableFuture<?> a;
+            final Gather<?> g;
+            Object r;
+            if ((g = this.gather) != null &&
+                (a = this.src) != null &&
+                (r = a.result) != null &&
+                compareAndSet(0, 1))
+                g.accept(index, r);
+        }
+        private static final long serialVersionUID = 5232453952276885070L;
+    }
+
+    /**
+     * Completes with the list of all results once the count of
+     * pending elements reaches zero, or exceptionally upon the first
+     * exceptional element.
+     */
+    static final class ListGather<T> extends Gather<List<T>> {
+        final Object[] results;
+        ListGather(CompletableFuture<List<T>> dst, int n) {
+            super(dst, n);
+            this.results = new Object[n];
+        }
+        final void accept(int i, Object r) {
+            Throwable ex;
+            if (r instanceof AltResult) {
+                if ((ex = ((AltResult)r).ex) != null) {
+                    dst.internalComplete(null, ex);
+                    return;
+                }
+                r = null;
+            }
+            Object[] a = results;
+            a[i] = r; // published by count update
+            if (decrementAndGet() == 0 && dst.result == null)
+                dst.internalComplete(CompletableFuture.<T>asList(a), null);
+        }
+        private static final long serialVersionUID = 5232453952276885070L;
+    }
+
+    /**
+     * Completes with the first results to arrive once enough of them
+     * are present, or exceptionally once too many elements have
+     * failed for that to happen. Arriving normal results claim slots
+     * by incrementing claims; the AtomicInteger value counts filled
+     * slots.
+     */
+    static final class QuorumGather<T> extends Gather<List<T>> {
+        final Object[] results;
+        final int maxFailures;
+        volatile int claims;
+        volatile int failures;
+        QuorumGather(CompletableFuture<List<T>> dst, int n, int maxFailures) {
+            super(dst, 0);
+            this.results = new Object[n];
+            this.maxFailures = maxFailures;
+        }
+        final void accept(int i, Object r) {
+            Throwable ex;
+            if (r instanceof AltResult) {
+                if ((ex = ((AltResult)r).ex) != null) {
+                    if (UNSAFE.getAndAddInt(this, QFAILURES, 1) ==
+                        maxFailures)
+                        dst.internalComplete(null, ex);
+                    return;
+                }
+                r = null;
+            }
+            Object[] a = results;
+            int k, n = a.length;
+            if (claims < n &&
+                (k = UNSAFE.getAndAddInt(this, QCLAIMS, 1)) < n) {
+                a[k] = r;
+                if (incrementAndGet() == n)
+                    dst.internalComplete(CompletableFuture.<T>asList(a),
+                                         null);
+            }
+        }
+        private static final long serialVersionUID = 5232453952276885070L;
+    }
+
+    /**
+     * Folds results into an accumulation as they arrive. Arriving
+     * results are pushed onto a Treiber stack; the AtomicInteger
+     * value counts pushes not yet seen by a consumer, and the caller
+     * that moves it from zero becomes the sole consumer until it
+     * returns to zero, so the accumulator is never invoked
+     * concurrently. Fields acc, remaining and done are accessed only
+     * by the current consumer, and are handed between consumers via
+     * the count.
+     */
+    static final class ReduceGather<T,U> extends Gather<U> {
+        static final class Arrival {
+            final Object result;
+            Arrival next;
+            Arrival(Object result) { this.result = result; }
+        }
+        final BiFunction<? super U,? super T,? extends U> fn;
+        U acc;
+        int remaining;
+        boolean done;
+        volatile Arrival arrivals;
+        ReduceGather(CompletableFuture<U> dst, int n, U identity,
+                     BiFunction<? super U,? super T,? extends U> fn) {
+            super(dst, 0);
+            this.remaining = n;
+            this.acc = identity;
+            this.fn = fn;
+        }
+        final void accept(int i, Object r) {
+            Arrival q = new Arrival(r);
+            do {} while (!UNSAFE.compareAndSwapObject
+                         (this, ARRIVALS, q.next = arrivals, q));
+            if (getAndIncrement() == 0) {
+                int missed = 1;
+                do {
+                    Arrival h = (Arrival)
+                        UNSAFE.getAndSetObject(this, ARRIVALS, null);
+                    Arrival p = null;
+                    while (h != null) {  // reverse into arrival order
+                        Arrival next = h.next;
+                        h.next = p;
+                        p = h;
+                        h = next;
+                    }
+                    for (; p != null; p = p.next)
+                        fold(p.result);
+                } while ((missed = addAndGet(-missed)) != 0);
+            }
+        }
+        private void fold(Object r) {
+            if (done)
+                return;
+            Throwable ex = null;
+            if (r instanceof AltResult) {
+                ex = ((AltResult)r).ex;
+                r = null;
+            }
+            if (ex == null) {
+                try {
+                    @SuppressWarnings("unchecked") T t = (T) r;
+                    acc = fn.apply(acc, t);
+                } catch (Throwable rex) {
+                    ex = rex;
+                }
+            }
+            if (ex != null) {
+                done = true;
+                acc = null;
+                dst.internalComplete(null, ex);
+            }
+            else if (--remaining == 0) {
+                done = true;
+                dst.internalComplete(acc, null);
+            }
+        }
+        private static final long serialVersionUID = 5232453952276885070L;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> asList(Object[] a) {
+        return Collections.unmodifiableList((List<T>)Arrays.asList(a));
+    }
+
+    /**
+     * Registers a GatherCompletion for each incomplete element of
+     * cfs, and processes already complete elements directly.
+     */
+    static void gather(CompletableFuture<?>[] cfs, Gather<?> g) {
+        for (int i = 0; i < cfs.length; ++i) {
+            CompletableFuture<?> f = cfs[i];
+            GatherCompletion d = null;
+            CompletionNode p = null;
+            Object r;
+            while ((r = f.result) == null) {
+                if (d == null)
+                    d = new GatherCompletion(f, g, i);
+                else if (p == null)
+                    p = new CompletionNode(d);
+                else if (UNSAFE.compareAndSwapObject
+                         (f, COMPLETIONS, p.next = f.completions, p))
+                    break;
+            }
+            if (r != null && (d == null || d.compareAndSet(0, 1)))
+                g.accept(i, r);
+            f.helpPostComplete();
+        }
+    }
+
+    /**
+     * Returns a new CompletableFuture that is completed when all of
+     * the given CompletableFutures complete normally, with an
+     * unmodifiable list of their results in the order of the
+     * arguments. If any of the given CompletableFutures complete
+     * exceptionally, then the returned CompletableFuture does so as
+     * soon as the first of them does, with a CompletionException
+     * holding this exception as its cause, without waiting for the
+     * others. If no CompletableFutures are provided, returns a
+     * CompletableFuture completed with an empty list.
+     *
+     * <p>Unlike {@link #allOf}, this method does not form a tree of
+     * intermediate CompletableFutures, and each element completion
+     * costs a constant number of atomic operations, so it is suitable
+     * for very large numbers of elements, as in: {@code
+     * List<Integer> sizes = CompletableFuture.allAsList(cfs).join();}.
+     *
+     * @param cfs the CompletableFutures
+     * @param <T> the type of the results
+     * @return a new CompletableFuture that is completed with the list
+     * of results when all of the given CompletableFutures complete
+     * @throws NullPointerException if the array or any of its elements are
+     * {@code null}
+     * @since 1.8
+     */
+    @SafeVarargs
+    public static <T> CompletableFuture<List<T>> allAsList
+        (CompletableFuture<? extends T>... cfs) {
+        int len = cfs.length;
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[len];
+        for (int i = 0; i < len; ++i) // read only elements of a varargs array
+            if ((fs[i] = cfs[i]) == null)
+                throw new NullPointerException();
+        CompletableFuture<List<T>> dst = new CompletableFuture<List<T>>();
+        if (len == 0)
+            dst.result = Collections.emptyList();
+        else
+            gather(fs, new ListGather<T>(dst, len));
+        return dst;
+    }
+
+    /**
+     * Returns a new CompletableFuture that is completed when the
+     * first {@code n} of the given CompletableFutures to complete
+     * normally have done so, with an unmodifiable list of their
+     * results in the order in which they completed. Results of
+     * CompletableFutures completing after that point are ignored.
+     * If so many of the given CompletableFutures complete
+     * exceptionally that fewer than {@code n} normal results can
+     * remain, the returned CompletableFuture completes exceptionally,
+     * with a CompletionException holding the exception that made the
+     * quorum unreachable as its cause. If {@code n} is zero, returns
+     * a CompletableFuture completed with an empty list.
+     *
+     * <p>For example, {@code firstOf(1, cfs)} yields the first normal
+     * result, ignoring failures unless all of the given
+     * CompletableFutures fail, and {@code firstOf(k, replicas)} waits
+     * for a quorum of {@code k} replicas.
+     *
+     * @param n the number of results to wait for
+     * @param cfs the CompletableFutures
+     * @param <T> the type of the results
+     * @return a new CompletableFuture that is completed with the
+     * first {@code n} results
+     * @throws IllegalArgumentException if {@code n} is negative or
+     * greater than the number of CompletableFutures
+     * @throws NullPointerException if the array or any of its elements are
+     * {@code null}
+     * @since 1.8
+     */
+    @SafeVarargs
+    public static <T> CompletableFuture<List<T>> firstOf
+        (int n, CompletableFuture<? extends T>... cfs) {
+        int len = cfs.length;
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[len];
+        for (int i = 0; i < len; ++i)
+            if ((fs[i] = cfs[i]) == null)
+                throw new NullPointerException();
+        if (n < 0 || n > len)
+            throw new IllegalArgumentException();
+        CompletableFuture<List<T>> dst = new CompletableFuture<List<T>>();
+        if (n == 0)
+            dst.result = Collections.emptyList();
+        else
+            gather(fs, new QuorumGather<T>(dst, n, len - n));
+        return dst;
+    }
+
+    /**
+     * Returns a new CompletableFuture that is completed with the
+     * result of folding the results of the given CompletableFutures,
+     * in the order in which they complete, into the given identity
+     * value using the given accumulator, when all of them have
+     * completed normally. The accumulator is never invoked
+     * concurrently, and each invocation happens-before the next; it
+     * is performed by a thread completing one of the given
+     * CompletableFutures, or by the caller of this method.  If any of
+     * the given CompletableFutures complete exceptionally, or the
+     * accumulator throws an exception, the returned CompletableFuture
+     * completes exceptionally with a CompletionException holding this
+     * exception as its cause, and no further results are folded. If
+     * no CompletableFutures are provided, returns a CompletableFuture
+     * completed with the identity value.
+     *
+     * <p>No list of results is retained, so for example the total of
+     * many sizes may be computed using {@code reduceAsCompleted(0L,
+     * (sum, size) -> sum + size, cfs)}.
+     *
+     * @param identity the initial value of the accumulation
+     * @param accumulator the function folding each result into the
+     * accumulation
+     * @param cfs the CompletableFutures
+     * @param <T> the type of the results
+     * @param <U> the type of the accumulation
+     * @return a new CompletableFuture that is completed with the
+     * accumulation of all results
+     * @throws NullPointerException if the accumulator, the array, or
+     * any of its elements are {@code null}
+     * @since 1.8
+     */
+    @SafeVarargs
+    public static <T,U> CompletableFuture<U> reduceAsCompleted
+        (U identity, BiFunction<? super U,? super T,? extends U> accumulator,
+         CompletableFuture<? extends T>... cfs) {
+        if (accumulator == null) throw new NullPointerException();
+        int len = cfs.length;
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[len];
+        for (int i = 0; i < len; ++i)
+            if ((fs[i] = cfs[i]) == null)
+                throw new NullPointerException();
+        CompletableFuture<U> dst = new CompletableFuture<U>();
+        if (len == 0)
+            dst.internalComplete(identity, null);
+        else
+            gather(fs, new ReduceGather<T,U>(dst, len, identity,
+                                              accumulator));
+        return dst;
+    }
+
     /* ------------- Control and status methods -------------- */
 
     /**
@@ -2995,6 +3367,9 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private static final long RESULT;
     private static final long WAITERS;
     private static final long COMPLETIONS;
+    private static final long QCLAIMS;
+    private static final long QFAILURES;
+    private static final long ARRIVALS;
     static {
         try {
             UNSAFE = sun.misc.Unsafe.getUnsafe();
@@ -3005,6 +3380,13 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
                 (k.getDeclaredField("waiters"));
             COMPLETIONS = UNSAFE.objectFieldOffset
                 (k.getDeclaredField("completions"));
+            Class<?> qk = QuorumGather.class;
+            QCLAIMS = UNSAFE.objectFieldOffset
+                (qk.getDeclaredField("claims"));
+            QFAILURES = UNSAFE.objectFieldOffset
+                (qk.getDeclaredField("failures"));
+            ARRIVALS = UNSAFE.objectFieldOffset
+                (ReduceGather.class.getDeclaredField("arrivals"));
         } catch (Exception e) {
             throw new Error(e);
         }
@@ -0,0 +1,71 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * The management interface for the execution statistics of a
+ * {@link ThreadPoolExecutor} or {@link ForkJoinPool}.  An instance is
+ * obtained from {@link ExecutorStatistics#asMXBean(ThreadPoolExecutor)}
+ * or {@link ExecutorStatistics#asMXBean(ForkJoinPool)}, and may be
+ * registered with the platform MBeanServer, by convention under an
+ * {@code ObjectName} of the form
+ * <code>java.util.concurrent:type=Executor,name=<i>poolName</i></code>:
+ *
+ * <pre> {@code
+ * ThreadPoolExecutor pool = ...;
+ * pool.setStatisticsEnabled(true);
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(
+ *     ExecutorStatistics.asMXBean(pool),
+ *     new ObjectName("java.util.concurrent:type=Executor,name=io"));}</pre>
+ *
+ * <p>The {@code Statistics} attribute maps to {@code CompositeData}
+ * whose items are the properties of {@link ExecutorStatistics}.
+ *
+ * @since 1.8
+ */
+public interface ExecutorMXBean {
+
+    /**
+     * Returns whether the pool records execution statistics.
+     *
+     * @return {@code true} if statistics are enabled
+     */
+    boolean isStatisticsEnabled();
+
+    /**
+     * Enables or disables the recording of execution statistics.
+     * Enabling them when disabled starts a new recording period.
+     *
+     * @param enabled {@code true} to enable statistics
+     */
+    void setStatisticsEnabled(boolean enabled);
+
+    /**
+     * Returns a snapshot of the execution statistics of the pool.
+     *
+     * @return the statistics, or {@code null} if they are disabled
+     */
+    ExecutorStatistics getStatistics();
+}
@@ -0,0 +1,417 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A snapshot of the execution statistics of a {@link ThreadPoolExecutor}
+ * or {@link ForkJoinPool}, obtained from their {@code getStatistics}
+ * methods while statistics are enabled with
+ * {@code setStatisticsEnabled(true)}.  All counts and times cover the
+ * period since statistics were last enabled.
+ *
+ * <p>Statistics are recorded with {@link LongAdder} counters and
+ * histograms of {@code LongAdder} buckets, so recording does not
+ * serialize the worker threads.  A histogram has one bucket per
+ * power of two: bucket {@code i} counts the durations of
+ * {@code 2^(i-1)} to {@code 2^i - 1} nanoseconds (bucket 0 counts
+ * durations of zero), so percentiles are accurate to within a factor
+ * of two.  When statistics are disabled, the pools record nothing and
+ * keep no recording state.
+ *
+ * <p>Because the counters are read one by one, a snapshot taken while
+ * tasks run need not be exactly consistent; for example the
+ * histograms may include a task that the completed count does not.
+ *
+ * <p>An {@link ExecutorMXBean} exposing these statistics for
+ * monitoring tools is obtained from {@link #asMXBean(ThreadPoolExecutor)}
+ * or {@link #asMXBean(ForkJoinPool)}.
+ *
+ * @since 1.8
+ */
+public final class ExecutorStatistics {
+
+    /** The number of histogram buckets, one per bit length. */
+    static final int BUCKETS = 64;
+
+    /**
+     * A lock-free histogram of durations in nanoseconds.
+     */
+    static final class Histogram {
+        final LongAdder[] buckets;
+        final LongAdder totalNanos;
+
+        Histogram() {
+            LongAdder[] bs = new LongAdder[BUCKETS];
+            for (int i = 0; i < BUCKETS; ++i)
+                bs[i] = new LongAdder();
+            buckets = bs;
+            totalNanos = new LongAdder();
+        }
+
+        void record(long nanos) {
+            if (nanos < 0L) // nanoTime is not strictly monotonic everywhere
+                nanos = 0L;
+            buckets[64 - Long.numberOfLeadingZeros(nanos)].increment();
+            totalNanos.add(nanos);
+        }
+
+        long[] counts() {
+            long[] a = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; ++i)
+                a[i] = buckets[i].sum();
+            return a;
+        }
+    }
+
+    /**
+     * The statistics of a pool while enabled.  A pool holds its
+     * recorder in a volatile field that is null while statistics are
+     * disabled; enabling them installs a fresh recorder.
+     */
+    static final class Recorder {
+        final long startNanos;
+        /** Whether tasks are timestamped on entry to the queue */
+        final boolean timesQueue;
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+        final Histogram queueWait = new Histogram();
+        final Histogram execution = new Histogram();
+
+        Recorder(boolean timesQueue) {
+            this.timesQueue = timesQueue;
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Returns the fraction of the time since the later of the
+         * given start and the start of recording that a worker spent
+         * busy.
+         */
+        double utilization(long busy, long workerStartNanos, long now) {
+            long since = now - Math.max(workerStartNanos, startNanos);
+            return (since <= 0L || busy <= 0L) ? 0.0 :
+                Math.min(1.0, (double)busy / since);
+        }
+    }
+
+    private final long elapsedNanos;
+    private final int poolSize;
+    private final int activeCount;
+    private final long queuedTaskCount;
+    private final long completedTaskCount;
+    private final long failedTaskCount;
+    private final long rejectedTaskCount;
+    private final long busyNanos;
+    private final long[] queueWaitCounts;
+    private final long queueWaitNanos;
+    private final long[] executionCounts;
+    private final long executionNanos;
+    private final double[] workerUtilization;
+
+    ExecutorStatistics(Recorder r, long now, int poolSize, int activeCount,
+                       long queuedTaskCount, double[] workerUtilization) {
+        this.elapsedNanos = now - r.startNanos;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queuedTaskCount = queuedTaskCount;
+        this.completedTaskCount = r.completed.sum();
+        this.failedTaskCount = r.failed.sum();
+        this.rejectedTaskCount = r.rejected.sum();
+        this.busyNanos = r.busyNanos.sum();
+        this.queueWaitCounts = r.queueWait.counts();
+        this.queueWaitNanos = r.queueWait.totalNanos.sum();
+        this.executionCounts = r.execution.counts();
+        this.executionNanos = r.execution.totalNanos.sum();
+        this.workerUtilization = workerUtilization;
+    }
+
+    /**
+     * Returns the time since statistics were enabled.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of worker threads when the snapshot was taken.
+     *
+     * @return the number of worker threads
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Returns the approximate number of threads that were executing
+     * tasks when the snapshot was taken.
+     *
+     * @return the number of active threads
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns the approximate number of tasks that were waiting to be
+     * executed when the snapshot was taken.
+     *
+     * @return the number of queued tasks
+     */
+    public long getQueuedTaskCount() {
+        return queuedTaskCount;
+    }
+
+    /**
+     * Returns the number of tasks that completed execution, normally
+     * or not.  For a {@code ForkJoinPool} these are the tasks taken
+     * from queues by workers; subtasks that a worker runs in the course
+     * of such a task are included in its execution time.
+     *
+     * @return the number of completed tasks
+     */
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * Returns the number of completed tasks that terminated by
+     * throwing an exception, or for a {@code ForkJoinPool} that
+     * completed exceptionally.  In a {@code ThreadPoolExecutor}, tasks
+     * such as {@link FutureTask} that capture the exceptions of their
+     * computation do not count.
+     *
+     * @return the number of failed tasks
+     */
+    public long getFailedTaskCount() {
+        return failedTaskCount;
+    }
+
+    /**
+     * Returns the number of tasks that were rejected.
+     *
+     * @return the number of rejected tasks
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTaskCount;
+    }
+
+    /**
+     * Returns the total time that workers spent executing tasks.
+     *
+     * @return the busy time in nanoseconds
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Returns, for each worker thread when the snapshot was taken, the
+     * fraction of its lifetime since statistics were enabled that it
+     * spent executing completed tasks, between 0.0 and 1.0.
+     *
+     * @return the utilization of each worker
+     */
+    public double[] getWorkerUtilization() {
+        return workerUtilization.clone();
+    }
+
+    /**
+     * Returns the number of tasks whose queue wait, the time from
+     * submission to start of execution, was recorded.  This is zero
+     * for a {@code ForkJoinPool}, and for a {@code ThreadPoolExecutor}
+     * whose work queue is not one of the FIFO queues of this package.
+     *
+     * @return the number of recorded queue waits
+     */
+    public long getQueueWaitCount() {
+        return sum(queueWaitCounts);
+    }
+
+    /**
+     * Returns the mean queue wait of the recorded tasks.
+     *
+     * @return the mean queue wait in nanoseconds, or zero if none
+     */
+    public long getMeanQueueWaitNanos() {
+        long n = sum(queueWaitCounts);
+        return (n == 0L) ? 0L : queueWaitNanos / n;
+    }
+
+    /**
+     * Returns the histogram of queue waits, with the bucket layout
+     * described in the class documentation.
+     *
+     * @return the counts of the histogram buckets
+     */
+    public long[] getQueueWaitHistogram() {
+        return queueWaitCounts.clone();
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of queue waits.
+     *
+     * @param percentile the percentile, between 0.0 and 100.0
+     * @return the upper bound in nanoseconds, or zero if none
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long queueWaitPercentile(double percentile) {
+        return percentile(queueWaitCounts, percentile);
+    }
+
+    /**
+     * Returns the number of tasks whose execution time was recorded.
+     *
+     * @return the number of recorded executions
+     */
+    public long getExecutionCount() {
+        return sum(executionCounts);
+    }
+
+    /**
+     * Returns the mean execution time of the recorded tasks.
+     *
+     * @return the mean execution time in nanoseconds, or zero if none
+     */
+    public long getMeanExecutionNanos() {
+        long n = sum(executionCounts);
+        return (n == 0L) ? 0L : executionNanos / n;
+    }
+
+    /**
+     * Returns the histogram of execution times, with the bucket
+     * layout described in the class documentation.
+     *
+     * @return the counts of the histogram buckets
+     */
+    public long[] getExecutionHistogram() {
+        return executionCounts.clone();
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of execution times.
+     *
+     * @param percentile the percentile, between 0.0 and 100.0
+     * @return the upper bound in nanoseconds, or zero if none
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long executionPercentile(double percentile) {
+        return percentile(executionCounts, percentile);
+    }
+
+    private static long sum(long[] counts) {
+        long n = 0L;
+        for (long c : counts)
+            n += c;
+        return n;
+    }
+
+    private static long percentile(long[] counts, double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0))
+            throw new IllegalArgumentException();
+        long n = sum(counts);
+        if (n == 0L)
+            return 0L;
+        long rank = Math.max(1L, (long)Math.ceil(n * (percentile / 100.0)));
+        long seen = 0L;
+        int i = 0;
+        while (i < BUCKETS - 1 && (seen += counts[i]) < rank)
+            ++i;
+        return (1L << i) - 1L; // Long.MAX_VALUE for the last bucket
+    }
+
+    /**
+     * Returns a string identifying this snapshot and summarizing its
+     * counts, mean times and 99th percentiles.
+     *
+     * @return a string summarizing these statistics
+     */
+    public String toString() {
+        return super.toString() +
+            "[elapsed = " + elapsedNanos +
+            "ns, pool size = " + poolSize +
+            ", active threads = " + activeCount +
+            ", queued tasks = " + queuedTaskCount +
+            ", completed tasks = " + completedTaskCount +
+            ", failed tasks = " + failedTaskCount +
+            ", rejected tasks = " + rejectedTaskCount +
+            ", mean/p99 queue wait = " + getMeanQueueWaitNanos() +
+            "/" + queueWaitPercentile(99.0) +
+            "ns, mean/p99 execution = " + getMeanExecutionNanos() +
+            "/" + executionPercentile(99.0) +
+            "ns]";
+    }
+
+    /**
+     * Returns an {@link ExecutorMXBean} for the given pool.
+     *
+     * @param pool the pool
+     * @return an MXBean for the pool
+     * @throws NullPointerException if the pool is null
+     */
+    public static ExecutorMXBean asMXBean(final ThreadPoolExecutor pool) {
+        if (pool == null)
+            throw new NullPointerException();
+        return new ExecutorMXBean() {
+            public boolean isStatisticsEnabled() {
+                return pool.isStatisticsEnabled();
+            }
+            public void setStatisticsEnabled(boolean enabled) {
+                pool.setStatisticsEnabled(enabled);
+            }
+            public ExecutorStatistics getStatistics() {
+                return pool.getStatistics();
+            }
+        };
+    }
+
+    /**
+     * Returns an {@link ExecutorMXBean} for the given pool.
+     *
+     * @param pool the pool
+     * @return an MXBean for the pool
+     * @throws NullPointerException if the pool is null
+     */
+    public static ExecutorMXBean asMXBean(final ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException();
+        return new ExecutorMXBean() {
+            public boolean isStatisticsEnabled() {
+                return pool.isStatisticsEnabled();
+            }
+            public void setStatisticsEnabled(boolean enabled) {
+                pool.setStatisticsEnabled(enabled);
+            }
+            public ExecutorStatistics getStatistics() {
+                return pool.getStatistics();
+            }
+        };
+    }
+}
@@ -128,6 +128,85 @@ public class Executors {
              null, true);
     }
 
+    /**
+     * Creates a fixed-size thread pool in which tasks submitted by its
+     * own threads are held in per-thread queues, from which idle
+     * threads steal, rather than in a single shared queue.  This
+     * reduces contention when tasks fan out into further tasks.
+     * Tasks submitted by other threads are held in an unbounded shared
+     * queue.  Unlike {@link #newWorkStealingPool(int)}, the pool is a
+     * {@link ThreadPoolExecutor}, and tasks run in roughly the order
+     * in which they were submitted by each thread.
+     *
+     * @param nThreads the number of threads in the pool
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @see #newWorkStealingThreadPool(int, int, long, TimeUnit, int, ThreadFactory, RejectedExecutionHandler)
+     * @since 1.8
+     */
+    public static ExecutorService newWorkStealingThreadPool(int nThreads) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new WorkStealingTaskQueue(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Creates a {@link ThreadPoolExecutor} with the given parameters in
+     * which tasks submitted by its own threads are held in per-thread
+     * queues, from which idle threads steal, rather than in a single
+     * shared queue.  This reduces contention when tasks fan out into
+     * further tasks.  Tasks submitted by other threads are held in a
+     * shared queue.  The given capacity bounds the tasks held in all
+     * of these queues together.
+     *
+     * <p>The core and maximum pool sizes, keep-alive time and rejected
+     * execution handler have their usual {@code ThreadPoolExecutor}
+     * meanings, with these queues together as the work queue: threads
+     * beyond the core pool size are created, and tasks rejected, when
+     * they hold the given capacity of tasks, whichever threads
+     * submitted them.  Tasks run in roughly the order in which they were
+     * submitted by each thread.  The work queue returned by
+     * {@link ThreadPoolExecutor#getQueue} supports the operations that
+     * {@code ThreadPoolExecutor} uses, but its blocking insertion
+     * methods wait for space by polling.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param queueCapacity the maximum number of tasks held for
+     *        execution
+     * @param threadFactory the factory to use when creating new threads
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}<br>
+     *         {@code queueCapacity <= 0}
+     * @throws NullPointerException if {@code unit}, {@code threadFactory}
+     *         or {@code handler} is null
+     * @since 1.8
+     */
+    public static ExecutorService newWorkStealingThreadPool(int corePoolSize,
+                                                            int maximumPoolSize,
+                                                            long keepAliveTime,
+                                                            TimeUnit unit,
+                                                            int queueCapacity,
+                                                            ThreadFactory threadFactory,
+                                                            RejectedExecutionHandler handler) {
+        return new ThreadPoolExecutor(corePoolSize, maximumPoolSize,
+                                      keepAliveTime, unit,
+                                      new WorkStealingTaskQueue(queueCapacity),
+                                      threadFactory, handler);
+    }
+
     /**
      * Creates a thread pool that reuses a fixed number of threads
      * operating off a shared unbounded queue, using the provided
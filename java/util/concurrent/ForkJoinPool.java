@@ -694,6 +694,9 @@ public class ForkJoinPool extends AbstractExecutorService {
         volatile Thread parker;    // == owner during call to park; else null
         volatile ForkJoinTask<?> currentJoin;  // task being joined in awaitJoin
         ForkJoinTask<?> currentSteal; // current non-local task being executed
+        final long startNanos;     // creation time, for statistics
+        volatile long busyNanos;   // time in top-level tasks for recorder
+        ExecutorStatistics.Recorder recorder; // accruing busyNanos
 
         WorkQueue(ForkJoinPool pool, ForkJoinWorkerThread owner, int mode,
                   int seed) {
@@ -701,6 +704,7 @@ public class ForkJoinPool extends AbstractExecutorService {
             this.owner = owner;
             this.mode = (short)mode;
             this.hint = seed; // store initial seed for runWorker
+            this.startNanos = (owner == null) ? 0L : System.nanoTime();
             // Place indices in the center of array (that is not yet allocated)
             base = top = INITIAL_QUEUE_CAPACITY >>> 1;
         }
@@ -898,8 +902,12 @@ public class ForkJoinPool extends AbstractExecutorService {
          */
         final void runTask(ForkJoinTask<?> task) {
             if ((currentSteal = task) != null) {
-                ForkJoinWorkerThread thread;
-                task.doExec();
+                ForkJoinWorkerThread thread; ForkJoinPool p;
+                ExecutorStatistics.Recorder rec =
+                    ((p = pool) == null) ? null : p.statistics;
+                long start = (rec == null) ? 0L : System.nanoTime();
+                int st = task.doExec();
+                long ran = (rec == null) ? 0L : System.nanoTime();
                 ForkJoinTask<?>[] a = array;
                 int md = mode;
                 ++nsteals;
@@ -916,11 +924,34 @@ public class ForkJoinPool extends AbstractExecutorService {
                         t.doExec();
                     }
                 }
+                if (rec != null)
+                    recordTask(rec, st, start, ran);
                 if ((thread = owner) != null) // no need to do in finally clause
                     thread.afterTopLevelExec();
             }
         }
 
+        /**
+         * Records the execution of a top-level task with the given
+         * completion status, which ran from start until ran and was
+         * followed by any local tasks until now.
+         */
+        private void recordTask(ExecutorStatistics.Recorder rec, int st,
+                                long start, long ran) {
+            long busy = System.nanoTime() - start;
+            rec.execution.record(ran - start);
+            rec.busyNanos.add(busy);
+            rec.completed.increment();
+            if ((st & ForkJoinTask.DONE_MASK) == ForkJoinTask.EXCEPTIONAL)
+                rec.failed.increment();
+            if (recorder != rec) {
+                recorder = rec;
+                busyNanos = busy;
+            }
+            else
+                busyNanos += busy;
+        }
+
         /**
          * If present, removes from queue and executes the given task,
          * or any other cancelled task. Returns (true) on any CAS
@@ -1271,6 +1302,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     final ForkJoinWorkerThreadFactory factory;
     final UncaughtExceptionHandler ueh;        // per-worker UEH
     final String workerNamePrefix;             // to create worker name string
+    volatile ExecutorStatistics.Recorder statistics; // null unless enabled
 
     /**
      * Acquires the plock lock to protect worker array and related
@@ -1527,8 +1559,12 @@ public class ForkJoinPool extends AbstractExecutorService {
         for (;;) {
             WorkQueue[] ws; WorkQueue q; int ps, m, k;
             boolean move = false;
-            if ((ps = plock) < 0)
+            if ((ps = plock) < 0) {
+                ExecutorStatistics.Recorder rec = statistics;
+                if (rec != null)
+                    rec.rejected.increment();
                 throw new RejectedExecutionException();
+            }
             else if (ps == 0 || (ws = workQueues) == null ||
                      (m = ws.length - 1) < 0) { // initialize workQueues
                 int p = parallelism;            // find power of two table size
@@ -2775,6 +2811,72 @@ public class ForkJoinPool extends AbstractExecutorService {
         return count;
     }
 
+    /**
+     * Enables or disables the recording of execution statistics,
+     * which are disabled by default.  Enabling them when disabled
+     * starts a new recording period.  While statistics are disabled,
+     * the only cost to task execution is a read of a field for each
+     * task taken from a queue by a worker.
+     *
+     * @param enabled {@code true} to enable statistics
+     * @see #getStatistics
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        if (!enabled)
+            statistics = null;
+        else if (statistics == null)
+            U.compareAndSwapObject(this, STATISTICS, null,
+                                   new ExecutorStatistics.Recorder(false));
+    }
+
+    /**
+     * Returns {@code true} if this pool records execution statistics.
+     *
+     * @return {@code true} if statistics are enabled
+     * @see #setStatisticsEnabled
+     */
+    public boolean isStatisticsEnabled() {
+        return statistics != null;
+    }
+
+    /**
+     * Returns a snapshot of the execution statistics recorded since
+     * they were enabled.  The execution time of a task is that of the
+     * task taken from a queue by a worker, including that of any
+     * subtasks it runs while joining them; the busy time of a worker
+     * also includes that of local subtasks it runs afterwards.  Queue
+     * waits are not recorded.
+     *
+     * @return the statistics, or {@code null} if they are disabled
+     * @see #setStatisticsEnabled
+     */
+    public ExecutorStatistics getStatistics() {
+        ExecutorStatistics.Recorder rec = statistics;
+        if (rec == null)
+            return null;
+        long now = System.nanoTime();
+        long qt = 0L;
+        int nw = 0;
+        double[] u = new double[8];
+        WorkQueue[] ws; WorkQueue w;
+        if ((ws = workQueues) != null) {
+            for (int i = 0; i < ws.length; ++i) {
+                if ((w = ws[i]) != null) {
+                    qt += w.queueSize();
+                    if ((i & 1) != 0) {
+                        long busy = w.busyNanos;
+                        if (nw == u.length)
+                            u = Arrays.copyOf(u, nw << 1);
+                        u[nw++] = (w.recorder != rec) ? 0.0 :
+                            rec.utilization(busy, w.startNanos, now);
+                    }
+                }
+            }
+        }
+        return new ExecutorStatistics(rec, now, nw, getActiveThreadCount(),
+                                      qt, Arrays.copyOf(u, nw));
+    }
+
     /**
      * Returns an estimate of the total number of tasks currently held
      * in queues by worker threads (but not including tasks submitted
@@ -3250,6 +3352,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     private static final long INDEXSEED;
     private static final long QBASE;
     private static final long QLOCK;
+    private static final long STATISTICS;
 
     static {
         // initialize field offsets for CAS etc
@@ -3264,6 +3367,8 @@ public class ForkJoinPool extends AbstractExecutorService {
                 (k.getDeclaredField("plock"));
             INDEXSEED = U.objectFieldOffset
                 (k.getDeclaredField("indexSeed"));
+            STATISTICS = U.objectFieldOffset
+                (k.getDeclaredField("statistics"));
             Class<?> tk = Thread.class;
             PARKBLOCKER = U.objectFieldOffset
                 (tk.getDeclaredField("parkBlocker"));
@@ -0,0 +1,105 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by an
+ * array, for use by any number of producer and consumer threads.  This
+ * queue orders elements FIFO (first-in-first-out).
+ *
+ * <p>Unlike {@link ArrayBlockingQueue}, this queue uses no lock.
+ * Producers and consumers claim slots by compare-and-set of their own
+ * index, and meet only at the slots of the array, each of which
+ * carries a sequence number that tells the other side whether it is
+ * full; the two indices are kept on separate cache lines.  Threads
+ * that must wait spin briefly and then park.  {@link #fill} claims
+ * space for a batch of elements with a single compare-and-set.
+ *
+ * <p>The capacity is that requested rounded up to a power of two,
+ * and is at least two.  Elements may be removed other than at the
+ * head, by {@code remove(Object)} or by the iterator, which returns
+ * the elements of a snapshot taken when it is created; a removed
+ * element leaves a tombstone that is counted by {@link #size} until
+ * consumers pass it.  This queue may be used as the work queue of a
+ * {@link ThreadPoolExecutor}.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+public class MpmcArrayQueue<E> extends SequencedArrayQueue<E> {
+
+    /**
+     * Creates an {@code MpmcArrayQueue} with at least the given capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity < 1} or
+     *         {@code capacity > 2^30}
+     */
+    public MpmcArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so without exceeding its capacity.
+     *
+     * @return {@code true} if the element was added to this queue,
+     *         else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        return offerMulti(e);
+    }
+
+    public E poll() {
+        return pollMulti();
+    }
+
+    public int drain(Consumer<? super E> c, int limit) {
+        return drainMulti(c, limit);
+    }
+
+    public int fill(Supplier<? extends E> s, int limit) {
+        return fillMulti(s, limit);
+    }
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        return removeMulti(o);
+    }
+
+    boolean supportsRemoval() {
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by an
+ * array, for use by any number of producer threads and a single
+ * consumer thread.  This queue orders elements FIFO
+ * (first-in-first-out).
+ *
+ * <p>The removal methods ({@code poll}, {@code take},
+ * {@code remove()}, {@code drain}, {@code drainTo} and {@code clear})
+ * may be called by only one thread at a time; results are undefined
+ * otherwise.  All other methods may be called by any thread.
+ * Producers claim slots by compare-and-set of a shared index, and
+ * {@link #fill} claims space for a batch of elements at once; the
+ * consumer uses no atomic read-modify-write operations.  Each slot of
+ * the array carries a sequence number that tells the other side
+ * whether it is full, and the indices of the two sides are kept on
+ * separate cache lines.
+ *
+ * <p>The capacity is that requested rounded up to a power of two,
+ * and is at least two.  Removal of elements other than at the head, by
+ * {@code remove(Object)} or by the iterator, is not supported.  The
+ * iterator returns the elements of a snapshot taken when it is created.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+public class MpscArrayQueue<E> extends SequencedArrayQueue<E> {
+
+    /**
+     * Creates an {@code MpscArrayQueue} with at least the given capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity < 1} or
+     *         {@code capacity > 2^30}
+     */
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so without exceeding its capacity.
+     *
+     * @return {@code true} if the element was added to this queue,
+     *         else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        return offerMulti(e);
+    }
+
+    public E poll() {
+        return pollSingle();
+    }
+
+    public int drain(Consumer<? super E> c, int limit) {
+        return drainSingle(c, limit);
+    }
+
+    public int fill(Supplier<? extends E> s, int limit) {
+        return fillMulti(s, limit);
+    }
+}
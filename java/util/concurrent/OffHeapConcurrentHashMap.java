@@ -0,0 +1,1061 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link ConcurrentMap} that keeps its keys and values outside the Java
+ * heap.  Each mapping is serialized by a pair of {@link Codec}s into
+ * direct {@link ByteBuffer} chunks; the only per-mapping state on the heap
+ * is one {@code int} hash and one {@code long} address in an
+ * open-addressed index.  This keeps the live set that the garbage
+ * collector has to trace nearly independent of the number and size of
+ * the mappings, at the price of encoding keys on every access and
+ * decoding values on every read.
+ *
+ * <p>As in the original (segmented) {@link ConcurrentHashMap}, the table
+ * is partitioned into segments selected by the high bits of the key
+ * hash, each guarded by its own {@link ReentrantReadWriteLock}.  Readers
+ * of a segment proceed concurrently; updates are exclusive within a
+ * segment but do not block other segments.  The {@code concurrencyLevel}
+ * constructor argument sizes the number of segments.
+ *
+ * <p>Keys are compared by their encoded bytes, so the key codec must be
+ * consistent with {@code equals}: two keys are equal exactly when their
+ * encodings are.  Values are compared with {@code equals} after decoding.
+ * Like {@code ConcurrentHashMap}, this class does <em>not</em> allow
+ * {@code null} to be used as a key or value.  All operations, including
+ * {@link #compute}, {@link #computeIfAbsent} and {@link #merge}, are
+ * performed atomically; the supplied functions run while holding the
+ * segment lock and must not update this map.
+ *
+ * <p>Space left by removed or replaced mappings is reclaimed by copying
+ * the live records of a segment into fresh chunks once more than half of
+ * its off-heap memory is garbage.  Chunks no longer in use are reclaimed
+ * by the garbage collector once unreachable, so buffers passed to
+ * {@link Codec#decode} remain valid for as long as they are referenced.
+ * Iterators are weakly consistent: they reflect the state of each
+ * segment at the time it is reached, never throw {@link
+ * java.util.ConcurrentModificationException}, and return entries that
+ * write through to the map via {@code put}.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class OffHeapConcurrentHashMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /**
+     * Translates objects to and from their off-heap representation.
+     * Implementations must be stateless or thread-safe.
+     *
+     * @param <T> the type of encoded objects
+     */
+    public interface Codec<T> {
+        /**
+         * Returns the number of bytes that {@link #encode} will write for
+         * the given object.
+         *
+         * @param t the object, never null
+         * @return the encoded length in bytes
+         */
+        int encodedLength(T t);
+
+        /**
+         * Writes exactly {@code encodedLength(t)} bytes representing the
+         * given object at the current position of the given buffer.
+         *
+         * @param t the object, never null
+         * @param dst the buffer, with at least that many bytes remaining
+         */
+        void encode(T t, ByteBuffer dst);
+
+        /**
+         * Reconstructs an object from the bytes between the position and
+         * the limit of the given buffer.  The buffer is a view of the
+         * off-heap chunk holding the record; an object that retains it
+         * (or a slice of it) rather than copying the bytes keeps the
+         * whole chunk from being reclaimed.
+         *
+         * @param src the buffer, which may be modified by this method
+         * @return the decoded object, never null
+         */
+        T decode(ByteBuffer src);
+
+        /**
+         * Returns a codec for {@code String}s, encoded as UTF-8.
+         *
+         * @return a codec for strings
+         */
+        static Codec<String> ofString() {
+            return StringCodec.INSTANCE;
+        }
+
+        /**
+         * Returns a codec for {@code Long}s, encoded in eight bytes.
+         *
+         * @return a codec for longs
+         */
+        static Codec<Long> ofLong() {
+            return LongCodec.INSTANCE;
+        }
+
+        /**
+         * Returns a codec for {@code Integer}s, encoded in four bytes.
+         *
+         * @return a codec for integers
+         */
+        static Codec<Integer> ofInteger() {
+            return IntegerCodec.INSTANCE;
+        }
+
+        /**
+         * Returns a codec for byte arrays, stored as is.  Note that keys
+         * of this type are compared by content.
+         *
+         * @return a codec for byte arrays
+         */
+        static Codec<byte[]> ofBytes() {
+            return BytesCodec.INSTANCE;
+        }
+    }
+
+    static final class StringCodec implements Codec<String> {
+        static final StringCodec INSTANCE = new StringCodec();
+        public int encodedLength(String s) {
+            // exact for the common case of mostly-ASCII strings
+            int n = s.length(), len = n;
+            for (int i = 0; i < n; ++i) {
+                char c = s.charAt(i);
+                if (c >= 0x80) {
+                    len = s.getBytes(StandardCharsets.UTF_8).length;
+                    break;
+                }
+            }
+            return len;
+        }
+        public void encode(String s, ByteBuffer dst) {
+            dst.put(s.getBytes(StandardCharsets.UTF_8));
+        }
+        public String decode(ByteBuffer src) {
+            byte[] b = new byte[src.remaining()];
+            src.get(b);
+            return new String(b, StandardCharsets.UTF_8);
+        }
+    }
+
+    static final class LongCodec implements Codec<Long> {
+        static final LongCodec INSTANCE = new LongCodec();
+        public int encodedLength(Long x) { return 8; }
+        public void encode(Long x, ByteBuffer dst) { dst.putLong(x); }
+        public Long decode(ByteBuffer src) { return src.getLong(); }
+    }
+
+    static final class IntegerCodec implements Codec<Integer> {
+        static final IntegerCodec INSTANCE = new IntegerCodec();
+        public int encodedLength(Integer x) { return 4; }
+        public void encode(Integer x, ByteBuffer dst) { dst.putInt(x); }
+        public Integer decode(ByteBuffer src) { return src.getInt(); }
+    }
+
+    static final class BytesCodec implements Codec<byte[]> {
+        static final BytesCodec INSTANCE = new BytesCodec();
+        public int encodedLength(byte[] b) { return b.length; }
+        public void encode(byte[] b, ByteBuffer dst) { dst.put(b); }
+        public byte[] decode(ByteBuffer src) {
+            byte[] b = new byte[src.remaining()];
+            src.get(b);
+            return b;
+        }
+    }
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The default concurrency level, used when not otherwise specified.
+     */
+    static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The maximum number of segments.
+     */
+    static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * The default size of an off-heap chunk, used when not otherwise
+     * specified.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The initial (power of two) index capacity of a segment.
+     */
+    static final int MIN_SEGMENT_TABLE_CAPACITY = 16;
+
+    /**
+     * Size in bytes of the record header: key length and value length.
+     */
+    static final int HEADER = 8;
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The segments, each of which is a specialized hash table.
+     */
+    final Segment<K,V>[] segments;
+
+    /**
+     * Mask value for indexing into segments. The upper bits of a key's
+     * hash code are used to choose the segment.
+     */
+    final int segmentMask;
+
+    /**
+     * Shift value for indexing within segments.
+     */
+    final int segmentShift;
+
+    final Codec<K> keyCodec;
+    final Codec<V> valueCodec;
+
+    transient Set<Map.Entry<K,V>> entrySet;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty map with the given codecs, concurrency level
+     * and chunk size.
+     *
+     * @param keyCodec the codec for keys, which must be consistent with
+     *        {@code equals}
+     * @param valueCodec the codec for values
+     * @param concurrencyLevel the estimated number of concurrently
+     *        updating threads, used to size the number of segments
+     * @param chunkSize the size in bytes of each off-heap chunk; larger
+     *        records get a chunk of their own
+     * @throws IllegalArgumentException if the concurrency level or chunk
+     *         size is nonpositive
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec,
+                                    int concurrencyLevel, int chunkSize) {
+        if (keyCodec == null || valueCodec == null)
+            throw new NullPointerException();
+        if (concurrencyLevel <= 0 || chunkSize <= 0)
+            throw new IllegalArgumentException();
+        if (concurrencyLevel > MAX_SEGMENTS)
+            concurrencyLevel = MAX_SEGMENTS;
+        int sshift = 0;
+        int ssize = 1;
+        while (ssize < concurrencyLevel) {
+            ++sshift;
+            ssize <<= 1;
+        }
+        this.segmentShift = 32 - sshift;
+        this.segmentMask = ssize - 1;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        @SuppressWarnings("unchecked")
+        Segment<K,V>[] ss = (Segment<K,V>[])new Segment<?,?>[ssize];
+        for (int i = 0; i < ssize; ++i)
+            ss[i] = new Segment<K,V>(keyCodec, valueCodec, chunkSize);
+        this.segments = ss;
+    }
+
+    /**
+     * Creates a new, empty map with the given codecs and the default
+     * concurrency level (16) and chunk size (1 MiB).
+     *
+     * @param keyCodec the codec for keys, which must be consistent with
+     *        {@code equals}
+     * @param valueCodec the codec for values
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this(keyCodec, valueCodec, DEFAULT_CONCURRENCY_LEVEL,
+             DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns the encoded form of the given key.
+     */
+    final byte[] encodeKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        @SuppressWarnings("unchecked") K k = (K)key;
+        int len = keyCodec.encodedLength(k);
+        ByteBuffer b = ByteBuffer.allocate(len);
+        keyCodec.encode(k, b);
+        if (b.position() != len)
+            throw new IllegalStateException("Key codec wrote " + b.position() +
+                                            " bytes, expected " + len);
+        return b.array();
+    }
+
+    /**
+     * Hashes encoded key bytes, spreading entropy to both the high bits
+     * (segment selection) and the low bits (index probing).
+     */
+    static int hash(byte[] kb) {
+        int h = 1;
+        for (byte b : kb)
+            h = 31 * h + b;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    final Segment<K,V> segmentFor(int h) {
+        return segments[(h >>> segmentShift) & segmentMask];
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.  The value is
+     * a sum of per-segment counts and so only an estimate in the presence
+     * of concurrent updates.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        long n = 0L;
+        for (Segment<K,V> s : segments)
+            n += s.count;
+        return (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        for (Segment<K,V> s : segments) {
+            if (s.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory currently held by
+     * this map, including space not yet reclaimed from removed mappings.
+     *
+     * @return the off-heap footprint in bytes
+     */
+    public long offHeapBytes() {
+        long n = 0L;
+        for (Segment<K,V> s : segments)
+            n += s.allocatedBytes;
+        return n;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        byte[] kb = encodeKey(key);
+        int h = hash(kb);
+        return segmentFor(h).get(kb, h);
+    }
+
+    /**
+     * Tests if the specified object is a key in this map.
+     *
+     * @param  key possible key
+     * @return {@code true} if and only if the specified object
+     *         is a key in this map, as determined by the key codec
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        byte[] kb = encodeKey(key);
+        int h = hash(kb);
+        return segmentFor(h).containsKey(kb, h);
+    }
+
+    /**
+     * Maps the specified key to the specified value in this map.
+     * Neither the key nor the value can be null.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return update(key, (k, v) -> value, ANY, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return update(key, (k, v) -> value, IF_ABSENT, true);
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @param  key the key that needs to be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        @SuppressWarnings("unchecked") K k = (K)key;
+        return update(k, (x, v) -> null, IF_PRESENT, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (value == null)
+            return false;
+        @SuppressWarnings("unchecked") K k = (K)key;
+        V old = update(k, (x, v) -> value.equals(v) ? null : v,
+                       IF_PRESENT, true);
+        return old != null && value.equals(old);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (oldValue == null || newValue == null)
+            throw new NullPointerException();
+        V old = update(key, (k, v) -> oldValue.equals(v) ? newValue : v,
+                       IF_PRESENT, true);
+        return old != null && oldValue.equals(old);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return update(key, (k, v) -> value, IF_PRESENT, true);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function
+     * and enters it into this map unless {@code null}.  The entire
+     * method invocation is performed atomically.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     */
+    public V computeIfAbsent(K key,
+                             Function<? super K, ? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v;
+        if ((v = get(key)) != null) // avoid the write lock when present
+            return v;
+        return update(key, (k, x) -> mappingFunction.apply(k),
+                      IF_ABSENT, false);
+    }
+
+    /**
+     * If the value for the specified key is present, attempts to
+     * compute a new mapping given the key and its current mapped
+     * value.  The entire method invocation is performed atomically.
+     *
+     * @param key key with which a value may be associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null
+     *         if none
+     * @throws NullPointerException if the specified key or
+     *         remappingFunction is null
+     */
+    public V computeIfPresent(K key,
+                              BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        return update(key, remappingFunction, IF_PRESENT, false);
+    }
+
+    /**
+     * Attempts to compute a mapping for the specified key and its
+     * current mapped value (or {@code null} if there is no current
+     * mapping).  The entire method invocation is performed atomically.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null
+     *         if none
+     * @throws NullPointerException if the specified key or
+     *         remappingFunction is null
+     */
+    public V compute(K key,
+                     BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        return update(key, remappingFunction, ANY, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a (non-null)
+     * value, associates it with the given value.  Otherwise, replaces the
+     * value with the results of the given remapping function, or removes
+     * if {@code null}.  The entire method invocation is performed
+     * atomically.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value the value to use if absent
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key, or null
+     *         if none
+     * @throws NullPointerException if the specified key or the
+     *         remappingFunction is null
+     */
+    public V merge(K key, V value,
+                   BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null || remappingFunction == null)
+            throw new NullPointerException();
+        return update(key,
+                      (k, v) -> (v == null) ? value :
+                      remappingFunction.apply(v, value),
+                      ANY, false);
+    }
+
+    /**
+     * Removes all of the mappings from this map.  Their off-heap memory
+     * is reclaimed once no longer referenced.
+     */
+    public void clear() {
+        for (Segment<K,V> s : segments)
+            s.clear();
+    }
+
+    /** Modes for update */
+    static final int ANY        = 0;
+    static final int IF_ABSENT  = 1;
+    static final int IF_PRESENT = 2;
+
+    /**
+     * Common implementation of all updates: applies the function to the
+     * key and its current value under the segment write lock, storing
+     * the result, or removing the mapping if it is null.  A result that
+     * is identical to the current value leaves the mapping untouched.
+     *
+     * @param mode ANY, or IF_ABSENT / IF_PRESENT to skip the function
+     *        (returning the current value) unless the key is absent /
+     *        present
+     * @param returnOld whether to return the previous value rather than
+     *        the new one
+     */
+    final V update(K key, BiFunction<? super K, ? super V, ? extends V> fn,
+                   int mode, boolean returnOld) {
+        byte[] kb = encodeKey(key);
+        int h = hash(kb);
+        return segmentFor(h).update(key, kb, h, fn, mode, returnOld);
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set supports element removal, but not the {@code add} or
+     * {@code addAll} operations.  Its iterator is weakly consistent and
+     * decodes one mapping at a time.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySet());
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public int size()   { return OffHeapConcurrentHashMap.this.size(); }
+        public boolean isEmpty() {
+            return OffHeapConcurrentHashMap.this.isEmpty();
+        }
+        public void clear() { OffHeapConcurrentHashMap.this.clear(); }
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public boolean contains(Object o) {
+            Object k, v, r;
+            if (!(o instanceof Map.Entry) ||
+                (k = ((Map.Entry<?,?>)o).getKey()) == null ||
+                (v = ((Map.Entry<?,?>)o).getValue()) == null)
+                return false;
+            return (r = get(k)) != null && r.equals(v);
+        }
+        public boolean remove(Object o) {
+            Object k, v;
+            return ((o instanceof Map.Entry) &&
+                    (k = ((Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = ((Map.Entry<?,?>)o).getValue()) != null &&
+                    OffHeapConcurrentHashMap.this.remove(k, v));
+        }
+    }
+
+    /**
+     * Exported entry for EntryIterator, writing through via put.
+     */
+    final class MapEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = 2318237613981289462L;
+        MapEntry(K key, V value) { super(key, value); }
+        public V setValue(V value) {
+            if (value == null)
+                throw new NullPointerException();
+            V v = super.setValue(value);
+            put(getKey(), value);
+            return v;
+        }
+    }
+
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        int nextSegment;
+        long[] addrs;         // record addresses of the current segment
+        ByteBuffer[] chunks;  // the chunks those addresses refer to
+        int index;            // next address to decode
+        K lastKey;
+
+        EntryIterator() {
+            advance();
+        }
+
+        final void advance() {
+            while ((addrs == null || index >= addrs.length) &&
+                   nextSegment < segments.length) {
+                Segment<K,V> s = segments[nextSegment++];
+                ReentrantReadWriteLock.ReadLock lock = s.readLock();
+                lock.lock();
+                try {
+                    addrs = s.addresses();
+                    chunks = s.chunks;
+                } finally {
+                    lock.unlock();
+                }
+                index = 0;
+            }
+            if (addrs != null && index >= addrs.length) {
+                addrs = null;
+                chunks = null;
+            }
+        }
+
+        public boolean hasNext() {
+            return addrs != null;
+        }
+
+        public Map.Entry<K,V> next() {
+            long[] as = addrs;
+            if (as == null)
+                throw new NoSuchElementException();
+            long a = as[index++];
+            ByteBuffer c = chunks[(int)(a >>> 32) - 1];
+            K k = decodeKey(keyCodec, c, (int)a);
+            V v = decodeValue(valueCodec, c, (int)a);
+            advance();
+            lastKey = k;
+            return new MapEntry(k, v);
+        }
+
+        public void remove() {
+            K k;
+            if ((k = lastKey) == null)
+                throw new IllegalStateException();
+            lastKey = null;
+            OffHeapConcurrentHashMap.this.remove(k);
+        }
+    }
+
+    /**
+     * Decodes the value of the record at the given offset of a chunk.
+     * Records are never modified in place, so no lock is needed as long
+     * as the chunk was read together with the address.
+     */
+    static <V> V decodeValue(Codec<V> codec, ByteBuffer chunk, int off) {
+        ByteBuffer c = chunk.duplicate();
+        int kl = c.getInt(off), vl = c.getInt(off + 4);
+        int start = off + HEADER + kl;
+        c.limit(start + vl);
+        c.position(start);
+        return codec.decode(c);
+    }
+
+    /**
+     * Decodes the key of the record at the given offset of a chunk.
+     */
+    static <K> K decodeKey(Codec<K> codec, ByteBuffer chunk, int off) {
+        ByteBuffer c = chunk.duplicate();
+        int kl = c.getInt(off);
+        c.limit(off + HEADER + kl);
+        c.position(off + HEADER);
+        return codec.decode(c);
+    }
+
+    /* ---------------- Segments -------------- */
+
+    /**
+     * Segments are specialized versions of hash tables.  The index maps
+     * hash codes to packed record addresses by linear probing; the
+     * records themselves live in a list of direct chunks filled by bump
+     * allocation.  A record is laid out as the key length and the value
+     * length (each an int) followed by the key and value bytes.  An
+     * address packs the chunk number plus one in its upper half and the
+     * offset in its lower half, so that zero marks a free index slot.
+     */
+    static final class Segment<K,V> extends ReentrantReadWriteLock {
+        private static final long serialVersionUID = -5398316294315127582L;
+
+        final Codec<K> keyCodec;
+        final Codec<V> valueCodec;
+        final int chunkSize;
+        int[] hashes;
+        long[] addrs;
+        ByteBuffer[] chunks;
+        int chunkCount;
+        int tail;                   // allocation offset in the last chunk
+        long liveBytes;             // bytes of records still referenced
+        volatile long allocatedBytes;
+        volatile int count;
+
+        Segment(Codec<K> keyCodec, Codec<V> valueCodec, int chunkSize) {
+            this.keyCodec = keyCodec;
+            this.valueCodec = valueCodec;
+            this.chunkSize = chunkSize;
+            this.hashes = new int[MIN_SEGMENT_TABLE_CAPACITY];
+            this.addrs = new long[MIN_SEGMENT_TABLE_CAPACITY];
+            this.chunks = new ByteBuffer[4];
+        }
+
+        final ByteBuffer chunkOf(long a) {
+            return chunks[(int)(a >>> 32) - 1];
+        }
+
+        /**
+         * Returns the index slot holding the given key, or the bitwise
+         * complement of the free slot at which it would be inserted.
+         * Called with the lock held.
+         */
+        final int slotOf(byte[] kb, int h) {
+            int[] hs = hashes; long[] as = addrs;
+            int mask = as.length - 1, j = h & mask;
+            long a;
+            while ((a = as[j]) != 0L) {
+                if (hs[j] == h && keyEquals(a, kb))
+                    return j;
+                j = (j + 1) & mask;
+            }
+            return ~j;
+        }
+
+        final boolean keyEquals(long a, byte[] kb) {
+            ByteBuffer c = chunkOf(a);
+            int off = (int)a, n = kb.length;
+            if (c.getInt(off) != n)
+                return false;
+            off += HEADER;
+            int i = 0;
+            for (; i + 8 <= n; i += 8) {
+                long w = ((kb[i] & 0xffL) << 56 | (kb[i + 1] & 0xffL) << 48 |
+                          (kb[i + 2] & 0xffL) << 40 | (kb[i + 3] & 0xffL) << 32 |
+                          (kb[i + 4] & 0xffL) << 24 | (kb[i + 5] & 0xffL) << 16 |
+                          (kb[i + 6] & 0xffL) << 8 | (kb[i + 7] & 0xffL));
+                if (c.getLong(off + i) != w)
+                    return false;
+            }
+            for (; i < n; ++i) {
+                if (c.get(off + i) != kb[i])
+                    return false;
+            }
+            return true;
+        }
+
+        final int recordLength(long a) {
+            ByteBuffer c = chunkOf(a);
+            int off = (int)a;
+            return HEADER + c.getInt(off) + c.getInt(off + 4);
+        }
+
+        final V decodeValue(long a) {
+            return OffHeapConcurrentHashMap.decodeValue(valueCodec, chunkOf(a),
+                                                       (int)a);
+        }
+
+        final V get(byte[] kb, int h) {
+            ReentrantReadWriteLock.ReadLock lock = readLock();
+            lock.lock();
+            try {
+                int j;
+                return (count == 0 || (j = slotOf(kb, h)) < 0) ? null :
+                    decodeValue(addrs[j]);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        final boolean containsKey(byte[] kb, int h) {
+            ReentrantReadWriteLock.ReadLock lock = readLock();
+            lock.lock();
+            try {
+                return count != 0 && slotOf(kb, h) >= 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        final V update(K key, byte[] kb, int h,
+                       BiFunction<? super K, ? super V, ? extends V> fn,
+                       int mode, boolean returnOld) {
+            ReentrantReadWriteLock.WriteLock lock = writeLock();
+            lock.lock();
+            try {
+                int j = slotOf(kb, h);
+                V oldValue = (j >= 0) ? decodeValue(addrs[j]) : null;
+                if ((mode == IF_ABSENT && j >= 0) ||
+                    (mode == IF_PRESENT && j < 0))
+                    return oldValue;
+                V newValue = fn.apply(key, oldValue);
+                if (newValue != oldValue) {
+                    if (newValue == null)
+                        removeSlot(j);
+                    else {
+                        long a = write(kb, newValue);
+                        if (j >= 0) {
+                            liveBytes -= recordLength(addrs[j]);
+                            addrs[j] = a;
+                        }
+                        else {
+                            j = ~j;
+                            hashes[j] = h;
+                            addrs[j] = a;
+                            int c = count + 1;
+                            if (c > addrs.length - (addrs.length >>> 2))
+                                rehash();
+                            count = c;
+                        }
+                    }
+                    maybeCompact();
+                }
+                return returnOld ? oldValue : newValue;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Appends a record for the given key bytes and value, returning
+         * its address.
+         */
+        final long write(byte[] kb, V value) {
+            int vl = valueCodec.encodedLength(value);
+            int len = HEADER + kb.length + vl;
+            if (vl < 0 || len < 0)
+                throw new OutOfMemoryError("Record too large");
+            long a = allocate(len);
+            ByteBuffer c = chunkOf(a).duplicate();
+            int off = (int)a;
+            c.limit(off + len);
+            c.position(off);
+            c.putInt(kb.length).putInt(vl).put(kb);
+            valueCodec.encode(value, c);
+            if (c.position() != off + len)
+                throw new IllegalStateException("Value codec wrote " +
+                                                (c.position() - off - HEADER - kb.length) +
+                                                " bytes, expected " + vl);
+            liveBytes += len;
+            return a;
+        }
+
+        /**
+         * Bump-allocates len bytes, starting a new chunk if the last one
+         * lacks room.  Records larger than the chunk size get a chunk of
+         * their own.
+         */
+        final long allocate(int len) {
+            ByteBuffer c = (chunkCount == 0) ? null : chunks[chunkCount - 1];
+            if (c == null || c.capacity() - tail < len) {
+                c = ByteBuffer.allocateDirect(Math.max(chunkSize, len));
+                if (chunkCount == chunks.length)
+                    chunks = Arrays.copyOf(chunks, chunkCount << 1);
+                chunks[chunkCount++] = c;
+                tail = 0;
+                allocatedBytes += c.capacity();
+            }
+            int off = tail;
+            tail += len;
+            return ((long)chunkCount << 32) | off;
+        }
+
+        /**
+         * Removes the mapping at the given index slot, shifting back later
+         * slots of the same probe cluster.
+         */
+        final void removeSlot(int j) {
+            int[] hs = hashes; long[] as = addrs;
+            int mask = as.length - 1;
+            liveBytes -= recordLength(as[j]);
+            for (int last;;) {
+                j = ((last = j) + 1) & mask;
+                long a;
+                for (;;) {
+                    if ((a = as[j]) == 0L) {
+                        as[last] = 0L;
+                        count = count - 1;
+                        return;
+                    }
+                    int slot = hs[j] & mask;
+                    if (last <= j ? (last >= slot || slot > j) :
+                        (last >= slot && slot > j))
+                        break;
+                    j = (j + 1) & mask;
+                }
+                hs[last] = hs[j];
+                as[last] = a;
+            }
+        }
+
+        /**
+         * Doubles the index.
+         */
+        final void rehash() {
+            int[] oldHashes = hashes; long[] oldAddrs = addrs;
+            int n = oldAddrs.length << 1, mask = n - 1;
+            int[] hs = new int[n]; long[] as = new long[n];
+            for (int i = 0; i < oldAddrs.length; ++i) {
+                long a;
+                if ((a = oldAddrs[i]) != 0L) {
+                    int h = oldHashes[i], j = h & mask;
+                    while (as[j] != 0L)
+                        j = (j + 1) & mask;
+                    hs[j] = h;
+                    as[j] = a;
+                }
+            }
+            hashes = hs;
+            addrs = as;
+        }
+
+        /**
+         * Copies live records into fresh chunks once more than half of
+         * the allocated memory is garbage.  The old chunks are left to
+         * the collector, since iterators and decoded objects may still
+         * refer to them.
+         */
+        final void maybeCompact() {
+            long allocated = allocatedBytes;
+            if (allocated <= chunkSize || liveBytes > (allocated >>> 1))
+                return;
+            ByteBuffer[] oldChunks = chunks;
+            chunks = new ByteBuffer[4];
+            chunkCount = 0;
+            tail = 0;
+            allocatedBytes = 0L;
+            long[] as = addrs;
+            for (int j = 0; j < as.length; ++j) {
+                long a;
+                if ((a = as[j]) != 0L) {
+                    ByteBuffer src = oldChunks[(int)(a >>> 32) - 1].duplicate();
+                    int off = (int)a;
+                    int len = HEADER + src.getInt(off) + src.getInt(off + 4);
+                    long b = allocate(len);
+                    ByteBuffer dst = chunkOf(b).duplicate();
+                    src.limit(off + len);
+                    src.position(off);
+                    dst.position((int)b);
+                    dst.put(src);
+                    as[j] = b;
+                }
+            }
+        }
+
+        final void clear() {
+            ReentrantReadWriteLock.WriteLock lock = writeLock();
+            lock.lock();
+            try {
+                chunks = new ByteBuffer[4];
+                chunkCount = 0;
+                tail = 0;
+                liveBytes = 0L;
+                allocatedBytes = 0L;
+                hashes = new int[MIN_SEGMENT_TABLE_CAPACITY];
+                addrs = new long[MIN_SEGMENT_TABLE_CAPACITY];
+                count = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the addresses of the records of this segment.  Called
+         * with the lock held.  Together with the chunks array read under
+         * the same lock, they form a view that stays valid after the
+         * lock is released: records are never modified in place, chunks
+         * are never freed while reachable, and compaction and clearing
+         * install a new chunks array rather than altering this one.
+         */
+        final long[] addresses() {
+            long[] as = addrs, r = new long[count];
+            int k = 0;
+            for (int j = 0; j < as.length && k < r.length; ++j) {
+                long a;
+                if ((a = as[j]) != 0L)
+                    r[k++] = a;
+            }
+            return r;
+        }
+    }
+}
@@ -0,0 +1,779 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The common basis of the bounded array queues specialized by the
+ * number of their producer and consumer threads, {@link SpscArrayQueue},
+ * {@link MpscArrayQueue} and {@link MpmcArrayQueue}.
+ *
+ * <p>Elements are held in a circular array whose length is a power of
+ * two, each slot of which carries a sequence number, after Dmitry
+ * Vyukov's bounded MPMC queue.  The slot of position {@code p} is free
+ * for the producer of {@code p} when its sequence is {@code p}, holds
+ * the element of {@code p} when its sequence is {@code p + 1}, and is
+ * released for position {@code p + capacity} by the consumer of
+ * {@code p}.  Producers and consumers therefore meet only at the slots.
+ * The producer and consumer indices, kept on separate cache lines by
+ * {@code @Contended}, are claimed by compare-and-set on a side with
+ * several threads and simply written on a side with a single thread.
+ *
+ * <p>A thread that blocks spins briefly, then pushes a node on a
+ * Treiber stack of waiters and parks.  A thread that completes an
+ * operation wakes as many waiters of the other side as it made
+ * elements or space available; when there are none, as is usual, this
+ * costs a read of the stack head.  The index update that precedes the
+ * read and the push that precedes the waiter's recheck of the indices
+ * are both full fences, so no wakeup is lost.  A waiter that stops
+ * waiting before it is woken, on a timeout or an interrupt, sweeps the
+ * whole stack and unlinks the nodes of all such waiters, so the stack
+ * does not grow beyond the threads waiting on it.
+ *
+ * <p>A slot whose element is removed other than by a consumer (by
+ * {@code remove(Object)} or by a {@code fill} whose supplier throws) is
+ * marked with a tombstone that consumers skip.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+abstract class SequencedArrayQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /** The largest supported capacity. */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** The tombstone of removed elements. */
+    static final Object REMOVED = new Object();
+
+    /** The number of times to spin before parking. */
+    static final int SPINS =
+        (Runtime.getRuntime().availableProcessors() > 1) ? 64 : 0;
+
+    final Object[] buffer;
+    final long[] sequences;
+    final int mask;
+    final int capacity;
+
+    /** The next position to fill; claimed before its slot is filled. */
+    @sun.misc.Contended("producer")
+    volatile long producerIndex;
+
+    /** Consumers waiting for an element, read by every producer. */
+    @sun.misc.Contended("producer")
+    volatile WaitNode notEmptyWaiters;
+
+    /** The next position to empty; claimed before its slot is emptied. */
+    @sun.misc.Contended("consumer")
+    volatile long consumerIndex;
+
+    /** Producers waiting for space, read by every consumer. */
+    @sun.misc.Contended("consumer")
+    volatile WaitNode notFullWaiters;
+
+    /**
+     * A waiting thread.  The thread is cleared, by compare-and-set,
+     * either by a signalling thread before unparking it or by the
+     * waiting thread itself when it stops waiting.
+     */
+    static final class WaitNode {
+        volatile Thread thread;
+        volatile WaitNode next;
+        WaitNode(Thread thread) { this.thread = thread; }
+    }
+
+    /**
+     * Creates a queue of the given capacity rounded up to a power of
+     * two, and to at least two.
+     */
+    SequencedArrayQueue(int capacity) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException();
+        // At least two slots, or a published slot would look free
+        int n = (capacity <= 2) ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[n];
+        this.sequences = new long[n];
+        for (int i = 0; i < n; i++)
+            sequences[i] = i;
+        this.mask = n - 1;
+        this.capacity = n;
+    }
+
+    private long sequenceOffset(long pos) {
+        return ((long)((int)pos & mask) << LSHIFT) + LBASE;
+    }
+
+    private long elementOffset(long pos) {
+        return ((long)((int)pos & mask) << ASHIFT) + ABASE;
+    }
+
+    // Producer side
+
+    /**
+     * Offer by the only producer: no other thread can take the slot.
+     */
+    final boolean offerSingle(E e) {
+        if (e == null) throw new NullPointerException();
+        long p = producerIndex;
+        long so = sequenceOffset(p);
+        if (U.getLongVolatile(sequences, so) != p)
+            return false;
+        buffer[(int)p & mask] = e;
+        U.putOrderedLong(sequences, so, p + 1);
+        producerIndex = p + 1;
+        if (notEmptyWaiters != null)
+            signal(NOT_EMPTY_WAITERS, 1);
+        return true;
+    }
+
+    /**
+     * Offer by one of several producers, which claim the slot by
+     * compare-and-set of the producer index.
+     */
+    final boolean offerMulti(E e) {
+        if (e == null) throw new NullPointerException();
+        for (;;) {
+            long p = producerIndex;
+            long so = sequenceOffset(p);
+            long d = U.getLongVolatile(sequences, so) - p;
+            if (d == 0L) {
+                if (U.compareAndSwapLong(this, PRODUCER_INDEX, p, p + 1)) {
+                    buffer[(int)p & mask] = e;
+                    U.putOrderedLong(sequences, so, p + 1);
+                    if (notEmptyWaiters != null)
+                        signal(NOT_EMPTY_WAITERS, 1);
+                    return true;
+                }
+            }
+            else if (d < 0L)
+                return false; // not yet released by its consumer
+        }
+    }
+
+    final int fillSingle(Supplier<? extends E> s, int limit) {
+        if (s == null) throw new NullPointerException();
+        if (limit < 0) throw new IllegalArgumentException();
+        final long start = producerIndex;
+        long p = start;
+        try {
+            while (p - start < limit) {
+                long so = sequenceOffset(p);
+                if (U.getLongVolatile(sequences, so) != p)
+                    break;
+                E e = s.get();
+                if (e == null) throw new NullPointerException();
+                buffer[(int)p & mask] = e;
+                U.putOrderedLong(sequences, so, p + 1);
+                p++;
+            }
+        } finally {
+            if (p != start) {
+                producerIndex = p;
+                if (notEmptyWaiters != null)
+                    signal(NOT_EMPTY_WAITERS, (int)(p - start));
+            }
+        }
+        return (int)(p - start);
+    }
+
+    /**
+     * Fill by one of several producers, which claims as many free
+     * slots as it can use with a single compare-and-set.  Slots that
+     * the supplier fails to fill are published as tombstones.
+     */
+    final int fillMulti(Supplier<? extends E> s, int limit) {
+        if (s == null) throw new NullPointerException();
+        if (limit < 0) throw new IllegalArgumentException();
+        long p;
+        int k;
+        for (;;) {
+            p = producerIndex;
+            k = 0;
+            while (k < limit &&
+                   U.getLongVolatile(sequences, sequenceOffset(p + k)) == p + k)
+                k++;
+            if (k == 0) {
+                if (limit == 0 ||
+                    U.getLongVolatile(sequences, sequenceOffset(p)) < p)
+                    return 0;
+            }
+            else if (U.compareAndSwapLong(this, PRODUCER_INDEX, p, p + k))
+                break;
+        }
+        int i = 0;
+        try {
+            for (; i < k; i++) {
+                E e = s.get();
+                if (e == null) throw new NullPointerException();
+                buffer[(int)(p + i) & mask] = e;
+                U.putOrderedLong(sequences, sequenceOffset(p + i), p + i + 1);
+            }
+        } finally {
+            for (int j = i; j < k; j++) {
+                buffer[(int)(p + j) & mask] = REMOVED;
+                U.putOrderedLong(sequences, sequenceOffset(p + j), p + j + 1);
+            }
+            if (notEmptyWaiters != null)
+                signal(NOT_EMPTY_WAITERS, k);
+        }
+        return k;
+    }
+
+    // Consumer side
+
+    /**
+     * Poll by the only consumer.
+     */
+    @SuppressWarnings("unchecked")
+    final E pollSingle() {
+        for (;;) {
+            long c = consumerIndex;
+            long so = sequenceOffset(c);
+            if (U.getLongVolatile(sequences, so) != c + 1)
+                return null;
+            int i = (int)c & mask;
+            Object e = buffer[i];
+            buffer[i] = null;
+            U.putOrderedLong(sequences, so, c + capacity);
+            consumerIndex = c + 1;
+            if (notFullWaiters != null)
+                signal(NOT_FULL_WAITERS, 1);
+            if (e != REMOVED)
+                return (E) e;
+        }
+    }
+
+    /**
+     * Poll by one of several consumers, which claim the slot by
+     * compare-and-set of the consumer index and take its element by
+     * an atomic exchange, which settles any race with removal.
+     */
+    @SuppressWarnings("unchecked")
+    final E pollMulti() {
+        for (;;) {
+            long c = consumerIndex;
+            long so = sequenceOffset(c);
+            long d = U.getLongVolatile(sequences, so) - (c + 1);
+            if (d == 0L) {
+                if (U.compareAndSwapLong(this, CONSUMER_INDEX, c, c + 1)) {
+                    Object e = U.getAndSetObject(buffer, elementOffset(c), null);
+                    U.putOrderedLong(sequences, so, c + capacity);
+                    if (notFullWaiters != null)
+                        signal(NOT_FULL_WAITERS, 1);
+                    if (e != REMOVED)
+                        return (E) e;
+                }
+            }
+            else if (d < 0L)
+                return null; // not yet published by its producer
+        }
+    }
+
+    /**
+     * Drain by the only consumer, which publishes the consumer index
+     * once for the whole batch.
+     */
+    @SuppressWarnings("unchecked")
+    final int drainSingle(Consumer<? super E> c, int limit) {
+        if (c == null) throw new NullPointerException();
+        if (limit < 0) throw new IllegalArgumentException();
+        final long start = consumerIndex;
+        long ci = start;
+        int n = 0;
+        try {
+            while (n < limit) {
+                long so = sequenceOffset(ci);
+                if (U.getLongVolatile(sequences, so) != ci + 1)
+                    break;
+                int i = (int)ci & mask;
+                Object e = buffer[i];
+                buffer[i] = null;
+                U.putOrderedLong(sequences, so, ci + capacity);
+                ci++;
+                if (e != REMOVED) {
+                    n++;
+                    c.accept((E) e);
+                }
+            }
+        } finally {
+            if (ci != start) {
+                consumerIndex = ci;
+                if (notFullWaiters != null)
+                    signal(NOT_FULL_WAITERS, (int)(ci - start));
+            }
+        }
+        return n;
+    }
+
+    final int drainMulti(Consumer<? super E> c, int limit) {
+        if (c == null) throw new NullPointerException();
+        if (limit < 0) throw new IllegalArgumentException();
+        int n = 0;
+        E e;
+        while (n < limit && (e = pollMulti()) != null) {
+            n++;
+            c.accept(e);
+        }
+        return n;
+    }
+
+    /**
+     * Replaces the element of a published slot by a tombstone, unless
+     * a consumer has taken it.
+     */
+    final boolean removeAt(long pos, Object e) {
+        return U.getLongVolatile(sequences, sequenceOffset(pos)) == pos + 1 &&
+            U.compareAndSwapObject(buffer, elementOffset(pos), e, REMOVED);
+    }
+
+    /**
+     * Removes a single element equal to o by tombstone, for queues
+     * whose consumers take elements by atomic exchange.
+     */
+    final boolean removeMulti(Object o) {
+        if (o == null)
+            return false;
+        long c = consumerIndex, p = producerIndex;
+        for (long pos = c; pos < p; pos++) {
+            if (U.getLongVolatile(sequences, sequenceOffset(pos)) == pos + 1) {
+                Object e = U.getObjectVolatile(buffer, elementOffset(pos));
+                if (e != null && e != REMOVED && o.equals(e) && removeAt(pos, e))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    // Waiting
+
+    /**
+     * Wakes up to n threads waiting on the given stack.
+     */
+    private void signal(long headOffset, int n) {
+        WaitNode h;
+        while (n > 0 && (h = (WaitNode)U.getObjectVolatile(this, headOffset)) != null) {
+            if (U.compareAndSwapObject(this, headOffset, h, h.next)) {
+                Thread w = h.thread;
+                if (w != null && U.compareAndSwapObject(h, THREAD, w, null)) {
+                    LockSupport.unpark(w);
+                    --n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the awaited condition may hold: that there is an
+     * element, or space, that no other thread has yet claimed.
+     */
+    private boolean ready(long headOffset) {
+        long c = consumerIndex;
+        long p = producerIndex;
+        return (headOffset == NOT_EMPTY_WAITERS) ? p != c : p - c < capacity;
+    }
+
+    /**
+     * Waits until an element (on the NOT_EMPTY_WAITERS stack) or space
+     * (on the NOT_FULL_WAITERS stack) may be available, the time runs
+     * out, or the thread is interrupted.  If the condition already
+     * holds, as when the caller lost a race with a thread that has
+     * claimed but not yet filled or released a slot, yields instead.
+     *
+     * @return the remaining nanoseconds, if timed
+     */
+    final long await(long headOffset, boolean timed, long nanos)
+        throws InterruptedException {
+        if (ready(headOffset)) {
+            Thread.yield();
+            return nanos;
+        }
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        final Thread w = Thread.currentThread();
+        WaitNode node = null;
+        int spins = SPINS;
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                    throw new InterruptedException();
+                }
+                if (ready(headOffset) || (node != null && node.thread == null))
+                    return nanos;
+                if (timed && (nanos = deadline - System.nanoTime()) <= 0L)
+                    return nanos;
+                if (spins > 0)
+                    --spins;
+                else if (node == null) {
+                    node = new WaitNode(w);
+                    WaitNode h;
+                    do {
+                        node.next = h = (WaitNode)U.getObjectVolatile(this, headOffset);
+                    } while (!U.compareAndSwapObject(this, headOffset, h, node));
+                }
+                else if (timed)
+                    LockSupport.parkNanos(this, nanos);
+                else
+                    LockSupport.park(this);
+            }
+        } finally {
+            if (node != null) {
+                if (U.compareAndSwapObject(node, THREAD, w, null))
+                    clean(headOffset);
+                else if (interrupted)
+                    signal(headOffset, 1); // pass on a wakeup we will not use
+            }
+        }
+    }
+
+    /**
+     * Unlinks the nodes of threads that stopped waiting from the given
+     * stack, in the manner of SynchronousQueue.TransferStack.clean but
+     * down to the bottom of the stack.  A node put back by a race with
+     * another unlinking thread is removed by the next sweep.
+     */
+    private void clean(long headOffset) {
+        WaitNode p;
+        while ((p = (WaitNode)U.getObjectVolatile(this, headOffset)) != null &&
+               p.thread == null)
+            U.compareAndSwapObject(this, headOffset, p, p.next);
+        while (p != null) {
+            WaitNode n = p.next;
+            if (n != null && n.thread == null)
+                U.compareAndSwapObject(p, NEXT, n, n.next);
+            else
+                p = n;
+        }
+    }
+
+    // BlockingQueue methods
+
+    /**
+     * Removes at most the given number of available elements from this
+     * queue, in order, and passes each of them to the given consumer.
+     * This method does not wait for elements to become available, and
+     * a queue with a single consumer publishes its progress once for
+     * the whole batch.  If the consumer throws an exception, the
+     * elements already removed stay removed.
+     *
+     * @param c the consumer to pass the elements to
+     * @param limit the maximum number of elements to remove
+     * @return the number of elements removed
+     * @throws NullPointerException if the consumer is null
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public abstract int drain(Consumer<? super E> c, int limit);
+
+    /**
+     * Inserts at most the given number of elements obtained from the
+     * given supplier, as space is available, without waiting.  The
+     * supplier is called only for elements that will be inserted, and
+     * a queue with several producers claims the space for them with a
+     * single atomic update.  If the supplier throws an exception or
+     * returns {@code null}, the elements already obtained stay
+     * inserted, and the exception (a {@code NullPointerException} for
+     * a {@code null} element) is rethrown.
+     *
+     * @param s the supplier of the elements
+     * @param limit the maximum number of elements to insert
+     * @return the number of elements inserted
+     * @throws NullPointerException if the supplier is null or returns
+     *         {@code null}
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public abstract int fill(Supplier<? extends E> s, int limit);
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * for space to become available if the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        while (!offer(e))
+            await(NOT_FULL_WAITERS, false, 0L);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * up to the specified wait time for space to become available if
+     * the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        long nanos = unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (nanos <= 0L)
+                return false;
+            nanos = await(NOT_FULL_WAITERS, true, nanos);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        E e;
+        while ((e = poll()) == null)
+            await(NOT_EMPTY_WAITERS, false, 0L);
+        return e;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        E e;
+        while ((e = poll()) == null) {
+            if (nanos <= 0L)
+                return null;
+            nanos = await(NOT_EMPTY_WAITERS, true, nanos);
+        }
+        return e;
+    }
+
+    /**
+     * Retrieves, but does not remove, the head of this queue, or
+     * returns {@code null} if this queue is empty.  This method may be
+     * called by any thread.
+     *
+     * @return the head of this queue, or {@code null} if this queue is
+     *         empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (long pos = consumerIndex;; pos++) {
+            long so = sequenceOffset(pos);
+            long s = U.getLongVolatile(sequences, so);
+            if (s == pos + 1) {
+                Object e = U.getObjectVolatile(buffer, elementOffset(pos));
+                if (e != null && e != REMOVED &&
+                    U.getLongVolatile(sequences, so) == pos + 1)
+                    return (E) e;
+            }
+            else if (s < pos + 1)
+                return null;
+            else
+                pos = consumerIndex - 1; // lapped by consumers
+        }
+    }
+
+    /**
+     * Returns the number of elements in this queue.  The count
+     * includes elements whose insertion or removal is in progress, and
+     * removed elements not yet passed by consumers.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long c = consumerIndex;
+        for (;;) {
+            long p = producerIndex;
+            long c2 = consumerIndex;
+            if (c == c2) {
+                long n = p - c;
+                return (n <= 0L) ? 0 : (n >= capacity) ? capacity : (int)n;
+            }
+            c = c2;
+        }
+    }
+
+    public boolean isEmpty() {
+        long c = consumerIndex;
+        return producerIndex == c;
+    }
+
+    /**
+     * Returns the capacity of this queue, which is that requested at
+     * construction rounded up to a power of two.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(final Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        return drain(new Consumer<E>() {
+                public void accept(E e) { c.add(e); }
+            }, maxElements);
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this
+     * queue, in proper sequence, taken when the iterator is created.
+     * The iterator does not reflect later insertions or removals.
+     *
+     * @return an iterator over the elements in this queue in proper
+     *         sequence
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Snapshot iterator.  Its remove method applies to the slot of the
+     * element last returned, and is supported only by queues whose
+     * consumers take elements by atomic exchange.
+     */
+    final class Itr implements Iterator<E> {
+        private final Object[] items;
+        private final long[] positions;
+        private final int count;
+        private int cursor;
+        private int lastRet = -1;
+
+        Itr() {
+            long c = consumerIndex, p = producerIndex;
+            int n = (int)Math.min(Math.max(p - c, 0L), capacity);
+            Object[] a = new Object[n];
+            long[] ps = new long[n];
+            int k = 0;
+            for (long pos = c; pos < p && k < n; pos++) {
+                long so = sequenceOffset(pos);
+                if (U.getLongVolatile(sequences, so) == pos + 1) {
+                    Object e = U.getObjectVolatile(buffer, elementOffset(pos));
+                    if (e != null && e != REMOVED &&
+                        U.getLongVolatile(sequences, so) == pos + 1) {
+                        a[k] = e;
+                        ps[k++] = pos;
+                    }
+                }
+            }
+            items = a;
+            positions = ps;
+            count = k;
+        }
+
+        public boolean hasNext() {
+            return cursor < count;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= count)
+                throw new NoSuchElementException();
+            return (E) items[lastRet = cursor++];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            removeAt(lastRet);
+            lastRet = -1;
+        }
+
+        private void removeAt(int i) {
+            if (!supportsRemoval())
+                throw new UnsupportedOperationException();
+            SequencedArrayQueue.this.removeAt(positions[i], items[i]);
+        }
+    }
+
+    /**
+     * Returns whether elements may be removed other than at the head.
+     */
+    boolean supportsRemoval() {
+        return false;
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long PRODUCER_INDEX;
+    private static final long CONSUMER_INDEX;
+    private static final long NOT_EMPTY_WAITERS;
+    private static final long NOT_FULL_WAITERS;
+    private static final long THREAD;
+    private static final long NEXT;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    private static final long LBASE;
+    private static final int LSHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = SequencedArrayQueue.class;
+            PRODUCER_INDEX = U.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            CONSUMER_INDEX = U.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            NOT_EMPTY_WAITERS = U.objectFieldOffset
+                (k.getDeclaredField("notEmptyWaiters"));
+            NOT_FULL_WAITERS = U.objectFieldOffset
+                (k.getDeclaredField("notFullWaiters"));
+            THREAD = U.objectFieldOffset
+                (WaitNode.class.getDeclaredField("thread"));
+            NEXT = U.objectFieldOffset
+                (WaitNode.class.getDeclaredField("next"));
+            ABASE = U.arrayBaseOffset(Object[].class);
+            int scale = U.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            LBASE = U.arrayBaseOffset(long[].class);
+            scale = U.arrayIndexScale(long[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by an
+ * array, for use by a single producer thread and a single consumer
+ * thread.  This queue orders elements FIFO (first-in-first-out).
+ *
+ * <p>The insertion methods ({@code offer}, {@code put}, {@code add},
+ * {@code fill} and their variants) may be called by only one thread at
+ * a time, and likewise the removal methods ({@code poll}, {@code take},
+ * {@code remove()}, {@code drain}, {@code drainTo} and {@code clear}).
+ * Results are undefined otherwise.  The other methods may be called by
+ * any thread.  Neither side uses atomic read-modify-write operations:
+ * each slot of the array carries a sequence number that tells the
+ * other side whether it is full, and the indices of the two sides are
+ * kept on separate cache lines.
+ *
+ * <p>The capacity is that requested rounded up to a power of two,
+ * and is at least two.  Removal of elements other than at the head, by
+ * {@code remove(Object)} or by the iterator, is not supported.  The
+ * iterator returns the elements of a snapshot taken when it is created.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+public class SpscArrayQueue<E> extends SequencedArrayQueue<E> {
+
+    /**
+     * Creates an {@code SpscArrayQueue} with at least the given capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity < 1} or
+     *         {@code capacity > 2^30}
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so without exceeding its capacity.
+     *
+     * @return {@code true} if the element was added to this queue,
+     *         else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        return offerSingle(e);
+    }
+
+    public E poll() {
+        return pollSingle();
+    }
+
+    public int drain(Consumer<? super E> c, int limit) {
+        return drainSingle(c, limit);
+    }
+
+    public int fill(Supplier<? extends E> s, int limit) {
+        return fillSingle(s, limit);
+    }
+}
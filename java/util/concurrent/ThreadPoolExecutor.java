@@ -540,6 +540,14 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      */
     private volatile int maximumPoolSize;
 
+    /**
+     * Recorder of execution statistics, or null if they are
+     * disabled, as they are by default.  While it is set, execute
+     * wraps tasks as TimedTasks if the recorder times the queue, and
+     * runWorker times their execution.
+     */
+    private volatile ExecutorStatistics.Recorder statistics;
+
     /**
      * The default rejected execution handler
      */
@@ -601,6 +609,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         Runnable firstTask;
         /** Per-thread task counter */
         volatile long completedTasks;
+        /** Time of creation, for utilization statistics */
+        final long startNanos;
+        /** Time spent in tasks recorded by recorder */
+        volatile long busyNanos;
+        /** The statistics recorder that busyNanos accrues for */
+        ExecutorStatistics.Recorder recorder;
 
         /**
          * Creates with given first task and thread from ThreadFactory.
@@ -609,6 +623,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         Worker(Runnable firstTask) {
             setState(-1); // inhibit interrupts until runWorker
             this.firstTask = firstTask;
+            this.startNanos = System.nanoTime();
             this.thread = getThreadFactory().newThread(this);
         }
 
@@ -820,7 +835,10 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * Package-protected for use by ScheduledThreadPoolExecutor.
      */
     final void reject(Runnable command) {
-        handler.rejectedExecution(command, this);
+        ExecutorStatistics.Recorder rec = statistics;
+        if (rec != null)
+            rec.rejected.increment();
+        handler.rejectedExecution(TimedTask.unwrap(command), this);
     }
 
     /**
@@ -858,6 +876,11 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     taskList.add(r);
             }
         }
+        for (int i = 0, n = taskList.size(); i < n; ++i) {
+            Runnable r = taskList.get(i);
+            if (r instanceof TimedTask)
+                taskList.set(i, ((TimedTask)r).task);
+        }
         return taskList;
     }
 
@@ -1125,6 +1148,10 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         boolean completedAbruptly = true;
         try {
             while (task != null || (task = getTask()) != null) {
+                TimedTask timed = null;
+                if (task instanceof TimedTask)
+                    task = (timed = (TimedTask)task).task;
+                ExecutorStatistics.Recorder rec = statistics;
                 w.lock();
                 // If pool is stopping, ensure thread is interrupted;
                 // if not, ensure thread is not interrupted.  This
@@ -1138,6 +1165,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                 try {
                     beforeExecute(wt, task);
                     Throwable thrown = null;
+                    long start = (rec == null) ? 0L : System.nanoTime();
                     try {
                         task.run();
                     } catch (RuntimeException x) {
@@ -1147,6 +1175,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } catch (Throwable x) {
                         thrown = x; throw new Error(x);
                     } finally {
+                        if (rec != null)
+                            recordTask(w, rec, timed, start, thrown);
                         afterExecute(task, thrown);
                     }
                 } finally {
@@ -1161,6 +1191,64 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Records the execution of a task that started at the given time.
+     */
+    private static void recordTask(Worker w, ExecutorStatistics.Recorder rec,
+                                   TimedTask timed, long start,
+                                   Throwable thrown) {
+        long t = System.nanoTime() - start;
+        if (timed != null)
+            rec.queueWait.record(start - timed.queuedNanos);
+        rec.execution.record(t);
+        rec.busyNanos.add(t);
+        rec.completed.increment();
+        if (thrown != null)
+            rec.failed.increment();
+        if (w.recorder != rec) {
+            w.recorder = rec;
+            w.busyNanos = t;
+        }
+        else
+            w.busyNanos += t;
+    }
+
+    /**
+     * A task stamped with the time it was submitted, used while
+     * statistics are enabled.  The wrapper is removed before the task
+     * is passed to beforeExecute, afterExecute, the rejected
+     * execution handler, or returned by shutdownNow.
+     */
+    static final class TimedTask implements Runnable {
+        final Runnable task;
+        final long queuedNanos;
+        TimedTask(Runnable task, long queuedNanos) {
+            this.task = task;
+            this.queuedNanos = queuedNanos;
+        }
+        public void run() { task.run(); }
+        public String toString() { return task.toString(); }
+
+        static Runnable unwrap(Runnable r) {
+            return (r instanceof TimedTask) ? ((TimedTask)r).task : r;
+        }
+    }
+
+    /**
+     * Returns whether tasks may be wrapped as TimedTasks in the given
+     * queue, which must not depend on the class of its elements, nor
+     * order them other than FIFO.
+     */
+    private static boolean isTimeableQueue(BlockingQueue<Runnable> q) {
+        Class<?> c = q.getClass();
+        return (c == LinkedBlockingQueue.class ||
+                c == ArrayBlockingQueue.class ||
+                c == SynchronousQueue.class ||
+                c == LinkedTransferQueue.class ||
+                c == LinkedBlockingDeque.class ||
+                c == MpmcArrayQueue.class);
+    }
+
     // Public constructors and methods
 
     /**
@@ -1332,6 +1420,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     public void execute(Runnable command) {
         if (command == null)
             throw new NullPointerException();
+        ExecutorStatistics.Recorder rec = statistics;
+        if (rec != null && rec.timesQueue)
+            command = new TimedTask(command, System.nanoTime());
         /*
          * Proceed in 3 steps:
          *
@@ -1747,7 +1838,16 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return {@code true} if the task was removed
      */
     public boolean remove(Runnable task) {
-        boolean removed = workQueue.remove(task);
+        BlockingQueue<Runnable> q = workQueue;
+        boolean removed = q.remove(task);
+        if (!removed && task != null && !(task instanceof TimedTask) &&
+            isTimeableQueue(q)) {
+            for (Runnable r : q) { // look for task submitted with statistics
+                if (r instanceof TimedTask && ((TimedTask)r).task == task &&
+                    (removed = q.remove(r)))
+                    break;
+            }
+        }
         tryTerminate(); // In case SHUTDOWN and now empty
         return removed;
     }
@@ -1767,7 +1867,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         try {
             Iterator<Runnable> it = q.iterator();
             while (it.hasNext()) {
-                Runnable r = it.next();
+                Runnable r = TimedTask.unwrap(it.next());
                 if (r instanceof Future<?> && ((Future<?>)r).isCancelled())
                     it.remove();
             }
@@ -1775,9 +1875,11 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             // Take slow path if we encounter interference during traversal.
             // Make copy for traversal and call remove for cancelled entries.
             // The slow path is more likely to be O(N*N).
-            for (Object r : q.toArray())
-                if (r instanceof Future<?> && ((Future<?>)r).isCancelled())
+            for (Runnable r : q.toArray(new Runnable[0])) {
+                Runnable t = TimedTask.unwrap(r);
+                if (t instanceof Future<?> && ((Future<?>)t).isCancelled())
                     q.remove(r);
+            }
         }
 
         tryTerminate(); // In case SHUTDOWN and now empty
@@ -1885,6 +1987,89 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Enables or disables the recording of execution statistics,
+     * which are disabled by default.  Enabling them when disabled
+     * starts a new recording period.  While statistics are disabled,
+     * the only cost to task execution is a read of a volatile field.
+     *
+     * <p>While statistics are enabled, and if the work queue is a
+     * {@link LinkedBlockingQueue}, {@link ArrayBlockingQueue},
+     * {@link SynchronousQueue}, {@link LinkedTransferQueue},
+     * {@link LinkedBlockingDeque} or {@link MpmcArrayQueue}, tasks
+     * submitted by {@link #execute} are queued wrapped with the time
+     * of their submission, to record how long they wait.  Such
+     * wrappers may be seen by users of {@link #getQueue}, but not by
+     * the other methods of this class, nor by the hook methods or the
+     * {@link RejectedExecutionHandler}.  Queue waits are not recorded
+     * for other work queues.
+     *
+     * @param enabled {@code true} to enable statistics
+     * @see #getStatistics
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (!enabled)
+                statistics = null;
+            else if (statistics == null)
+                statistics = new ExecutorStatistics.Recorder
+                    (isTimeableQueue(workQueue));
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this pool records execution statistics.
+     *
+     * @return {@code true} if statistics are enabled
+     * @see #setStatisticsEnabled
+     */
+    public boolean isStatisticsEnabled() {
+        return statistics != null;
+    }
+
+    /**
+     * Returns a snapshot of the execution statistics recorded since
+     * they were enabled.  Unlike the other statistics methods of this
+     * class, the counts and times are maintained without locking; the
+     * lock is held only to visit the workers for their utilization.
+     *
+     * @return the statistics, or {@code null} if they are disabled
+     * @see #setStatisticsEnabled
+     */
+    public ExecutorStatistics getStatistics() {
+        ExecutorStatistics.Recorder rec = statistics;
+        if (rec == null)
+            return null;
+        long now;
+        int nworkers, nactive = 0;
+        double[] utilization;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            now = System.nanoTime();
+            nworkers = runStateAtLeast(ctl.get(), TIDYING) ? 0 : workers.size();
+            utilization = new double[nworkers];
+            int i = 0;
+            for (Worker w : workers) {
+                if (i >= nworkers)
+                    break;
+                if (w.isLocked())
+                    ++nactive;
+                long busy = w.busyNanos;
+                utilization[i++] = (w.recorder != rec) ? 0.0 :
+                    rec.utilization(busy, w.startNanos, now);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+        return new ExecutorStatistics(rec, now, nworkers, nactive,
+                                      workQueue.size(), utilization);
+    }
+
     /**
      * Returns a string identifying this pool, as well as its state,
      * including indications of run state and estimated worker and
@@ -0,0 +1,881 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps its delayed tasks in a
+ * hierarchical hashed timing wheel rather than in a priority queue, so
+ * that scheduling and cancelling a task take constant time however
+ * many tasks are pending.  It suits programs that schedule and cancel
+ * large numbers of timeouts, most of which never fire, and that can
+ * tolerate a coarser timing resolution than {@link
+ * ScheduledThreadPoolExecutor} provides.
+ *
+ * <p>Time advances in <em>ticks</em> of a fixed duration, one
+ * millisecond by default.  A task becomes eligible to run at the first
+ * tick at or after its delay has elapsed, so it never runs early, but
+ * it may be up to one tick late when handed to the executor that runs
+ * it.  The wheel has eleven levels of 64 slots each; a task is
+ * placed on the level of the highest base-64 digit in which its
+ * deadline tick differs from the current tick, and is moved down a
+ * level each time the current tick reaches its slot, so each task is
+ * moved at most a few times for any practical delay.  Tasks whose
+ * delays elapse in the same tick run in no specified order.
+ *
+ * <p>Threads scheduling or cancelling a task never block: they push
+ * the task onto one of two lock-free stacks, which a single timer
+ * thread, created with the given {@link ThreadFactory}, transfers into
+ * the wheel at every tick.  The timer thread does not run the tasks
+ * itself but passes each expired task to an {@link Executor}, so a
+ * slow task delays neither the ticks nor the tasks expiring after it.
+ * Unless another executor is given, this is a pool owned by this
+ * executor, like {@link Executors#newCachedThreadPool}, whose threads
+ * are created with the same thread factory as they are needed and
+ * exit after being idle for a minute.  While the wheel is empty the
+ * timer thread parks without ticking.
+ *
+ * <p>On {@link #shutdown}, delayed tasks still run when their delays
+ * elapse but periodic tasks are cancelled, as with the default
+ * policies of {@code ScheduledThreadPoolExecutor}.  Cancelled tasks are
+ * removed from the wheel at the next tick.  Tasks are not otherwise
+ * accessible; there is no equivalent of {@code getQueue}.
+ *
+ * @since 1.8
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /** The number of bits of the tick number that each level covers. */
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** Enough levels to cover any non-negative long tick number. */
+    private static final int LEVELS = (63 + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    /** Values of WheelTask.bucket for tasks not in a bucket. */
+    private static final int NONE = -1;
+    private static final int EXPIRED = -2;
+
+    /*
+     * The run states, ordered as in ThreadPoolExecutor.  All writes
+     * are made while holding the lock.
+     */
+    private static final int RUNNING    = 0;
+    private static final int SHUTDOWN   = 1;
+    private static final int STOP       = 2;
+    private static final int TERMINATED = 3;
+
+    private final long tickNanos;
+    private final long startTime;
+    private final Thread timer;
+
+    /** The executor that runs expired tasks. */
+    private final Executor taskExecutor;
+
+    /** The pool running the tasks, if created by this executor, else null. */
+    private final ThreadPoolExecutor workers;
+
+    private final CountDownLatch termination = new CountDownLatch(1);
+    private volatile int runState;
+
+    /** Set while the timer thread is parked with an empty wheel. */
+    private volatile boolean sleeping;
+
+    /** Treiber stacks of newly scheduled and of cancelled tasks. */
+    private volatile WheelTask<?> submissions;
+    private volatile WheelTask<?> cancellations;
+
+    /**
+     * Guards the wheel.  Only the timer thread and shutdownNow take
+     * it; threads scheduling or cancelling tasks never do.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** The buckets of the wheel, as doubly linked lists, by level and slot. */
+    private final WheelTask<?>[] heads = new WheelTask<?>[LEVELS << WHEEL_BITS];
+    private final WheelTask<?>[] tails = new WheelTask<?>[LEVELS << WHEEL_BITS];
+
+    /** Tasks whose deadline tick has passed, in the order to run them. */
+    private WheelTask<?> expiredHead, expiredTail;
+
+    /** The last tick processed. */
+    private long currentTick;
+
+    /** The number of tasks in the buckets. */
+    private int size;
+
+    /** Whether periodic tasks have been cancelled after shutdown. */
+    private boolean periodicCancelled;
+
+    private class WheelTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        /*
+         * The wheel bookkeeping; accessed only with the lock held,
+         * except for the stack links, which are written before a task
+         * is pushed and read after the stack is taken.
+         */
+        long deadline;
+        int bucket = NONE;
+        WheelTask<?> prev, next;
+        WheelTask<?> nextSubmission, nextCancellation;
+
+        WheelTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+        }
+
+        WheelTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            long diff = (other instanceof WheelTask)
+                ? time - ((WheelTask<?>)other).time
+                : getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        /**
+         * Sets the next time to run for a periodic task.
+         */
+        private void setNextRunTime() {
+            long p = period;
+            if (p > 0)
+                time += p;
+            else
+                time = triggerTime(-p);
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+                pushCancellation(this);
+            return cancelled;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reschedule if periodic.
+         */
+        public void run() {
+            if (!isPeriodic())
+                super.run();
+            else if (super.runAndReset()) {
+                setNextRunTime();
+                if (runState == RUNNING)
+                    enqueue(this);
+                else
+                    cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with a tick of
+     * one millisecond and the default thread factory.
+     */
+    public TimingWheelScheduledExecutor() {
+        this(1, TimeUnit.MILLISECONDS, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * tick duration and the default thread factory.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @throws IllegalArgumentException if {@code tickDuration} is not
+     *         positive
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * tick duration and thread factory.  The timer thread is created and
+     * started at once; the threads that run the tasks are created as
+     * they are needed.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param threadFactory the factory to use to create the timer thread
+     *        and the threads that run the tasks
+     * @throws IllegalArgumentException if {@code tickDuration} is not
+     *         positive
+     * @throws NullPointerException if {@code unit} or
+     *         {@code threadFactory} is null, or if the factory does not
+     *         create a thread
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                        ThreadFactory threadFactory) {
+        this(tickDuration, unit, threadFactory, null, threadFactory);
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * tick duration and thread factory, that passes expired tasks to the
+     * given executor.  The timer thread is created and started at once.
+     *
+     * <p>The given executor is not shut down with this one.  Tasks it
+     * rejects are cancelled, and tasks it has accepted are neither
+     * interrupted by {@link #shutdownNow} nor awaited by {@link
+     * #awaitTermination}.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param threadFactory the factory to use to create the timer thread
+     * @param taskExecutor the executor to run the tasks
+     * @throws IllegalArgumentException if {@code tickDuration} is not
+     *         positive
+     * @throws NullPointerException if {@code unit}, {@code threadFactory}
+     *         or {@code taskExecutor} is null, or if the factory does not
+     *         create a thread
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                        ThreadFactory threadFactory,
+                                        Executor taskExecutor) {
+        this(tickDuration, unit, threadFactory, taskExecutor, null);
+    }
+
+    /**
+     * Creates an executor running tasks on the given executor or, if
+     * that is null, on a new pool of threads from workerFactory.
+     */
+    private TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                         ThreadFactory threadFactory,
+                                         Executor taskExecutor,
+                                         ThreadFactory workerFactory) {
+        if (unit == null || threadFactory == null ||
+            (taskExecutor == null && workerFactory == null))
+            throw new NullPointerException();
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException();
+        if (taskExecutor == null) {
+            ThreadPoolExecutor pool =
+                new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                                       60L, TimeUnit.SECONDS,
+                                       new SynchronousQueue<Runnable>(),
+                                       workerFactory);
+            this.workers = pool;
+            this.taskExecutor = pool;
+        } else {
+            this.workers = null;
+            this.taskExecutor = taskExecutor;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startTime = System.nanoTime();
+        Thread t = threadFactory.newThread(new Runnable() {
+            public void run() { runTimer(); }
+        });
+        if (t == null)
+            throw new NullPointerException();
+        this.timer = t;
+        t.start();
+    }
+
+    /**
+     * Returns the trigger time of a delayed action.
+     */
+    private long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    /**
+     * Returns the trigger time of a delayed action.  Delays are capped
+     * well below Long.MAX_VALUE, as ticks are counted from startTime.
+     */
+    long triggerTime(long delay) {
+        return System.nanoTime() +
+            ((delay < (Long.MAX_VALUE >> 1)) ? delay : (Long.MAX_VALUE >> 1));
+    }
+
+    /**
+     * Schedules a new task, or rejects it if this executor is shut down.
+     */
+    private <V> WheelTask<V> delayedExecute(WheelTask<V> task) {
+        if (runState != RUNNING)
+            throw new RejectedExecutionException("Task " + task.toString() +
+                                                 " rejected from " +
+                                                 toString());
+        enqueue(task);
+        return task;
+    }
+
+    /**
+     * Pushes a task for the timer thread to place in the wheel.  If the
+     * timer thread has already terminated, which is possible when this
+     * races with shutdown, the task is cancelled instead, as
+     * ScheduledThreadPoolExecutor cancels tasks it can no longer run.
+     */
+    private void enqueue(WheelTask<?> task) {
+        WheelTask<?> h;
+        do {
+            task.nextSubmission = h = submissions;
+        } while (!U.compareAndSwapObject(this, SUBMISSIONS, h, task));
+        if (sleeping)
+            LockSupport.unpark(timer);
+        if (runState == TERMINATED)
+            cancelSubmissions();
+    }
+
+    private void pushCancellation(WheelTask<?> task) {
+        WheelTask<?> h;
+        do {
+            task.nextCancellation = h = cancellations;
+        } while (!U.compareAndSwapObject(this, CANCELLATIONS, h, task));
+    }
+
+    /**
+     * Takes the stack of submissions, returning it in the order of
+     * pushing.
+     */
+    private WheelTask<?> takeSubmissions() {
+        WheelTask<?> p = (WheelTask<?>)U.getAndSetObject(this, SUBMISSIONS, null);
+        WheelTask<?> r = null;
+        while (p != null) {
+            WheelTask<?> n = p.nextSubmission;
+            p.nextSubmission = r;
+            r = p;
+            p = n;
+        }
+        return r;
+    }
+
+    private void cancelSubmissions() {
+        for (WheelTask<?> p = takeSubmissions(), n; p != null; p = n) {
+            n = p.nextSubmission;
+            p.nextSubmission = null;
+            p.cancel(false);
+        }
+    }
+
+    /**
+     * Returns the tick at or after the given time.
+     */
+    private long tickOf(long time) {
+        long elapsed = time - startTime;
+        return (elapsed <= 0) ? 0 : (elapsed - 1) / tickNanos + 1;
+    }
+
+    // Wheel operations, called with the lock held
+
+    /**
+     * Places a task in the bucket for its deadline, or on the expired
+     * list if the deadline has passed.
+     */
+    private void place(WheelTask<?> t) {
+        long d = t.deadline;
+        long now = currentTick;
+        if (d <= now) {
+            t.bucket = EXPIRED;
+            t.next = null;
+            if (expiredTail == null)
+                expiredHead = t;
+            else
+                expiredTail.next = t;
+            expiredTail = t;
+        } else {
+            int level = (63 - Long.numberOfLeadingZeros(d ^ now)) / WHEEL_BITS;
+            int b = (level << WHEEL_BITS) |
+                ((int)(d >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+            WheelTask<?> tail = tails[b];
+            t.bucket = b;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null)
+                heads[b] = t;
+            else
+                tail.next = t;
+            tails[b] = t;
+            size++;
+        }
+    }
+
+    private void unlink(WheelTask<?> t) {
+        int b = t.bucket;
+        WheelTask<?> p = t.prev, n = t.next;
+        if (p == null)
+            heads[b] = n;
+        else
+            p.next = n;
+        if (n == null)
+            tails[b] = p;
+        else
+            n.prev = p;
+        t.prev = t.next = null;
+        t.bucket = NONE;
+        size--;
+    }
+
+    /**
+     * Empties a bucket, placing each of its tasks anew relative to the
+     * current tick.
+     */
+    private void redistribute(int b) {
+        WheelTask<?> t = heads[b];
+        heads[b] = tails[b] = null;
+        while (t != null) {
+            WheelTask<?> n = t.next;
+            t.prev = t.next = null;
+            size--;
+            place(t);
+            t = n;
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick.  The buckets of higher levels
+     * whose slot the tick reaches are moved down, from the top, and
+     * then the tasks in the slot of the lowest level, which are exactly
+     * those due at this tick, expire.
+     */
+    private void tick() {
+        long now = ++currentTick;
+        int top = 0;
+        while (top < LEVELS - 1 &&
+               (now & ((1L << ((top + 1) * WHEEL_BITS)) - 1)) == 0)
+            top++;
+        for (int level = top; level >= 0; level--)
+            redistribute((level << WHEEL_BITS) |
+                         ((int)(now >>> (level * WHEEL_BITS)) & WHEEL_MASK));
+    }
+
+    /**
+     * Removes cancelled tasks from the wheel, catches up with the
+     * clock and places new tasks.
+     */
+    private void advance() {
+        for (WheelTask<?> p = (WheelTask<?>)U.getAndSetObject(this, CANCELLATIONS, null), n;
+             p != null; p = n) {
+            n = p.nextCancellation;
+            p.nextCancellation = null;
+            if (p.bucket >= 0)
+                unlink(p);
+        }
+        long target = (System.nanoTime() - startTime) / tickNanos;
+        if (size == 0 && currentTick < target)
+            currentTick = target;  // nothing to move
+        boolean running = (runState == RUNNING);
+        for (WheelTask<?> p = takeSubmissions(), n; p != null; p = n) {
+            n = p.nextSubmission;
+            p.nextSubmission = null;
+            if (p.isCancelled())
+                continue;
+            if (!running && p.isPeriodic())
+                p.cancel(false);
+            else {
+                p.deadline = tickOf(p.time);
+                place(p);
+            }
+        }
+        while (currentTick < target)
+            tick();
+    }
+
+    /**
+     * Cancels the periodic tasks in the wheel upon shutdown.
+     */
+    private void cancelPeriodicTasks() {
+        for (int b = 0; b < heads.length; b++) {
+            for (WheelTask<?> t = heads[b], n; t != null; t = n) {
+                n = t.next;
+                if (t.isPeriodic()) {
+                    unlink(t);
+                    t.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all tasks from the wheel and the expired list, adding
+     * those not cancelled to the given list.
+     */
+    private void drainWheel(List<Runnable> tasks) {
+        for (WheelTask<?> t = expiredHead, n; t != null; t = n) {
+            n = t.next;
+            t.next = null;
+            t.bucket = NONE;
+            if (!t.isCancelled())
+                tasks.add(t);
+        }
+        expiredHead = expiredTail = null;
+        for (int b = 0; b < heads.length; b++) {
+            for (WheelTask<?> t = heads[b], n; t != null; t = n) {
+                n = t.next;
+                t.prev = t.next = null;
+                t.bucket = NONE;
+                if (!t.isCancelled())
+                    tasks.add(t);
+            }
+            heads[b] = tails[b] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * The main loop of the timer thread.
+     */
+    final void runTimer() {
+        final ReentrantLock lock = this.lock;
+        try {
+            for (;;) {
+                long parkNanos;
+                lock.lock();
+                try {
+                    int rs = runState;
+                    if (rs >= STOP)
+                        break;
+                    if (rs == SHUTDOWN && !periodicCancelled) {
+                        periodicCancelled = true;
+                        cancelPeriodicTasks();
+                    }
+                    advance();
+                    if (size > 0)
+                        parkNanos = startTime + (currentTick + 1) * tickNanos;
+                    else if (expiredHead != null)
+                        parkNanos = 0L;
+                    else if (rs == RUNNING)
+                        parkNanos = -1L;
+                    else if (submissions == null)
+                        break;
+                    else
+                        continue;
+                } finally {
+                    lock.unlock();
+                }
+                runExpired();
+                if (runState < STOP)
+                    Thread.interrupted();
+                if (parkNanos > 0L) {
+                    long delay = parkNanos - System.nanoTime();
+                    if (delay > 0L)
+                        LockSupport.parkNanos(this, delay);
+                } else if (parkNanos < 0L) {
+                    sleeping = true;
+                    if (submissions == null && runState == RUNNING)
+                        LockSupport.park(this);
+                    sleeping = false;
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                runState = TERMINATED;
+                List<Runnable> leftovers = new ArrayList<Runnable>();
+                drainWheel(leftovers);
+                for (Runnable r : leftovers)
+                    ((WheelTask<?>)r).cancel(false);
+            } finally {
+                lock.unlock();
+            }
+            cancelSubmissions();
+            if (workers != null)
+                workers.shutdown();
+            termination.countDown();
+        }
+    }
+
+    /**
+     * Passes the expired tasks to the task executor, taking them one at
+     * a time so that shutdownNow can take those not yet passed on.
+     */
+    private void runExpired() {
+        final ReentrantLock lock = this.lock;
+        for (;;) {
+            WheelTask<?> t;
+            lock.lock();
+            try {
+                if ((t = expiredHead) == null)
+                    return;
+                if ((expiredHead = t.next) == null)
+                    expiredTail = null;
+                t.next = null;
+                t.bucket = NONE;
+            } finally {
+                lock.unlock();
+            }
+            if (runState < STOP)
+                Thread.interrupted();
+            if (t.isPeriodic() && runState != RUNNING)
+                t.cancel(false);
+            else {
+                try {
+                    taskExecutor.execute(t);
+                } catch (RejectedExecutionException ex) {
+                    t.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        return delayedExecute(new WheelTask<Void>(command, null,
+                                                  triggerTime(delay, unit), 0));
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        return delayedExecute(new WheelTask<V>(callable,
+                                               triggerTime(delay, unit)));
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        return delayedExecute(new WheelTask<Void>(command, null,
+                                                  triggerTime(initialDelay, unit),
+                                                  unit.toNanos(period)));
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        return delayedExecute(new WheelTask<Void>(command, null,
+                                                  triggerTime(initialDelay, unit),
+                                                  unit.toNanos(-delay)));
+    }
+
+    /**
+     * Executes {@code command} with zero required delay, that is, at the
+     * next tick.  This has effect equivalent to
+     * {@link #schedule(Runnable,long,TimeUnit) schedule(command, 0, anyUnit)}.
+     *
+     * @throws RejectedExecutionException if this executor has been shut
+     *         down
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public Future<?> submit(Runnable task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Runnable task, T result) {
+        return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * tasks are executed, but no new tasks will be accepted.
+     * Delayed tasks still run when their delays elapse, while periodic
+     * tasks are cancelled.  Invocation has no additional effect if
+     * already shut down.
+     *
+     * <p>This method does not wait for previously submitted tasks to
+     * complete execution.  Use {@link #awaitTermination awaitTermination}
+     * to do that.
+     */
+    public void shutdown() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (runState < SHUTDOWN)
+                runState = SHUTDOWN;
+        } finally {
+            lock.unlock();
+        }
+        LockSupport.unpark(timer);
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution.  These tasks are removed from the
+     * wheel upon return from this method.
+     *
+     * <p>This method does not wait for actively executing tasks to
+     * terminate.  Use {@link #awaitTermination awaitTermination} to
+     * do that.
+     *
+     * <p>There are no guarantees beyond best-effort attempts to stop
+     * processing actively executing tasks.  This implementation
+     * interrupts the threads of the pool it created to run the tasks,
+     * so any task that fails to respond to interrupts may never
+     * terminate.  Tasks already passed to an executor given on
+     * construction are left to it.
+     *
+     * @return list of tasks that never commenced execution.
+     *         Each element of this list is a {@link ScheduledFuture}.
+     */
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (runState < STOP)
+                runState = STOP;
+            drainWheel(tasks);
+            for (WheelTask<?> p = takeSubmissions(), n; p != null; p = n) {
+                n = p.nextSubmission;
+                p.nextSubmission = null;
+                if (!p.isCancelled())
+                    tasks.add(p);
+            }
+        } finally {
+            lock.unlock();
+        }
+        timer.interrupt();
+        if (workers != null)
+            tasks.addAll(workers.shutdownNow());
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return runState >= SHUTDOWN;
+    }
+
+    public boolean isTerminated() {
+        return runState == TERMINATED &&
+            (workers == null || workers.isTerminated());
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        if (!termination.await(nanos, NANOSECONDS))
+            return false;
+        return (workers == null ||
+                workers.awaitTermination(deadline - System.nanoTime(),
+                                         NANOSECONDS));
+    }
+
+    /**
+     * Returns a string identifying this executor, as well as its state,
+     * including an estimate of the number of scheduled tasks.
+     *
+     * @return a string identifying this executor, as well as its state
+     */
+    public String toString() {
+        int rs = runState;
+        String state = (rs == RUNNING) ? "Running" :
+            (rs == TERMINATED) ? "Terminated" : "Shutting down";
+        return super.toString() + "[" + state + ", scheduled tasks = " +
+            size + "]";
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long SUBMISSIONS;
+    private static final long CANCELLATIONS;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = TimingWheelScheduledExecutor.class;
+            SUBMISSIONS = U.objectFieldOffset
+                (k.getDeclaredField("submissions"));
+            CANCELLATIONS = U.objectFieldOffset
+                (k.getDeclaredField("cancellations"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
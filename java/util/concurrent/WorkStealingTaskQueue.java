@@ -0,0 +1,592 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The work queue of the thread pools created by
+ * {@link Executors#newWorkStealingThreadPool}: a {@link BlockingQueue}
+ * that gives each thread taking tasks from it a local queue, so that
+ * the tasks that worker threads submit, as in fan-out, do not contend
+ * on a shared queue.  The capacity bounds all tasks in the queue,
+ * whichever thread offered them.  Because the pool is an ordinary
+ * {@link ThreadPoolExecutor}, its core and maximum sizes, keep-alive
+ * time and rejection policy apply unchanged: a full queue makes the
+ * pool grow to its maximum size, and then reject tasks.
+ *
+ * @since 1.8
+ */
+final class WorkStealingTaskQueue extends AbstractQueue<Runnable>
+        implements BlockingQueue<Runnable> {
+
+    /*
+     * Overview:
+     *
+     * A task offered by a thread that has taken tasks from this
+     * queue (a worker) is pushed on the worker's local queue; other
+     * tasks are added to a shared queue of submissions.  If the queue
+     * is bounded, every offer first reserves one of the capacity
+     * slots in a single count, released when the task is taken or
+     * removed.  A worker takes tasks from its local queue, then from
+     * the submissions, then steals from the local queues of other
+     * workers starting at a random index.  For
+     * fairness to external submitters, every SUBMISSION_INTERVAL'th
+     * take checks the submissions first.
+     *
+     * Local queues work like ForkJoinPool.WorkQueue in async mode,
+     * including its handling of resizing: the owner pushes at top,
+     * and the owner and thieves alike take at base by CAS of the
+     * slot, so that tasks run in roughly the order submitted, as they
+     * would from a LinkedBlockingQueue.  A local queue that reaches
+     * its maximum size overflows into the submissions.
+     *
+     * Workers that find no task wait on a Treiber stack of nodes,
+     * rescanning after pushing their node and before parking.  Each
+     * offer that finds the stack non-empty wakes one waiter.  Offers
+     * to submissions are ordered before their read of the stack by
+     * the CAS of ConcurrentLinkedQueue.offer, and local pushes by a
+     * full fence.  A waiter that is woken but then leaves without a
+     * task passes the wakeup on if tasks remain.
+     *
+     * Local queues are registered in a copy-on-write array when their
+     * thread first waits for a task, and dropped when found empty with
+     * their owner dead.  Tasks left in the local queue of a worker
+     * that died abruptly stay available to stealing (by the worker
+     * that ThreadPoolExecutor starts in its place).
+     *
+     * Removal of an arbitrary task, for ThreadPoolExecutor.remove and
+     * purge, replaces it in a local queue by the REMOVED placeholder,
+     * which takers skip.
+     */
+
+    /** The number of takes after which a worker checks submissions first */
+    static final int SUBMISSION_INTERVAL = 1 << 5;
+
+    /** The number of rescans before waiting */
+    static final int SPINS =
+        (Runtime.getRuntime().availableProcessors() > 1) ? 1 << 4 : 0;
+
+    /** The wait of blocking insertions between checks for space */
+    static final long SPACE_POLL_NANOS = 1000L * 1000L;
+
+    /** The placeholder of a task removed from a local queue */
+    static final Runnable REMOVED = new Runnable() { public void run() { } };
+
+    /**
+     * The local queue of a worker.
+     */
+    @sun.misc.Contended
+    static final class LocalQueue {
+        /** Initial capacity, a power of two */
+        static final int INITIAL_CAPACITY = 1 << 8;
+        /** Maximum capacity, as for ForkJoinPool.WorkQueue */
+        static final int MAXIMUM_CAPACITY = 1 << 26;
+
+        volatile int base;         // index of next slot to take
+        volatile int top;          // index of next slot to push, by owner
+        volatile Runnable[] array; // the elements
+        final Thread owner;
+        int takes;                 // number of takes, by owner
+
+        LocalQueue(Thread owner) {
+            this.owner = owner;
+            this.array = new Runnable[INITIAL_CAPACITY];
+        }
+
+        int size() {
+            int n = base - top; // read base first
+            return (n >= 0) ? 0 : -n;
+        }
+
+        /**
+         * Pushes a task.  Call only by owner.
+         *
+         * @return false if the queue is at its maximum capacity
+         */
+        boolean push(Runnable task) {
+            Runnable[] a = array;
+            int s = top;
+            if (s - base >= a.length - 1) {
+                if (a.length >= MAXIMUM_CAPACITY)
+                    return false;
+                a = growArray(a);
+            }
+            U.putOrderedObject(a, (((long)((a.length - 1) & s)) << ASHIFT) + ABASE,
+                               task);
+            U.putOrderedInt(this, TOP, s + 1);
+            return true;
+        }
+
+        /**
+         * Doubles the array, moving the tasks by emulating takes from
+         * the old array.  Call only by owner.
+         */
+        private Runnable[] growArray(Runnable[] oldA) {
+            int oldMask = oldA.length - 1, mask = (oldA.length << 1) - 1;
+            Runnable[] a = array = new Runnable[mask + 1];
+            for (int b = base, t = top; b != t; ++b) {
+                long oldj = (((long)(b & oldMask)) << ASHIFT) + ABASE;
+                Object x = U.getObjectVolatile(oldA, oldj);
+                if (x != null && U.compareAndSwapObject(oldA, oldj, x, null))
+                    U.putObjectVolatile(a, (((long)(b & mask)) << ASHIFT) + ABASE, x);
+            }
+            return a;
+        }
+
+        /**
+         * Takes the task at base, if any.  Callable by any thread.
+         */
+        Runnable poll() {
+            Runnable[] a; int b; Object x;
+            while ((b = base) - top < 0 && (a = array) != null) {
+                long j = (((long)((a.length - 1) & b)) << ASHIFT) + ABASE;
+                if ((x = U.getObjectVolatile(a, j)) != null) {
+                    if (U.compareAndSwapObject(a, j, x, null)) {
+                        U.putOrderedInt(this, BASE, b + 1);
+                        if (x != REMOVED)
+                            return (Runnable)x;
+                    }
+                }
+                else if (base == b) {
+                    if (b + 1 == top)
+                        break;
+                    Thread.yield(); // wait for lagging update (very rare)
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Replaces a task equal to o by REMOVED.
+         */
+        boolean remove(Object o) {
+            Runnable[] a = array;
+            int m = a.length - 1;
+            for (int b = base, t = top; t - b > 0; ++b) {
+                long j = (((long)(m & b)) << ASHIFT) + ABASE;
+                Object x = U.getObjectVolatile(a, j);
+                if (x != null && x != REMOVED && o.equals(x) &&
+                    U.compareAndSwapObject(a, j, x, REMOVED))
+                    return true;
+            }
+            return false;
+        }
+
+        void addTo(ArrayList<Runnable> list) {
+            Runnable[] a = array;
+            int m = a.length - 1;
+            for (int b = base, t = top; t - b > 0; ++b) {
+                Object x = U.getObjectVolatile(a, (((long)(m & b)) << ASHIFT) + ABASE);
+                if (x != null && x != REMOVED)
+                    list.add((Runnable)x);
+            }
+        }
+    }
+
+    /**
+     * A waiting worker.  The thread is cleared, by compare-and-set,
+     * either by a signalling thread before unparking it or by the
+     * worker itself when it stops waiting.
+     */
+    static final class WaitNode {
+        volatile Thread thread;
+        WaitNode next;
+        WaitNode(Thread thread) { this.thread = thread; }
+    }
+
+    /** Tasks offered by threads other than workers */
+    private final ConcurrentLinkedQueue<Runnable> submissions =
+        new ConcurrentLinkedQueue<Runnable>();
+
+    /** The number of tasks, maintained only if bounded */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /** The bound on tasks, or Integer.MAX_VALUE if unbounded */
+    private final int capacity;
+
+    /** The local queue of each worker */
+    private final ThreadLocal<LocalQueue> localQueue =
+        new ThreadLocal<LocalQueue>();
+
+    /** Registered local queues */
+    private volatile LocalQueue[] localQueues = new LocalQueue[0];
+
+    /** Treiber stack of waiting workers */
+    private volatile WaitNode waiters;
+
+    /**
+     * Creates a queue bounding its tasks to the given capacity.
+     *
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    WorkStealingTaskQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException();
+        this.capacity = capacity;
+    }
+
+    private LocalQueue registerLocalQueue() {
+        LocalQueue q = new LocalQueue(Thread.currentThread());
+        synchronized (this) {
+            LocalQueue[] qs = localQueues;
+            LocalQueue[] nqs = new LocalQueue[qs.length + 1];
+            int n = 0;
+            for (LocalQueue p : qs) {
+                if (p.owner.isAlive() || p.size() != 0)
+                    nqs[n++] = p;
+            }
+            nqs[n++] = q;
+            localQueues = (n == nqs.length) ? nqs : Arrays.copyOf(nqs, n);
+        }
+        localQueue.set(q);
+        return q;
+    }
+
+    /**
+     * Reserves space for a task, returning false if at capacity.
+     */
+    private boolean reserve() {
+        if (capacity != Integer.MAX_VALUE) {
+            AtomicInteger count = this.count;
+            int c;
+            do {
+                if ((c = count.get()) >= capacity)
+                    return false;
+            } while (!count.compareAndSet(c, c + 1));
+        }
+        return true;
+    }
+
+    /**
+     * Releases the space of a task taken or removed.
+     */
+    private void release() {
+        if (capacity != Integer.MAX_VALUE)
+            count.decrementAndGet();
+    }
+
+    /**
+     * Steals a task from the local queue of a worker other than the
+     * given one, if any.
+     */
+    private Runnable steal(LocalQueue self) {
+        LocalQueue[] qs = localQueues;
+        int n = qs.length;
+        if (n > 0) {
+            int k = (ThreadLocalRandom.nextSecondarySeed() & 0x7fffffff) % n;
+            for (int i = 0; i < n; ++i) {
+                LocalQueue q = qs[k];
+                Runnable r;
+                if (q != self && (r = q.poll()) != null)
+                    return r;
+                if (++k == n)
+                    k = 0;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a task from the given local queue, submissions, or other
+     * local queues, without waiting.
+     */
+    private Runnable take(LocalQueue q) {
+        Runnable r = null;
+        if (q != null) {
+            if ((++q.takes & (SUBMISSION_INTERVAL - 1)) == 0)
+                r = submissions.poll();
+            if (r == null)
+                r = q.poll();
+        }
+        if (r == null && (r = submissions.poll()) == null &&
+            (r = steal(q)) == null)
+            return null;
+        release();
+        return r;
+    }
+
+    private void signal() {
+        WaitNode h;
+        while ((h = waiters) != null) {
+            if (U.compareAndSwapObject(this, WAITERS, h, h.next)) {
+                Thread w = h.thread;
+                if (w != null && U.compareAndSwapObject(h, THREAD, w, null)) {
+                    LockSupport.unpark(w);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a task, waiting if necessary, by a worker.
+     *
+     * @return the task, or null if timed out
+     */
+    private Runnable awaitTask(boolean timed, long nanos)
+        throws InterruptedException {
+        LocalQueue q = localQueue.get();
+        if (q == null)
+            q = registerLocalQueue();
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        final Thread w = Thread.currentThread();
+        WaitNode node = null;
+        int spins = SPINS;
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                Runnable r;
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                    throw new InterruptedException();
+                }
+                if ((r = take(q)) != null)
+                    return r;
+                if (timed && (nanos = deadline - System.nanoTime()) <= 0L)
+                    return null;
+                if (spins > 0)
+                    --spins;
+                else if (node == null) {
+                    WaitNode h;
+                    node = new WaitNode(w);
+                    do {
+                        node.next = h = waiters;
+                    } while (!U.compareAndSwapObject(this, WAITERS, h, node));
+                }
+                else if (node.thread == null)
+                    node = null; // woken; rescan, then wait again
+                else if (timed)
+                    LockSupport.parkNanos(this, nanos);
+                else
+                    LockSupport.park(this);
+            }
+        } finally {
+            if (node != null) {
+                if (!U.compareAndSwapObject(node, THREAD, w, null) &&
+                    (interrupted || !isEmpty()))
+                    signal(); // pass on a wakeup meant for another task
+                WaitNode h;
+                while ((h = waiters) != null && h.thread == null)
+                    U.compareAndSwapObject(this, WAITERS, h, h.next);
+            }
+        }
+    }
+
+    /**
+     * Inserts the given task if the queue is not at capacity, into
+     * the local queue of the current thread if it is a worker, else
+     * into the submissions.
+     *
+     * @return {@code true} if the task was added
+     * @throws NullPointerException if the task is null
+     */
+    public boolean offer(Runnable e) {
+        if (e == null) throw new NullPointerException();
+        if (!reserve())
+            return false;
+        LocalQueue q = localQueue.get();
+        if (q != null && q.push(e))
+            U.fullFence(); // order push before read of waiters
+        else
+            submissions.offer(e);
+        if (waiters != null)
+            signal();
+        return true;
+    }
+
+    /**
+     * Inserts the given task, waiting if necessary for space in the
+     * queue.  This queue does not signal space, which it checks
+     * periodically; ThreadPoolExecutor does not use this method.
+     */
+    public void put(Runnable e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            LockSupport.parkNanos(this, SPACE_POLL_NANOS);
+        }
+    }
+
+    public boolean offer(Runnable e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + nanos;
+        while (!offer(e)) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (nanos <= 0L)
+                return false;
+            LockSupport.parkNanos(this, Math.min(nanos, SPACE_POLL_NANOS));
+            nanos = deadline - System.nanoTime();
+        }
+        return true;
+    }
+
+    public Runnable take() throws InterruptedException {
+        return awaitTask(false, 0L);
+    }
+
+    public Runnable poll(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return awaitTask(true, unit.toNanos(timeout));
+    }
+
+    public Runnable poll() {
+        return take(localQueue.get());
+    }
+
+    public Runnable peek() {
+        Iterator<Runnable> it = iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    public int size() {
+        long n = submissions.size();
+        for (LocalQueue q : localQueues)
+            n += q.size();
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    public boolean isEmpty() {
+        if (!submissions.isEmpty())
+            return false;
+        for (LocalQueue q : localQueues) {
+            if (q.size() != 0)
+                return false;
+        }
+        return true;
+    }
+
+    public int remainingCapacity() {
+        return (capacity == Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+            Math.max(0, capacity - count.get());
+    }
+
+    public boolean remove(Object o) {
+        if (o == null)
+            return false;
+        boolean removed = submissions.remove(o);
+        LocalQueue[] qs = localQueues;
+        for (int i = 0; !removed && i < qs.length; ++i)
+            removed = qs[i].remove(o);
+        if (removed)
+            release();
+        return removed;
+    }
+
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        Runnable r;
+        while (n < maxElements && (r = poll()) != null) {
+            c.add(r);
+            ++n;
+        }
+        return n;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the tasks in this queue,
+     * submissions first.
+     */
+    public Iterator<Runnable> iterator() {
+        ArrayList<Runnable> list = new ArrayList<Runnable>(submissions);
+        for (LocalQueue q : localQueues)
+            q.addTo(list);
+        return new Itr(list.toArray(new Runnable[0]));
+    }
+
+    final class Itr implements Iterator<Runnable> {
+        private final Runnable[] items;
+        private int cursor;
+        private int lastRet = -1;
+
+        Itr(Runnable[] items) {
+            this.items = items;
+        }
+
+        public boolean hasNext() {
+            return cursor < items.length;
+        }
+
+        public Runnable next() {
+            if (cursor >= items.length)
+                throw new NoSuchElementException();
+            return items[lastRet = cursor++];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            WorkStealingTaskQueue.this.remove(items[lastRet]);
+            lastRet = -1;
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long WAITERS;
+    private static final long THREAD;
+    private static final long BASE;
+    private static final long TOP;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            WAITERS = U.objectFieldOffset
+                (WorkStealingTaskQueue.class.getDeclaredField("waiters"));
+            THREAD = U.objectFieldOffset
+                (WaitNode.class.getDeclaredField("thread"));
+            Class<?> qk = LocalQueue.class;
+            BASE = U.objectFieldOffset
+                (qk.getDeclaredField("base"));
+            TOP = U.objectFieldOffset
+                (qk.getDeclaredField("top"));
+            Class<?> ak = Runnable[].class;
+            ABASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.io.*;
 import java.lang.ref.SoftReference;
 import java.net.URL;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.zip.*;
@@ -276,10 +277,45 @@ class JarFile extends ZipFile {
 
     @Override
     public Stream<JarEntry> stream() {
-        return StreamSupport.stream(Spliterators.spliterator(
-                new JarEntryIterator(), size(),
-                Spliterator.ORDERED | Spliterator.DISTINCT |
-                        Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Spliterator<JarEntry> spliterator() {
+        return new JarEntrySpliterator(super.spliterator());
+    }
+
+    private class JarEntrySpliterator implements Spliterator<JarEntry> {
+        private final Spliterator<? extends ZipEntry> s;
+
+        JarEntrySpliterator(Spliterator<? extends ZipEntry> s) {
+            this.s = s;
+        }
+
+        public boolean tryAdvance(Consumer<? super JarEntry> action) {
+            if (action == null)
+                throw new NullPointerException();
+            return s.tryAdvance(ze -> action.accept(new JarFileEntry(ze)));
+        }
+
+        public void forEachRemaining(Consumer<? super JarEntry> action) {
+            if (action == null)
+                throw new NullPointerException();
+            s.forEachRemaining(ze -> action.accept(new JarFileEntry(ze)));
+        }
+
+        public Spliterator<JarEntry> trySplit() {
+            Spliterator<? extends ZipEntry> prefix = s.trySplit();
+            return (prefix == null) ? null : new JarEntrySpliterator(prefix);
+        }
+
+        public long estimateSize() {
+            return s.estimateSize();
+        }
+
+        public int characteristics() {
+            return s.characteristics();
+        }
     }
 
     private class JarFileEntry extends JarEntry {
@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) 2000, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.logging;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <tt>Handler</tt> that publishes to a target <tt>Handler</tt> on a
+ * background thread.
+ * <p>
+ * Publishing threads only place incoming <tt>LogRecords</tt> into a
+ * bounded, lock-free ring buffer, so they neither contend on the lock of
+ * the target handler nor wait for its formatting and I/O.  A single
+ * writer thread drains the buffer in batches, publishes each record of a
+ * batch to the target and then flushes the target once for the whole
+ * batch.
+ * <p>
+ * Before a record is queued its source class and method are inferred on
+ * the publishing thread, since inference from the writer thread would
+ * find the wrong frames.  The message parameters are formatted later, on
+ * the writer thread, so they should not be mutated after logging.
+ * <p>
+ * When the buffer is full, the {@linkplain OverflowPolicy overflow policy}
+ * decides whether the publishing thread waits for space or the record is
+ * dropped.  Dropped records are counted; the count and the number of
+ * queued records are available from {@link #getDroppedCount} and
+ * {@link #getQueueDepth}, and summed over all open <tt>AsyncHandlers</tt>
+ * by {@link #getTotalDroppedCount} and {@link #getTotalQueueDepth}, which
+ * the {@link java.lang.management.PlatformLoggingMXBean} reports as its
+ * {@code AsyncHandlerDroppedCount} and {@code AsyncHandlerQueueDepth}
+ * attributes.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * If no default value is defined then a RuntimeException is thrown.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.capacity
+ *        defines the buffer size, rounded up to a power of two
+ *        (defaults to 8192). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the name of the <tt>OverflowPolicy</tt>
+ *        (defaults to <tt>BLOCK</tt>). </li>
+ * <li>   &lt;handler-name&gt;.discardLevel
+ *        defines the level below which records are dropped when the
+ *        buffer is full under <tt>DISCARD_BELOW_LEVEL</tt>
+ *        (defaults to <tt>Level.WARNING</tt>). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target <tt>Handler </tt> class.
+ *        (no default). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for {@code AsyncHandler} would be:
+ * <ul>
+ * <li>   java.util.logging.AsyncHandler.target=java.util.logging.FileHandler </li>
+ * <li>   java.util.logging.AsyncHandler.overflow=DISCARD_BELOW_LEVEL </li>
+ * </ul>
+ *
+ * @since 1.8
+ */
+
+public class AsyncHandler extends Handler {
+    private final static int DEFAULT_CAPACITY = 8192;
+    private final static int MAX_CAPACITY = 1 << 30;
+
+    /** The most records the writer publishes before flushing the target. */
+    private final static int MAX_BATCH = 1024;
+
+    /** The bit of tail set on close, after which no slot can be claimed. */
+    private final static long CLOSED = Long.MIN_VALUE;
+
+    /**
+     * What to do with a record published while the buffer is full.
+     *
+     * @since 1.8
+     */
+    public enum OverflowPolicy {
+        /** The publishing thread waits until there is space. */
+        BLOCK,
+        /** The record is dropped. */
+        DROP,
+        /**
+         * The record is dropped if its level is below the discard level,
+         * otherwise the publishing thread waits until there is space.
+         */
+        DISCARD_BELOW_LEVEL
+    }
+
+    /** Open handlers, summed by the static totals. */
+    private static final Set<AsyncHandler> handlers = ConcurrentHashMap.newKeySet();
+
+    /** Records dropped by all handlers, open or closed. */
+    private static final LongAdder totalDropped = new LongAdder();
+
+    private Handler target;
+    private int capacity;
+    private volatile OverflowPolicy overflow;
+    private volatile Level discardLevel;
+
+    // The ring buffer.  Producers claim a sequence number by advancing
+    // tail and then fill its slot; the writer takes filled slots in order,
+    // clears them and advances head.  A claimed slot that is still null
+    // has not been filled yet, and the writer waits for it.  Close sets
+    // the CLOSED bit of tail, so that every claimed record is published.
+    private AtomicReferenceArray<LogRecord> buffer;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    // The writer parks while the buffer is empty, and a producer that
+    // claims a slot while writerParked is set unparks it.  Publishers
+    // waiting for space and flushes waiting for the writer await
+    // progress, which the writer signals after a batch if there are
+    // waiters, and when it exits.
+    private volatile boolean writerParked;
+    private volatile boolean writerDone;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition progress = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+    private Writer writer;
+
+    // Private method to configure an AsyncHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        capacity = manager.getIntProperty(cname + ".capacity", DEFAULT_CAPACITY);
+        if (capacity <= 0) {
+            capacity = DEFAULT_CAPACITY;
+        }
+        OverflowPolicy policy = OverflowPolicy.BLOCK;
+        String val = manager.getStringProperty(cname + ".overflow", null);
+        if (val != null) {
+            try {
+                policy = OverflowPolicy.valueOf(val.trim());
+            } catch (IllegalArgumentException ex) {
+                // we got an invalid value, fall through to the default
+            }
+        }
+        overflow = policy;
+        discardLevel = manager.getLevelProperty(cname + ".discardLevel", Level.WARNING);
+        setLevel(manager.getLevelProperty(cname + ".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname + ".filter", null));
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt> and configure it based on
+     * <tt>LogManager</tt> configuration properties.
+     */
+    public AsyncHandler() {
+        sealed = false;
+        configure();
+        sealed = true;
+
+        LogManager manager = LogManager.getLogManager();
+        String handlerName = getClass().getName();
+        String targetName = manager.getProperty(handlerName + ".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + handlerName
+                    + " does not specify a target");
+        }
+        Class<?> clz;
+        try {
+            clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            target = (Handler) clz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("AsyncHandler can't load handler target \"" + targetName + "\"" , e);
+        }
+        init();
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt>.
+     * <p>
+     * The <tt>AsyncHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given buffer
+     * capacity and overflow policy are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param capacity  the number of log records to buffer (must be greater
+     *                  than zero); rounded up to a power of two
+     * @param overflow  what to do with records published while the buffer
+     *                  is full
+     *
+     * @throws IllegalArgumentException if {@code capacity <= 0}
+     */
+    public AsyncHandler(Handler target, int capacity, OverflowPolicy overflow) {
+        if (target == null || overflow == null) {
+            throw new NullPointerException();
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        sealed = false;
+        configure();
+        sealed = true;
+        this.target = target;
+        this.overflow = overflow;
+        this.capacity = capacity;
+        init();
+    }
+
+    // Initialize the buffer and start the writer.  Capacity is a count
+    // of LogRecords.
+    private void init() {
+        int n = (capacity >= MAX_CAPACITY) ? MAX_CAPACITY
+                : Integer.highestOneBit(capacity - 1) << 1;
+        if (n <= 0) {
+            n = 1;
+        }
+        buffer = new AtomicReferenceArray<>(n);
+        mask = n - 1;
+        writer = new Writer();
+        handlers.add(this);
+        writer.start();
+    }
+
+    /**
+     * Queue a <tt>LogRecord</tt> for publication to the target
+     * <tt>Handler</tt>.
+     * <p>
+     * If there is a <tt>Filter</tt>, its <tt>isLoggable</tt>
+     * method is called to check if the given log record is loggable.
+     * If not we return.  Otherwise the source of the record is inferred
+     * and the record is placed into the buffer, subject to the overflow
+     * policy if the buffer is full.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // Infer the caller now; the writer thread's stack would not
+        // contain it.
+        record.getSourceClassName();
+
+        if (offer(record)) {
+            return;
+        }
+        OverflowPolicy policy = overflow;
+        if (closed || policy == OverflowPolicy.DROP ||
+            (policy == OverflowPolicy.DISCARD_BELOW_LEVEL &&
+             record.getLevel().intValue() < discardLevel.intValue())) {
+            drop();
+            return;
+        }
+        // Wait for the writer to make space.
+        for (;;) {
+            long h = head.get();
+            if (offer(record)) {
+                return;
+            }
+            if (closed) {
+                drop();
+                return;
+            }
+            try {
+                awaitProgress(h);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                drop();
+                return;
+            }
+        }
+    }
+
+    private void drop() {
+        dropped.increment();
+        totalDropped.increment();
+    }
+
+    /**
+     * Places the record into the buffer, or returns false if it is full
+     * or closed.
+     */
+    private boolean offer(LogRecord record) {
+        final AtomicReferenceArray<LogRecord> buf = buffer;
+        final int capacity = mask + 1;
+        for (;;) {
+            long t = tail.get();
+            if (t < 0L || t - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                buf.lazySet((int)t & mask, record);
+                if (writerParked) {
+                    LockSupport.unpark(writer);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Waits until head has moved past h or the writer has exited.
+     */
+    private void awaitProgress(long h) throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            waiters.incrementAndGet(); // order before the read of head
+            try {
+                while (head.get() == h && !writerDone) {
+                    progress.await();
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalProgress() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The writer thread.  It publishes up to {@code MAX_BATCH} queued
+     * records at a time to the target, flushing the target after each
+     * batch, and parks when the buffer is empty.  Once the handler is
+     * closed it exits when the buffer is empty.
+     */
+    private final class Writer extends Thread {
+        Writer() {
+            super("AsyncHandler-" + target.getClass().getSimpleName());
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (;;) {
+                    int n = drain();
+                    if (n > 0) {
+                        if (waiters.get() != 0) {
+                            signalProgress();
+                        }
+                        flushTarget();
+                    } else {
+                        long t = tail.get();
+                        if (t < 0L) {
+                            if (head.get() == (t & ~CLOSED)) {
+                                return;
+                            }
+                            // a slot claimed before close is still being filled
+                            Thread.yield();
+                        } else {
+                            writerParked = true;
+                            if (head.get() == tail.get()) {
+                                LockSupport.park(this);
+                            }
+                            writerParked = false;
+                        }
+                    }
+                }
+            } finally {
+                writerDone = true;
+                signalProgress();
+            }
+        }
+    }
+
+    /**
+     * Publishes a batch of queued records to the target, returning the
+     * number published.  Only called by the writer thread.
+     */
+    private int drain() {
+        final AtomicReferenceArray<LogRecord> buf = buffer;
+        long h = head.get();
+        int n = 0;
+        while (n < MAX_BATCH) {
+            int i = (int)h & mask;
+            LogRecord r = buf.get(i);
+            if (r == null) {
+                break;
+            }
+            buf.lazySet(i, null);
+            head.lazySet(++h);
+            n++;
+            try {
+                target.publish(r);
+            } catch (RuntimeException ex) {
+                reportError(null, ex, ErrorManager.WRITE_FAILURE);
+            }
+        }
+        if (n > 0) {
+            head.set(h); // order before the read of waiters
+        }
+        return n;
+    }
+
+    private void flushTarget() {
+        try {
+            target.flush();
+        } catch (RuntimeException ex) {
+            reportError(null, ex, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /**
+     * Wait until the records queued before this call have been published
+     * to the target <tt>Handler</tt>, then flush the target.
+     */
+    @Override
+    public void flush() {
+        long t = tail.get() & ~CLOSED;
+        boolean interrupted = false;
+        long h;
+        while ((h = head.get()) < t && !writerDone) {
+            try {
+                awaitProgress(h);
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        flushTarget();
+    }
+
+    /**
+     * Close the <tt>Handler</tt> and free all associated resources.
+     * Records already queued are published first.  This will also close
+     * the target <tt>Handler</tt>.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        long t;
+        while (!tail.compareAndSet(t = tail.get(), t | CLOSED))
+            ;
+        Writer w = writer;
+        LockSupport.unpark(w);
+        boolean interrupted = false;
+        while (w.isAlive()) {
+            try {
+                w.join();
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        handlers.remove(this);
+        target.close();
+        setLevel(Level.OFF);
+    }
+
+    /**
+     * Set the overflow policy.
+     *
+     * @param policy the new overflow policy
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setOverflowPolicy(OverflowPolicy policy) throws SecurityException {
+        if (policy == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        overflow = policy;
+    }
+
+    /**
+     * Get the overflow policy.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflow;
+    }
+
+    /**
+     * Set the discard level.  Under the <tt>DISCARD_BELOW_LEVEL</tt>
+     * policy, records below this level are dropped when the buffer is
+     * full.
+     *
+     * @param newLevel the new value of the discard level
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setDiscardLevel(Level newLevel) throws SecurityException {
+        if (newLevel == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        discardLevel = newLevel;
+    }
+
+    /**
+     * Get the discard level.
+     *
+     * @return the value of the discard level
+     */
+    public Level getDiscardLevel() {
+        return discardLevel;
+    }
+
+    /**
+     * Returns the number of records queued but not yet published to the
+     * target <tt>Handler</tt>.
+     *
+     * @return the number of queued records
+     */
+    public int getQueueDepth() {
+        long n = (tail.get() & ~CLOSED) - head.get();
+        return (n < 0L) ? 0 : (int)n;
+    }
+
+    /**
+     * Returns the number of records dropped because the buffer was full,
+     * or because the handler was closed while they were published.
+     *
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of records queued by all open
+     * <tt>AsyncHandler</tt>s but not yet published to their targets.
+     *
+     * @return the total queue depth of the open <tt>AsyncHandler</tt>s
+     * @see java.lang.management.PlatformLoggingMXBean#getAsyncHandlerQueueDepth
+     * @since 1.8
+     */
+    public static long getTotalQueueDepth() {
+        long n = 0L;
+        for (AsyncHandler h : handlers) {
+            n += h.getQueueDepth();
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of records dropped by all
+     * <tt>AsyncHandler</tt>s, including closed ones, because their
+     * buffers were full or they were closed.
+     *
+     * @return the total number of dropped records
+     * @see java.lang.management.PlatformLoggingMXBean#getAsyncHandlerDroppedCount
+     * @since 1.8
+     */
+    public static long getTotalDroppedCount() {
+        return totalDropped.sum();
+    }
+}
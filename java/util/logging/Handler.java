@@ -66,6 +66,13 @@ public abstract class Handler {
     // is true, we access check updates to the class.
     boolean sealed = true;
 
+    // True if this is one of the handlers of this package, all of which
+    // publish only records that pass isLoggable.  Handlers of other
+    // classes may override publish or isLoggable to ignore the level.
+    private final boolean levelChecked =
+        getClass().getClassLoader() == null &&
+        getClass().getName().startsWith("java.util.logging.");
+
     /**
      * Default constructor.  The resulting <tt>Handler</tt> has a log
      * level of <tt>Level.ALL</tt>, no <tt>Formatter</tt>, and no
@@ -276,6 +283,17 @@ public abstract class Handler {
         return logLevel;
     }
 
+    // Package private support for Logger: returns false if this handler
+    // certainly discards records of the given level value, so that
+    // the logger need not create them.
+    boolean mayPublish(int value) {
+        if (!levelChecked) {
+            return true;
+        }
+        final int levelValue = logLevel.intValue();
+        return value >= levelValue && levelValue != offValue;
+    }
+
     /**
      * Check if this <tt>Handler</tt> would actually log a given <tt>LogRecord</tt>.
      * <p>
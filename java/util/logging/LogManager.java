@@ -1667,6 +1667,12 @@ public class LogManager {
             initializeGlobalHandlers();
             return super.accessCheckedHandlers();
         }
+
+        @Override
+        boolean handlersMayPublish(int value) {
+            initializeGlobalHandlers();
+            return super.handlersMayPublish(value);
+        }
     }
 
 
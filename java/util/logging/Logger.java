@@ -279,6 +279,13 @@ public class Logger {
     private WeakReference<ClassLoader> callersClassLoaderRef;
     private final boolean isSystemLogger;
 
+    // True if this is Logger or a subclass of it in this package, none
+    // of which override log(LogRecord) or getHandlers().  Only then may
+    // a record be dropped before it is created; see isPublishable.
+    private final boolean isPlainLogger =
+        getClass().getClassLoader() == null &&
+        getClass().getName().startsWith("java.util.logging.");
+
     /**
      * GLOBAL_LOGGER_NAME is a name for the global logger.
      *
@@ -781,7 +788,7 @@ public class Logger {
      * @param   msg     The string message (or a key in the message catalog)
      */
     public void log(Level level, String msg) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -802,7 +809,7 @@ public class Logger {
      *                        desired log message
      */
     public void log(Level level, Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -821,7 +828,7 @@ public class Logger {
      * @param   param1  parameter to the message
      */
     public void log(Level level, String msg, Object param1) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -842,7 +849,7 @@ public class Logger {
      * @param   params  array of parameters to the message
      */
     public void log(Level level, String msg, Object params[]) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -867,7 +874,7 @@ public class Logger {
      * @param   thrown  Throwable associated with log message.
      */
     public void log(Level level, String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -895,7 +902,7 @@ public class Logger {
      * @since   1.8
      */
     public void log(Level level, Throwable thrown, Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -921,7 +928,7 @@ public class Logger {
      * @param   msg     The string message (or a key in the message catalog)
      */
     public void logp(Level level, String sourceClass, String sourceMethod, String msg) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -948,7 +955,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                      Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -973,7 +980,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                                                 String msg, Object param1) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1000,7 +1007,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                                                 String msg, Object params[]) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1031,7 +1038,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                      String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1065,7 +1072,7 @@ public class Logger {
      */
     public void logp(Level level, String sourceClass, String sourceMethod,
                      Throwable thrown, Supplier<String> msgSupplier) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msgSupplier.get());
@@ -1127,7 +1134,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                 String bundleName, String msg) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1162,7 +1169,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                 String bundleName, String msg, Object param1) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1199,7 +1206,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                 String bundleName, String msg, Object params[]) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1232,7 +1239,7 @@ public class Logger {
      */
     public void logrb(Level level, String sourceClass, String sourceMethod,
                       ResourceBundle bundle, String msg, Object... params) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1275,7 +1282,7 @@ public class Logger {
     @Deprecated
     public void logrb(Level level, String sourceClass, String sourceMethod,
                                         String bundleName, String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1313,7 +1320,7 @@ public class Logger {
      */
     public void logrb(Level level, String sourceClass, String sourceMethod,
                       ResourceBundle bundle, String msg, Throwable thrown) {
-        if (!isLoggable(level)) {
+        if (!isPublishable(level)) {
             return;
         }
         LogRecord lr = new LogRecord(level, msg);
@@ -1376,7 +1383,7 @@ public class Logger {
            logp(Level.FINER, sourceClass, sourceMethod, msg);
            return;
         }
-        if (!isLoggable(Level.FINER)) return;
+        if (!isPublishable(Level.FINER)) return;
         for (int i = 0; i < params.length; i++) {
             msg = msg + " {" + i + "}";
         }
@@ -1436,7 +1443,7 @@ public class Logger {
      * @param   thrown  The Throwable that is being thrown.
      */
     public void throwing(String sourceClass, String sourceMethod, Throwable thrown) {
-        if (!isLoggable(Level.FINER)) {
+        if (!isPublishable(Level.FINER)) {
             return;
         }
         LogRecord lr = new LogRecord(Level.FINER, "THROW");
@@ -1665,6 +1672,137 @@ public class Logger {
         log(Level.FINEST, msgSupplier);
     }
 
+    //=======================================================================
+    // Start of simple convenience methods using level names as method names
+    // and taking message parameters
+    //=======================================================================
+
+    /**
+     * Log a SEVERE message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the SEVERE message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void severe(String msg, Object... params) {
+        log(Level.SEVERE, msg, params);
+    }
+
+    /**
+     * Log a WARNING message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the WARNING message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void warning(String msg, Object... params) {
+        log(Level.WARNING, msg, params);
+    }
+
+    /**
+     * Log an INFO message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the INFO message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void info(String msg, Object... params) {
+        log(Level.INFO, msg, params);
+    }
+
+    /**
+     * Log a CONFIG message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the CONFIG message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void config(String msg, Object... params) {
+        log(Level.CONFIG, msg, params);
+    }
+
+    /**
+     * Log a FINE message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the FINE message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void fine(String msg, Object... params) {
+        log(Level.FINE, msg, params);
+    }
+
+    /**
+     * Log a FINER message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the FINER message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void finer(String msg, Object... params) {
+        log(Level.FINER, msg, params);
+    }
+
+    /**
+     * Log a FINEST message, with an array of object arguments.
+     * <p>
+     * If the logger is currently enabled for the FINEST message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  The message is
+     * formatted with its parameters only if a Handler publishes the
+     * record, and the record is not created at all if it would
+     * certainly be discarded.
+     * <p>
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   params  array of parameters to the message
+     * @since   1.8
+     */
+    public void finest(String msg, Object... params) {
+        log(Level.FINEST, msg, params);
+    }
+
     //================================================================
     // End of convenience methods
     //================================================================
@@ -1722,6 +1860,39 @@ public class Logger {
         return true;
     }
 
+    // Private support method for the logging methods that create their
+    // own LogRecord.  In addition to the level check of isLoggable, it
+    // returns false if none of the handlers the record would be posted to
+    // would publish a record of that level.  A record dropped here is
+    // never created, so neither its message supplier nor the inference of
+    // its caller is run.  This is only done when nothing else could observe
+    // the record, that is when this logger and all the loggers whose
+    // handlers are consulted are plain loggers and this logger has no
+    // filter.  Like isLoggable, this takes no locks.
+    private boolean isPublishable(Level level) {
+        final int value = level.intValue();
+        if (value < levelValue || levelValue == offValue) {
+            return false;
+        }
+        if (filter != null) {
+            return true;
+        }
+        Logger logger = this;
+        while (logger != null) {
+            if (!logger.isPlainLogger) {
+                return true;
+            }
+            if (logger.handlersMayPublish(value)) {
+                return true;
+            }
+            if (!logger.useParentHandlers) {
+                break;
+            }
+            logger = logger.parent;
+        }
+        return false;
+    }
+
     /**
      * Get the name for this logger.
      * @return logger name.  Will be null for anonymous Loggers.
@@ -1782,6 +1953,19 @@ public class Logger {
         return handlers.toArray(emptyHandlers);
     }
 
+    // Tells whether any handler of this logger may publish a record of
+    // the given level value.  Unlike accessCheckedHandlers it reads the
+    // handler list in place, as isPublishable must not allocate.  Also
+    // overridden by LogManager.RootLogger.
+    boolean handlersMayPublish(int value) {
+        for (Handler handler : handlers) {
+            if (handler.mayPublish(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Specify whether or not this logger should send its output
      * to its parent Logger.  This means that any LogRecords will
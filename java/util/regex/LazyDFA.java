@@ -0,0 +1,1482 @@
+/*
+ * Copyright (c) 1999, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A matching engine for {@link Pattern#DFA} patterns that runs in time
+ * linear in the length of the input.
+ *
+ * <p> The pattern is parsed again, independently of the node tree built by
+ * Pattern, into a Thompson NFA program.  Matching simulates the program
+ * with a deterministic automaton whose states are the ordered sets of NFA
+ * threads, built lazily as the input requires them and cached for reuse
+ * by all matchers of the pattern.  Keeping the threads in priority order,
+ * and dropping those of lower priority than a thread that has matched,
+ * gives the same leftmost-first semantics as the backtracking engine.
+ *
+ * <p> A find runs the automaton forward, restarting the program at every
+ * position until a match is seen, to locate the end of the leftmost
+ * match; a second automaton, for the reversed program, then runs backward
+ * from that end to locate its start.  As with the backtracking engine,
+ * the positions tried include the low surrogate of a surrogate pair, which
+ * is then read as an unpaired surrogate.  Capturing groups other than
+ * group 0 are found by simulating a third program, with instructions that
+ * save the position of each group boundary, over the span of the match:
+ * each thread of the simulation carries its own copy of the group
+ * positions, and the threads are kept in priority order with at most one
+ * per instruction, so this also takes time linear in the length of the
+ * match.
+ *
+ * <p> The engine for a {@link PatternSet} runs one program with a MATCH
+ * for each pattern of the set, without priorities and without the
+ * reversed program, and reports every position at which some pattern has
+ * a match ending.
+ *
+ * <p> Only a subset of the pattern syntax is supported: literals and
+ * escapes, character classes without unions or intersections,
+ * predefined classes, the dot, grouping, alternation, greedy and
+ * reluctant quantifiers of expressions that cannot match the empty
+ * string, and the non-multiline boundary matchers
+ * {@code ^ $ \A \Z \z}.  {@link #compile} returns null for any other
+ * construct or flag, and the pattern is then matched by backtracking.
+ */
+final class LazyDFA {
+
+    /**
+     * Thrown by the parser for constructs the engine does not support.
+     */
+    private static final class Unsupported extends Exception {
+        private static final long serialVersionUID = 1L;
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Unsupported UNSUPPORTED = new Unsupported();
+
+    // The most NFA instructions a program may have, bounding the size of
+    // counted repetitions.
+    private static final int MAX_INSTS = 10000;
+
+    // The most automaton states cached per program before the cache is
+    // flushed.
+    private static final int MAX_STATES = 10000;
+
+    private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+    // Instruction opcodes
+    private static final int CHAR   = 0;  // consume a code point in a set
+    private static final int SPLIT  = 1;  // continue at x, then at y
+    private static final int MATCH  = 2;  // accept
+    private static final int BEGIN  = 3;  // assert \A, ^
+    private static final int END    = 4;  // assert \z
+    private static final int DOLLAR = 5;  // assert $, \Z
+    private static final int UNIX_DOLLAR = 6;  // assert $, \Z in UNIX_LINES
+    private static final int SAVE   = 7;  // record the position in slot y
+
+    // Position flags, the assertions that hold at a position
+    private static final int F_BEGIN  = 1;
+    private static final int F_END    = 2;
+    private static final int F_DOLLAR = 4;
+    private static final int F_UNIX_DOLLAR = 8;
+
+    private final Pattern pattern;  // the pattern, or null for a set
+    private final Prog forward;     // program for the patterns
+    private final Prog reverse;     // program for the reversed pattern
+    private final Prog saves;       // program saving group positions, or null
+    private final int[] bounds;     // starts of the code point classes
+    private final byte[] asciiClass;
+    private final boolean hasAsserts;
+    private final boolean hasEnd;       // uses \z
+    private final int dollarFlags;      // flags of the kinds of $ used
+    private final boolean anchored;     // can only start at the beginning
+
+    private LazyDFA(Pattern pattern, Node[] res) throws Unsupported {
+        this.pattern = pattern;
+        boolean begin = false, end = false;
+        int dollar = 0;
+        for (Node re : res) {
+            begin |= re.uses(BEGIN);
+            end |= re.uses(END);
+            if (re.uses(DOLLAR))
+                dollar |= F_DOLLAR;
+            if (re.uses(UNIX_DOLLAR))
+                dollar |= F_UNIX_DOLLAR;
+        }
+        this.hasEnd = end;
+        this.dollarFlags = dollar;
+        this.hasAsserts = begin || end || dollar != 0;
+        ArrayList<int[]> sets = new ArrayList<>();
+        forward = new Prog(res, false, false, sets);
+        reverse = (pattern != null) ? new Prog(res, true, false, sets) : null;
+        if (pattern != null && pattern.capturingGroupCount > 1) {
+            if (res[0].groups() + 1 != pattern.capturingGroupCount)
+                throw UNSUPPORTED;
+            // Its sets are those of the forward program.
+            saves = new Prog(res, false, true, new ArrayList<int[]>());
+        } else {
+            saves = null;
+        }
+
+        // Partition the code points into classes that no set of the
+        // programs distinguishes.
+        int[] edges = new int[2 * sets.size() + 1];
+        int n = 0;
+        edges[n++] = 0;
+        for (int[] set : sets) {
+            for (int i = 0; i < set.length; i += 2) {
+                if (n + 2 > edges.length)
+                    edges = Arrays.copyOf(edges, edges.length * 2);
+                edges[n++] = set[i];
+                edges[n++] = set[i + 1] + 1;
+            }
+        }
+        Arrays.sort(edges, 0, n);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (edges[i] <= MAX_CODE_POINT && (m == 0 || edges[i] != edges[m - 1]))
+                edges[m++] = edges[i];
+        }
+        bounds = Arrays.copyOf(edges, m);
+        asciiClass = new byte[128];
+        int cls = 0;
+        for (int c = 0; c < 128; c++) {
+            while (cls + 1 < bounds.length && bounds[cls + 1] <= c)
+                cls++;
+            asciiClass[c] = (byte)cls;
+        }
+        forward.classify(bounds);
+        if (reverse != null)
+            reverse.classify(bounds);
+        if (saves != null)
+            saves.classify(bounds);
+        State s = forward.start(0, false, true);
+        anchored = s.insts.length == 0 && !s.match;
+    }
+
+    /**
+     * Returns an engine for the given pattern, or null if the pattern uses
+     * constructs or flags the engine does not support.
+     */
+    static LazyDFA compile(Pattern pattern, String regex, int flags) {
+        try {
+            return new LazyDFA(pattern, new Node[] { parse(regex, flags) });
+        } catch (Unsupported x) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns an engine that matches all of the given patterns in a
+     * single pass, for a PatternSet.
+     *
+     * @throws IllegalArgumentException if a pattern uses constructs or
+     *         flags the engine does not support
+     */
+    static LazyDFA compileSet(Pattern[] patterns) {
+        Node[] res = new Node[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            Pattern p = patterns[i];
+            try {
+                res[i] = parse(p.pattern(), p.flags());
+            } catch (Unsupported x) {
+                throw new IllegalArgumentException(
+                    "Pattern not supported in a set: " + p.pattern());
+            }
+        }
+        try {
+            return new LazyDFA(null, res);
+        } catch (Unsupported x) {
+            throw new IllegalArgumentException("Patterns too large");
+        }
+    }
+
+    private static Node parse(String regex, int flags) throws Unsupported {
+        if ((flags & (Pattern.COMMENTS | Pattern.CANON_EQ |
+                      Pattern.UNICODE_CHARACTER_CLASS)) != 0)
+            throw UNSUPPORTED;
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)) ==
+            (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE))
+            throw UNSUPPORTED;
+        return new Parser(regex, flags).parse();
+    }
+
+    /**
+     * Finds the leftmost match at or after from within the region of the
+     * matcher, as Matcher.search does.
+     */
+    boolean search(Matcher m, int from) {
+        int to = m.to;
+        int begin = m.anchoringBounds ? m.from : 0;
+        int end = m.anchoringBounds ? to : m.getTextLength();
+        int e = run(forward, m, from, to, begin, end, true, true);
+        if (e < 0)
+            return false;
+        int s = runReverse(m, from, e, begin, end);
+        return accept(m, s, e, begin, end);
+    }
+
+    /**
+     * Matches at from, as Matcher.match does, up to the end of the region
+     * if anchor is Matcher.ENDANCHOR.
+     */
+    boolean match(Matcher m, int from, int anchor) {
+        int to = m.to;
+        int begin = m.anchoringBounds ? m.from : 0;
+        int end = m.anchoringBounds ? to : m.getTextLength();
+        boolean toEnd = anchor == Matcher.ENDANCHOR;
+        // Matching the whole region needs any match that reaches its
+        // end, not the preferred one, so priorities are not applied.
+        int e = run(forward, m, from, to, begin, end, false, !toEnd);
+        if (e < 0 || (toEnd && e != to))
+            return false;
+        return accept(m, from, e, begin, end);
+    }
+
+    /*
+     * Records a match from s to e in the matcher.
+     */
+    private boolean accept(Matcher m, int s, int e, int begin, int end) {
+        // As with the backtracking engine, a match at the end of input
+        // hits the end, and one that needs $ to hold also requires it.
+        if (hasEnd && e == end) {
+            m.hitEnd = true;
+        }
+        m.requireEnd = false;
+        if ((flagsAt(m.text, e, -1, end) & dollarFlags) != 0) {
+            m.hitEnd = true;
+            m.requireEnd = true;
+        }
+        if (saves != null)
+            findGroups(m, s, e, begin, end);
+        m.first = s;
+        m.last = e;
+        m.groups[0] = s;
+        m.groups[1] = e;
+        return true;
+    }
+
+    /**
+     * The scratch space of a matcher for finding groups: the threads at
+     * the current and the next position, in priority order, each with
+     * its instruction and its group positions.
+     */
+    static final class Threads {
+        final Prog prog;
+        final int nslots;
+        int[] pcs, nextPcs;
+        int[] slots, nextSlots;
+        int count, nextCount;
+        final int[] mark;           // gen of the list holding each pc
+        int gen;
+        final int[] stack;
+        final int[] saved;          // slot values to restore, by stack index
+        final int[] cur;            // the group positions being followed
+
+        Threads(Prog prog, int ngroups) {
+            this.prog = prog;
+            this.nslots = 2 * ngroups;
+            int n = 0;
+            for (int pc = 0; pc < prog.size; pc++) {
+                if (prog.op[pc] == CHAR || prog.op[pc] == MATCH)
+                    n++;
+            }
+            pcs = new int[n];
+            nextPcs = new int[n];
+            slots = new int[n * nslots];
+            nextSlots = new int[n * nslots];
+            mark = new int[prog.size];
+            stack = new int[2 * prog.size + 1];
+            saved = new int[2 * prog.size + 1];
+            cur = new int[nslots];
+        }
+
+        void clearNext() {
+            nextCount = 0;
+            if (++gen == 0) {
+                Arrays.fill(mark, 0);
+                gen = 1;
+            }
+        }
+    }
+
+    /*
+     * Fills in the groups of the match from s to e by simulating the
+     * program with SAVE instructions from s, and taking the thread of
+     * highest priority that reaches MATCH at e.  That thread follows the
+     * path the backtracking engine would take, since no thread of higher
+     * priority matches at all.
+     */
+    private void findGroups(Matcher m, int s, int e, int begin, int end) {
+        Prog prog = saves;
+        Threads t = m.dfaThreads;
+        if (t == null || t.prog != prog)
+            m.dfaThreads = t = new Threads(prog, pattern.capturingGroupCount);
+        CharSequence seq = m.text;
+        int to = m.to;
+        int nslots = t.nslots;
+        Arrays.fill(t.cur, -1);
+        t.clearNext();
+        addThread(t, prog.start, s, flagsAt(seq, s, begin, end));
+        int p = s;
+        for (;;) {
+            int[] a = t.pcs; t.pcs = t.nextPcs; t.nextPcs = a;
+            a = t.slots; t.slots = t.nextSlots; t.nextSlots = a;
+            t.count = t.nextCount;
+            t.clearNext();
+            if (p >= e || t.count == 0)
+                break;
+            int c = seq.charAt(p++);
+            if (Character.isHighSurrogate((char)c) && p < to) {
+                char c2 = seq.charAt(p);
+                if (Character.isLowSurrogate(c2)) {
+                    c = Character.toCodePoint((char)c, c2);
+                    p++;
+                }
+            }
+            int cls = classOf(c);
+            int f = flagsAt(seq, p, begin, end);
+            for (int i = 0; i < t.count; i++) {
+                int pc = t.pcs[i];
+                if (prog.op[pc] == CHAR &&
+                    (prog.classes[pc][cls >>> 6] & (1L << cls)) != 0) {
+                    System.arraycopy(t.slots, i * nslots, t.cur, 0, nslots);
+                    addThread(t, prog.x[pc], p, f);
+                }
+            }
+        }
+        if (p == e) {
+            for (int i = 0; i < t.count; i++) {
+                if (prog.op[t.pcs[i]] == MATCH) {
+                    System.arraycopy(t.slots, i * nslots, m.groups, 0, nslots);
+                    return;
+                }
+            }
+        }
+        throw new InternalError("no groups for match");
+    }
+
+    /*
+     * Adds to the next list of t, in priority order, the threads at
+     * CHAR or MATCH instructions reachable from pc at position p, where
+     * the assertions in flags hold, with the group positions of t.cur
+     * updated by the SAVE instructions on the way.
+     */
+    private void addThread(Threads t, int pc, int p, int flags) {
+        Prog prog = saves;
+        int gen = t.gen;
+        int[] stack = t.stack, saved = t.saved, cur = t.cur;
+        int sp = 0;
+        stack[sp++] = pc;
+        while (sp > 0) {
+            pc = stack[--sp];
+            if (pc < 0) {
+                // restore a slot on leaving the SAVE that set it
+                cur[-pc - 1] = saved[sp];
+                continue;
+            }
+            if (t.mark[pc] == gen)
+                continue;
+            t.mark[pc] = gen;
+            switch (prog.op[pc]) {
+            case CHAR:
+            case MATCH: {
+                int i = t.nextCount++;
+                t.nextPcs[i] = pc;
+                System.arraycopy(cur, 0, t.nextSlots, i * t.nslots, t.nslots);
+                break;
+            }
+            case SPLIT:
+                stack[sp++] = prog.y[pc];
+                stack[sp++] = prog.x[pc];
+                break;
+            case SAVE: {
+                int slot = prog.y[pc];
+                saved[sp] = cur[slot];
+                stack[sp++] = -slot - 1;
+                cur[slot] = p;
+                stack[sp++] = prog.x[pc];
+                break;
+            }
+            case BEGIN:
+                if ((flags & F_BEGIN) != 0)
+                    stack[sp++] = prog.x[pc];
+                break;
+            case END:
+                if ((flags & F_END) != 0)
+                    stack[sp++] = prog.x[pc];
+                break;
+            case DOLLAR:
+                if ((flags & F_DOLLAR) != 0)
+                    stack[sp++] = prog.x[pc];
+                break;
+            case UNIX_DOLLAR:
+                if ((flags & F_UNIX_DOLLAR) != 0)
+                    stack[sp++] = prog.x[pc];
+                break;
+            }
+        }
+    }
+
+    /*
+     * Returns the assertions that hold at position p.
+     */
+    private int flagsAt(CharSequence seq, int p, int begin, int end) {
+        if (!hasAsserts)
+            return 0;
+        int f = (p == begin) ? F_BEGIN : 0;
+        if (p == end) {
+            f |= F_END | F_DOLLAR | F_UNIX_DOLLAR;
+        } else if (p >= end - 2 && p < end) {
+            // $ also holds before a line terminator ending the input
+            char ch = seq.charAt(p);
+            if (p == end - 1 && ch == '\n')
+                f |= F_UNIX_DOLLAR;
+            if (p == end - 2) {
+                if (ch == '\r' && seq.charAt(p + 1) == '\n')
+                    f |= F_DOLLAR;
+            } else if (ch == '\n') {
+                if (p == 0 || seq.charAt(p - 1) != '\r')
+                    f |= F_DOLLAR;
+            } else if (ch == '\r' || ch == '\u0085' || (ch|1) == '\u2029') {
+                f |= F_DOLLAR;
+            }
+        }
+        return f;
+    }
+
+    private int classOf(int cp) {
+        if (cp < 128)
+            return asciiClass[cp];
+        int[] b = bounds;
+        int lo = 0, hi = b.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (b[mid] <= cp)
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /*
+     * Runs the forward program from position from, returning the end of
+     * the preferred match (or with cut false, of the longest match), or
+     * -1 if there is none.  If restart is true the program is started
+     * anew at every position until a match has been seen, including at
+     * the low surrogate of a pair, as the backtracking engine does.
+     */
+    private int run(Prog prog, Matcher m, int from, int to, int begin, int end,
+                    boolean restart, boolean cut) {
+        CharSequence seq = m.text;
+        int p = from;
+        State s = prog.start(flagsAt(seq, p, begin, end), restart, cut);
+        int matchEnd = -1;
+        for (;;) {
+            if (s.match)
+                matchEnd = p;
+            if (s.insts.length == 0 && !s.restart)
+                break;
+            if (p >= to) {
+                if (s.insts.length > 0 || (s.restart && !anchored))
+                    m.hitEnd = true;
+                break;
+            }
+            int c = seq.charAt(p++);
+            int low = -1;
+            if (Character.isHighSurrogate((char)c) && p < to) {
+                char c2 = seq.charAt(p);
+                if (Character.isLowSurrogate(c2)) {
+                    c = Character.toCodePoint((char)c, c2);
+                    low = c2;
+                    p++;
+                }
+            }
+            int cls = classOf(c);
+            int f = flagsAt(seq, p, begin, end);
+            State next;
+            if (low >= 0 && s.restart)
+                next = prog.stepPair(s, cls, f, classOf(low),
+                                     flagsAt(seq, p - 1, begin, end));
+            else if (f != 0 || (next = s.next[cls]) == null)
+                next = prog.step(s, cls, f);
+            s = next;
+        }
+        return matchEnd;
+    }
+
+    /**
+     * Reports to the handler the end of each match of each pattern of a
+     * set in seq, in order of position and then of pattern, until the
+     * handler returns false.
+     */
+    void scan(CharSequence seq, PatternSet.MatchHandler handler) {
+        Prog prog = forward;
+        int to = seq.length();
+        int p = 0;
+        State s = prog.start(flagsAt(seq, p, 0, to), true, false);
+        for (;;) {
+            for (int i : s.matches) {
+                if (!handler.match(i, p))
+                    return;
+            }
+            if (p >= to)
+                return;
+            int c = seq.charAt(p++);
+            int low = -1;
+            if (Character.isHighSurrogate((char)c) && p < to) {
+                char c2 = seq.charAt(p);
+                if (Character.isLowSurrogate(c2)) {
+                    c = Character.toCodePoint((char)c, c2);
+                    low = c2;
+                    p++;
+                }
+            }
+            int cls = classOf(c);
+            int f = flagsAt(seq, p, 0, to);
+            State next;
+            if (low >= 0)
+                next = prog.stepPair(s, cls, f, classOf(low),
+                                     flagsAt(seq, p - 1, 0, to));
+            else if (f != 0 || (next = s.next[cls]) == null)
+                next = prog.step(s, cls, f);
+            s = next;
+        }
+    }
+
+    /*
+     * Runs the reverse program backward from e, returning the smallest
+     * position, not before lo, at which a match ending at e starts.
+     */
+    private int runReverse(Matcher m, int lo, int e, int begin, int end) {
+        CharSequence seq = m.text;
+        Prog prog = reverse;
+        int p = e;
+        State s = prog.start(flagsAt(seq, p, begin, end), false, false);
+        int matchStart = -1;
+        for (;;) {
+            if (s.match)
+                matchStart = p;
+            if (s.insts.length == 0 || p <= lo)
+                break;
+            int c = seq.charAt(--p);
+            if (Character.isLowSurrogate((char)c) && p > lo) {
+                char c1 = seq.charAt(p - 1);
+                if (Character.isHighSurrogate(c1)) {
+                    // A match may also start at the low surrogate, which
+                    // is then read alone.
+                    int cls = classOf(c);
+                    int f = flagsAt(seq, p, begin, end);
+                    State mid;
+                    if (f != 0 || (mid = s.next[cls]) == null)
+                        mid = prog.step(s, cls, f);
+                    if (mid.match)
+                        matchStart = p;
+                    c = Character.toCodePoint(c1, (char)c);
+                    p--;
+                }
+            }
+            int cls = classOf(c);
+            int f = flagsAt(seq, p, begin, end);
+            State next;
+            if (f != 0 || (next = s.next[cls]) == null)
+                next = prog.step(s, cls, f);
+            s = next;
+        }
+        return matchStart;
+    }
+
+    /**
+     * A state of the automaton: the threads of the NFA at a position, in
+     * priority order, each at a CHAR instruction.
+     */
+    private static final class State {
+        final int[] insts;
+        final int[] matches;    // the patterns whose MATCH has been reached
+        final boolean match;    // a thread has reached MATCH
+        final boolean restart;  // the program is started at each position
+        final boolean cut;      // threads after a match are dropped
+        final int hash;
+        final State[] next;     // transitions, by class, into positions
+                                // where no assertion holds
+
+        State(int[] insts, int[] matches, boolean restart, boolean cut,
+              int nclasses) {
+            this.insts = insts;
+            this.matches = matches;
+            this.match = matches.length > 0;
+            this.restart = restart;
+            this.cut = cut;
+            this.hash = (Arrays.hashCode(insts) * 31 +
+                         Arrays.hashCode(matches)) * 4
+                + (restart ? 2 : 0) + (cut ? 1 : 0);
+            this.next = (nclasses == 0) ? null : new State[nclasses];
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof State))
+                return false;
+            State s = (State)o;
+            return hash == s.hash && restart == s.restart && cut == s.cut &&
+                Arrays.equals(insts, s.insts) &&
+                Arrays.equals(matches, s.matches);
+        }
+    }
+
+    /**
+     * An NFA program, with the cache of automaton states built from it.
+     */
+    private static final class Prog {
+        int[] op = new int[16];
+        int[] x = new int[16];
+        int[] y = new int[16];
+        int[][] sets = new int[16][];   // code point ranges of CHAR
+        long[][] classes;               // classes of CHAR, as bit sets
+        int size;
+        int start;
+        int nclasses;
+        final boolean saving;   // capturing groups emit SAVE instructions
+
+        // The state cache and the scratch space for building states,
+        // guarded by this program
+        private final HashMap<State, State> states = new HashMap<>();
+        private final State[] starts = new State[64];
+        private final int maxInsts;
+        private int[] mark;
+        private int gen;
+        private int[] stack;
+        private int[] list;
+        private int[] found;
+
+        Prog(Node[] res, boolean reversed, boolean saving,
+             ArrayList<int[]> allSets)
+            throws Unsupported
+        {
+            // Each pattern has its own MATCH, and the patterns are tried
+            // in order.
+            this.saving = saving;
+            maxInsts = MAX_INSTS * res.length;
+            int[] first = new int[res.length];
+            for (int i = 0; i < res.length; i++)
+                first[i] = emit(res[i], inst(MATCH, i, 0, null), reversed);
+            start = first[res.length - 1];
+            for (int i = res.length - 2; i >= 0; i--)
+                start = inst(SPLIT, first[i], start, null);
+            for (int pc = 0; pc < size; pc++) {
+                if (op[pc] == CHAR)
+                    allSets.add(sets[pc]);
+            }
+            mark = new int[size];
+            stack = new int[size * 2 + 2];
+            list = new int[size];
+            found = new int[res.length];
+        }
+
+        private int inst(int o, int nx, int ny, int[] set) throws Unsupported {
+            if (size == maxInsts)
+                throw UNSUPPORTED;
+            if (size == op.length) {
+                int n = size * 2;
+                op = Arrays.copyOf(op, n);
+                x = Arrays.copyOf(x, n);
+                y = Arrays.copyOf(y, n);
+                sets = Arrays.copyOf(sets, n);
+            }
+            op[size] = o;
+            x[size] = nx;
+            y[size] = ny;
+            sets[size] = set;
+            return size++;
+        }
+
+        /*
+         * Emits the code for node n followed by the code at k, and
+         * returns the first instruction.
+         */
+        private int emit(Node n, int k, boolean reversed) throws Unsupported {
+            switch (n.kind) {
+            case Node.EMPTY:
+                return k;
+            case Node.SET:
+                return inst(CHAR, k, 0, n.set);
+            case Node.ASSERT:
+                return inst(n.min, k, 0, null);
+            case Node.CAT:
+                if (reversed) {
+                    for (int i = 0; i < n.kids.length; i++)
+                        k = emit(n.kids[i], k, true);
+                } else {
+                    for (int i = n.kids.length - 1; i >= 0; i--)
+                        k = emit(n.kids[i], k, false);
+                }
+                return k;
+            case Node.ALT: {
+                int pc = emit(n.kids[n.kids.length - 1], k, reversed);
+                for (int i = n.kids.length - 2; i >= 0; i--)
+                    pc = inst(SPLIT, emit(n.kids[i], k, reversed), pc, null);
+                return pc;
+            }
+            case Node.GROUP:
+                if (!saving)
+                    return emit(n.kids[0], k, reversed);
+                k = inst(SAVE, k, 2 * n.min + 1, null);
+                return inst(SAVE, emit(n.kids[0], k, reversed), 2 * n.min, null);
+            case Node.REP: {
+                Node body = n.kids[0];
+                int t;
+                if (n.max < 0) {
+                    t = inst(SPLIT, 0, 0, null);
+                    int b = emit(body, t, reversed);
+                    x[t] = n.greedy ? b : k;
+                    y[t] = n.greedy ? k : b;
+                } else {
+                    t = k;
+                    for (int i = n.min; i < n.max; i++) {
+                        int b = emit(body, t, reversed);
+                        t = n.greedy ? inst(SPLIT, b, k, null)
+                                     : inst(SPLIT, k, b, null);
+                    }
+                }
+                for (int i = 0; i < n.min; i++)
+                    t = emit(body, t, reversed);
+                return t;
+            }
+            default:
+                throw new InternalError();
+            }
+        }
+
+        /*
+         * Computes for each CHAR the set of code point classes it accepts.
+         */
+        void classify(int[] bounds) {
+            nclasses = bounds.length;
+            classes = new long[size][];
+            for (int pc = 0; pc < size; pc++) {
+                if (op[pc] != CHAR)
+                    continue;
+                long[] bits = new long[(nclasses + 63) >>> 6];
+                int[] set = sets[pc];
+                for (int i = 0; i < set.length; i += 2) {
+                    int c = Arrays.binarySearch(bounds, set[i]);
+                    for (; c < nclasses && bounds[c] <= set[i + 1]; c++)
+                        bits[c >>> 6] |= 1L << c;
+                }
+                classes[pc] = bits;
+            }
+        }
+
+        synchronized State start(int flags, boolean restart, boolean cut) {
+            int key = flags | (restart ? 16 : 0) | (cut ? 32 : 0);
+            State s = starts[key];
+            if (s == null) {
+                int[] kernel = restart ? new int[0] : new int[] { start };
+                s = starts[key] = state(kernel, kernel.length, flags, restart, cut);
+            }
+            return s;
+        }
+
+        /*
+         * Returns the state following s on a code point of class cls, at
+         * a position where the assertions in flags hold.
+         */
+        synchronized State step(State s, int cls, int flags) {
+            int[] insts = s.insts;
+            int[] kernel = new int[insts.length];
+            int n = 0;
+            for (int pc : insts) {
+                if ((classes[pc][cls >>> 6] & (1L << cls)) != 0)
+                    kernel[n++] = x[pc];
+            }
+            State next = state(kernel, n, flags,
+                               s.restart && !(s.cut && s.match), s.cut);
+            if (flags == 0)
+                s.next[cls] = next;
+            return next;
+        }
+
+        /*
+         * Returns the state following s on a surrogate pair of class
+         * cls, where the assertions in flags hold, when the program is
+         * also started at the low surrogate of the pair, of class lowCls,
+         * where midFlags hold.  The transition is not cached unless the
+         * program cannot start with lowCls.
+         */
+        synchronized State stepPair(State s, int cls, int flags,
+                                    int lowCls, int midFlags) {
+            boolean restart = s.restart && !(s.cut && s.match);
+            int[] mid = restart ? start(midFlags, false, s.cut).insts
+                                : new int[0];
+            int extra = 0;
+            for (int pc : mid) {
+                if ((classes[pc][lowCls >>> 6] & (1L << lowCls)) != 0)
+                    extra++;
+            }
+            if (extra == 0)
+                return step(s, cls, flags);
+            int[] insts = s.insts;
+            int[] kernel = new int[insts.length + extra];
+            int n = 0;
+            for (int pc : insts) {
+                if ((classes[pc][cls >>> 6] & (1L << cls)) != 0)
+                    kernel[n++] = x[pc];
+            }
+            // The threads started at the low surrogate follow those
+            // started earlier.
+            for (int pc : mid) {
+                if ((classes[pc][lowCls >>> 6] & (1L << lowCls)) != 0)
+                    kernel[n++] = x[pc];
+            }
+            return state(kernel, n, flags, restart, s.cut);
+        }
+
+        /*
+         * Returns the state of the threads starting at the instructions
+         * of the kernel, in priority order, followed if restart is true by
+         * a thread at the start of the program.
+         */
+        private State state(int[] kernel, int klen, int flags,
+                            boolean restart, boolean cut) {
+            if (++gen == 0) {
+                Arrays.fill(mark, 0);
+                gen = 1;
+            }
+            int n = 0, nfound = 0;
+            for (int i = 0; i <= klen; i++) {
+                int pc;
+                if (i < klen)
+                    pc = kernel[i];
+                else if (restart)
+                    pc = start;
+                else
+                    break;
+                // Depth first, so that x and all that follows it comes
+                // before y.
+                int sp = 0;
+                stack[sp++] = pc;
+                while (sp > 0) {
+                    pc = stack[--sp];
+                    if (mark[pc] == gen)
+                        continue;
+                    mark[pc] = gen;
+                    switch (op[pc]) {
+                    case CHAR:
+                        list[n++] = pc;
+                        break;
+                    case MATCH:
+                        found[nfound++] = x[pc];
+                        if (cut) {
+                            // Threads of lower priority cannot change
+                            // the outcome.
+                            i = klen;
+                            restart = false;
+                            sp = 0;
+                        }
+                        break;
+                    case SPLIT:
+                        stack[sp++] = y[pc];
+                        stack[sp++] = x[pc];
+                        break;
+                    case BEGIN:
+                        if ((flags & F_BEGIN) != 0)
+                            stack[sp++] = x[pc];
+                        break;
+                    case END:
+                        if ((flags & F_END) != 0)
+                            stack[sp++] = x[pc];
+                        break;
+                    case DOLLAR:
+                        if ((flags & F_DOLLAR) != 0)
+                            stack[sp++] = x[pc];
+                        break;
+                    case UNIX_DOLLAR:
+                        if ((flags & F_UNIX_DOLLAR) != 0)
+                            stack[sp++] = x[pc];
+                        break;
+                    }
+                }
+            }
+            int[] matches = Arrays.copyOf(found, nfound);
+            Arrays.sort(matches);
+            State key = new State(Arrays.copyOf(list, n), matches, restart, cut, 0);
+            State s = states.get(key);
+            if (s == null) {
+                if (states.size() >= MAX_STATES) {
+                    // Flush the cache; states still referenced by running
+                    // matchers remain valid.
+                    for (State old : states.values())
+                        Arrays.fill(old.next, null);
+                    states.clear();
+                    Arrays.fill(starts, null);
+                }
+                s = new State(key.insts, matches, restart, cut, nclasses);
+                states.put(s, s);
+            }
+            return s;
+        }
+    }
+
+    /**
+     * A node of the parsed regular expression.
+     */
+    private static final class Node {
+        static final int EMPTY  = 0;
+        static final int SET    = 1;   // a code point in set
+        static final int ASSERT = 2;   // the assertion opcode in min
+        static final int CAT    = 3;
+        static final int ALT    = 4;
+        static final int REP    = 5;   // kids[0] min to max (-1) times
+        static final int GROUP  = 6;   // kids[0] captured as group min
+
+        final int kind;
+        int[] set;
+        Node[] kids;
+        int min, max;
+        boolean greedy;
+
+        Node(int kind) {
+            this.kind = kind;
+        }
+
+        static Node set(int[] set) {
+            Node n = new Node(SET);
+            n.set = set;
+            return n;
+        }
+
+        boolean nullable() {
+            switch (kind) {
+            case EMPTY:
+            case ASSERT:
+                return true;
+            case SET:
+                return false;
+            case CAT:
+                for (Node k : kids) {
+                    if (!k.nullable())
+                        return false;
+                }
+                return true;
+            case ALT:
+                for (Node k : kids) {
+                    if (k.nullable())
+                        return true;
+                }
+                return false;
+            case GROUP:
+                return kids[0].nullable();
+            default:
+                return min == 0 || kids[0].nullable();
+            }
+        }
+
+        /*
+         * Returns the number of capturing groups.
+         */
+        int groups() {
+            int n = (kind == GROUP) ? 1 : 0;
+            if (kids != null) {
+                for (Node k : kids)
+                    n += k.groups();
+            }
+            return n;
+        }
+
+        boolean uses(int op) {
+            if (kind == ASSERT && min == op)
+                return true;
+            if (kids != null) {
+                for (Node k : kids) {
+                    if (k.uses(op))
+                        return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Parser for the supported subset of the pattern syntax.  The pattern
+     * has already been accepted by Pattern, so any construct not
+     * understood here is reported as unsupported rather than as an error.
+     */
+    private static final class Parser {
+        private final String p;
+        private final int flags;
+        private int i;
+        private int groupCount;     // capturing groups opened so far
+
+        Parser(String p, int flags) {
+            this.p = p;
+            this.flags = flags;
+        }
+
+        private boolean has(int f) {
+            return (flags & f) != 0;
+        }
+
+        Node parse() throws Unsupported {
+            if (has(Pattern.LITERAL)) {
+                ArrayList<Node> seq = new ArrayList<>();
+                while (i < p.length())
+                    seq.add(literal(next()));
+                return cat(seq);
+            }
+            Node n = alternation();
+            if (i != p.length())
+                throw UNSUPPORTED;
+            return n;
+        }
+
+        private int peek() {
+            return (i < p.length()) ? p.codePointAt(i) : -1;
+        }
+
+        private int next() throws Unsupported {
+            if (i >= p.length())
+                throw UNSUPPORTED;
+            int c = p.codePointAt(i);
+            i += Character.charCount(c);
+            return c;
+        }
+
+        private boolean accept(int c) {
+            if (peek() == c) {
+                i += Character.charCount(c);
+                return true;
+            }
+            return false;
+        }
+
+        private Node alternation() throws Unsupported {
+            ArrayList<Node> alts = new ArrayList<>();
+            alts.add(sequence());
+            while (accept('|'))
+                alts.add(sequence());
+            if (alts.size() == 1)
+                return alts.get(0);
+            Node n = new Node(Node.ALT);
+            n.kids = alts.toArray(new Node[0]);
+            return n;
+        }
+
+        private static Node cat(ArrayList<Node> seq) {
+            if (seq.isEmpty())
+                return new Node(Node.EMPTY);
+            if (seq.size() == 1)
+                return seq.get(0);
+            Node n = new Node(Node.CAT);
+            n.kids = seq.toArray(new Node[0]);
+            return n;
+        }
+
+        private Node sequence() throws Unsupported {
+            ArrayList<Node> seq = new ArrayList<>();
+            for (;;) {
+                int c = peek();
+                if (c == -1 || c == '|' || c == ')')
+                    break;
+                Node atom;
+                if (c == '\\' && p.startsWith("\\Q", i)) {
+                    // A quantifier after \Q...\E applies to its last char
+                    i += 2;
+                    int e = p.indexOf("\\E", i);
+                    String q = p.substring(i, (e < 0) ? p.length() : e);
+                    i = (e < 0) ? p.length() : e + 2;
+                    if (q.isEmpty())
+                        continue;
+                    int last = q.offsetByCodePoints(q.length(), -1);
+                    for (int j = 0; j < last; ) {
+                        int cp = q.codePointAt(j);
+                        seq.add(literal(cp));
+                        j += Character.charCount(cp);
+                    }
+                    atom = literal(q.codePointAt(last));
+                } else {
+                    atom = atom();
+                }
+                seq.add(quantified(atom));
+            }
+            return cat(seq);
+        }
+
+        private Node quantified(Node atom) throws Unsupported {
+            int min, max;
+            switch (peek()) {
+            case '*': i++; min = 0; max = -1; break;
+            case '+': i++; min = 1; max = -1; break;
+            case '?': i++; min = 0; max = 1; break;
+            case '{':
+                i++;
+                min = number();
+                if (accept(',')) {
+                    max = (peek() == '}') ? -1 : number();
+                } else {
+                    max = min;
+                }
+                if (!accept('}') || (max >= 0 && max < min))
+                    throw UNSUPPORTED;
+                break;
+            default:
+                return atom;
+            }
+            boolean greedy = true;
+            if (accept('?'))
+                greedy = false;
+            else if (peek() == '+')
+                throw UNSUPPORTED;      // possessive
+            int c = peek();
+            if (c == '*' || c == '+' || c == '?' || c == '{')
+                throw UNSUPPORTED;
+            // The backtracking engine ends a loop early on an iteration
+            // that matches the empty string, which an automaton cannot
+            // mimic.
+            if (atom.kind == Node.ASSERT || (max != 1 && atom.nullable()))
+                throw UNSUPPORTED;
+            Node n = new Node(Node.REP);
+            n.kids = new Node[] { atom };
+            n.min = min;
+            n.max = max;
+            n.greedy = greedy;
+            return n;
+        }
+
+        private int number() throws Unsupported {
+            int start = i;
+            long v = 0;
+            while (i < p.length() && p.charAt(i) >= '0' && p.charAt(i) <= '9') {
+                v = v * 10 + (p.charAt(i++) - '0');
+                if (v > MAX_INSTS)
+                    throw UNSUPPORTED;
+            }
+            if (i == start)
+                throw UNSUPPORTED;
+            return (int)v;
+        }
+
+        private Node atom() throws Unsupported {
+            int c = next();
+            switch (c) {
+            case '(':
+                // Groups are numbered by their opening parentheses, as
+                // in Pattern.
+                int group = -1;
+                if (accept('?')) {
+                    if (accept(':')) {
+                        // non-capturing group
+                    } else if (accept('<') && Character.isLetter(peek())) {
+                        // named group
+                        while (Character.isLetterOrDigit(peek()))
+                            i++;
+                        if (!accept('>'))
+                            throw UNSUPPORTED;
+                        group = ++groupCount;
+                    } else {
+                        throw UNSUPPORTED;
+                    }
+                } else {
+                    group = ++groupCount;
+                }
+                Node n = alternation();
+                if (!accept(')'))
+                    throw UNSUPPORTED;
+                if (group < 0)
+                    return n;
+                Node g = new Node(Node.GROUP);
+                g.kids = new Node[] { n };
+                g.min = group;
+                return g;
+            case '[':
+                return Node.set(charClass());
+            case '.':
+                if (has(Pattern.DOTALL))
+                    return Node.set(new int[] { 0, MAX_CODE_POINT });
+                if (has(Pattern.UNIX_LINES))
+                    return Node.set(complement(new int[] { '\n', '\n' }));
+                return Node.set(complement(LINE_TERMINATORS));
+            case '^':
+                if (has(Pattern.MULTILINE))
+                    throw UNSUPPORTED;
+                return assertion(BEGIN);
+            case '$':
+                if (has(Pattern.MULTILINE))
+                    throw UNSUPPORTED;
+                return assertion(has(Pattern.UNIX_LINES) ? UNIX_DOLLAR : DOLLAR);
+            case '\\':
+                return escape();
+            case '*': case '+': case '?': case '{': case ')': case ']':
+                throw UNSUPPORTED;
+            default:
+                return literal(c);
+            }
+        }
+
+        private static Node assertion(int op) {
+            Node n = new Node(Node.ASSERT);
+            n.min = op;
+            return n;
+        }
+
+        private Node escape() throws Unsupported {
+            int c = next();
+            switch (c) {
+            case 'A': return assertion(BEGIN);
+            case 'z': return assertion(END);
+            case 'Z': return assertion(has(Pattern.UNIX_LINES) ? UNIX_DOLLAR : DOLLAR);
+            default:
+                int[] set = predefined(c);
+                if (set != null)
+                    return Node.set(set);
+                return literal(escapedChar(c));
+            }
+        }
+
+        /*
+         * Returns the set for a predefined class escape, or null.
+         */
+        private static int[] predefined(int c) {
+            switch (c) {
+            case 'd': return DIGIT;
+            case 'D': return complement(DIGIT);
+            case 's': return SPACE;
+            case 'S': return complement(SPACE);
+            case 'w': return WORD;
+            case 'W': return complement(WORD);
+            case 'h': return HSPACE;
+            case 'H': return complement(HSPACE);
+            case 'v': return VSPACE;
+            case 'V': return complement(VSPACE);
+            default:  return null;
+            }
+        }
+
+        /*
+         * Returns the char denoted by an escape other than a class.
+         */
+        private int escapedChar(int c) throws Unsupported {
+            switch (c) {
+            case 't': return '\t';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 'f': return '\f';
+            case 'a': return '\u0007';
+            case 'e': return '\u001B';
+            case 'c': return next() ^ 64;
+            case '0': {
+                int v = 0, digits = 0;
+                int max = (peek() >= '0' && peek() <= '3') ? 3 : 2;
+                while (digits < max && peek() >= '0' && peek() <= '7') {
+                    v = v * 8 + (next() - '0');
+                    digits++;
+                }
+                if (digits == 0)
+                    throw UNSUPPORTED;
+                return v;
+            }
+            case 'x': {
+                if (accept('{')) {
+                    int e = p.indexOf('}', i);
+                    if (e < 0)
+                        throw UNSUPPORTED;
+                    int v = hex(p.substring(i, e));
+                    i = e + 1;
+                    return v;
+                }
+                int v = hex(p.substring(i, Math.min(i + 2, p.length())));
+                i += 2;
+                return v;
+            }
+            case 'u': {
+                int v = hex(p.substring(i, Math.min(i + 4, p.length())));
+                i += 4;
+                if (Character.isSurrogate((char)v))
+                    throw UNSUPPORTED;
+                return v;
+            }
+            default:
+                // Other letters and digits are boundaries, back references,
+                // properties and other unsupported constructs; anything
+                // else stands for itself.
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+                    (c >= '0' && c <= '9'))
+                    throw UNSUPPORTED;
+                return c;
+            }
+        }
+
+        private static int hex(String s) throws Unsupported {
+            if (s.isEmpty() || s.length() > 6)
+                throw UNSUPPORTED;
+            int v = 0;
+            for (int j = 0; j < s.length(); j++) {
+                int d = Character.digit(s.charAt(j), 16);
+                if (d < 0)
+                    throw UNSUPPORTED;
+                v = v * 16 + d;
+            }
+            if (v > MAX_CODE_POINT)
+                throw UNSUPPORTED;
+            return v;
+        }
+
+        private Node literal(int c) {
+            return Node.set(caseFold(new int[] { c, c }));
+        }
+
+        /*
+         * Parses a character class after its '['.
+         */
+        private int[] charClass() throws Unsupported {
+            boolean negated = accept('^');
+            if (peek() == ']')
+                throw UNSUPPORTED;
+            int[] set = new int[0];
+            while (!accept(']')) {
+                int c = next();
+                if (c == '[' || (c == '&' && peek() == '&'))
+                    throw UNSUPPORTED;
+                int lo;
+                if (c == '\\') {
+                    int e = next();
+                    int[] pre = predefined(e);
+                    if (pre != null) {
+                        set = union(set, pre);
+                        continue;
+                    }
+                    if (e == 'Q' || e == 'E')
+                        throw UNSUPPORTED;
+                    lo = escapedChar(e);
+                } else {
+                    lo = c;
+                }
+                int hi = lo;
+                if (peek() == '-' && i + 1 < p.length() && p.charAt(i + 1) != ']') {
+                    i++;
+                    int d = next();
+                    if (d == '[')
+                        throw UNSUPPORTED;
+                    if (d == '\\') {
+                        int e = next();
+                        if (predefined(e) != null || e == 'Q' || e == 'E')
+                            throw UNSUPPORTED;
+                        hi = escapedChar(e);
+                    } else {
+                        hi = d;
+                    }
+                    if (hi < lo)
+                        throw UNSUPPORTED;
+                }
+                set = union(set, caseFold(new int[] { lo, hi }));
+            }
+            return negated ? complement(set) : set;
+        }
+
+        /*
+         * Adds the other case of the ASCII letters in the set, if
+         * matching is case insensitive.
+         */
+        private int[] caseFold(int[] set) {
+            if (!has(Pattern.CASE_INSENSITIVE))
+                return set;
+            int[] r = set;
+            for (int j = 0; j < set.length; j += 2) {
+                int lo = Math.max(set[j], 'A'), hi = Math.min(set[j + 1], 'Z');
+                if (lo <= hi)
+                    r = union(r, new int[] { lo + 32, hi + 32 });
+                lo = Math.max(set[j], 'a');
+                hi = Math.min(set[j + 1], 'z');
+                if (lo <= hi)
+                    r = union(r, new int[] { lo - 32, hi - 32 });
+            }
+            return r;
+        }
+    }
+
+    // Sets of code points, as sorted and disjoint inclusive ranges
+
+    private static final int[] DIGIT = { '0', '9' };
+    private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+    private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+    private static final int[] HSPACE = {
+        '\t', '\t', ' ', ' ', 0xA0, 0xA0, 0x1680, 0x1680, 0x180e, 0x180e,
+        0x2000, 0x200a, 0x202f, 0x202f, 0x205f, 0x205f, 0x3000, 0x3000 };
+    private static final int[] VSPACE = {
+        '\n', '\r', 0x85, 0x85, 0x2028, 0x2029 };
+    private static final int[] LINE_TERMINATORS = {
+        '\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029 };
+
+    private static int[] complement(int[] set) {
+        int[] r = new int[set.length + 2];
+        int n = 0, next = 0;
+        for (int j = 0; j < set.length; j += 2) {
+            if (set[j] > next) {
+                r[n++] = next;
+                r[n++] = set[j] - 1;
+            }
+            next = set[j + 1] + 1;
+        }
+        if (next <= MAX_CODE_POINT) {
+            r[n++] = next;
+            r[n++] = MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(r, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] all = new int[a.length + b.length];
+        int na = 0, nb = 0, n = 0;
+        // merge by range start
+        while (na < a.length || nb < b.length) {
+            if (nb >= b.length || (na < a.length && a[na] <= b[nb])) {
+                all[n++] = a[na++];
+                all[n++] = a[na++];
+            } else {
+                all[n++] = b[nb++];
+                all[n++] = b[nb++];
+            }
+        }
+        // coalesce overlapping and adjacent ranges
+        int m = 0;
+        for (int j = 0; j < n; j += 2) {
+            if (m > 0 && all[j] <= all[m - 1] + 1) {
+                all[m - 1] = Math.max(all[m - 1], all[j + 1]);
+            } else {
+                all[m++] = all[j];
+                all[m++] = all[j + 1];
+            }
+        }
+        return Arrays.copyOf(all, m);
+    }
+}
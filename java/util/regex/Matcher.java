@@ -155,6 +155,12 @@ public final class Matcher implements MatchResult {
      */
     int oldLast = -1;
 
+    /**
+     * The index at which the required literal of the pattern was last
+     * found in the region, or -1.
+     */
+    int literalIndex = -1;
+
     /**
      * The index of the last position appended in a substitution.
      */
@@ -167,6 +173,12 @@ public final class Matcher implements MatchResult {
      */
     int[] locals;
 
+    /**
+     * Scratch space used by a DFA pattern to find capturing groups,
+     * allocated on first use.
+     */
+    LazyDFA.Threads dfaThreads;
+
     /**
      * Boolean indicating whether or not more input could change
      * the results of the last match.
@@ -283,6 +295,7 @@ public final class Matcher implements MatchResult {
             groups[i] = -1;
         for (int i = 0; i < locals.length; i++)
             locals[i] = -1;
+        literalIndex = -1;
         return this;
     }
 
@@ -307,6 +320,7 @@ public final class Matcher implements MatchResult {
         lastAppendPosition = 0;
         from = 0;
         to = getTextLength();
+        literalIndex = -1;
         return this;
     }
 
@@ -1245,13 +1259,66 @@ public final class Matcher implements MatchResult {
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         acceptMode = NOANCHOR;
-        boolean result = parentPattern.root.match(this, from, text);
+        boolean result;
+        LazyDFA dfa = parentPattern.dfa;
+        if (!containsLiteral(from)) {
+            // No match is possible; as with a failed search more input
+            // could change that.
+            hitEnd = true;
+            result = false;
+        } else if (dfa != null) {
+            result = dfa.search(this, from);
+        } else {
+            result = parentPattern.root.match(this, from, text);
+        }
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
         return result;
     }
 
+    /**
+     * Tells whether the required literal of the pattern, if it has one,
+     * occurs in the region at or after from.  The occurrence found is kept
+     * so that successive searches scan the text once.
+     */
+    private boolean containsLiteral(int from) {
+        String literal = parentPattern.requiredLiteral;
+        if (literal == null)
+            return true;
+        int n = literal.length();
+        if (literalIndex >= from && literalIndex + n <= to)
+            return true;
+        int k = -1;
+        int max = to - n;
+        if (from > max) {
+            // The literal does not fit in the rest of the region.
+        } else if (to == text.length() && text instanceof String) {
+            // The region runs to the end of the text, so the word-at-a-time
+            // search of String and StringBuilder stays within it.
+            k = ((String)text).indexOf(literal, from);
+        } else if (to == text.length() && text instanceof StringBuilder) {
+            k = ((StringBuilder)text).indexOf(literal, from);
+        } else {
+            // Search only [from, to - n]; an unbounded indexOf would scan to
+            // the end of the text on every search of a small region.
+            char c = literal.charAt(0);
+        search:
+            for (int i = from; i <= max; i++) {
+                if (text.charAt(i) != c)
+                    continue;
+                for (int j = 1; j < n; j++) {
+                    if (text.charAt(i + j) != literal.charAt(j))
+                        continue search;
+                }
+                k = i;
+                break;
+            }
+        }
+        literalIndex = k;
+        return k >= 0;
+    }
+
     /**
      * Initiates a search for an anchored match to a Pattern within the given
      * bounds. The groups are filled with default values and the match of the
@@ -1267,7 +1334,9 @@ public final class Matcher implements MatchResult {
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         acceptMode = anchor;
-        boolean result = parentPattern.matchRoot.match(this, from, text);
+        LazyDFA dfa = parentPattern.dfa;
+        boolean result = (dfa != null) ? dfa.match(this, from, anchor)
+                                       : parentPattern.matchRoot.match(this, from, text);
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
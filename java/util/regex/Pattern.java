@@ -917,6 +917,32 @@ public final class Pattern
      */
     public static final int UNICODE_CHARACTER_CLASS = 0x100;
 
+    /**
+     * Enables matching with a deterministic finite automaton.
+     *
+     * <p> When this flag is specified a pattern that uses only literals,
+     * simple character classes, the dot, grouping, alternation, greedy and
+     * reluctant quantifiers, and the boundary matchers <tt>^</tt>,
+     * <tt>$</tt>, <tt>\A</tt>, <tt>\Z</tt> and <tt>\z</tt> is matched
+     * by an automaton built lazily from the pattern, in time linear in the
+     * length of the input, rather than by backtracking.  Matches and
+     * capturing groups are the same as without the flag, while the results
+     * of {@link Matcher#hitEnd} and {@link Matcher#requireEnd} may differ
+     * where the backtracking engine depends on the order it tries
+     * alternatives in.  A pattern that uses any other construct, such as
+     * a back reference, a lookaround, a possessive quantifier, an embedded
+     * flag, or a repetition of an expression that can match the empty
+     * string, or that is compiled with the {@link #COMMENTS},
+     * {@link #CANON_EQ} or {@link #UNICODE_CHARACTER_CLASS} flag, with
+     * {@link #UNICODE_CASE} and {@link #CASE_INSENSITIVE}, or with
+     * {@link #MULTILINE} and a line anchor, is matched by backtracking as
+     * usual.
+     *
+     * <p> There is no embedded flag character for enabling this mode.
+     * @since 1.8
+     */
+    public static final int DFA = 0x200;
+
     /* Pattern has only two serialized components: The pattern string
      * and the flags, which are all that is needed to recompile the pattern
      * when it is deserialized.
@@ -990,6 +1016,18 @@ public final class Pattern
      */
     transient int capturingGroupCount;
 
+    /**
+     * The automaton used in place of root and matchRoot when the DFA flag
+     * is set and the pattern is supported, or null.
+     */
+    transient LazyDFA dfa;
+
+    /**
+     * A literal that every match contains, checked for by matchers before
+     * an unanchored search, or null.
+     */
+    transient String requiredLiteral;
+
     /**
      * The local variable count used by parsing tree. Used by matchers to
      * allocate storage needed to perform a match.
@@ -1039,8 +1077,8 @@ public final class Pattern
      *         Match flags, a bit mask that may include
      *         {@link #CASE_INSENSITIVE}, {@link #MULTILINE}, {@link #DOTALL},
      *         {@link #UNICODE_CASE}, {@link #CANON_EQ}, {@link #UNIX_LINES},
-     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS}
-     *         and {@link #COMMENTS}
+     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS},
+     *         {@link #COMMENTS} and {@link #DFA}
      *
      * @return the given regular expression compiled into a pattern with the given flags
      * @throws  IllegalArgumentException
@@ -1715,15 +1753,51 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         } else {
             root = hasSupplementary ? new StartS(matchRoot) : new Start(matchRoot);
         }
+        if (root instanceof Start)
+            requiredLiteral = requiredLiteral(matchRoot);
 
         // Release temporary storage
         temp = null;
         buffer = null;
         groupNodes = null;
         patternLength = 0;
+
+        if (has(DFA))
+            dfa = LazyDFA.compile(this, pattern, flags);
+
         compiled = true;
     }
 
+    /**
+     * Returns the longest case sensitive literal on the path that all
+     * matches take through the nodes from node on, or null.
+     */
+    private static String requiredLiteral(Node node) {
+        String literal = null;
+        for (; node != null; node = node.next) {
+            if (node instanceof Slice) {
+                int[] buf = ((Slice)node).buffer;
+                if (buf.length > (literal == null ? 0 : literal.length()))
+                    literal = new String(buf, 0, buf.length);
+            } else if (!(node instanceof CharProperty ||
+                         node instanceof CharPropertyGreedy ||
+                         node instanceof Curly ||
+                         node instanceof GroupCurly ||
+                         node instanceof Ques ||
+                         node instanceof GroupHead ||
+                         node instanceof GroupTail ||
+                         node instanceof Begin ||
+                         node instanceof Caret ||
+                         node instanceof UnixCaret ||
+                         node instanceof Bound)) {
+                // Branches, loops and lookarounds have paths that
+                // bypass what follows them.
+                break;
+            }
+        }
+        return literal;
+    }
+
     Map<String, Integer> namedGroups() {
         if (namedGroups == null)
             namedGroups = new HashMap<>(2);
@@ -2060,7 +2134,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 tail = root;
                 continue;
             case '[':
-                node = clazz(true);
+                node = tabled(clazz(true));
                 break;
             case '\\':
                 ch = nextEscaped();
@@ -2073,7 +2147,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                     } else {
                         oneLetter = false;
                     }
-                    node = family(oneLetter, comp);
+                    node = tabled(family(oneLetter, comp));
                 } else {
                     unread();
                     node = atom();
@@ -2579,6 +2653,19 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
     }
 
+    /**
+     * Returns a property equivalent to the given one that looks up code
+     * points below 256 in a table, unless the property already tests them
+     * directly.  A class built from unions, intersections and ranges
+     * otherwise walks its whole tree for each character.
+     */
+    private static CharProperty tabled(CharProperty cp) {
+        if (cp instanceof BitClass || cp instanceof Single ||
+            cp instanceof Ctype || cp instanceof LatinTable)
+            return cp;
+        return new LatinTable(cp);
+    }
+
     private CharProperty bitsOrSingle(BitClass bits, int ch) {
         /* Bits can only handle codepoints in [u+0000-u+00ff] range.
            Use "single" node instead of bits when dealing with unicode
@@ -3078,6 +3165,18 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
 
     static final int INDEPENDENT = 3;
 
+    /**
+     * Returns a node for a greedy repetition, using a single loop over the
+     * input when the repeated node is a character class.
+     */
+    private Node newCurly(Node prev, int cmin, int cmax) {
+        if (prev instanceof BmpCharProperty)
+            return new BmpCharPropertyGreedy((CharProperty)prev, cmin, cmax);
+        if (prev instanceof CharProperty)
+            return new CharPropertyGreedy((CharProperty)prev, cmin, cmax);
+        return new Curly(prev, cmin, cmax, GREEDY);
+    }
+
     /**
      * Processes repetition. If the next character peeked is a quantifier
      * then new nodes must be appended to handle the repetition.
@@ -3106,7 +3205,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 next();
                 return new Curly(prev, 0, MAX_REPS, POSSESSIVE);
             }
-            return new Curly(prev, 0, MAX_REPS, GREEDY);
+            return newCurly(prev, 0, MAX_REPS);
         case '+':
             ch = next();
             if (ch == '?') {
@@ -3116,7 +3215,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 next();
                 return new Curly(prev, 1, MAX_REPS, POSSESSIVE);
             }
-            return new Curly(prev, 1, MAX_REPS, GREEDY);
+            return newCurly(prev, 1, MAX_REPS);
         case '{':
             ch = temp[cursor+1];
             if (ASCII.isDigit(ch)) {
@@ -3141,7 +3240,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                     throw error("Unclosed counted closure");
                 if (((cmin) | (cmax) | (cmax - cmin)) < 0)
                     throw error("Illegal repetition range");
-                Curly curly;
+                Node curly;
                 ch = peek();
                 if (ch == '?') {
                     next();
@@ -3150,7 +3249,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                     next();
                     curly = new Curly(prev, cmin, cmax, POSSESSIVE);
                 } else {
-                    curly = new Curly(prev, cmin, cmax, GREEDY);
+                    curly = newCurly(prev, cmin, cmax);
                 }
                 return curly;
             } else {
@@ -3335,6 +3434,23 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
     }
 
+    /**
+     * A character class that tests code points below 256 against a table
+     * computed from the class, and others against the class itself.
+     */
+    static final class LatinTable extends CharProperty {
+        final CharProperty cp;
+        final boolean[] bits = new boolean[256];
+        LatinTable(CharProperty cp) {
+            this.cp = cp;
+            for (int ch = 0; ch < 256; ch++)
+                bits[ch] = cp.isSatisfiedBy(ch);
+        }
+        boolean isSatisfiedBy(int ch) {
+            return ch < 256 ? bits[ch] : cp.isSatisfiedBy(ch);
+        }
+    }
+
     /**
      *  Returns a suitably optimized, single character matcher.
      */
@@ -4344,6 +4460,92 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
     }
 
+    /**
+     * Greedy repetition of a character class, matched in a single loop
+     * rather than by a call to the class node per character.
+     */
+    static class CharPropertyGreedy extends Node {
+        final CharProperty cp;
+        final int cmin;
+        final int cmax;
+
+        CharPropertyGreedy(CharProperty cp, int cmin, int cmax) {
+            this.cp = cp;
+            this.cmin = cmin;
+            this.cmax = cmax;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            int start = i;
+            int n = 0;
+            int to = matcher.to;
+            while (n < cmax) {
+                if (i >= to) {
+                    matcher.hitEnd = true;
+                    break;
+                }
+                int ch = Character.codePointAt(seq, i);
+                if (!cp.isSatisfiedBy(ch))
+                    break;
+                i += Character.charCount(ch);
+                n++;
+            }
+            // Back off one character at a time; the first may be a low
+            // surrogate matched on its own.
+            while (n >= cmin) {
+                if (next.match(matcher, i, seq))
+                    return true;
+                if (n == cmin)
+                    return false;
+                if (i - 2 >= start)
+                    i -= Character.charCount(Character.codePointBefore(seq, i));
+                else
+                    i--;
+                n--;
+            }
+            return false;
+        }
+        boolean study(TreeInfo info) {
+            int minL = info.minLength;
+            info.minLength += cmin;
+            if (info.minLength < minL)
+                info.minLength = 0xFFFFFFF; // arbitrary large number
+            if (info.maxValid) {
+                int maxL = info.maxLength;
+                info.maxLength += cmax;
+                if (info.maxLength < maxL)
+                    info.maxValid = false;
+            }
+            if (cmin != cmax)
+                info.deterministic = false;
+            return next.study(info);
+        }
+    }
+
+    /**
+     * Greedy repetition of a character class never satisfied by
+     * supplementary characters.
+     */
+    static final class BmpCharPropertyGreedy extends CharPropertyGreedy {
+
+        BmpCharPropertyGreedy(CharProperty cp, int cmin, int cmax) {
+            super(cp, cmin, cmax);
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            int start = i;
+            int to = matcher.to;
+            int limit = (cmax < to - i) ? i + cmax : to;
+            while (i < limit && cp.isSatisfiedBy(seq.charAt(i)))
+                i++;
+            if (i >= to && i - start < cmax)
+                matcher.hitEnd = true;
+            for (int min = start + cmin; i >= min; i--) {
+                if (next.match(matcher, i, seq))
+                    return true;
+            }
+            return false;
+        }
+    }
+
     /**
      * Handles the curly-brace style repetition with a specified minimum and
      * maximum occurrences in deterministic cases. This is an iterative
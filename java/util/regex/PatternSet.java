@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 1999, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * A set of compiled regular expressions that are matched against an
+ * input sequence together, in a single pass.
+ *
+ * <p> Where matching each of <i>n</i> patterns in turn examines the input
+ * <i>n</i> times, a pattern set combines the patterns into one automaton
+ * that examines each character of the input once, whatever the number of
+ * patterns.  A typical use is to find which of many patterns occur in
+ * a line of text:
+ *
+ * <blockquote><pre>
+ * PatternSet set = PatternSet.compile("error", "warn(ing)?", "\\d+ms");
+ * BitSet found = set.matching(line);</pre></blockquote>
+ *
+ * <p> The patterns of a set are limited to the constructs supported by
+ * the {@link Pattern#DFA} matching engine: literals, character classes
+ * without unions or intersections, predefined classes, the dot, grouping,
+ * alternation, greedy and reluctant quantifiers of expressions that
+ * cannot match the empty string, and the boundary matchers <tt>^</tt>,
+ * <tt>$</tt>, <tt>\A</tt>, <tt>\Z</tt> and <tt>\z</tt> outside of
+ * {@link Pattern#MULTILINE} mode.  The flags of each pattern apply to it
+ * alone.
+ *
+ * <p> Instances of this class are immutable and are safe for use by
+ * multiple concurrent threads.
+ *
+ * @see Pattern
+ * @since 1.8
+ */
+public final class PatternSet {
+
+    /**
+     * A callback for the matches found by {@link PatternSet#scan scan}.
+     *
+     * @since 1.8
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Handles a match of a pattern of the set.
+         *
+         * @param  index
+         *         The index of the pattern in the set
+         *
+         * @param  end
+         *         The index in the input of the character after the match
+         *
+         * @return {@code true} to continue the scan, {@code false} to end it
+         */
+        boolean match(int index, int end);
+    }
+
+    private final Pattern[] patterns;
+
+    /**
+     * The automaton matching all the patterns, or null if there are none.
+     */
+    private final LazyDFA dfa;
+
+    private PatternSet(Pattern[] patterns) {
+        this.patterns = patterns;
+        this.dfa = (patterns.length == 0) ? null : LazyDFA.compileSet(patterns);
+    }
+
+    /**
+     * Compiles the given patterns into a set.  The index of each pattern in
+     * the set is its index in the argument array.
+     *
+     * @param  patterns
+     *         The patterns of the set
+     *
+     * @return the given patterns compiled into a set
+     *
+     * @throws  IllegalArgumentException
+     *          If a pattern uses a construct or flag not supported in a set
+     */
+    public static PatternSet compile(Pattern... patterns) {
+        Pattern[] ps = patterns.clone();
+        for (Pattern p : ps)
+            Objects.requireNonNull(p);
+        return new PatternSet(ps);
+    }
+
+    /**
+     * Compiles the given regular expressions into a set.  The index of each
+     * pattern in the set is the index of its expression in the argument
+     * array.
+     *
+     * @param  regexes
+     *         The expressions to be compiled
+     *
+     * @return the given expressions compiled into a set
+     *
+     * @throws  PatternSyntaxException
+     *          If the syntax of an expression is invalid
+     *
+     * @throws  IllegalArgumentException
+     *          If an expression uses a construct not supported in a set
+     */
+    public static PatternSet compile(String... regexes) {
+        Pattern[] ps = new Pattern[regexes.length];
+        for (int i = 0; i < regexes.length; i++)
+            ps[i] = Pattern.compile(regexes[i]);
+        return new PatternSet(ps);
+    }
+
+    /**
+     * Returns the number of patterns in this set.
+     *
+     * @return the number of patterns in this set
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Returns the pattern at the given index in this set.
+     *
+     * @param  index
+     *         The index of the pattern
+     *
+     * @return the pattern at the given index
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the index is negative or not less than {@link #size size}
+     */
+    public Pattern pattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Returns the indexes of the patterns of this set that match some
+     * subsequence of the input, as {@link Matcher#find} would.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @return the set of the indexes of the patterns that match
+     */
+    public BitSet matching(CharSequence input) {
+        BitSet found = new BitSet(patterns.length);
+        if (dfa != null) {
+            int[] left = { patterns.length };
+            dfa.scan(input, (index, end) -> {
+                if (!found.get(index)) {
+                    found.set(index);
+                    left[0]--;
+                }
+                return left[0] > 0;
+            });
+        }
+        return found;
+    }
+
+    /**
+     * Tells whether any pattern of this set matches some subsequence of the
+     * input.  The scan stops at the first match found.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @return {@code true} if, and only if, some pattern matches
+     */
+    public boolean matchesAny(CharSequence input) {
+        if (dfa == null)
+            return false;
+        boolean[] found = new boolean[1];
+        dfa.scan(input, (index, end) -> {
+            found[0] = true;
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * Scans the input once, reporting every match of every pattern of this
+     * set to the handler, until the handler returns {@code false}.
+     *
+     * <p> Each match is reported by the index of its pattern and the index
+     * of its end in the input, in order of the end and then of the pattern.
+     * All the matches of a pattern are reported, including those that
+     * overlap one another, but matches of one pattern with the same end
+     * are reported once.  Only the end of a match is reported; where its
+     * start is needed the pattern itself can be matched against the input.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @param  handler
+     *         The handler for the matches
+     */
+    public void scan(CharSequence input, MatchHandler handler) {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(handler);
+        if (dfa != null)
+            dfa.scan(input, handler);
+    }
+
+    /**
+     * Returns the string representation of this set, the source of its
+     * patterns.
+     *
+     * @return the string representation of this set
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < patterns.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(patterns[i].pattern());
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -24,6 +24,9 @@
  */
 package java.util.stream;
 
+import java.math.BigDecimal;
+import java.math.DecimalAccumulator;
+import java.math.RoundingMode;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
 import java.util.ArrayList;
@@ -46,11 +49,17 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
@@ -196,6 +205,180 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Simple implementation class for {@code IntCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the result type
+     */
+    static class IntCollectorImpl<A, R> implements IntCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjIntConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        IntCollectorImpl(Supplier<A> supplier,
+                         ObjIntConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Function<A,R> finisher,
+                         Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        IntCollectorImpl(Supplier<A> supplier,
+                         ObjIntConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics);
+        }
+
+        @Override
+        public ObjIntConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Simple implementation class for {@code LongCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the result type
+     */
+    static class LongCollectorImpl<A, R> implements LongCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjLongConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        LongCollectorImpl(Supplier<A> supplier,
+                          ObjLongConsumer<A> accumulator,
+                          BinaryOperator<A> combiner,
+                          Function<A,R> finisher,
+                          Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        LongCollectorImpl(Supplier<A> supplier,
+                          ObjLongConsumer<A> accumulator,
+                          BinaryOperator<A> combiner,
+                          Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics);
+        }
+
+        @Override
+        public ObjLongConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Simple implementation class for {@code DoubleCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the result type
+     */
+    static class DoubleCollectorImpl<A, R> implements DoubleCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjDoubleConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        DoubleCollectorImpl(Supplier<A> supplier,
+                            ObjDoubleConsumer<A> accumulator,
+                            BinaryOperator<A> combiner,
+                            Function<A,R> finisher,
+                            Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        DoubleCollectorImpl(Supplier<A> supplier,
+                            ObjDoubleConsumer<A> accumulator,
+                            BinaryOperator<A> combiner,
+                            Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics);
+        }
+
+        @Override
+        public ObjDoubleConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
     /**
      * Returns a {@code Collector} that accumulates the input elements into a
      * new {@code Collection}, in encounter order.  The {@code Collection} is
@@ -559,6 +742,56 @@ public final class Collectors {
             return tmp;
     }
 
+    /**
+     * Returns a {@code Collector} that produces the sum of a
+     * {@code BigDecimal}-valued function applied to the input elements, at
+     * the given scale.  If no elements are present, the result is zero.
+     *
+     * <p>The values are summed in a {@link DecimalAccumulator}, which does
+     * not create a {@code BigDecimal} for each value while the sum fits in
+     * a {@code long} unscaled value.  The sum is exact; a value of a larger
+     * scale than the given scale that would need rounding causes an
+     * {@code ArithmeticException} to be thrown.
+     *
+     * @param <T> the type of the input elements
+     * @param mapper a function extracting the property to be summed
+     * @param scale the scale of the sum
+     * @return a {@code Collector} that produces the sum of a derived property
+     */
+    public static <T> Collector<T, ?, BigDecimal>
+    summingBigDecimal(Function<? super T, ? extends BigDecimal> mapper, int scale) {
+        return summingBigDecimal(mapper, scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Returns a {@code Collector} that produces the sum of a
+     * {@code BigDecimal}-valued function applied to the input elements, at
+     * the given scale, rounding values of a larger scale with the given
+     * rounding mode.  If no elements are present, the result is zero.
+     *
+     * <p>The values are summed in a {@link DecimalAccumulator}, which does
+     * not create a {@code BigDecimal} for each value while the sum fits in
+     * a {@code long} unscaled value.
+     *
+     * @param <T> the type of the input elements
+     * @param mapper a function extracting the property to be summed
+     * @param scale the scale of the sum
+     * @param roundingMode the rounding mode for values of a larger scale
+     * @return a {@code Collector} that produces the sum of a derived property
+     */
+    public static <T> Collector<T, ?, BigDecimal>
+    summingBigDecimal(Function<? super T, ? extends BigDecimal> mapper, int scale,
+                      RoundingMode roundingMode) {
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(roundingMode);
+        return new CollectorImpl<>(
+                () -> new DecimalAccumulator(scale, roundingMode),
+                (a, t) -> { a.add(mapper.apply(t)); },
+                DecimalAccumulator::add,
+                DecimalAccumulator::toBigDecimal,
+                CH_NOID);
+    }
+
     /**
      * Returns a {@code Collector} that produces the arithmetic mean of an integer-valued
      * function applied to the input elements.  If no elements are present,
@@ -1091,6 +1324,284 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements according to a
+     * classification function onto the {@code int} keys {@code 0} to
+     * {@code size - 1}, and then performing a reduction operation on the
+     * values associated with a given key using the specified downstream
+     * {@code Collector}.
+     *
+     * <p>The collector produces a {@code List<D>} of {@code size} elements
+     * whose element at each index is the result of the downstream reduction
+     * of the input elements mapped to that key, or of no elements if there
+     * are none.  Unlike {@link #groupingBy(Function, Collector)}, the keys are
+     * neither boxed nor hashed, and the partial results of a parallel
+     * reduction are merged key by key.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability,
+     * or thread-safety of the {@code List} returned.  If the classification
+     * function returns a key outside {@code [0, size)}, an
+     * {@code ArrayIndexOutOfBoundsException} is thrown during the reduction.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param size the number of keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     * @throws IllegalArgumentException if {@code size} is negative
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #groupingByIntConcurrent(ToIntFunction, int, Collector)
+     * @see #countingByInt(ToIntFunction, int)
+     * @since 1.8
+     */
+    public static <T, A, D>
+    Collector<T, ?, List<D>> groupingByInt(ToIntFunction<? super T> classifier, int size,
+                                           Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        checkKeyCount(size);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        BiConsumer<Object[], T> accumulator = (a, t) -> {
+            int key = classifier.applyAsInt(t);
+            @SuppressWarnings("unchecked")
+            A container = (A) a[key];
+            if (container == null)
+                a[key] = container = downstreamSupplier.get();
+            downstreamAccumulator.accept(container, t);
+        };
+        return new CollectorImpl<>(() -> new Object[size], accumulator,
+                                   arrayMerger(downstreamCombiner),
+                                   arrayFinisher(downstreamSupplier, downstreamFinisher),
+                                   CH_NOID);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function onto the {@code int} keys
+     * {@code 0} to {@code size - 1}, and then performing a reduction operation
+     * on the values associated with a given key using the specified
+     * downstream {@code Collector}.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.  The
+     * collector produces a {@code List<D>} as
+     * {@link #groupingByInt(ToIntFunction, int, Collector)} does, but all
+     * threads of a parallel reduction accumulate into the same containers, so
+     * that nothing is merged.  Accumulation into the container of a key is
+     * synchronized unless the downstream collector is itself concurrent.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability,
+     * or thread-safety of the {@code List} returned.  If the classification
+     * function returns a key outside {@code [0, size)}, an
+     * {@code IndexOutOfBoundsException} is thrown during the reduction.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param size the number of keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded
+     *         group-by operation
+     * @throws IllegalArgumentException if {@code size} is negative
+     *
+     * @see #groupingByConcurrent(Function, Collector)
+     * @see #groupingByInt(ToIntFunction, int, Collector)
+     * @see #countingByIntConcurrent(ToIntFunction, int)
+     * @since 1.8
+     */
+    public static <T, A, D>
+    Collector<T, ?, List<D>> groupingByIntConcurrent(ToIntFunction<? super T> classifier, int size,
+                                                     Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        checkKeyCount(size);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        boolean concurrent = downstream.characteristics().contains(Collector.Characteristics.CONCURRENT);
+        BiConsumer<AtomicReferenceArray<A>, T> accumulator = (a, t) -> {
+            int key = classifier.applyAsInt(t);
+            A container = a.get(key);
+            if (container == null) {
+                A created = downstreamSupplier.get();
+                container = a.compareAndSet(key, null, created) ? created : a.get(key);
+            }
+            if (concurrent) {
+                downstreamAccumulator.accept(container, t);
+            }
+            else {
+                synchronized (container) {
+                    downstreamAccumulator.accept(container, t);
+                }
+            }
+        };
+        BinaryOperator<AtomicReferenceArray<A>> merger = (left, right) -> {
+            for (int i = 0; i < size; i++) {
+                A r = right.get(i);
+                if (r != null) {
+                    A l = left.get(i);
+                    left.set(i, (l == null) ? r : downstreamCombiner.apply(l, r));
+                }
+            }
+            return left;
+        };
+        Function<AtomicReferenceArray<A>, List<D>> finisher = a -> {
+            Object[] result = new Object[size];
+            for (int i = 0; i < size; i++) {
+                A container = a.get(i);
+                result[i] = downstreamFinisher.apply(container != null ? container
+                                                                       : downstreamSupplier.get());
+            }
+            @SuppressWarnings("unchecked")
+            List<D> list = (List<D>) Arrays.asList(result);
+            return list;
+        };
+        return new CollectorImpl<>(() -> new AtomicReferenceArray<>(size),
+                                   accumulator, merger, finisher, CH_CONCURRENT_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} counting the input elements of type
+     * {@code T} by the {@code int} key, from {@code 0} to {@code size - 1},
+     * that a classification function maps each to.
+     *
+     * <p>The collector produces a {@code long[]} of {@code size} elements
+     * whose element at each key is the number of input elements mapped to
+     * that key.  The counts are neither boxed nor hashed, and the partial
+     * counts of a parallel reduction are merged by adding the arrays.  If
+     * the classification function returns a key outside {@code [0, size)},
+     * an {@code ArrayIndexOutOfBoundsException} is thrown during the
+     * reduction.
+     *
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingByInt(classifier, size, counting())
+     * }</pre>
+     * as an array.
+     *
+     * @param <T> the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @param size the number of keys
+     * @return a {@code Collector} counting the input elements by key
+     * @throws IllegalArgumentException if {@code size} is negative
+     *
+     * @see #groupingByInt(ToIntFunction, int, Collector)
+     * @see #countingByIntConcurrent(ToIntFunction, int)
+     * @since 1.8
+     */
+    public static <T>
+    Collector<T, ?, long[]> countingByInt(ToIntFunction<? super T> classifier, int size) {
+        Objects.requireNonNull(classifier);
+        checkKeyCount(size);
+        return new CollectorImpl<T, long[], long[]>(
+                () -> new long[size],
+                (a, t) -> a[classifier.applyAsInt(t)]++,
+                (a, b) -> { for (int i = 0; i < size; i++) a[i] += b[i]; return a; },
+                CH_ID);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} counting the input elements of
+     * type {@code T} by the {@code int} key, from {@code 0} to
+     * {@code size - 1}, that a classification function maps each to.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.  The
+     * collector produces a {@code long[]} as
+     * {@link #countingByInt(ToIntFunction, int)} does, but all threads of a
+     * parallel reduction count into the same {@link LongAdder}s, one per key,
+     * so that nothing is merged.  If the classification function returns a
+     * key outside {@code [0, size)}, an {@code ArrayIndexOutOfBoundsException}
+     * is thrown during the reduction.
+     *
+     * @param <T> the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @param size the number of keys
+     * @return a concurrent, unordered {@code Collector} counting the input
+     *         elements by key
+     * @throws IllegalArgumentException if {@code size} is negative
+     *
+     * @see #groupingByIntConcurrent(ToIntFunction, int, Collector)
+     * @see #countingByInt(ToIntFunction, int)
+     * @since 1.8
+     */
+    public static <T>
+    Collector<T, ?, long[]> countingByIntConcurrent(ToIntFunction<? super T> classifier, int size) {
+        Objects.requireNonNull(classifier);
+        checkKeyCount(size);
+        Supplier<LongAdder[]> supplier = () -> {
+            LongAdder[] a = new LongAdder[size];
+            for (int i = 0; i < size; i++)
+                a[i] = new LongAdder();
+            return a;
+        };
+        Function<LongAdder[], long[]> finisher = a -> {
+            long[] counts = new long[size];
+            for (int i = 0; i < size; i++)
+                counts[i] = a[i].sum();
+            return counts;
+        };
+        return new CollectorImpl<T, LongAdder[], long[]>(
+                supplier,
+                (a, t) -> a[classifier.applyAsInt(t)].increment(),
+                (a, b) -> { for (int i = 0; i < size; i++) a[i].add(b[i].sum()); return a; },
+                finisher, CH_CONCURRENT_NOID);
+    }
+
+    private static void checkKeyCount(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+    }
+
+    /**
+     * {@code BinaryOperator<Object[]>} that merges the downstream containers of
+     * its right argument, indexed by key and null where there is none, into
+     * those of its left argument.
+     */
+    static <A> BinaryOperator<Object[]> arrayMerger(BinaryOperator<A> downstreamCombiner) {
+        return (left, right) -> {
+            for (int i = 0; i < left.length; i++) {
+                @SuppressWarnings("unchecked")
+                A r = (A) right[i];
+                if (r != null) {
+                    @SuppressWarnings("unchecked")
+                    A l = (A) left[i];
+                    left[i] = (l == null) ? r : downstreamCombiner.apply(l, r);
+                }
+            }
+            return left;
+        };
+    }
+
+    /**
+     * Finisher that replaces each downstream container of an array indexed by
+     * key, or a new one where there is none, by its downstream result, and
+     * returns the results as a list.
+     */
+    static <A, D> Function<Object[], List<D>> arrayFinisher(Supplier<A> downstreamSupplier,
+                                                            Function<A, D> downstreamFinisher) {
+        return a -> {
+            for (int i = 0; i < a.length; i++) {
+                @SuppressWarnings("unchecked")
+                A container = (A) a[i];
+                a[i] = downstreamFinisher.apply(container != null ? container
+                                                                  : downstreamSupplier.get());
+            }
+            @SuppressWarnings("unchecked")
+            List<D> result = (List<D>) Arrays.asList(a);
+            return result;
+        };
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
@@ -1155,6 +1666,100 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a concurrent {@code Collector} which partitions the input
+     * elements according to a {@code Predicate}, and organizes them into a
+     * {@code Map<Boolean, List<T>>}.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability,
+     * or thread-safety of the {@code Map} or {@code List} objects returned.
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     partitioningByConcurrent(predicate, toList());
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param predicate a predicate used for classifying input elements
+     * @return a concurrent, unordered {@code Collector} implementing the
+     *         partitioning operation
+     *
+     * @see #partitioningBy(Predicate)
+     * @see #partitioningByConcurrent(Predicate, Collector)
+     * @since 1.8
+     */
+    public static <T>
+    Collector<T, ?, Map<Boolean, List<T>>> partitioningByConcurrent(Predicate<? super T> predicate) {
+        return partitioningByConcurrent(predicate, toList());
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} which partitions the input
+     * elements according to a {@code Predicate}, reduces the values in each
+     * partition according to another {@code Collector}, and organizes them
+     * into a {@code Map<Boolean, D>} whose values are the result of the
+     * downstream reduction.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.  All
+     * threads of a parallel reduction accumulate into the same two
+     * containers, so that nothing is merged.  Accumulation into a container
+     * is synchronized unless the downstream collector is itself concurrent.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input elements
+     * @param downstream a {@code Collector} implementing the downstream
+     *                   reduction
+     * @return a concurrent, unordered {@code Collector} implementing the
+     *         cascaded partitioning operation
+     *
+     * @see #partitioningBy(Predicate, Collector)
+     * @see #partitioningByConcurrent(Predicate)
+     * @since 1.8
+     */
+    public static <T, D, A>
+    Collector<T, ?, Map<Boolean, D>> partitioningByConcurrent(Predicate<? super T> predicate,
+                                                              Collector<? super T, A, D> downstream) {
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BiConsumer<Partition<A>, T> accumulator;
+        if (downstream.characteristics().contains(Collector.Characteristics.CONCURRENT)) {
+            accumulator = (result, t) ->
+                    downstreamAccumulator.accept(predicate.test(t) ? result.forTrue : result.forFalse, t);
+        }
+        else {
+            accumulator = (result, t) -> {
+                A resultContainer = predicate.test(t) ? result.forTrue : result.forFalse;
+                synchronized (resultContainer) {
+                    downstreamAccumulator.accept(resultContainer, t);
+                }
+            };
+        }
+        BinaryOperator<A> op = downstream.combiner();
+        BinaryOperator<Partition<A>> merger = (left, right) ->
+                new Partition<>(op.apply(left.forTrue, right.forTrue),
+                                op.apply(left.forFalse, right.forFalse));
+        Supplier<Partition<A>> supplier = () ->
+                new Partition<>(downstream.supplier().get(),
+                                downstream.supplier().get());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new CollectorImpl<>(supplier, accumulator, merger, CH_CONCURRENT_ID);
+        }
+        else {
+            Function<Partition<A>, Map<Boolean, D>> finisher = par ->
+                    new Partition<>(downstream.finisher().apply(par.forTrue),
+                                    downstream.finisher().apply(par.forFalse));
+            return new CollectorImpl<>(supplier, accumulator, merger, finisher, CH_CONCURRENT_NOID);
+        }
+    }
+
     /**
      * Returns a {@code Collector} that accumulates elements into a
      * {@code Map} whose keys and values are the result of applying the provided
@@ -1535,9 +2140,99 @@ public final class Collectors {
     }
 
     /**
-     * Implementation class used by partitioningBy.
+     * Returns a concurrent {@code Collector} which applies an
+     * {@code int}-producing mapping function to each input element, and
+     * returns summary statistics for the resulting values.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.  All
+     * threads of a parallel reduction record their values into the same
+     * {@link LongAdder}s and {@link LongAccumulator}s, so that nothing is
+     * merged.
+     *
+     * @param <T> the type of the input elements
+     * @param mapper a mapping function to apply to each element
+     * @return a concurrent, unordered {@code Collector} implementing the
+     *         summary-statistics reduction
+     *
+     * @see #summarizingInt(ToIntFunction)
+     * @see #summarizingLongConcurrent(ToLongFunction)
+     * @since 1.8
+     */
+    public static <T>
+    Collector<T, ?, IntSummaryStatistics> summarizingIntConcurrent(ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new CollectorImpl<T, ConcurrentSummary, IntSummaryStatistics>(
+                ConcurrentSummary::new,
+                (r, t) -> r.accept(mapper.applyAsInt(t)),
+                ConcurrentSummary::combine,
+                r -> new IntSummaryStatistics(r.count.sum(), (int) r.min.get(),
+                                              (int) r.max.get(), r.sum.sum()),
+                CH_CONCURRENT_NOID);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} which applies a
+     * {@code long}-producing mapping function to each input element, and
+     * returns summary statistics for the resulting values.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.  All
+     * threads of a parallel reduction record their values into the same
+     * {@link LongAdder}s and {@link LongAccumulator}s, so that nothing is
+     * merged.
+     *
+     * @param <T> the type of the input elements
+     * @param mapper the mapping function to apply to each element
+     * @return a concurrent, unordered {@code Collector} implementing the
+     *         summary-statistics reduction
+     *
+     * @see #summarizingLong(ToLongFunction)
+     * @see #summarizingIntConcurrent(ToIntFunction)
+     * @since 1.8
+     */
+    public static <T>
+    Collector<T, ?, LongSummaryStatistics> summarizingLongConcurrent(ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new CollectorImpl<T, ConcurrentSummary, LongSummaryStatistics>(
+                ConcurrentSummary::new,
+                (r, t) -> r.accept(mapper.applyAsLong(t)),
+                ConcurrentSummary::combine,
+                r -> new LongSummaryStatistics(r.count.sum(), r.min.get(),
+                                               r.max.get(), r.sum.sum()),
+                CH_CONCURRENT_NOID);
+    }
+
+    /**
+     * Implementation class used by the concurrent summarizing collectors.
+     */
+    private static final class ConcurrentSummary {
+        final LongAdder count = new LongAdder();
+        final LongAdder sum = new LongAdder();
+        final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void accept(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+        }
+
+        ConcurrentSummary combine(ConcurrentSummary other) {
+            count.add(other.count.sum());
+            sum.add(other.sum.sum());
+            min.accumulate(other.min.get());
+            max.accumulate(other.max.get());
+            return this;
+        }
+    }
+
+    /**
+     * Implementation class used by partitioningBy, partitioningByConcurrent
+     * and the partitioning primitive collectors.
      */
-    private static final class Partition<T>
+    static final class Partition<T>
             extends AbstractMap<Boolean, T>
             implements Map<Boolean, T> {
         final T forTrue;
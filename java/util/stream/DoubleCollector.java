@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A <a href="package-summary.html#Reduction">mutable reduction operation</a>
+ * on {@code double} values, the primitive specialization of {@link Collector}
+ * for {@link DoubleStream#collect(DoubleCollector)}.  The input elements are
+ * passed to the accumulator function as {@code double}s, without boxing.
+ *
+ * <p>An {@code DoubleCollector} is specified by the same four functions and
+ * {@linkplain Collector.Characteristics characteristics} as a
+ * {@code Collector}, and must meet the same identity and associativity
+ * constraints.  This interface also provides stock implementations:
+ *
+ * <pre>{@code
+ *     // The values, as an array
+ *     double[] values = doubleStream.collect(DoubleCollector.toArray());
+ *
+ *     // The number of latencies in each of 100 bins of 10 milliseconds
+ *     long[] bins = latencies.collect(DoubleCollector.histogram(0.0, 1000.0, 100));
+ *
+ *     // The negative and the other values, as arrays
+ *     Map<Boolean, double[]> signs = doubleStream.collect(DoubleCollector.partitioningBy(v -> v < 0));
+ * }</pre>
+ *
+ * @param <A> the mutable accumulation type of the reduction operation (often
+ *            hidden as an implementation detail)
+ * @param <R> the result type of the reduction operation
+ * @see Collector
+ * @see IntCollector
+ * @see DoubleStream#collect(DoubleCollector)
+ * @since 1.8
+ */
+public interface DoubleCollector<A, R> {
+    /**
+     * A function that creates and returns a new mutable result container.
+     *
+     * @return a function which returns a new, mutable result container
+     */
+    Supplier<A> supplier();
+
+    /**
+     * A function that folds a {@code double} value into a mutable result
+     * container.
+     *
+     * @return a function which folds a value into a mutable result container
+     */
+    ObjDoubleConsumer<A> accumulator();
+
+    /**
+     * A function that accepts two partial results and merges them.  The
+     * combiner function may fold state from one argument into the other and
+     * return that, or may return a new result container.
+     *
+     * @return a function which combines two partial results into a combined
+     * result
+     */
+    BinaryOperator<A> combiner();
+
+    /**
+     * Perform the final transformation from the intermediate accumulation type
+     * {@code A} to the final result type {@code R}.
+     *
+     * <p>If the characteristic {@code IDENTITY_FINISH} is
+     * set, this function may be presumed to be an identity transform with an
+     * unchecked cast from {@code A} to {@code R}.
+     *
+     * @return a function which transforms the intermediate result to the final
+     * result
+     */
+    Function<A, R> finisher();
+
+    /**
+     * Returns a {@code Set} of {@code Collector.Characteristics} indicating
+     * the characteristics of this collector.  This set should be immutable.
+     *
+     * @return an immutable set of collector characteristics
+     */
+    Set<Collector.Characteristics> characteristics();
+
+    /**
+     * Returns a new {@code DoubleCollector} described by the given
+     * {@code supplier}, {@code accumulator}, and {@code combiner} functions.
+     * The resulting {@code DoubleCollector} has the
+     * {@code Collector.Characteristics.IDENTITY_FINISH} characteristic.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <R> The type of intermediate accumulation result, and final result,
+     *           for the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code DoubleCollector}
+     */
+    public static<R> DoubleCollector<R, R> of(Supplier<R> supplier,
+                                           ObjDoubleConsumer<R> accumulator,
+                                           BinaryOperator<R> combiner,
+                                           Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = (characteristics.length == 0)
+                                            ? Collectors.CH_ID
+                                            : Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.IDENTITY_FINISH,
+                                                                                     characteristics));
+        return new Collectors.DoubleCollectorImpl<>(supplier, accumulator, combiner, cs);
+    }
+
+    /**
+     * Returns a new {@code DoubleCollector} described by the given
+     * {@code supplier}, {@code accumulator}, {@code combiner}, and
+     * {@code finisher} functions.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param finisher The finisher function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <A> The intermediate accumulation type of the new collector
+     * @param <R> The final result type of the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code DoubleCollector}
+     */
+    public static<A, R> DoubleCollector<A, R> of(Supplier<A> supplier,
+                                              ObjDoubleConsumer<A> accumulator,
+                                              BinaryOperator<A> combiner,
+                                              Function<A, R> finisher,
+                                              Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(finisher);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = Collectors.CH_NOID;
+        if (characteristics.length > 0) {
+            cs = EnumSet.noneOf(Collector.Characteristics.class);
+            Collections.addAll(cs, characteristics);
+            cs = Collections.unmodifiableSet(cs);
+        }
+        return new Collectors.DoubleCollectorImpl<>(supplier, accumulator, combiner, finisher, cs);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that accumulates the input values into
+     * a {@code double[]}, in encounter order.  The values are accumulated into
+     * a growable buffer of chunks, which is copied once into the resulting
+     * array.
+     *
+     * @return a {@code DoubleCollector} which collects all the input values into
+     * an array, in encounter order
+     */
+    public static DoubleCollector<?, double[]> toArray() {
+        return new Collectors.DoubleCollectorImpl<SpinedBuffer.OfDouble, double[]>(
+                SpinedBuffer.OfDouble::new, SpinedBuffer.OfDouble::accept,
+                (left, right) -> { right.forEach((DoubleConsumer) left); return left; },
+                SpinedBuffer.OfDouble::asPrimitiveArray, Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} counting the input values in each of
+     * {@code bins} bins of equal width between {@code min} and {@code max}.
+     * The collector produces a {@code long[]} of {@code bins} elements whose
+     * element at index <i>i</i> is the number of input values <i>v</i> with
+     * {@code min + i * width <= v < min + (i + 1) * width}, where
+     * {@code width} is {@code (max - min) / bins}.  Values less than
+     * {@code min}, not less than {@code max}, or NaN are not counted.
+     *
+     * @param min the lower bound of the first bin, inclusive
+     * @param max the upper bound of the last bin, exclusive
+     * @param bins the number of bins
+     * @return a {@code DoubleCollector} counting the input values in each bin
+     * @throws IllegalArgumentException if {@code bins} is not positive, or
+     *         {@code min} is not less than {@code max}, or either is not finite
+     */
+    public static DoubleCollector<?, long[]> histogram(double min, double max, int bins) {
+        if (bins <= 0)
+            throw new IllegalArgumentException("Non-positive bins: " + bins);
+        if (!(min < max) || Double.isInfinite(min) || Double.isInfinite(max))
+            throw new IllegalArgumentException("Illegal range: " + min + ", " + max);
+        double scale = bins / (max - min);
+        return new Collectors.DoubleCollectorImpl<long[], long[]>(
+                () -> new long[bins],
+                (a, v) -> {
+                    if (v >= min && v < max) {
+                        // Rounding may put a value just below max one past the last bin
+                        a[Math.min((int) ((v - min) * scale), bins - 1)]++;
+                    }
+                },
+                (a, b) -> { for (int i = 0; i < bins; i++) a[i] += b[i]; return a; },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} implementing a cascaded "group by"
+     * operation on {@code double} input values, grouping them according to a
+     * classification function onto the keys {@code 0} to {@code size - 1},
+     * and then performing a reduction operation on the values associated
+     * with a given key using the specified downstream {@code DoubleCollector}.
+     *
+     * <p>The collector produces a {@code List<D>} of {@code size} elements
+     * whose element at each index is the result of the downstream reduction
+     * of the input values mapped to that key, or of no values if there are
+     * none.  Neither the values nor the keys are boxed.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability,
+     * or thread-safety of the {@code List} returned.  If the classification
+     * function returns a key outside {@code [0, size)}, an
+     * {@code ArrayIndexOutOfBoundsException} is thrown during the reduction.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input values to keys
+     * @param size the number of keys
+     * @param downstream a {@code DoubleCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code DoubleCollector} implementing the cascaded group-by
+     *         operation
+     * @throws IllegalArgumentException if {@code size} is negative
+     *
+     * @see IntCollector#groupingBy(java.util.function.IntUnaryOperator, int, IntCollector)
+     */
+    public static <A, D>
+    DoubleCollector<?, List<D>> groupingBy(DoubleToIntFunction classifier, int size,
+                                        DoubleCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        ObjDoubleConsumer<Object[]> accumulator = (a, v) -> {
+            int key = classifier.applyAsInt(v);
+            @SuppressWarnings("unchecked")
+            A container = (A) a[key];
+            if (container == null)
+                a[key] = container = downstreamSupplier.get();
+            downstreamAccumulator.accept(container, v);
+        };
+        return new Collectors.DoubleCollectorImpl<>(
+                () -> new Object[size], accumulator,
+                Collectors.arrayMerger(downstreamCombiner),
+                Collectors.arrayFinisher(downstreamSupplier, downstreamFinisher),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} which partitions the input values
+     * according to a {@code DoublePredicate}, and organizes them into a
+     * {@code Map<Boolean, double[]>}.
+     *
+     * There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * @param predicate a predicate used for classifying input values
+     * @return a {@code DoubleCollector} implementing the partitioning operation
+     *
+     * @see #partitioningBy(DoublePredicate, DoubleCollector)
+     */
+    public static DoubleCollector<?, Map<Boolean, double[]>> partitioningBy(DoublePredicate predicate) {
+        return partitioningBy(predicate, toArray());
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} which partitions the input values
+     * according to a {@code DoublePredicate}, reduces the values in each
+     * partition according to another {@code DoubleCollector}, and organizes them
+     * into a {@code Map<Boolean, D>} whose values are the result of the
+     * downstream reduction.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input values
+     * @param downstream a {@code DoubleCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code DoubleCollector} implementing the cascaded partitioning
+     *         operation
+     *
+     * @see #partitioningBy(DoublePredicate)
+     * @see Collectors#partitioningBy(java.util.function.Predicate, Collector)
+     */
+    public static <A, D>
+    DoubleCollector<?, Map<Boolean, D>> partitioningBy(DoublePredicate predicate,
+                                                    DoubleCollector<A, D> downstream) {
+        Objects.requireNonNull(predicate);
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjDoubleConsumer<Collectors.Partition<A>> accumulator = (result, v) ->
+                downstreamAccumulator.accept(predicate.test(v) ? result.forTrue : result.forFalse, v);
+        BinaryOperator<A> op = downstream.combiner();
+        BinaryOperator<Collectors.Partition<A>> merger = (left, right) ->
+                new Collectors.Partition<>(op.apply(left.forTrue, right.forTrue),
+                                           op.apply(left.forFalse, right.forFalse));
+        Supplier<Collectors.Partition<A>> supplier = () ->
+                new Collectors.Partition<>(downstream.supplier().get(),
+                                           downstream.supplier().get());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new Collectors.DoubleCollectorImpl<>(supplier, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            Function<Collectors.Partition<A>, Map<Boolean, D>> finisher = par ->
+                    new Collectors.Partition<>(downstream.finisher().apply(par.forTrue),
+                                               downstream.finisher().apply(par.forFalse));
+            return new Collectors.DoubleCollectorImpl<>(supplier, accumulator, merger, finisher, Collectors.CH_NOID);
+        }
+    }
+}
@@ -192,10 +192,22 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
+                    private double[] batch;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        double[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new double[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsDouble(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -226,10 +238,22 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedDouble<Integer>(sink) {
+                    private int[] batch;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        int[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new int[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsInt(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -243,10 +267,22 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedDouble<Long>(sink) {
+                    private long[] batch;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        long[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new long[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsLong(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -297,6 +333,8 @@ abstract class DoublePipeline<E_IN>
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
+                    private double[] batch;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -307,6 +345,21 @@ abstract class DoublePipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        double[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new double[to - from];
+                        int n = 0;
+                        for (int i = from; i < to; i++) {
+                            double t = array[i];
+                            if (predicate.test(t))
+                                b[n++] = t;
+                        }
+                        if (n > 0)
+                            Sink.acceptBatch(downstream, b, 0, n);
+                    }
                 };
             }
         };
@@ -476,6 +529,27 @@ abstract class DoublePipeline<E_IN>
         return evaluate(ReduceOps.makeDouble(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <R, A> R collect(DoubleCollector<A, R> collector) {
+        A container;
+        if (isParallel()
+                && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
+                && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            container = collector.supplier().get();
+            ObjDoubleConsumer<A> accumulator = collector.accumulator();
+            forEach(v -> accumulator.accept(container, v));
+        }
+        else {
+            container = evaluate(ReduceOps.makeDouble(collector.supplier(),
+                                                      collector.accumulator(),
+                                                      collector.combiner()));
+        }
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(DoublePredicate predicate) {
         return evaluate(MatchOps.makeDouble(predicate, MatchOps.MatchKind.ANY));
@@ -37,6 +37,7 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleFunction;
@@ -454,6 +455,49 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
                   ObjDoubleConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using a
+     * {@code DoubleCollector}, the primitive specialization of
+     * {@link Stream#collect(Collector)}.  The elements are passed to the
+     * collector as {@code double} values, without boxing.
+     *
+     * <p>If the stream is parallel, and the {@code DoubleCollector}
+     * is {@link Collector.Characteristics#CONCURRENT concurrent}, and
+     * either the stream is unordered or the collector is
+     * {@link Collector.Characteristics#UNORDERED unordered},
+     * then a concurrent reduction will be performed (see {@link Collector} for
+     * details on concurrent reduction.)
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation performs the reduction with
+     * {@link #collect(Supplier, ObjDoubleConsumer, BiConsumer)}, holding each
+     * intermediate container in a one-element array, and then applies the
+     * finisher of the collector.
+     *
+     * @param <R> the type of the result
+     * @param <A> the intermediate accumulation type of the
+     *            {@code DoubleCollector}
+     * @param collector the {@code DoubleCollector} describing the reduction
+     * @return the result of the reduction
+     * @see DoubleCollector
+     * @see Stream#collect(Collector)
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    default <R, A> R collect(DoubleCollector<A, R> collector) {
+        Supplier<A> supplier = collector.supplier();
+        ObjDoubleConsumer<A> accumulator = collector.accumulator();
+        BinaryOperator<A> combiner = collector.combiner();
+        Object[] holder = collect(() -> new Object[] { supplier.get() },
+                                  (h, v) -> accumulator.accept((A) h[0], v),
+                                  (l, r) -> l[0] = combiner.apply((A) l[0], (A) r[0]));
+        return collector.finisher().apply((A) holder[0]);
+    }
+
     /**
      * Returns the sum of elements in this stream.
      *
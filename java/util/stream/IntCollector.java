@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A <a href="package-summary.html#Reduction">mutable reduction operation</a>
+ * on {@code int} values, the primitive specialization of {@link Collector}
+ * for {@link IntStream#collect(IntCollector)}.  The input elements are
+ * passed to the accumulator function as {@code int}s, without boxing.
+ *
+ * <p>An {@code IntCollector} is specified by the same four functions and
+ * {@linkplain Collector.Characteristics characteristics} as a
+ * {@code Collector}, and must meet the same identity and associativity
+ * constraints.  This interface also provides stock implementations:
+ *
+ * <pre>{@code
+ *     // The values, as an array
+ *     int[] values = intStream.collect(IntCollector.toArray());
+ *
+ *     // The number of occurrences of each value in a byte[]
+ *     long[] counts = IntStream.range(0, bytes.length)
+ *                              .map(i -> bytes[i] & 0xff)
+ *                              .collect(IntCollector.histogram(256));
+ *
+ *     // The even and the odd values, as arrays
+ *     Map<Boolean, int[]> evenOdd = intStream.collect(IntCollector.partitioningBy(i -> i % 2 == 0));
+ * }</pre>
+ *
+ * @param <A> the mutable accumulation type of the reduction operation (often
+ *            hidden as an implementation detail)
+ * @param <R> the result type of the reduction operation
+ * @see Collector
+ * @see IntStream#collect(IntCollector)
+ * @since 1.8
+ */
+public interface IntCollector<A, R> {
+    /**
+     * A function that creates and returns a new mutable result container.
+     *
+     * @return a function which returns a new, mutable result container
+     */
+    Supplier<A> supplier();
+
+    /**
+     * A function that folds an {@code int} value into a mutable result
+     * container.
+     *
+     * @return a function which folds a value into a mutable result container
+     */
+    ObjIntConsumer<A> accumulator();
+
+    /**
+     * A function that accepts two partial results and merges them.  The
+     * combiner function may fold state from one argument into the other and
+     * return that, or may return a new result container.
+     *
+     * @return a function which combines two partial results into a combined
+     * result
+     */
+    BinaryOperator<A> combiner();
+
+    /**
+     * Perform the final transformation from the intermediate accumulation type
+     * {@code A} to the final result type {@code R}.
+     *
+     * <p>If the characteristic {@code IDENTITY_FINISH} is
+     * set, this function may be presumed to be an identity transform with an
+     * unchecked cast from {@code A} to {@code R}.
+     *
+     * @return a function which transforms the intermediate result to the final
+     * result
+     */
+    Function<A, R> finisher();
+
+    /**
+     * Returns a {@code Set} of {@code Collector.Characteristics} indicating
+     * the characteristics of this collector.  This set should be immutable.
+     *
+     * @return an immutable set of collector characteristics
+     */
+    Set<Collector.Characteristics> characteristics();
+
+    /**
+     * Returns a new {@code IntCollector} described by the given
+     * {@code supplier}, {@code accumulator}, and {@code combiner} functions.
+     * The resulting {@code IntCollector} has the
+     * {@code Collector.Characteristics.IDENTITY_FINISH} characteristic.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <R> The type of intermediate accumulation result, and final result,
+     *           for the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code IntCollector}
+     */
+    public static<R> IntCollector<R, R> of(Supplier<R> supplier,
+                                           ObjIntConsumer<R> accumulator,
+                                           BinaryOperator<R> combiner,
+                                           Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = (characteristics.length == 0)
+                                            ? Collectors.CH_ID
+                                            : Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.IDENTITY_FINISH,
+                                                                                     characteristics));
+        return new Collectors.IntCollectorImpl<>(supplier, accumulator, combiner, cs);
+    }
+
+    /**
+     * Returns a new {@code IntCollector} described by the given
+     * {@code supplier}, {@code accumulator}, {@code combiner}, and
+     * {@code finisher} functions.
+     *
+     * @param supplier The supplier function for the new collector
+     * @param accumulator The accumulator function for the new collector
+     * @param combiner The combiner function for the new collector
+     * @param finisher The finisher function for the new collector
+     * @param characteristics The collector characteristics for the new
+     *                        collector
+     * @param <A> The intermediate accumulation type of the new collector
+     * @param <R> The final result type of the new collector
+     * @throws NullPointerException if any argument is null
+     * @return the new {@code IntCollector}
+     */
+    public static<A, R> IntCollector<A, R> of(Supplier<A> supplier,
+                                              ObjIntConsumer<A> accumulator,
+                                              BinaryOperator<A> combiner,
+                                              Function<A, R> finisher,
+                                              Collector.Characteristics... characteristics) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        Objects.requireNonNull(finisher);
+        Objects.requireNonNull(characteristics);
+        Set<Collector.Characteristics> cs = Collectors.CH_NOID;
+        if (characteristics.length > 0) {
+            cs = EnumSet.noneOf(Collector.Characteristics.class);
+            Collections.addAll(cs, characteristics);
+            cs = Collections.unmodifiableSet(cs);
+        }
+        return new Collectors.IntCollectorImpl<>(supplier, accumulator, combiner, finisher, cs);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that accumulates the input values into
+     * an {@code int[]}, in encounter order.  The values are accumulated into
+     * a growable buffer of chunks, which is copied once into the resulting
+     * array.
+     *
+     * @return an {@code IntCollector} which collects all the input values into
+     * an array, in encounter order
+     */
+    public static IntCollector<?, int[]> toArray() {
+        return new Collectors.IntCollectorImpl<SpinedBuffer.OfInt, int[]>(
+                SpinedBuffer.OfInt::new, SpinedBuffer.OfInt::accept,
+                (left, right) -> { right.forEach((IntConsumer) left); return left; },
+                SpinedBuffer.OfInt::asPrimitiveArray, Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} counting the occurrences of each input
+     * value from {@code 0} to {@code size - 1}.  The collector produces a
+     * {@code long[]} of {@code size} elements whose element at each index is
+     * the number of input values equal to that index.  If an input value is
+     * outside {@code [0, size)}, an {@code ArrayIndexOutOfBoundsException}
+     * is thrown during the reduction.
+     *
+     * @param size the number of distinct values counted
+     * @return an {@code IntCollector} counting the occurrences of each value
+     * @throws IllegalArgumentException if {@code size} is negative
+     */
+    public static IntCollector<?, long[]> histogram(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+        return new Collectors.IntCollectorImpl<long[], long[]>(
+                () -> new long[size],
+                (a, i) -> a[i]++,
+                (a, b) -> { for (int i = 0; i < size; i++) a[i] += b[i]; return a; },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} implementing a cascaded "group by"
+     * operation on {@code int} input values, grouping them according to a
+     * classification function onto the keys {@code 0} to {@code size - 1},
+     * and then performing a reduction operation on the values associated
+     * with a given key using the specified downstream {@code IntCollector}.
+     *
+     * <p>The collector produces a {@code List<D>} of {@code size} elements
+     * whose element at each index is the result of the downstream reduction
+     * of the input values mapped to that key, or of no values if there are
+     * none.  Neither the values nor the keys are boxed.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability,
+     * or thread-safety of the {@code List} returned.  If the classification
+     * function returns a key outside {@code [0, size)}, an
+     * {@code ArrayIndexOutOfBoundsException} is thrown during the reduction.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input values to keys
+     * @param size the number of keys
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *                   reduction
+     * @return an {@code IntCollector} implementing the cascaded group-by
+     *         operation
+     * @throws IllegalArgumentException if {@code size} is negative
+     *
+     * @see Collectors#groupingByInt(java.util.function.ToIntFunction, int, Collector)
+     */
+    public static <A, D>
+    IntCollector<?, List<D>> groupingBy(IntUnaryOperator classifier, int size,
+                                        IntCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        ObjIntConsumer<Object[]> accumulator = (a, i) -> {
+            int key = classifier.applyAsInt(i);
+            @SuppressWarnings("unchecked")
+            A container = (A) a[key];
+            if (container == null)
+                a[key] = container = downstreamSupplier.get();
+            downstreamAccumulator.accept(container, i);
+        };
+        return new Collectors.IntCollectorImpl<>(
+                () -> new Object[size], accumulator,
+                Collectors.arrayMerger(downstreamCombiner),
+                Collectors.arrayFinisher(downstreamSupplier, downstreamFinisher),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} which partitions the input values
+     * according to an {@code IntPredicate}, and organizes them into a
+     * {@code Map<Boolean, int[]>}.
+     *
+     * There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * @param predicate a predicate used for classifying input values
+     * @return an {@code IntCollector} implementing the partitioning operation
+     *
+     * @see #partitioningBy(IntPredicate, IntCollector)
+     */
+    public static IntCollector<?, Map<Boolean, int[]>> partitioningBy(IntPredicate predicate) {
+        return partitioningBy(predicate, toArray());
+    }
+
+    /**
+     * Returns an {@code IntCollector} which partitions the input values
+     * according to an {@code IntPredicate}, reduces the values in each
+     * partition according to another {@code IntCollector}, and organizes them
+     * into a {@code Map<Boolean, D>} whose values are the result of the
+     * downstream reduction.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param predicate a predicate used for classifying input values
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *                   reduction
+     * @return an {@code IntCollector} implementing the cascaded partitioning
+     *         operation
+     *
+     * @see #partitioningBy(IntPredicate)
+     * @see Collectors#partitioningBy(java.util.function.Predicate, Collector)
+     */
+    public static <A, D>
+    IntCollector<?, Map<Boolean, D>> partitioningBy(IntPredicate predicate,
+                                                    IntCollector<A, D> downstream) {
+        Objects.requireNonNull(predicate);
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        ObjIntConsumer<Collectors.Partition<A>> accumulator = (result, i) ->
+                downstreamAccumulator.accept(predicate.test(i) ? result.forTrue : result.forFalse, i);
+        BinaryOperator<A> op = downstream.combiner();
+        BinaryOperator<Collectors.Partition<A>> merger = (left, right) ->
+                new Collectors.Partition<>(op.apply(left.forTrue, right.forTrue),
+                                           op.apply(left.forFalse, right.forFalse));
+        Supplier<Collectors.Partition<A>> supplier = () ->
+                new Collectors.Partition<>(downstream.supplier().get(),
+                                           downstream.supplier().get());
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new Collectors.IntCollectorImpl<>(supplier, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            Function<Collectors.Partition<A>, Map<Boolean, D>> finisher = par ->
+                    new Collectors.Partition<>(downstream.finisher().apply(par.forTrue),
+                                               downstream.finisher().apply(par.forFalse));
+            return new Collectors.IntCollectorImpl<>(supplier, accumulator, merger, finisher, Collectors.CH_NOID);
+        }
+    }
+}
@@ -190,10 +190,22 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedInt<Long>(sink) {
+                    private long[] batch;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept((long) t);
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        long[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new long[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = (long) array[i];
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -206,10 +218,22 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedInt<Double>(sink) {
+                    private double[] batch;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept((double) t);
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        double[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new double[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = (double) array[i];
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -228,10 +252,22 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
+                    private int[] batch;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        int[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new int[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsInt(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -262,10 +298,22 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedInt<Long>(sink) {
+                    private long[] batch;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        long[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new long[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsLong(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -279,10 +327,22 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedInt<Double>(sink) {
+                    private double[] batch;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        double[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new double[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsDouble(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -333,6 +393,8 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
+                    private int[] batch;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -343,6 +405,21 @@ abstract class IntPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        int[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new int[to - from];
+                        int n = 0;
+                        for (int i = from; i < to; i++) {
+                            int t = array[i];
+                            if (predicate.test(t))
+                                b[n++] = t;
+                        }
+                        if (n > 0)
+                            Sink.acceptBatch(downstream, b, 0, n);
+                    }
                 };
             }
         };
@@ -472,6 +549,27 @@ abstract class IntPipeline<E_IN>
         return evaluate(ReduceOps.makeInt(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <R, A> R collect(IntCollector<A, R> collector) {
+        A container;
+        if (isParallel()
+                && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
+                && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            container = collector.supplier().get();
+            ObjIntConsumer<A> accumulator = collector.accumulator();
+            forEach(v -> accumulator.accept(container, v));
+        }
+        else {
+            container = evaluate(ReduceOps.makeInt(collector.supplier(),
+                                                   collector.accumulator(),
+                                                   collector.combiner()));
+        }
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(IntPredicate predicate) {
         return evaluate(MatchOps.makeInt(predicate, MatchOps.MatchKind.ANY));
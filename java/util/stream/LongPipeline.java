@@ -187,10 +187,22 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedLong<Double>(sink) {
+                    private double[] batch;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept((double) t);
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        double[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new double[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = (double) array[i];
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -209,10 +221,22 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
+                    private long[] batch;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        long[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new long[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsLong(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -243,10 +267,22 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedLong<Integer>(sink) {
+                    private int[] batch;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        int[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new int[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsInt(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -260,10 +296,22 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedLong<Double>(sink) {
+                    private double[] batch;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        double[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new double[to - from];
+                        for (int i = from; i < to; i++)
+                            b[i - from] = mapper.applyAsDouble(array[i]);
+                        Sink.acceptBatch(downstream, b, 0, to - from);
+                    }
                 };
             }
         };
@@ -314,6 +362,8 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
+                    private long[] batch;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -324,6 +374,21 @@ abstract class LongPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        long[] b = batch;
+                        if (b == null || b.length < to - from)
+                            batch = b = new long[to - from];
+                        int n = 0;
+                        for (int i = from; i < to; i++) {
+                            long t = array[i];
+                            if (predicate.test(t))
+                                b[n++] = t;
+                        }
+                        if (n > 0)
+                            Sink.acceptBatch(downstream, b, 0, n);
+                    }
                 };
             }
         };
@@ -454,6 +519,27 @@ abstract class LongPipeline<E_IN>
         return evaluate(ReduceOps.makeLong(supplier, accumulator, operator));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <R, A> R collect(LongCollector<A, R> collector) {
+        A container;
+        if (isParallel()
+                && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
+                && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
+            container = collector.supplier().get();
+            ObjLongConsumer<A> accumulator = collector.accumulator();
+            forEach(v -> accumulator.accept(container, v));
+        }
+        else {
+            container = evaluate(ReduceOps.makeLong(collector.supplier(),
+                                                    collector.accumulator(),
+                                                    collector.combiner()));
+        }
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) container
+               : collector.finisher().apply(container);
+    }
+
     @Override
     public final boolean anyMatch(LongPredicate predicate) {
         return evaluate(MatchOps.makeLong(predicate, MatchOps.MatchKind.ANY));
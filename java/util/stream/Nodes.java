@@ -1509,6 +1509,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(int[] values, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(values, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length) {
@@ -1563,6 +1574,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(long[] values, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(values, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length) {
@@ -1617,6 +1639,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(double[] values, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(values, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length) {
@@ -258,6 +258,14 @@ final class ReduceOps {
                 state = operator.applyAsInt(state, t);
             }
 
+            @Override
+            public void acceptBatch(int[] array, int from, int to) {
+                int s = state;
+                for (int i = from; i < to; i++)
+                    s = operator.applyAsInt(s, array[i]);
+                state = s;
+            }
+
             @Override
             public Integer get() {
                 return state;
@@ -307,6 +315,18 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void acceptBatch(int[] array, int from, int to) {
+                if (from < to && empty) {
+                    empty = false;
+                    state = array[from++];
+                }
+                int s = state;
+                for (int i = from; i < to; i++)
+                    s = operator.applyAsInt(s, array[i]);
+                state = s;
+            }
+
             @Override
             public OptionalInt get() {
                 return empty ? OptionalInt.empty() : OptionalInt.of(state);
@@ -356,6 +376,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void acceptBatch(int[] array, int from, int to) {
+                R r = state;
+                for (int i = from; i < to; i++)
+                    accumulator.accept(r, array[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -394,6 +421,14 @@ final class ReduceOps {
                 state = operator.applyAsLong(state, t);
             }
 
+            @Override
+            public void acceptBatch(long[] array, int from, int to) {
+                long s = state;
+                for (int i = from; i < to; i++)
+                    s = operator.applyAsLong(s, array[i]);
+                state = s;
+            }
+
             @Override
             public Long get() {
                 return state;
@@ -443,6 +478,18 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void acceptBatch(long[] array, int from, int to) {
+                if (from < to && empty) {
+                    empty = false;
+                    state = array[from++];
+                }
+                long s = state;
+                for (int i = from; i < to; i++)
+                    s = operator.applyAsLong(s, array[i]);
+                state = s;
+            }
+
             @Override
             public OptionalLong get() {
                 return empty ? OptionalLong.empty() : OptionalLong.of(state);
@@ -492,6 +539,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void acceptBatch(long[] array, int from, int to) {
+                R r = state;
+                for (int i = from; i < to; i++)
+                    accumulator.accept(r, array[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -530,6 +584,14 @@ final class ReduceOps {
                 state = operator.applyAsDouble(state, t);
             }
 
+            @Override
+            public void acceptBatch(double[] array, int from, int to) {
+                double s = state;
+                for (int i = from; i < to; i++)
+                    s = operator.applyAsDouble(s, array[i]);
+                state = s;
+            }
+
             @Override
             public Double get() {
                 return state;
@@ -579,6 +641,18 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void acceptBatch(double[] array, int from, int to) {
+                if (from < to && empty) {
+                    empty = false;
+                    state = array[from++];
+                }
+                double s = state;
+                for (int i = from; i < to; i++)
+                    s = operator.applyAsDouble(s, array[i]);
+                state = s;
+            }
+
             @Override
             public OptionalDouble get() {
                 return empty ? OptionalDouble.empty() : OptionalDouble.of(state);
@@ -628,6 +702,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void acceptBatch(double[] array, int from, int to) {
+                R r = state;
+                for (int i = from; i < to; i++)
+                    accumulator.accept(r, array[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
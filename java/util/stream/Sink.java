@@ -181,6 +181,51 @@ interface Sink<T> extends Consumer<T> {
         throw new IllegalStateException("called wrong accept method");
     }
 
+    /**
+     * Passes a batch of int values to a sink whose input shape is only known
+     * to be compatible, using {@link Sink.OfInt#acceptBatch} where the sink
+     * supports it.
+     */
+    static void acceptBatch(Sink<?> sink, int[] array, int from, int to) {
+        if (sink instanceof Sink.OfInt) {
+            ((Sink.OfInt) sink).acceptBatch(array, from, to);
+        }
+        else {
+            for (int i = from; i < to; i++)
+                sink.accept(array[i]);
+        }
+    }
+
+    /**
+     * Passes a batch of long values to a sink whose input shape is only known
+     * to be compatible, using {@link Sink.OfLong#acceptBatch} where the sink
+     * supports it.
+     */
+    static void acceptBatch(Sink<?> sink, long[] array, int from, int to) {
+        if (sink instanceof Sink.OfLong) {
+            ((Sink.OfLong) sink).acceptBatch(array, from, to);
+        }
+        else {
+            for (int i = from; i < to; i++)
+                sink.accept(array[i]);
+        }
+    }
+
+    /**
+     * Passes a batch of double values to a sink whose input shape is only known
+     * to be compatible, using {@link Sink.OfDouble#acceptBatch} where the sink
+     * supports it.
+     */
+    static void acceptBatch(Sink<?> sink, double[] array, int from, int to) {
+        if (sink instanceof Sink.OfDouble) {
+            ((Sink.OfDouble) sink).acceptBatch(array, from, to);
+        }
+        else {
+            for (int i = from; i < to; i++)
+                sink.accept(array[i]);
+        }
+    }
+
     /**
      * {@code Sink} that implements {@code Sink<Integer>}, re-abstracts
      * {@code accept(int)}, and wires {@code accept(Integer)} to bridge to
@@ -196,6 +241,28 @@ interface Sink<T> extends Consumer<T> {
                 Tripwire.trip(getClass(), "{0} calling Sink.OfInt.accept(Integer)");
             accept(i.intValue());
         }
+
+        /**
+         * Accepts the values {@code array[from]} through {@code array[to - 1]}
+         * in order, as if by calling {@code accept(int)} on each of them.  The
+         * sink only reads the array, and only for the duration of the call.
+         *
+         * <p>Array-backed sources of pipelines that do not short-circuit hand
+         * their elements down the sink chain in such batches, so that
+         * stateless operations can process a whole slice per call instead of
+         * one element per call.
+         *
+         * @implSpec The default implementation calls {@code accept(int)} on
+         * each value in turn.
+         *
+         * @param array the array holding the values
+         * @param from the index of the first value, inclusive
+         * @param to the index of the last value, exclusive
+         */
+        default void acceptBatch(int[] array, int from, int to) {
+            for (int i = from; i < to; i++)
+                accept(array[i]);
+        }
     }
 
     /**
@@ -213,6 +280,28 @@ interface Sink<T> extends Consumer<T> {
                 Tripwire.trip(getClass(), "{0} calling Sink.OfLong.accept(Long)");
             accept(i.longValue());
         }
+
+        /**
+         * Accepts the values {@code array[from]} through {@code array[to - 1]}
+         * in order, as if by calling {@code accept(long)} on each of them.  The
+         * sink only reads the array, and only for the duration of the call.
+         *
+         * <p>Array-backed sources of pipelines that do not short-circuit hand
+         * their elements down the sink chain in such batches, so that
+         * stateless operations can process a whole slice per call instead of
+         * one element per call.
+         *
+         * @implSpec The default implementation calls {@code accept(long)} on
+         * each value in turn.
+         *
+         * @param array the array holding the values
+         * @param from the index of the first value, inclusive
+         * @param to the index of the last value, exclusive
+         */
+        default void acceptBatch(long[] array, int from, int to) {
+            for (int i = from; i < to; i++)
+                accept(array[i]);
+        }
     }
 
     /**
@@ -230,6 +319,28 @@ interface Sink<T> extends Consumer<T> {
                 Tripwire.trip(getClass(), "{0} calling Sink.OfDouble.accept(Double)");
             accept(i.doubleValue());
         }
+
+        /**
+         * Accepts the values {@code array[from]} through {@code array[to - 1]}
+         * in order, as if by calling {@code accept(double)} on each of them.  The
+         * sink only reads the array, and only for the duration of the call.
+         *
+         * <p>Array-backed sources of pipelines that do not short-circuit hand
+         * their elements down the sink chain in such batches, so that
+         * stateless operations can process a whole slice per call instead of
+         * one element per call.
+         *
+         * @implSpec The default implementation calls {@code accept(double)} on
+         * each value in turn.
+         *
+         * @param array the array holding the values
+         * @param from the index of the first value, inclusive
+         * @param to the index of the last value, exclusive
+         */
+        default void acceptBatch(double[] array, int from, int to) {
+            for (int i = from; i < to; i++)
+                accept(array[i]);
+        }
     }
 
     /**
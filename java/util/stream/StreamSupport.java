@@ -180,6 +180,39 @@ public final class StreamSupport {
                                       parallel);
     }
 
+    /**
+     * Creates a new sequential or parallel {@code IntStream} from a range of
+     * an {@code int} array.
+     *
+     * <p>Unlike a stream created from a spliterator over the same range, the
+     * returned stream hands the elements to a pipeline that does not
+     * short-circuit in slices of the array rather than one at a time.  The
+     * stateless intermediate operations ({@code map}, {@code filter} and the
+     * conversions to other primitive shapes) and the reductions then process
+     * a whole slice per call, which avoids a call down the chain of
+     * operations for each element.  {@code peek} passes each element on
+     * before it sees the next, so the operations after it, like
+     * short-circuiting pipelines, see the elements one at a time as usual.
+     *
+     * @param array the array, assumed to be unmodified during use
+     * @param fromIndex the least index (inclusive) to cover
+     * @param toIndex one past the greatest index to cover
+     * @param parallel if {@code true} then the returned stream is a parallel
+     *        stream; if {@code false} the returned stream is a sequential
+     *        stream.
+     * @return a new sequential or parallel {@code IntStream}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         {@code toIndex} is less than {@code fromIndex}, or
+     *         {@code toIndex} is greater than the array size
+     * @since 1.8
+     */
+    public static IntStream intStream(int[] array, int fromIndex, int toIndex,
+                                      boolean parallel) {
+        checkFromToBounds(array.length, fromIndex, toIndex);
+        return intStream(new Streams.IntArraySpliterator(array, fromIndex, toIndex),
+                         parallel);
+    }
+
     /**
      * Creates a new sequential or parallel {@code LongStream} from a
      * {@code Spliterator.OfLong}.
@@ -248,6 +281,39 @@ public final class StreamSupport {
                                        parallel);
     }
 
+    /**
+     * Creates a new sequential or parallel {@code LongStream} from a range of
+     * a {@code long} array.
+     *
+     * <p>Unlike a stream created from a spliterator over the same range, the
+     * returned stream hands the elements to a pipeline that does not
+     * short-circuit in slices of the array rather than one at a time.  The
+     * stateless intermediate operations ({@code map}, {@code filter} and the
+     * conversions to other primitive shapes) and the reductions then process
+     * a whole slice per call, which avoids a call down the chain of
+     * operations for each element.  {@code peek} passes each element on
+     * before it sees the next, so the operations after it, like
+     * short-circuiting pipelines, see the elements one at a time as usual.
+     *
+     * @param array the array, assumed to be unmodified during use
+     * @param fromIndex the least index (inclusive) to cover
+     * @param toIndex one past the greatest index to cover
+     * @param parallel if {@code true} then the returned stream is a parallel
+     *        stream; if {@code false} the returned stream is a sequential
+     *        stream.
+     * @return a new sequential or parallel {@code LongStream}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         {@code toIndex} is less than {@code fromIndex}, or
+     *         {@code toIndex} is greater than the array size
+     * @since 1.8
+     */
+    public static LongStream longStream(long[] array, int fromIndex, int toIndex,
+                                        boolean parallel) {
+        checkFromToBounds(array.length, fromIndex, toIndex);
+        return longStream(new Streams.LongArraySpliterator(array, fromIndex, toIndex),
+                          parallel);
+    }
+
     /**
      * Creates a new sequential or parallel {@code DoubleStream} from a
      * {@code Spliterator.OfDouble}.
@@ -315,4 +381,50 @@ public final class StreamSupport {
                                          StreamOpFlag.fromCharacteristics(characteristics),
                                          parallel);
     }
+
+    /**
+     * Creates a new sequential or parallel {@code DoubleStream} from a range of
+     * a {@code double} array.
+     *
+     * <p>Unlike a stream created from a spliterator over the same range, the
+     * returned stream hands the elements to a pipeline that does not
+     * short-circuit in slices of the array rather than one at a time.  The
+     * stateless intermediate operations ({@code map}, {@code filter} and the
+     * conversions to other primitive shapes) and the reductions then process
+     * a whole slice per call, which avoids a call down the chain of
+     * operations for each element.  {@code peek} passes each element on
+     * before it sees the next, so the operations after it, like
+     * short-circuiting pipelines, see the elements one at a time as usual.
+     *
+     * @param array the array, assumed to be unmodified during use
+     * @param fromIndex the least index (inclusive) to cover
+     * @param toIndex one past the greatest index to cover
+     * @param parallel if {@code true} then the returned stream is a parallel
+     *        stream; if {@code false} the returned stream is a sequential
+     *        stream.
+     * @return a new sequential or parallel {@code DoubleStream}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         {@code toIndex} is less than {@code fromIndex}, or
+     *         {@code toIndex} is greater than the array size
+     * @since 1.8
+     */
+    public static DoubleStream doubleStream(double[] array, int fromIndex, int toIndex,
+                                            boolean parallel) {
+        checkFromToBounds(array.length, fromIndex, toIndex);
+        return doubleStream(new Streams.DoubleArraySpliterator(array, fromIndex, toIndex),
+                            parallel);
+    }
+
+    private static void checkFromToBounds(int arrayLength, int origin, int fence) {
+        if (origin > fence) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "origin(" + origin + ") > fence(" + fence + ")");
+        }
+        if (origin < 0) {
+            throw new ArrayIndexOutOfBoundsException(origin);
+        }
+        if (fence > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(fence);
+        }
+    }
 }
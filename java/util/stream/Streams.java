@@ -298,6 +298,223 @@ final class Streams {
         }
     }
 
+    /**
+     * The number of elements that the array spliterators hand to a
+     * {@link Sink} per call of {@code acceptBatch}, small enough for the
+     * batch buffers of the operations downstream to stay in cache.
+     */
+    static final int BATCH_SIZE = 1024;
+
+    /**
+     * A spliterator over a range of an unmodified {@code int[]} array that,
+     * when traversed in bulk by a {@link Sink.OfInt}, hands it the elements
+     * in slices of at most {@link #BATCH_SIZE} through
+     * {@link Sink.OfInt#acceptBatch}.
+     */
+    static final class IntArraySpliterator implements Spliterator.OfInt {
+        private final int[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        IntArraySpliterator(int[] array, int origin, int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new IntArraySpliterator(array, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int[] a; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                if (action instanceof Sink.OfInt) {
+                    Sink.OfInt sink = (Sink.OfInt) action;
+                    do {
+                        int to = (hi - i > BATCH_SIZE) ? i + BATCH_SIZE : hi;
+                        sink.acceptBatch(a, i, to);
+                        i = to;
+                    } while (i < hi);
+                }
+                else {
+                    do { action.accept(a[i]); } while (++i < hi);
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(array[index++]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * A spliterator over a range of an unmodified {@code long[]} array that,
+     * when traversed in bulk by a {@link Sink.OfLong}, hands it the elements
+     * in slices of at most {@link #BATCH_SIZE} through
+     * {@link Sink.OfLong#acceptBatch}.
+     */
+    static final class LongArraySpliterator implements Spliterator.OfLong {
+        private final long[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        LongArraySpliterator(long[] array, int origin, int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new LongArraySpliterator(array, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long[] a; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                if (action instanceof Sink.OfLong) {
+                    Sink.OfLong sink = (Sink.OfLong) action;
+                    do {
+                        int to = (hi - i > BATCH_SIZE) ? i + BATCH_SIZE : hi;
+                        sink.acceptBatch(a, i, to);
+                        i = to;
+                    } while (i < hi);
+                }
+                else {
+                    do { action.accept(a[i]); } while (++i < hi);
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(array[index++]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * A spliterator over a range of an unmodified {@code double[]} array that,
+     * when traversed in bulk by a {@link Sink.OfDouble}, hands it the elements
+     * in slices of at most {@link #BATCH_SIZE} through
+     * {@link Sink.OfDouble#acceptBatch}.
+     */
+    static final class DoubleArraySpliterator implements Spliterator.OfDouble {
+        private final double[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        DoubleArraySpliterator(double[] array, int origin, int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new DoubleArraySpliterator(array, lo, index = mid);
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            double[] a; int i, hi; // hoist accesses and checks from loop
+            Objects.requireNonNull(action);
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                if (action instanceof Sink.OfDouble) {
+                    Sink.OfDouble sink = (Sink.OfDouble) action;
+                    do {
+                        int to = (hi - i > BATCH_SIZE) ? i + BATCH_SIZE : hi;
+                        sink.acceptBatch(a, i, to);
+                        i = to;
+                    } while (i < hi);
+                }
+                else {
+                    do { action.accept(a[i]); } while (++i < hi);
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            if (index >= 0 && index < fence) {
+                action.accept(array[index++]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Double> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
     private static abstract class AbstractStreamBuilderImpl<T, S extends Spliterator<T>> implements Spliterator<T> {
         // >= 0 when building, < 0 when built
         // -1 == no elements
@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 1996, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing on several threads.
+ *
+ * <p>The uncompressed data is split into blocks of a fixed size, which
+ * are deflated concurrently by the tasks of a {@link ForkJoinPool}.  Each
+ * block is compressed with the last 32K of the block before it as the
+ * preset dictionary, so that matches can still refer back across block
+ * boundaries, and every block but the last ends on a byte boundary after
+ * a {@link Deflater#SYNC_FLUSH}.  The compressed blocks are then written
+ * in order as a single gzip member whose CRC-32 is combined from the
+ * CRC-32s of the blocks.  The output can be read by {@link GZIPInputStream},
+ * or by any other gzip decompressor; it is slightly larger than the output
+ * of {@link GZIPOutputStream}.
+ *
+ * <p>At most a bounded number of blocks, proportional to the parallelism
+ * of the pool, are held in memory at once; {@code write} blocks when that
+ * many are being compressed.
+ *
+ * @see GZIPOutputStream
+ * @since 1.8
+ */
+public
+class ParallelGZIPOutputStream extends FilterOutputStream {
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    /*
+     * Size of the deflate window, and so of the dictionary.
+     */
+    private final static int DICT_SIZE = 32 * 1024;
+
+    /*
+     * Default block size.
+     */
+    private final static int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+
+    // Blocks being compressed, in output order
+    private final ArrayDeque<ForkJoinTask<Block>> pending = new ArrayDeque<>();
+
+    // Deflaters not in use by a task
+    private final ConcurrentLinkedQueue<Deflater> deflaters =
+        new ConcurrentLinkedQueue<>();
+
+    private byte[] block;       // the block being filled
+    private int count;          // number of bytes in block
+    private byte[] prev;        // the previous block, for its dictionary
+    private int prevCount;      // number of bytes in prev
+
+    private long crc;           // combined CRC-32 of the blocks written
+    private long totalIn;       // number of uncompressed bytes written
+    private boolean finished;
+    private boolean closed;
+
+    private final byte[] singleByteBuf = new byte[1];
+
+    /**
+     * Creates a new output stream with the default compression level and
+     * block size, compressing in the {@linkplain ForkJoinPool#commonPool()
+     * common pool}.
+     *
+     * @param out the output stream
+     * @exception IOException If an I/O error has occurred.
+     */
+    public ParallelGZIPOutputStream(OutputStream out) throws IOException {
+        this(out, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE,
+             ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream with the specified compression level,
+     * block size and pool.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param blockSize the number of uncompressed bytes per block
+     * @param pool the pool in which blocks are compressed
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code blockSize <= 0} or the
+     *            compression level is invalid
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int level,
+                                    int blockSize, ForkJoinPool pool)
+        throws IOException
+    {
+        super(out);
+        if (out == null || pool == null) {
+            throw new NullPointerException();
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize <= 0");
+        }
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = Math.max(2, pool.getParallelism() * 2);
+        this.block = new byte[blockSize];
+        writeHeader();
+    }
+
+    /**
+     * Writes a byte to the compressed output stream.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(int b) throws IOException {
+        singleByteBuf[0] = (byte)(b & 0xff);
+        write(singleByteBuf, 0, 1);
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream.  This
+     * method blocks while the maximum number of blocks are being
+     * compressed.
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(byte[] b, int off, int len)
+        throws IOException
+    {
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Flushes the compressed output stream.  The data written so far is
+     * compressed, ending on a byte boundary as with
+     * {@link Deflater#SYNC_FLUSH}, and written to the output stream,
+     * which is then flushed.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void flush() throws IOException {
+        if (!finished) {
+            if (count > 0) {
+                submit(false);
+            }
+            while (!pending.isEmpty()) {
+                writeBlock();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void finish() throws IOException {
+        if (!finished) {
+            submit(true);
+            finished = true;
+            while (!pending.isEmpty()) {
+                writeBlock();
+            }
+            byte[] trailer = new byte[TRAILER_SIZE];
+            writeInt((int)crc, trailer, 0);         // CRC-32 of uncompr. data
+            writeInt((int)totalIn, trailer, 4);     // Number of uncompr. bytes
+            out.write(trailer);
+            block = prev = null;
+        }
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                // If finish failed, blocks may still be pending; wait for
+                // them to return their deflaters before ending those.
+                ForkJoinTask<Block> task;
+                while ((task = pending.poll()) != null) {
+                    task.cancel(false);
+                    task.quietlyJoin();
+                }
+                Deflater def;
+                while ((def = deflaters.poll()) != null) {
+                    def.end();
+                }
+                closed = true;
+                out.close();
+            }
+        }
+    }
+
+    /*
+     * Hands the current block to the pool, first writing out the oldest
+     * compressed block if the maximum number are pending.
+     */
+    private void submit(boolean last) throws IOException {
+        while (pending.size() >= maxPending) {
+            writeBlock();
+        }
+        final byte[] data = block;
+        final int len = count;
+        final byte[] dict = prev;
+        final int dictEnd = prevCount;
+        pending.add(pool.submit(() -> compress(data, len, dict, dictEnd, last)));
+        prev = block;
+        prevCount = count;
+        block = last ? null : new byte[blockSize];
+        count = 0;
+    }
+
+    /*
+     * Waits for the oldest pending block and writes it out.
+     */
+    private void writeBlock() throws IOException {
+        ForkJoinTask<Block> task = pending.peek();
+        Block b;
+        try {
+            b = task.get();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            throw new IOException(cause);
+        }
+        pending.poll();
+        out.write(b.buf, 0, b.len);
+        crc = crc32Combine(crc, b.crc, b.inLen);
+        totalIn += b.inLen;
+    }
+
+    /*
+     * A compressed block.
+     */
+    private static final class Block {
+        final byte[] buf;
+        final int len;
+        final int inLen;
+        final long crc;
+
+        Block(byte[] buf, int len, int inLen, long crc) {
+            this.buf = buf;
+            this.len = len;
+            this.inLen = inLen;
+            this.crc = crc;
+        }
+    }
+
+    /*
+     * Compresses a block as raw deflate data, with the tail of the
+     * previous block, if any, as the dictionary.
+     */
+    private Block compress(byte[] data, int len, byte[] dict, int dictEnd,
+                           boolean last) {
+        Deflater def = deflaters.poll();
+        if (def == null) {
+            def = new Deflater(level, true);
+        }
+        try {
+            if (dict != null && dictEnd > 0) {
+                int dlen = Math.min(dictEnd, DICT_SIZE);
+                def.setDictionary(dict, dictEnd - dlen, dlen);
+            }
+            def.setInput(data, 0, len);
+            byte[] buf = new byte[len + (len >> 3) + 64];
+            int n = 0;
+            if (last) {
+                def.finish();
+                while (!def.finished()) {
+                    if (n == buf.length)
+                        buf = Arrays.copyOf(buf, buf.length << 1);
+                    n += def.deflate(buf, n, buf.length - n);
+                }
+            } else {
+                // A sync flush is complete when it leaves space unused
+                // in the output buffer.
+                for (;;) {
+                    if (n == buf.length)
+                        buf = Arrays.copyOf(buf, buf.length << 1);
+                    int space = buf.length - n;
+                    int k = def.deflate(buf, n, space, Deflater.SYNC_FLUSH);
+                    n += k;
+                    if (k < space)
+                        break;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, len);
+            return new Block(buf, n, len, crc.getValue());
+        } finally {
+            def.reset();
+            deflaters.add(def);
+        }
+    }
+
+    /*
+     * Returns the CRC-32 of two sequences given the CRC-32 of each and
+     * the length of the second, as zlib's crc32_combine does.
+     */
+    static long crc32Combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0)
+            return crc1;
+        long[] even = new long[32];     // even-power-of-two zeros operator
+        long[] odd = new long[32];      // odd-power-of-two zeros operator
+
+        // put operator for one zero bit in odd
+        odd[0] = 0xedb88320L;           // CRC-32 polynomial
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);     // operator for two zero bits
+        gf2MatrixSquare(odd, even);     // operator for four zero bits
+
+        // apply len2 zeros to crc1 (the first square puts the operator
+        // for one zero byte, eight zero bits, in even)
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0)
+                crc1 = gf2MatrixTimes(even, crc1);
+            len2 >>= 1;
+            if (len2 == 0)
+                break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0)
+                crc1 = gf2MatrixTimes(odd, crc1);
+            len2 >>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0)
+                sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++)
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private static void writeInt(int i, byte[] buf, int offset) {
+        buf[offset] = (byte)(i & 0xff);
+        buf[offset + 1] = (byte)((i >> 8) & 0xff);
+        buf[offset + 2] = (byte)((i >> 16) & 0xff);
+        buf[offset + 3] = (byte)((i >> 24) & 0xff);
+    }
+}
@@ -40,8 +40,8 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
-import java.util.Spliterators;
 import java.util.WeakHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -99,6 +99,18 @@ class ZipFile implements ZipConstants, Closeable {
                    !(prop.length() == 0 || prop.equalsIgnoreCase("true")));
     }
 
+    private static final boolean useMappedIndex;
+
+    static {
+        // A system property to look up entries in a Java-side index of the
+        // memory-mapped central directory rather than through native code.
+        // Like the native mapping, it is unsafe if an in-use zip file is
+        // overwritten, and so is off by default.
+        String prop = sun.misc.VM.getSavedProperty("sun.zip.useMappedIndex");
+        useMappedIndex = (prop != null &&
+                          (prop.length() == 0 || prop.equalsIgnoreCase("true")));
+    }
+
     /**
      * Opens a zip file for reading.
      *
@@ -166,6 +178,10 @@ class ZipFile implements ZipConstants, Closeable {
 
     private ZipCoder zc;
 
+    // The Java-side entry index, or null if entries are looked up natively;
+    // guarded by this, as close unmaps it
+    private ZipIndex index;
+
     /**
      * Opens a new <code>ZipFile</code> to read from the specified
      * <code>File</code> object in the specified mode.  The mode argument
@@ -223,6 +239,14 @@ class ZipFile implements ZipConstants, Closeable {
         this.name = name;
         this.total = getTotal(jzfile);
         this.locsig = startsWithLOC(jzfile);
+        if (useMappedIndex && zc.isUTF8()) {
+            try {
+                index = ZipIndex.open(file, total);
+            } catch (IOException x) {
+                // leave lookups to the native code, which has already
+                // accepted the file
+            }
+        }
     }
 
     /**
@@ -308,6 +332,9 @@ class ZipFile implements ZipConstants, Closeable {
         long jzentry = 0;
         synchronized (this) {
             ensureOpen();
+            if (index != null) {
+                return index.getEntry(name, true, zc);
+            }
             jzentry = getEntry(jzfile, zc.getBytes(name), true);
             if (jzentry != 0) {
                 ZipEntry ze = getZipEntry(name, jzentry);
@@ -506,27 +533,89 @@ class ZipFile implements ZipConstants, Closeable {
                 if (i >= total) {
                     throw new NoSuchElementException();
                 }
-                long jzentry = getNextEntry(jzfile, i++);
-                if (jzentry == 0) {
-                    String message;
-                    if (closeRequested) {
-                        message = "ZipFile concurrently closed";
-                    } else {
-                        message = getZipMessage(ZipFile.this.jzfile);
-                    }
-                    throw new ZipError("jzentry == 0" +
-                                       ",\n jzfile = " + ZipFile.this.jzfile +
-                                       ",\n total = " + ZipFile.this.total +
-                                       ",\n name = " + ZipFile.this.name +
-                                       ",\n i = " + i +
-                                       ",\n message = " + message
-                        );
+                return getEntryAt(i++);
+            }
+        }
+    }
+
+    /*
+     * Returns the entry at the given index of the central directory.
+     */
+    private ZipEntry getEntryAt(int i) {
+        synchronized (this) {
+            ensureOpen();
+            long jzentry = getNextEntry(jzfile, i);
+            if (jzentry == 0) {
+                String message;
+                if (closeRequested) {
+                    message = "ZipFile concurrently closed";
+                } else {
+                    message = getZipMessage(this.jzfile);
                 }
-                ZipEntry ze = getZipEntry(null, jzentry);
-                freeEntry(jzfile, jzentry);
-                return ze;
+                throw new ZipError("jzentry == 0" +
+                                   ",\n jzfile = " + this.jzfile +
+                                   ",\n total = " + this.total +
+                                   ",\n name = " + this.name +
+                                   ",\n i = " + (i + 1) +
+                                   ",\n message = " + message
+                    );
+            }
+            ZipEntry ze = getZipEntry(null, jzentry);
+            freeEntry(jzfile, jzentry);
+            return ze;
+        }
+    }
+
+    /*
+     * Spliterator over a range of indices of the central directory.
+     * Splitting only divides the range, so a parallel traversal reads
+     * each entry once, and the work done per entry by the traversal
+     * (typically opening and inflating it with its own input stream and
+     * pooled Inflater) proceeds in parallel.
+     */
+    private class EntrySpliterator implements Spliterator<ZipEntry> {
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+
+        EntrySpliterator(int origin, int fence) {
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        public Spliterator<ZipEntry> trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid) ? null : new EntrySpliterator(lo, index = mid);
+        }
+
+        public boolean tryAdvance(Consumer<? super ZipEntry> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (index < fence) {
+                action.accept(getEntryAt(index++));
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super ZipEntry> action) {
+            if (action == null)
+                throw new NullPointerException();
+            int i = index, hi = fence;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept(getEntryAt(i));
             }
         }
+
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.DISTINCT |
+                    Spliterator.IMMUTABLE | Spliterator.NONNULL |
+                    Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
     }
 
     /**
@@ -548,10 +637,35 @@ class ZipFile implements ZipConstants, Closeable {
      * @since 1.8
      */
     public Stream<? extends ZipEntry> stream() {
-        return StreamSupport.stream(Spliterators.spliterator(
-                new ZipEntryIterator(), size(),
-                Spliterator.ORDERED | Spliterator.DISTINCT |
-                        Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a {@code Spliterator} over the ZIP file entries, in the
+     * order they appear in the central directory of the ZIP file.
+     *
+     * <p>The spliterator reports {@link Spliterator#ORDERED},
+     * {@link Spliterator#DISTINCT}, {@link Spliterator#IMMUTABLE},
+     * {@link Spliterator#NONNULL}, {@link Spliterator#SIZED} and
+     * {@link Spliterator#SUBSIZED}, and splits evenly, so that the entries
+     * can be processed in parallel:
+     * <pre>{@code
+     *     StreamSupport.stream(zf.spliterator(), true).forEach(e -> {
+     *         try (InputStream in = zf.getInputStream(e)) {
+     *             ...
+     *         }
+     *     });
+     * }</pre>
+     * The input streams of entries may be read concurrently; each
+     * decompresses with its own {@code Inflater}, and {@code Inflater}s
+     * are reused once their streams are closed.
+     *
+     * @return a {@code Spliterator} over the entries in this ZIP file
+     * @throws IllegalStateException if the zip file has been closed
+     * @since 1.8
+     */
+    public Spliterator<? extends ZipEntry> spliterator() {
+        return new EntrySpliterator(0, size());
     }
 
     private ZipEntry getZipEntry(String name, long jzentry) {
@@ -635,6 +749,12 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             }
 
+            if (index != null) {
+                // Unmap the central directory index
+                index.close();
+                index = null;
+            }
+
             if (jzfile != 0) {
                 // Close the zip file
                 long zf = this.jzfile;
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2009, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+import static java.util.zip.ZipConstants.*;
+import static java.util.zip.ZipConstants64.*;
+import static java.util.zip.ZipUtils.*;
+
+/**
+ * A Java-side index of the central directory of a zip file, used by
+ * {@link ZipFile#getEntry} in place of the native lookup.
+ *
+ * <p> The central directory is memory-mapped and an open-addressed table
+ * maps the hash of each entry name to the offset of its header in the
+ * mapping.  Names are hashed and compared in their UTF-8 encoding, which
+ * is computed on the fly from the chars of the name looked up, so a
+ * lookup that finds no entry allocates nothing.  Only zip files read with
+ * the UTF-8 charset are indexed.
+ *
+ * <p> The mapping is unmapped by {@link #close}, after which the index
+ * must not be used; {@code ZipFile} performs lookups and closes the index
+ * under its own lock.
+ */
+final class ZipIndex {
+
+    private final ByteBuffer cen;   // the mapped central directory
+    private final int[] hashes;     // name hash of each slot
+    private final int[] offsets;    // CEN offset + 1 of each slot, 0 if free
+    private final int mask;
+
+    private ZipIndex(ByteBuffer cen, int total) throws ZipException {
+        this.cen = cen;
+        int n = Integer.highestOneBit(Math.max(total, 1)) << 2;
+        if (n <= 0)
+            throw new ZipException("too many entries");
+        hashes = new int[n];
+        offsets = new int[n];
+        mask = n - 1;
+        int pos = 0;
+        int limit = cen.limit();
+        for (int i = 0; i < total; i++) {
+            if (pos + CENHDR > limit || cen.getInt(pos) != (int)CENSIG)
+                throw new ZipException("invalid CEN header (bad signature)");
+            int nlen = cenShort(pos + CENNAM);
+            int elen = cenShort(pos + CENEXT);
+            int clen = cenShort(pos + CENCOM);
+            int end = pos + CENHDR + nlen + elen + clen;
+            if (end > limit)
+                throw new ZipException("invalid CEN header (bad header size)");
+            int h = spread(hashBytes(pos + CENHDR, nlen));
+            int j = h & mask;
+            while (offsets[j] != 0)
+                j = (j + 1) & mask;
+            hashes[j] = h;
+            offsets[j] = pos + 1;
+            pos = end;
+        }
+    }
+
+    /**
+     * Maps and indexes the central directory of the given file, which is
+     * expected to hold the given number of entries.  Returns null if the
+     * central directory cannot be located or is too large to map.
+     */
+    static ZipIndex open(File file, int total) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(),
+                                               StandardOpenOption.READ)) {
+            long len = ch.size();
+            if (len < ENDHDR)
+                return null;
+            // Read the tail of the file, which holds the END header and
+            // the zip file comment, and search it backwards for END.
+            int tail = (int)Math.min(len, ENDHDR + 0xFFFF + ZIP64_LOCHDR);
+            ByteBuffer buf = ByteBuffer.allocate(tail)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+            long tpos = len - tail;
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, tpos + buf.position()) < 0)
+                    return null;
+            }
+            int end = -1;
+            for (int p = tail - ENDHDR; p >= 0; p--) {
+                if (buf.getInt(p) == (int)ENDSIG &&
+                    p + ENDHDR + (buf.getShort(p + ENDCOM) & 0xffff) <= tail) {
+                    end = p;
+                    break;
+                }
+            }
+            if (end < 0)
+                return null;
+            long endpos = tpos + end;
+            long cenlen = buf.getInt(end + ENDSIZ) & 0xffffffffL;
+            long cenoff = buf.getInt(end + ENDOFF) & 0xffffffffL;
+            if (cenlen == ZIP64_MAGICVAL || cenoff == ZIP64_MAGICVAL ||
+                (buf.getShort(end + ENDTOT) & 0xffff) == ZIP64_MAGICCOUNT) {
+                // The sizes are in the ZIP64 END header, located by the
+                // ZIP64 END locator just before END.
+                int loc = end - ZIP64_LOCHDR;
+                if (loc < 0 || buf.getInt(loc) != (int)ZIP64_LOCSIG)
+                    return null;
+                long end64pos = buf.getLong(loc + ZIP64_LOCOFF);
+                ByteBuffer end64 = ByteBuffer.allocate(ZIP64_ENDHDR)
+                                             .order(ByteOrder.LITTLE_ENDIAN);
+                while (end64.hasRemaining()) {
+                    if (ch.read(end64, end64pos + end64.position()) < 0)
+                        return null;
+                }
+                if (end64.getInt(0) != (int)ZIP64_ENDSIG)
+                    return null;
+                cenlen = end64.getLong(ZIP64_ENDSIZ);
+                endpos = end64pos;
+            }
+            // The central directory ends where END (or ZIP64 END) begins;
+            // this also holds for zip files with data prepended.
+            long censtart = endpos - cenlen;
+            if (censtart < 0 || cenlen > Integer.MAX_VALUE)
+                return null;
+            MappedByteBuffer mbb =
+                ch.map(FileChannel.MapMode.READ_ONLY, censtart, cenlen);
+            mbb.order(ByteOrder.LITTLE_ENDIAN);
+            return new ZipIndex(mbb, total);
+        }
+    }
+
+    /**
+     * Unmaps the central directory.
+     */
+    void close() {
+        if (cen instanceof DirectBuffer) {
+            Cleaner cl = ((DirectBuffer)cen).cleaner();
+            if (cl != null)
+                cl.clean();
+        }
+    }
+
+    /**
+     * Returns the entry of the given name, or if there is none and
+     * addSlash is true, the entry of the given name followed by '/'.
+     * Returns null if neither is found.
+     */
+    ZipEntry getEntry(String name, boolean addSlash, ZipCoder zc) {
+        int pos = find(name, addSlash);
+        return (pos < 0) ? null : newEntry(name, pos, zc);
+    }
+
+    /*
+     * Returns the CEN offset of the entry of the given name, or -1.
+     */
+    private int find(String name, boolean addSlash) {
+        int n = name.length();
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            char c = name.charAt(i);
+            if (Character.isSurrogate(c))
+                return find(getBytesUTF8(name), addSlash);
+            if (c < 0x80) {
+                h = 31 * h + (byte)c;
+            } else if (c < 0x800) {
+                h = 31 * h + (byte)(0xc0 | (c >> 6));
+                h = 31 * h + (byte)(0x80 | (c & 0x3f));
+            } else {
+                h = 31 * h + (byte)(0xe0 | (c >> 12));
+                h = 31 * h + (byte)(0x80 | ((c >> 6) & 0x3f));
+                h = 31 * h + (byte)(0x80 | (c & 0x3f));
+            }
+        }
+        int pos = probe(spread(h), name, null, false);
+        if (pos < 0 && addSlash && n > 0 && name.charAt(n - 1) != '/')
+            pos = probe(spread(31 * h + '/'), name, null, true);
+        return pos;
+    }
+
+    /*
+     * Slow path of find for names containing surrogates.
+     */
+    private int find(byte[] name, boolean addSlash) {
+        int h = 0;
+        for (byte b : name)
+            h = 31 * h + b;
+        int n = name.length;
+        int pos = probe(spread(h), null, name, false);
+        if (pos < 0 && addSlash && n > 0 && name[n - 1] != '/')
+            pos = probe(spread(31 * h + '/'), null, name, true);
+        return pos;
+    }
+
+    private static byte[] getBytesUTF8(String s) {
+        return s.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Probes the table for a name with the given hash, given either as a
+     * String or as its UTF-8 bytes, and optionally followed by '/'.
+     */
+    private int probe(int h, String s, byte[] b, boolean slash) {
+        int[] hs = hashes, os = offsets;
+        for (int j = h & mask; ; j = (j + 1) & mask) {
+            int off = os[j];
+            if (off == 0)
+                return -1;
+            if (hs[j] == h) {
+                int pos = off - 1;
+                if ((s != null) ? nameEquals(pos, s, slash)
+                                : nameEquals(pos, b, slash))
+                    return pos;
+            }
+        }
+    }
+
+    private boolean nameEquals(int pos, String s, boolean slash) {
+        ByteBuffer cen = this.cen;
+        int nlen = cenShort(pos + CENNAM);
+        int p = pos + CENHDR;
+        int end = p + nlen;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (p >= end || cen.get(p++) != (byte)c)
+                    return false;
+            } else if (c < 0x800) {
+                if (p + 2 > end ||
+                    cen.get(p++) != (byte)(0xc0 | (c >> 6)) ||
+                    cen.get(p++) != (byte)(0x80 | (c & 0x3f)))
+                    return false;
+            } else {
+                if (p + 3 > end ||
+                    cen.get(p++) != (byte)(0xe0 | (c >> 12)) ||
+                    cen.get(p++) != (byte)(0x80 | ((c >> 6) & 0x3f)) ||
+                    cen.get(p++) != (byte)(0x80 | (c & 0x3f)))
+                    return false;
+            }
+        }
+        if (slash) {
+            if (p >= end || cen.get(p++) != '/')
+                return false;
+        }
+        return p == end;
+    }
+
+    private boolean nameEquals(int pos, byte[] b, boolean slash) {
+        int nlen = cenShort(pos + CENNAM);
+        if (nlen != b.length + (slash ? 1 : 0))
+            return false;
+        int p = pos + CENHDR;
+        for (int i = 0; i < b.length; i++) {
+            if (cen.get(p + i) != b[i])
+                return false;
+        }
+        return !slash || cen.get(p + b.length) == '/';
+    }
+
+    /*
+     * Creates the entry described by the CEN header at the given offset,
+     * as ZipFile.getZipEntry does from the native entry.
+     */
+    private ZipEntry newEntry(String name, int pos, ZipCoder zc) {
+        ZipEntry e = new ZipEntry();
+        e.flag = cenShort(pos + CENFLG);
+        e.name = name;
+        e.time = dosToJavaTime(cenInt(pos + CENTIM));
+        e.crc = cenInt(pos + CENCRC);
+        e.csize = cenInt(pos + CENSIZ);
+        e.size = cenInt(pos + CENLEN);
+        e.method = cenShort(pos + CENHOW);
+        int nlen = cenShort(pos + CENNAM);
+        int elen = cenShort(pos + CENEXT);
+        int clen = cenShort(pos + CENCOM);
+        int p = pos + CENHDR + nlen;
+        byte[] extra = null;
+        if (elen != 0) {
+            extra = getBytes(p, elen);
+            if (e.size == ZIP64_MAGICVAL || e.csize == ZIP64_MAGICVAL)
+                readZip64Sizes(e, extra);
+        }
+        e.setExtra0(extra, false);
+        if (clen != 0) {
+            byte[] bcomm = getBytes(p + elen, clen);
+            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+                e.comment = zc.toStringUTF8(bcomm, bcomm.length);
+            } else {
+                e.comment = zc.toString(bcomm, bcomm.length);
+            }
+        }
+        return e;
+    }
+
+    /*
+     * Sets the sizes recorded as ZIP64_MAGICVAL from the ZIP64 extra
+     * field, which holds only those fields, in order.
+     */
+    private static void readZip64Sizes(ZipEntry e, byte[] extra) {
+        int off = 0;
+        while (off + 4 <= extra.length) {
+            int tag = get16(extra, off);
+            int sz = get16(extra, off + 2);
+            off += 4;
+            if (off + sz > extra.length)
+                return;
+            if (tag == ZIP64_EXTID) {
+                int p = off;
+                if (e.size == ZIP64_MAGICVAL && p + 8 <= off + sz) {
+                    e.size = get64(extra, p);
+                    p += 8;
+                }
+                if (e.csize == ZIP64_MAGICVAL && p + 8 <= off + sz) {
+                    e.csize = get64(extra, p);
+                }
+                return;
+            }
+            off += sz;
+        }
+    }
+
+    private byte[] getBytes(int pos, int len) {
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; i++)
+            b[i] = cen.get(pos + i);
+        return b;
+    }
+
+    private int hashBytes(int pos, int len) {
+        int h = 0;
+        for (int i = 0; i < len; i++)
+            h = 31 * h + cen.get(pos + i);
+        return h;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private int cenShort(int pos) {
+        return cen.getShort(pos) & 0xffff;
+    }
+
+    private long cenInt(int pos) {
+        return cen.getInt(pos) & 0xffffffffL;
+    }
+}
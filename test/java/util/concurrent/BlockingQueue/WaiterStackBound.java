@@ -0,0 +1,115 @@
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ * @test
+ * @summary Timed-out waiters of the sequenced array queues do not
+ *          accumulate on the stack of waiting consumers
+ * @run main WaiterStackBound
+ */
+
+import java.lang.reflect.Field;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.MpmcArrayQueue;
+import java.util.concurrent.MpscArrayQueue;
+import java.util.concurrent.SpscArrayQueue;
+import java.util.concurrent.TimeUnit;
+
+public class WaiterStackBound {
+    static final int THREADS = 4;
+    static final long MILLIS = 2000;
+
+    public static void main(String[] args) throws Throwable {
+        test(new MpmcArrayQueue<Integer>(16), THREADS);
+        test(new MpscArrayQueue<Integer>(16), 1);
+        test(new SpscArrayQueue<Integer>(16), 1);
+        test(new MpmcArrayQueue<Integer>(1), THREADS);
+    }
+
+    static void test(final BlockingQueue<Integer> q, int threads)
+        throws Throwable {
+        final Field head = waitersField(q.getClass(), "notEmptyWaiters");
+        final Field next = waitersField(q.getClass(), "next");
+        final CountDownLatch done = new CountDownLatch(threads);
+        final long deadline = System.nanoTime() +
+            TimeUnit.MILLISECONDS.toNanos(MILLIS);
+        for (int i = 0; i < threads; i++) {
+            new Thread() { public void run() {
+                try {
+                    while (System.nanoTime() - deadline < 0) {
+                        if (q.poll(10, TimeUnit.MILLISECONDS) != null)
+                            throw new AssertionError("element from empty queue");
+                    }
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                } finally {
+                    done.countDown();
+                }
+            }}.start();
+        }
+        int max = 0;
+        while (done.getCount() > 0) {
+            max = Math.max(max, length(q, head, next));
+            Thread.sleep(5);
+        }
+        done.await();
+        // A waiter that times out sweeps the whole stack
+        q.poll(1, TimeUnit.MILLISECONDS);
+        int left = length(q, head, next);
+        System.out.printf("%s: at most %d waiters, %d left%n",
+                          q.getClass().getSimpleName(), max, left);
+        if (max > 2 * threads)
+            throw new AssertionError(max + " waiters for " + threads + " threads");
+        if (left != 0)
+            throw new AssertionError(left + " waiters left");
+    }
+
+    static Field waitersField(Class<?> c, String name) throws Exception {
+        for (; c != null; c = c.getSuperclass()) {
+            for (Class<?> k : c.getDeclaredClasses()) {
+                if (k.getSimpleName().equals("WaitNode") && name.equals("next")) {
+                    Field f = k.getDeclaredField(name);
+                    f.setAccessible(true);
+                    return f;
+                }
+            }
+            try {
+                Field f = c.getDeclaredField(name);
+                f.setAccessible(true);
+                return f;
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    static int length(Object q, Field head, Field next) throws Exception {
+        int n = 0;
+        for (Object p = head.get(q); p != null; p = next.get(p))
+            n++;
+        return n;
+    }
+}